@@ -12,19 +12,26 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.dspace.authority.AuthorityValue;
 import org.dspace.authority.factory.AuthorityServiceFactory;
 import org.dspace.authority.service.AuthorityValueService;
@@ -143,11 +150,45 @@ public class DSpaceCSV implements Serializable {
      * @throws Exception thrown if there is an error reading or processing the file
      */
     public DSpaceCSV(InputStream inputStream, Context c) throws Exception {
+        this(inputStream, c, 1);
+    }
+
+    /**
+     * Create a new instance, reading the lines in from file. The lines are split into their values by the given
+     * number of threads, and added in the order of the file.
+     *
+     * @param inputStream the input stream to read from
+     * @param c The DSpace Context
+     * @param threads the number of threads parsing the lines
+     * @throws Exception thrown if there is an error reading or processing the file
+     */
+    public DSpaceCSV(InputStream inputStream, Context c, int threads) throws Exception {
         // Initialise the class
         init();
 
+        read(inputStream, c, threads, line -> {
+            lines.add(line);
+            counter++;
+        });
+    }
+
+    /**
+     * Read the headings and the lines of a file, handing each line to the handler in the order of the file instead
+     * of adding it to this CSV, so that the lines of a large file are not all held in memory. The lines are split
+     * into their values by the given number of threads.
+     *
+     * @param inputStream the input stream to read from, closed once read
+     * @param c The DSpace Context
+     * @param threads the number of threads parsing the lines
+     * @param lineHandler the handler of the lines
+     * @throws Exception thrown if there is an error reading or processing the file, or handling a line
+     */
+    public void read(InputStream inputStream, Context c, int threads, LineHandler lineHandler) throws Exception {
+        headings.clear();
+
         // Open the CSV file
         BufferedReader input = null;
+        LineParser parser = new LineParser(threads, lineHandler);
         try {
             input = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
 
@@ -247,7 +288,7 @@ public class DSpaceCSV implements Serializable {
 
                     if (quoteCount % 2 == 0) {
                         // Number of quotes is a multiple of 2, add the item
-                        addItem(lineBuilder.toString());
+                        parser.add(lineBuilder.toString());
                         lineBuilder = new StringBuilder();
                     }
                 } else if (lineRead.indexOf('"') > -1) {
@@ -261,17 +302,19 @@ public class DSpaceCSV implements Serializable {
 
                     if (quoteCount % 2 == 0) {
                         // Number of quotes is a multiple of 2, add the item
-                        addItem(lineRead);
+                        parser.add(lineRead);
                     } else {
                         // Uneven quotes - add to the buffer and leave for later
                         lineBuilder.append(lineRead);
                     }
                 } else {
                     // No previously read line, and no quotes in the line - add item
-                    addItem(lineRead);
+                    parser.add(lineRead);
                 }
             }
+            parser.finish();
         } finally {
+            parser.close();
             if (input != null) {
                 input.close();
             }
@@ -488,6 +531,19 @@ public class DSpaceCSV implements Serializable {
      * @throws Exception Thrown if an error occurs when adding the item
      */
     public final void addItem(String line) throws Exception {
+        lines.add(parseLine(line));
+        counter++;
+    }
+
+    /**
+     * Split a line of elements into a DSpaceCSVLine. This only reads the headings and separators of this CSV, so
+     * that lines can be parsed concurrently.
+     *
+     * @param line The line of elements
+     * @return the DSpaceCSVLine of the elements
+     * @throws Exception Thrown if an error occurs when parsing the line
+     */
+    protected DSpaceCSVLine parseLine(String line) throws Exception {
         // Check to see if the last character is a field separator, which hides the last empty column
         boolean last = false;
         if (line.endsWith(fieldSeparator)) {
@@ -584,8 +640,7 @@ public class DSpaceCSV implements Serializable {
             }
             i++;
         }
-        lines.add(csvLine);
-        counter++;
+        return csvLine;
     }
 
     /**
@@ -685,4 +740,91 @@ public class DSpaceCSV implements Serializable {
     public String getEscapedAuthoritySeparator() {
         return escapedAuthoritySeparator;
     }
+
+    /**
+     * Handler of the lines read from a file, see {@link #read(InputStream, Context, int, LineHandler)}
+     */
+    @FunctionalInterface
+    public interface LineHandler {
+
+        /**
+         * @param line the line read from the file
+         * @throws Exception thrown if the line cannot be handled, which stops the reading of the file
+         */
+        void handle(DSpaceCSVLine line) throws Exception;
+    }
+
+    /**
+     * Parses the lines read from the file, in worker threads if more than one thread is used. The parsed lines
+     * are handed to the handler in the order they were read.
+     */
+    private class LineParser {
+
+        private final int threads;
+
+        private final LineHandler lineHandler;
+
+        private final ExecutorService executor;
+
+        /**
+         * The lines being parsed, in the order of the file
+         */
+        private final Deque<CompletableFuture<DSpaceCSVLine>> parsing = new ArrayDeque<>();
+
+        LineParser(int threads, LineHandler lineHandler) {
+            this.threads = threads;
+            this.lineHandler = lineHandler;
+            if (threads > 1) {
+                executor = Executors.newFixedThreadPool(threads, new BasicThreadFactory.Builder()
+                    .namingPattern("csv-parser-%d")
+                    .daemon(true)
+                    .build());
+            } else {
+                executor = null;
+            }
+        }
+
+        void add(String line) throws Exception {
+            if (executor == null) {
+                lineHandler.handle(parseLine(line));
+                return;
+            }
+            parsing.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return parseLine(line);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, executor));
+            // add the parsed lines, waiting for the oldest one when enough lines are being parsed
+            while (parsing.size() > threads * 2 || (!parsing.isEmpty() && parsing.peek().isDone())) {
+                addParsed(parsing.poll());
+            }
+        }
+
+        void finish() throws Exception {
+            while (!parsing.isEmpty()) {
+                addParsed(parsing.poll());
+            }
+        }
+
+        void close() {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+
+        private void addParsed(CompletableFuture<DSpaceCSVLine> line) throws Exception {
+            DSpaceCSVLine parsed;
+            try {
+                parsed = line.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Exception) {
+                    throw (Exception) e.getCause();
+                }
+                throw e;
+            }
+            lineHandler.handle(parsed);
+        }
+    }
 }
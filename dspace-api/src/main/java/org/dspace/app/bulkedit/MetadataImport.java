@@ -10,20 +10,31 @@ package org.dspace.app.bulkedit;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.SQLException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import javax.annotation.Nullable;
 
 import org.apache.commons.cli.ParseException;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.logging.log4j.Logger;
 import org.dspace.app.util.RelationshipUtils;
 import org.dspace.authority.AuthorityValue;
@@ -55,8 +66,16 @@ import org.dspace.content.service.WorkspaceItemService;
 import org.dspace.core.Constants;
 import org.dspace.core.Context;
 import org.dspace.core.LogHelper;
+import org.dspace.discovery.IndexableObject;
+import org.dspace.discovery.IndexingService;
+import org.dspace.discovery.SearchServiceException;
+import org.dspace.discovery.indexobject.IndexableItem;
+import org.dspace.discovery.indexobject.factory.IndexObjectFactoryFactory;
 import org.dspace.eperson.EPerson;
 import org.dspace.eperson.factory.EPersonServiceFactory;
+import org.dspace.event.Event;
+import org.dspace.event.factory.EventServiceFactory;
+import org.dspace.event.service.EventService;
 import org.dspace.handle.factory.HandleServiceFactory;
 import org.dspace.handle.service.HandleService;
 import org.dspace.scripts.DSpaceRunnable;
@@ -77,12 +96,13 @@ import org.dspace.workflow.factory.WorkflowServiceFactory;
 public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfiguration> {
 
     /**
-     * The DSpaceCSV object we're processing
+     * The DSpaceCSV object we're processing. When the lines are read from the file by each run of the import, it
+     * only holds the headings of the file.
      */
     DSpaceCSV csv;
 
     /**
-     * The lines to import
+     * The lines to import, or null to read them from the file in each run of the import
      */
     List<DSpaceCSVLine> toImport;
 
@@ -96,6 +116,16 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
      */
     protected static final String AC_PREFIX = "authority.controlled.";
 
+    /**
+     * The event dispatcher used while the changes are made, when their indexing is deferred
+     */
+    protected static final String DEFERRED_INDEXING_DISPATCHER = "bulkedit";
+
+    /**
+     * The consumer updating the search index, which the {@value #DEFERRED_INDEXING_DISPATCHER} dispatcher does not call
+     */
+    protected static final String INDEXING_CONSUMER = "discovery";
+
     /**
      * Map of field:value to csv row number, used to resolve indirect entity target references.
      *
@@ -130,6 +160,23 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
      */
     protected ArrayList<String> relationValidationErrors = new ArrayList<>();
 
+    /**
+     * Items changed by the import, whose search index is updated at its end when the indexing is deferred.
+     *
+     * @see #reindexChangedItems(Context)
+     */
+    protected Set<UUID> changedItems = new LinkedHashSet<>();
+
+    /**
+     * Items deleted by the import, which are removed from the search index at its end when the indexing is deferred.
+     */
+    protected Set<UUID> deletedItems = new HashSet<>();
+
+    /**
+     * Items changed by the current run of the import, whose lines are not compared ahead of the import anymore.
+     */
+    protected Set<UUID> changedInRun = new HashSet<>();
+
     /**
      * Counter of rows processed in a CSV.
      */
@@ -162,6 +209,9 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
                                                                                    .getAuthorityValueService();
     protected ConfigurationService configurationService
             = DSpaceServicesFactory.getInstance().getConfigurationService();
+    protected IndexingService indexingService = DSpaceServicesFactory.getInstance().getServiceManager()
+                                                                     .getServiceByName(IndexingService.class.getName(),
+                                                                                       IndexingService.class);
 
     /**
      * Create an instance of the metadata importer. Requires a context and an array of CSV lines
@@ -194,13 +244,8 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
         // Read commandLines from the CSV file
         try {
 
-            Optional<InputStream> optionalFileStream = handler.getFileStream(c, filename);
-            if (optionalFileStream.isPresent()) {
-                csv = new DSpaceCSV(optionalFileStream.get(), c);
-            } else {
-                throw new IllegalArgumentException("Error reading file, the file couldn't be found for filename: " +
-                                                       filename);
-            }
+            // only check the file: each run of the import reads its lines again, instead of holding them
+            readLines(c, line -> { });
         } catch (MetadataImportInvalidHeadingException miihe) {
             throw miihe;
         } catch (Exception e) {
@@ -208,25 +253,23 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
         }
 
         // Perform the first import - just highlight differences
-        initMetadataImport(csv);
-        List<BulkEditChange> changes;
+        toImport = null;
 
         if (!commandLine.hasOption('s') || validateOnly) {
-            // See what has changed
+            // See what has changed, and display the changes
+            AtomicInteger changeCounter = new AtomicInteger();
             try {
-                changes = runImport(c, false, useWorkflow, workflowNotify, useTemplate);
+                runImport(c, false, useWorkflow, workflowNotify, useTemplate, whatHasChanged ->
+                    changeCounter.addAndGet(displayChanges(Collections.singletonList(whatHasChanged), false)));
             } catch (MetadataImportException mie) {
                 throw mie;
             }
 
-            // Display the changes
-            int changeCounter = displayChanges(changes, false);
-
             // If there were changes, ask if we should execute them
-            if (!validateOnly && changeCounter > 0) {
+            if (!validateOnly && changeCounter.get() > 0) {
                 try {
                     // Ask the user if they want to make the changes
-                    handler.logInfo("\n" + changeCounter + " item(s) will be changed\n");
+                    handler.logInfo("\n" + changeCounter.get() + " item(s) will be changed\n");
                     change = determineChange(handler);
 
                 } catch (IOException ioe) {
@@ -243,14 +286,12 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
             // If required, make the change
             if (change && !validateOnly) {
                 try {
-                    // Make the changes
-                    changes = runImport(c, true, useWorkflow, workflowNotify, useTemplate);
+                    // Make the changes, and display them
+                    runImport(c, true, useWorkflow, workflowNotify, useTemplate,
+                              whatHasChanged -> displayChanges(Collections.singletonList(whatHasChanged), true));
                 } catch (MetadataImportException mie) {
                     throw mie;
                 }
-
-                // Display the changes
-                displayChanges(changes, true);
             }
 
             // Finsh off and tidy up
@@ -351,273 +392,565 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
         throws MetadataImportException, SQLException, AuthorizeException, WorkflowException, IOException {
         // Store the changes
         ArrayList<BulkEditChange> changes = new ArrayList<BulkEditChange>();
+        processLines(c, change, useWorkflow, workflowNotify, useTemplate, changes::add, false);
+
+        // Return the changes
+        return changes;
+    }
+
+    /**
+     * Run an import, handing the changes of each line to the given handler once the line is processed, instead of
+     * returning all of them at the end. The Items compared by a read-only import are removed from the context cache
+     * once their changes are handled, so that neither the changes nor the context grow with the size of the CSV.
+     * <p>
+     * The changes written are committed every {@code bulkedit.change.commit.count} lines. Unless
+     * {@code bulkedit.index.deferred} is false, the changed Items are not indexed in each of these transactions,
+     * which use the {@value #DEFERRED_INDEXING_DISPATCHER} event dispatcher, but in batches once all the lines are
+     * processed.
+     *
+     * @param change         Whether or not to write the changes to the database
+     * @param useWorkflow    Whether the workflows should be used when creating new items
+     * @param workflowNotify If the workflows should be used, whether to send notifications or not
+     * @param useTemplate    Use collection template if create new item
+     * @param changeHandler  The handler of the changes of each Item
+     * @throws MetadataImportException  if something goes wrong
+     */
+    public void runImport(Context c, boolean change,
+                          boolean useWorkflow,
+                          boolean workflowNotify,
+                          boolean useTemplate,
+                          Consumer<BulkEditChange> changeHandler)
+        throws MetadataImportException, SQLException, AuthorizeException, WorkflowException, IOException {
+        processLines(c, change, useWorkflow, workflowNotify, useTemplate, changeHandler, true);
+    }
 
+    /**
+     * Process the lines to import, then select the event dispatcher of the context again.
+     *
+     * @param uncache Whether to remove the Items compared by a read-only import from the context cache, once their
+     *                changes are handled
+     */
+    private void processLines(Context c, boolean change,
+                              boolean useWorkflow,
+                              boolean workflowNotify,
+                              boolean useTemplate,
+                              Consumer<BulkEditChange> changeHandler,
+                              boolean uncache)
+        throws MetadataImportException, SQLException, AuthorizeException, WorkflowException, IOException {
+        String dispatcher = c.getDispatcher();
+        try {
+            importLines(c, change, useWorkflow, workflowNotify, useTemplate, changeHandler, uncache);
+        } finally {
+            c.setDispatcher(dispatcher);
+        }
+    }
+
+    /**
+     * Import the lines.
+     *
+     * @param uncache Whether to remove the Items compared by a read-only import from the context cache, once their
+     *                changes are handled
+     */
+    private void importLines(Context c, boolean change,
+                             boolean useWorkflow,
+                             boolean workflowNotify,
+                             boolean useTemplate,
+                             Consumer<BulkEditChange> changeHandler,
+                             boolean uncache)
+        throws MetadataImportException, SQLException, AuthorizeException, WorkflowException, IOException {
         // Make the changes
         Context.Mode originalMode = c.getCurrentMode();
         c.setMode(Context.Mode.BATCH_EDIT);
+        int commitCount = configurationService.getIntProperty("bulkedit.change.commit.count", 100);
+        boolean deferIndexing = change && configurationService.getBooleanProperty("bulkedit.index.deferred", true)
+            && selectDeferredIndexingDispatcher(c);
+        if (deferIndexing) {
+            changedItems.clear();
+            deletedItems.clear();
+        }
 
         // Process each change
         rowCount = 1;
-        for (DSpaceCSVLine line : toImport) {
-            // Resolve target references to other items
-            populateRefAndRowMap(line, line.getID());
-            line = resolveEntityRefs(c, line);
-            // Get the DSpace item to compare with
-            UUID id = line.getID();
-
-            // Is there an action column?
-            if (csv.hasActions() && (!"".equals(line.getAction())) && (id == null)) {
-                throw new MetadataImportException("'action' not allowed for new items!");
-            }
-
-            WorkspaceItem wsItem = null;
-            WorkflowItem wfItem = null;
-            Item item = null;
-
-            // Is this an existing item?
-            if (id != null) {
-                // Get the item
-                item = itemService.find(c, id);
-                if (item == null) {
-                    throw new MetadataImportException("Unknown item ID " + id);
+        changedInRun.clear();
+        int compareThreads = configurationService.getIntProperty("bulkedit.compare.threads", 1);
+        try (ChangeDetector detector = new ChangeDetector(compareThreads, (line, unchanged) ->
+            importLine(c, line, unchanged, change, useWorkflow, workflowNotify, useTemplate, changeHandler, uncache,
+                       commitCount, deferIndexing))) {
+            if (toImport != null) {
+                for (DSpaceCSVLine line : toImport) {
+                    detector.add(line);
                 }
+            } else {
+                readLines(c, detector::add);
+            }
+            detector.finish();
+        } catch (MetadataImportException | SQLException | AuthorizeException | WorkflowException | IOException
+            | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new MetadataImportException("Error reading file: " + e.getMessage(), e);
+        }
+        if (change) {
+            commit(c, deferIndexing);
+        }
+        if (deferIndexing) {
+            reindexChangedItems(c);
+        }
 
-                // Record changes
-                BulkEditChange whatHasChanged = new BulkEditChange(item);
+        c.setMode(Context.Mode.READ_ONLY);
 
-                // Has it moved collection?
-                List<String> collections = line.get("collection");
-                if (collections != null) {
-                    // Sanity check we're not orphaning it
-                    if (collections.size() == 0) {
-                        throw new MetadataImportException("Missing collection from item " + item.getHandle());
-                    }
-                    List<Collection> actualCollections = item.getCollections();
-                    compare(c, item, collections, actualCollections, whatHasChanged, change);
-                }
 
-                // Iterate through each metadata element in the csv line
-                for (String md : line.keys()) {
-                    // Get the values we already have
-                    if (!"id".equals(md)) {
-                        // Get the values from the CSV
-                        String[] fromCSV = line.get(md).toArray(new String[line.get(md).size()]);
-                        // Remove authority unless the md is not authority controlled
-                        if (!isAuthorityControlledField(md)) {
-                            for (int i = 0; i < fromCSV.length; i++) {
-                                int pos = fromCSV[i].indexOf(csv.getAuthoritySeparator());
-                                if (pos > -1) {
-                                    fromCSV[i] = fromCSV[i].substring(0, pos);
-                                }
-                            }
-                        }
-                        // Compare
-                        compareAndUpdate(c, item, fromCSV, change, md, whatHasChanged, line);
+        if (!change) {
+            validateExpressedRelations(c);
+        }
+    }
+
+    /**
+     * Import a line of the CSV.
+     *
+     * @param unchanged Whether the line was compared with its existing Item ahead of the import, without changes
+     * @see #importLines
+     */
+    private void importLine(Context c, DSpaceCSVLine line, boolean unchanged,
+                            boolean change,
+                            boolean useWorkflow,
+                            boolean workflowNotify,
+                            boolean useTemplate,
+                            Consumer<BulkEditChange> changeHandler,
+                            boolean uncache,
+                            int commitCount,
+                            boolean deferIndexing)
+        throws MetadataImportException, SQLException, AuthorizeException, WorkflowException, IOException {
+        // Resolve target references to other items
+        populateRefAndRowMap(line, line.getID());
+        line = resolveEntityRefs(c, line);
+        // Get the DSpace item to compare with
+        UUID id = line.getID();
+
+        // Is there an action column?
+        if (csv.hasActions() && (!"".equals(line.getAction())) && (id == null)) {
+            throw new MetadataImportException("'action' not allowed for new items!");
+        }
+
+        WorkspaceItem wsItem = null;
+        WorkflowItem wfItem = null;
+        Item item = null;
+        UUID uuid = null;
+
+        // Is this an existing item?
+        if (id != null && unchanged && !changedInRun.contains(id)) {
+            // compared ahead of the import, without changes: its Item is not loaded in this context
+            uuid = id;
+        } else if (id != null) {
+            // Get the item
+            item = itemService.find(c, id);
+            if (item == null) {
+                throw new MetadataImportException("Unknown item ID " + id);
+            }
+
+            // Record changes
+            BulkEditChange whatHasChanged = new BulkEditChange(item);
+
+            compareLine(c, item, line, change, whatHasChanged);
+
+            if (csv.hasActions()) {
+                // Perform the action
+                String action = line.getAction();
+                if ("".equals(action)) {
+                    // Do nothing
+                } else if ("expunge".equals(action)) {
+                    // Does the configuration allow deletes?
+                    if (!configurationService.getBooleanProperty("bulkedit.allowexpunge", false)) {
+                        throw new MetadataImportException("'expunge' action denied by configuration");
                     }
-                }
 
-                if (csv.hasActions()) {
-                    // Perform the action
-                    String action = line.getAction();
-                    if ("".equals(action)) {
-                        // Do nothing
-                    } else if ("expunge".equals(action)) {
-                        // Does the configuration allow deletes?
-                        if (!configurationService.getBooleanProperty("bulkedit.allowexpunge", false)) {
-                            throw new MetadataImportException("'expunge' action denied by configuration");
-                        }
+                    // Remove the item
 
-                        // Remove the item
+                    if (change) {
+                        itemService.delete(c, item);
+                    }
 
+                    whatHasChanged.setDeleted();
+                } else if ("withdraw".equals(action)) {
+                    // Withdraw the item
+                    if (!item.isWithdrawn()) {
                         if (change) {
-                            itemService.delete(c, item);
-                        }
-
-                        whatHasChanged.setDeleted();
-                    } else if ("withdraw".equals(action)) {
-                        // Withdraw the item
-                        if (!item.isWithdrawn()) {
-                            if (change) {
-                                itemService.withdraw(c, item);
-                            }
-                            whatHasChanged.setWithdrawn();
+                            itemService.withdraw(c, item);
                         }
-                    } else if ("reinstate".equals(action)) {
-                        // Reinstate the item
-                        if (item.isWithdrawn()) {
-                            if (change) {
-                                itemService.reinstate(c, item);
-                            }
-                            whatHasChanged.setReinstated();
+                        whatHasChanged.setWithdrawn();
+                    }
+                } else if ("reinstate".equals(action)) {
+                    // Reinstate the item
+                    if (item.isWithdrawn()) {
+                        if (change) {
+                            itemService.reinstate(c, item);
                         }
-                    } else {
-                        // Unknown action!
-                        throw new MetadataImportException("Unknown action: " + action);
+                        whatHasChanged.setReinstated();
                     }
+                } else {
+                    // Unknown action!
+                    throw new MetadataImportException("Unknown action: " + action);
                 }
+            }
 
-                // Only record if changes have been made
-                if (whatHasChanged.hasChanges()) {
-                    changes.add(whatHasChanged);
-                }
-            } else {
-                // This is marked as a new item, so no need to compare
+            // Only record if changes have been made
+            if (whatHasChanged.hasChanges()) {
+                changedInRun.add(id);
+                changeHandler.accept(whatHasChanged);
+            }
+        } else {
+            // This is marked as a new item, so no need to compare
 
-                // First check a user is set, otherwise this can't happen
-                if (c.getCurrentUser() == null) {
-                    throw new MetadataImportException(
-                        "When adding new items, a user must be specified with the -e option");
-                }
+            // First check a user is set, otherwise this can't happen
+            if (c.getCurrentUser() == null) {
+                throw new MetadataImportException(
+                    "When adding new items, a user must be specified with the -e option");
+            }
 
-                // Iterate through each metadata element in the csv line
-                BulkEditChange whatHasChanged = new BulkEditChange();
-                for (String md : line.keys()) {
-                    // Get the values we already have
-                    if (!"id".equals(md) && !"rowName".equals(md)) {
-                        // Get the values from the CSV
-                        String[] fromCSV = line.get(md).toArray(new String[line.get(md).size()]);
-
-                        // Remove authority unless the md is not authority controlled
-                        if (!isAuthorityControlledField(md)) {
-                            for (int i = 0; i < fromCSV.length; i++) {
-                                int pos = fromCSV[i].indexOf(csv.getAuthoritySeparator());
-                                if (pos > -1) {
-                                    fromCSV[i] = fromCSV[i].substring(0, pos);
-                                }
+            // Iterate through each metadata element in the csv line
+            BulkEditChange whatHasChanged = new BulkEditChange();
+            for (String md : line.keys()) {
+                // Get the values we already have
+                if (!"id".equals(md) && !"rowName".equals(md)) {
+                    // Get the values from the CSV
+                    String[] fromCSV = line.get(md).toArray(new String[line.get(md).size()]);
+
+                    // Remove authority unless the md is not authority controlled
+                    if (!isAuthorityControlledField(md)) {
+                        for (int i = 0; i < fromCSV.length; i++) {
+                            int pos = fromCSV[i].indexOf(csv.getAuthoritySeparator());
+                            if (pos > -1) {
+                                fromCSV[i] = fromCSV[i].substring(0, pos);
                             }
                         }
-
-                        // Add all the values from the CSV line
-                        add(c, fromCSV, md, whatHasChanged);
                     }
-                }
 
-                // Check it has an owning collection
-                List<String> collections = line.get("collection");
-                if (collections == null) {
-                    throw new MetadataImportException(
-                        "New items must have a 'collection' assigned in the form of a handle");
+                    // Add all the values from the CSV line
+                    add(c, fromCSV, md, whatHasChanged);
                 }
+            }
 
-                // Check collections are really collections
-                ArrayList<Collection> check = new ArrayList<Collection>();
-                Collection collection;
-                for (String handle : collections) {
-                    try {
-                        // Resolve the handle to the collection
-                        collection = (Collection) handleService.resolveToObject(c, handle);
-
-                        // Check it resolved OK
-                        if (collection == null) {
-                            throw new MetadataImportException(
-                                "'" + handle + "' is not a Collection! You must specify a valid collection for " +
-                                    "new items");
-                        }
+            // Check it has an owning collection
+            List<String> collections = line.get("collection");
+            if (collections == null) {
+                throw new MetadataImportException(
+                    "New items must have a 'collection' assigned in the form of a handle");
+            }
 
-                        // Check for duplicate
-                        if (check.contains(collection)) {
-                            throw new MetadataImportException(
-                                "Duplicate collection assignment detected in new item! " + handle);
-                        } else {
-                            check.add(collection);
-                        }
-                    } catch (Exception ex) {
+            // Check collections are really collections
+            ArrayList<Collection> check = new ArrayList<Collection>();
+            Collection collection;
+            for (String handle : collections) {
+                try {
+                    // Resolve the handle to the collection
+                    collection = (Collection) handleService.resolveToObject(c, handle);
+
+                    // Check it resolved OK
+                    if (collection == null) {
                         throw new MetadataImportException(
-                            "'" + handle + "' is not a Collection! You must specify a valid collection for new " +
-                                "items",
-                            ex);
+                            "'" + handle + "' is not a Collection! You must specify a valid collection for " +
+                                "new items");
                     }
-                }
 
-                // Record the addition to collections
-                boolean first = true;
-                for (String handle : collections) {
-                    Collection extra = (Collection) handleService.resolveToObject(c, handle);
-                    if (first) {
-                        whatHasChanged.setOwningCollection(extra);
+                    // Check for duplicate
+                    if (check.contains(collection)) {
+                        throw new MetadataImportException(
+                            "Duplicate collection assignment detected in new item! " + handle);
                     } else {
-                        whatHasChanged.registerNewMappedCollection(extra);
+                        check.add(collection);
                     }
-                    first = false;
+                } catch (Exception ex) {
+                    throw new MetadataImportException(
+                        "'" + handle + "' is not a Collection! You must specify a valid collection for new " +
+                            "items",
+                        ex);
                 }
+            }
 
-                // Create the new item?
-                if (change) {
-                    // Create the item
-                    String collectionHandle = line.get("collection").get(0);
-                    collection = (Collection) handleService.resolveToObject(c, collectionHandle);
-                    wsItem = workspaceItemService.create(c, collection, useTemplate);
-                    item = wsItem.getItem();
-
-                    // Add the metadata to the item
-                    for (BulkEditMetadataValue dcv : whatHasChanged.getAdds()) {
-                        if (!StringUtils.equals(dcv.getSchema(), MetadataSchemaEnum.RELATION.getName())) {
-                            itemService.addMetadata(c, item, dcv.getSchema(),
-                                                    dcv.getElement(),
-                                                    dcv.getQualifier(),
-                                                    dcv.getLanguage(),
-                                                    dcv.getValue(),
-                                                    dcv.getAuthority(),
-                                                    dcv.getConfidence());
-                        }
+            // Record the addition to collections
+            boolean first = true;
+            for (String handle : collections) {
+                Collection extra = (Collection) handleService.resolveToObject(c, handle);
+                if (first) {
+                    whatHasChanged.setOwningCollection(extra);
+                } else {
+                    whatHasChanged.registerNewMappedCollection(extra);
+                }
+                first = false;
+            }
+
+            // Create the new item?
+            if (change) {
+                // Create the item
+                String collectionHandle = line.get("collection").get(0);
+                collection = (Collection) handleService.resolveToObject(c, collectionHandle);
+                wsItem = workspaceItemService.create(c, collection, useTemplate);
+                item = wsItem.getItem();
+
+                // Add the metadata to the item
+                for (BulkEditMetadataValue dcv : whatHasChanged.getAdds()) {
+                    if (!StringUtils.equals(dcv.getSchema(), MetadataSchemaEnum.RELATION.getName())) {
+                        itemService.addMetadata(c, item, dcv.getSchema(),
+                                                dcv.getElement(),
+                                                dcv.getQualifier(),
+                                                dcv.getLanguage(),
+                                                dcv.getValue(),
+                                                dcv.getAuthority(),
+                                                dcv.getConfidence());
                     }
-                    //Add relations after all metadata has been processed
-                    for (BulkEditMetadataValue dcv : whatHasChanged.getAdds()) {
-                        if (StringUtils.equals(dcv.getSchema(), MetadataSchemaEnum.RELATION.getName())) {
-                            addRelationship(c, item, dcv.getElement(), dcv.getValue());
-                        }
+                }
+                //Add relations after all metadata has been processed
+                for (BulkEditMetadataValue dcv : whatHasChanged.getAdds()) {
+                    if (StringUtils.equals(dcv.getSchema(), MetadataSchemaEnum.RELATION.getName())) {
+                        addRelationship(c, item, dcv.getElement(), dcv.getValue());
                     }
+                }
 
 
-                    // Should the workflow be used?
-                    if (useWorkflow) {
-                        WorkflowService workflowService = WorkflowServiceFactory.getInstance().getWorkflowService();
-                        if (workflowNotify) {
-                            wfItem = workflowService.start(c, wsItem);
-                        } else {
-                            wfItem = workflowService.startWithoutNotify(c, wsItem);
-                        }
+                // Should the workflow be used?
+                if (useWorkflow) {
+                    WorkflowService workflowService = WorkflowServiceFactory.getInstance().getWorkflowService();
+                    if (workflowNotify) {
+                        wfItem = workflowService.start(c, wsItem);
                     } else {
-                        // Install the item
-                        installItemService.installItem(c, wsItem);
+                        wfItem = workflowService.startWithoutNotify(c, wsItem);
                     }
+                } else {
+                    // Install the item
+                    installItemService.installItem(c, wsItem);
+                }
 
-                    // Add to extra collections
-                    if (line.get("collection").size() > 0) {
-                        for (int i = 1; i < collections.size(); i++) {
-                            String handle = collections.get(i);
-                            Collection extra = (Collection) handleService.resolveToObject(c, handle);
-                            collectionService.addItem(c, extra, item);
-                        }
+                // Add to extra collections
+                if (line.get("collection").size() > 0) {
+                    for (int i = 1; i < collections.size(); i++) {
+                        String handle = collections.get(i);
+                        Collection extra = (Collection) handleService.resolveToObject(c, handle);
+                        collectionService.addItem(c, extra, item);
                     }
+                }
+
+                whatHasChanged.setItem(item);
+            }
+
+            // Record the changes
+            changeHandler.accept(whatHasChanged);
+        }
 
-                    whatHasChanged.setItem(item);
+        if (change && (rowCount % commitCount == 0)) {
+            commit(c, deferIndexing);
+            handler.logInfo(LogHelper.getHeader(c, "metadata_import_commit", "lineNumber=" + rowCount));
+        }
+        populateRefAndRowMap(line, item == null ? uuid : item.getID());
+        if (!change && uncache && item != null) {
+            // the changes of the Item are handled, and it has not been changed
+            c.uncacheEntity(item);
+        }
+        // keep track of current rows processed
+        rowCount++;
+    }
+
+    /**
+     * Compare the collections and the metadata of an existing Item with a line of the CSV, and optionally update
+     * the Item.
+     *
+     * @param item           The Item of the line
+     * @param line           The line
+     * @param change         Whether or not to make the update
+     * @param whatHasChanged The changes object to populate
+     */
+    protected void compareLine(Context c, Item item, DSpaceCSVLine line, boolean change,
+                               BulkEditChange whatHasChanged)
+        throws MetadataImportException, SQLException, AuthorizeException, IOException {
+        // Has it moved collection?
+        List<String> collections = line.get("collection");
+        if (collections != null) {
+            // Sanity check we're not orphaning it
+            if (collections.size() == 0) {
+                throw new MetadataImportException("Missing collection from item " + item.getHandle());
+            }
+            List<Collection> actualCollections = item.getCollections();
+            compare(c, item, collections, actualCollections, whatHasChanged, change);
+        }
+
+        // Iterate through each metadata element in the csv line
+        for (String md : line.keys()) {
+            // Get the values we already have
+            if (!"id".equals(md)) {
+                // Get the values from the CSV
+                String[] fromCSV = line.get(md).toArray(new String[line.get(md).size()]);
+                // Remove authority unless the md is not authority controlled
+                if (!isAuthorityControlledField(md)) {
+                    for (int i = 0; i < fromCSV.length; i++) {
+                        int pos = fromCSV[i].indexOf(csv.getAuthoritySeparator());
+                        if (pos > -1) {
+                            fromCSV[i] = fromCSV[i].substring(0, pos);
+                        }
+                    }
                 }
+                // Compare
+                compareAndUpdate(c, item, fromCSV, change, md, whatHasChanged, line);
+            }
+        }
+    }
+
+    /**
+     * Read the lines of the CSV file, handing each of them to the handler in the order of the file. The headings of
+     * the file are kept in {@link #csv}.
+     */
+    protected void readLines(Context c, DSpaceCSV.LineHandler lineHandler) throws Exception {
+        Optional<InputStream> optionalFileStream = handler.getFileStream(c, filename);
+        if (!optionalFileStream.isPresent()) {
+            throw new IllegalArgumentException("Error reading file, the file couldn't be found for filename: " +
+                                                   filename);
+        }
+        csv = new DSpaceCSV(false);
+        csv.read(optionalFileStream.get(), c, configurationService.getIntProperty("bulkedit.parse.threads", 1),
+                 lineHandler);
+    }
 
-                // Record the changes
-                changes.add(whatHasChanged);
+    /**
+     * @return whether a line can be compared with its existing Item ahead of the import: whether it does not depend
+     * on the lines before it, through rowName or relation values, and has no authority or action value
+     */
+    protected boolean isComparedAhead(DSpaceCSVLine line) {
+        if (line.getID() == null || !"".equals(line.getAction())) {
+            return false;
+        }
+        for (String key : line.keys()) {
+            boolean reference = "rowName".equals(key) || key.split("\\.")[0].equalsIgnoreCase("relation");
+            if ((reference && !line.get(key).isEmpty()) || key.indexOf(':') > 0) {
+                return false;
             }
+        }
+        return true;
+    }
 
-            if (change && (rowCount % configurationService.getIntProperty("bulkedit.change.commit.count", 100) == 0)) {
-                c.commit();
-                handler.logInfo(LogHelper.getHeader(c, "metadata_import_commit", "lineNumber=" + rowCount));
+    /**
+     * Compare a line with its existing Item in a read-only Context of its own.
+     *
+     * @return true if the Item has no changes, false if it has changes or if it cannot be compared: the import then
+     * compares the line again, and reports the error
+     */
+    protected boolean hasNoChanges(DSpaceCSVLine line) {
+        Context context = new Context(Context.Mode.READ_ONLY);
+        try {
+            Item item = itemService.find(context, line.getID());
+            if (item == null) {
+                return false;
             }
-            populateRefAndRowMap(line, item == null ? null : item.getID());
-            // keep track of current rows processed
-            rowCount++;
+            BulkEditChange whatHasChanged = new BulkEditChange(item);
+            compareLine(context, item, line, false, whatHasChanged);
+            return !whatHasChanged.hasChanges();
+        } catch (Exception e) {
+            log.debug("Unable to compare the item " + line.getID() + " ahead of the import", e);
+            return false;
+        } finally {
+            context.abort();
         }
-        if (change) {
-            c.commit();
+    }
+
+    /**
+     * Select the {@value #DEFERRED_INDEXING_DISPATCHER} event dispatcher, if the context uses the default one. Unless
+     * they are configured, its consumers are the consumers of the default dispatcher, except
+     * {@value #INDEXING_CONSUMER}, registered in the event service without changing the configuration.
+     *
+     * @return false if the context uses another dispatcher, which is kept, or if the default dispatcher has no other
+     * consumer: the indexing of the changes is not deferred then
+     */
+    protected boolean selectDeferredIndexingDispatcher(Context c) {
+        if (c.getDispatcher() != null && !EventService.DEFAULT_DISPATCHER.equals(c.getDispatcher())) {
+            return false;
+        }
+        if (!configurationService.hasProperty("event.dispatcher." + DEFERRED_INDEXING_DISPATCHER + ".consumers")) {
+            List<String> consumers = new ArrayList<>(Arrays.asList(configurationService.getArrayProperty(
+                "event.dispatcher." + EventService.DEFAULT_DISPATCHER + ".consumers")));
+            consumers.remove(INDEXING_CONSUMER);
+            if (consumers.isEmpty()) {
+                return false;
+            }
+            EventServiceFactory.getInstance().getEventService()
+                               .registerConsumers(DEFERRED_INDEXING_DISPATCHER, consumers.toArray(new String[0]));
         }
+        c.setDispatcher(DEFERRED_INDEXING_DISPATCHER);
+        return true;
+    }
 
-        c.setMode(Context.Mode.READ_ONLY);
+    /**
+     * Commit the changes made so far. When their indexing is deferred, the Items changed or deleted by the events
+     * of the transaction are recorded first.
+     *
+     * @param deferIndexing Whether the indexing of the changes is deferred
+     */
+    protected void commit(Context c, boolean deferIndexing) throws SQLException {
+        if (deferIndexing && c.getEvents() != null) {
+            for (Event event : c.getEvents()) {
+                if (event.getSubjectType() == Constants.ITEM) {
+                    if (event.getEventType() == Event.DELETE) {
+                        changedItems.remove(event.getSubjectID());
+                        deletedItems.add(event.getSubjectID());
+                    } else {
+                        changedItems.add(event.getSubjectID());
+                    }
+                } else if (event.getObjectType() == Constants.ITEM && event.getObjectID() != null) {
+                    // e.g. an Item mapped to or unmapped from a Collection
+                    changedItems.add(event.getObjectID());
+                }
+            }
+        }
+        c.commit();
+    }
 
+    /**
+     * Update the search index of the Items changed or deleted by the import, once all its changes are committed.
+     * The changed Items are indexed in batches of {@code bulkedit.index.batch-size} Items, and the index is
+     * committed once. If the index cannot be updated, the error is reported and the changes are kept: the index
+     * can then be updated with the index-discovery script.
+     */
+    protected void reindexChangedItems(Context c) throws SQLException {
+        int batchSize = configurationService.getIntProperty("bulkedit.index.batch-size", 100);
+        try {
+            for (UUID itemID : deletedItems) {
+                indexingService.unIndexContent(c, IndexableItem.TYPE + "-" + itemID, false);
+            }
+            List<Item> batch = new ArrayList<>(batchSize);
+            for (UUID itemID : changedItems) {
+                Item item = itemService.find(c, itemID);
+                if (item != null) {
+                    batch.add(item);
+                }
+                if (batch.size() >= batchSize) {
+                    reindex(c, batch);
+                }
+            }
+            reindex(c, batch);
+            indexingService.commit();
+            handler.logInfo("Updated the search index of " + changedItems.size() + " item(s)");
+        } catch (IOException | SearchServiceException e) {
+            log.error("Unable to update the search index of the items changed by the import", e);
+            handler.logError("Unable to update the search index of the changed items, run index-discovery to " +
+                                 "update it: " + e.getMessage(), e);
+        } finally {
+            changedItems.clear();
+            deletedItems.clear();
+        }
+    }
 
-        // Return the changes
-        if (!change) {
-            validateExpressedRelations(c);
+    /**
+     * Index the given Items in a single update of the search index, then remove them from the context cache.
+     */
+    private void reindex(Context c, List<Item> items) throws SQLException, SearchServiceException {
+        if (items.isEmpty()) {
+            return;
         }
-        return changes;
+        List<IndexableObject> indexableObjects = new ArrayList<>();
+        for (Item item : items) {
+            indexableObjects.addAll(IndexObjectFactoryFactory.getInstance().getIndexableObjects(c, item));
+        }
+        indexingService.indexContent(c, indexableObjects, true);
+        for (Item item : items) {
+            c.uncacheEntity(item);
+        }
+        items.clear();
     }
 
     /**
@@ -1695,41 +2028,27 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
                             // Add to errors if Realtionship.type cannot be derived.
                             Item originItem = null;
                             if (itemService.find(c, UUID.fromString(targetUUID)) != null) {
-                                DSpaceCSVLine dSpaceCSVLine = this.csv.getCSVLines()
-                                                                      .get(Integer.valueOf(originRow) - 1);
-                                List<String> relTypes = dSpaceCSVLine.get("dspace.entity.type");
-                                if (relTypes == null || relTypes.isEmpty()) {
-                                    dSpaceCSVLine.get("dspace.entity.type[]");
-                                }
-
-                                if (relTypes != null && relTypes.size() > 0) {
-                                    String relTypeValue = relTypes.get(0);
-                                    relTypeValue = StringUtils.remove(relTypeValue, "\"").trim();
-                                    originType = entityTypeService.findByEntityType(c, relTypeValue).getLabel();
-                                    validateTypesByTypeByTypeName(c, targetType, originType, typeName, originRow);
-                                } else {
-                                    originItem = itemService.find(c, UUID.fromString(originRefererUUID));
-                                    if (originItem != null) {
-                                        List<MetadataValue> mdv = itemService.getMetadata(originItem,
-                                                                                          "dspace",
-                                                                                          "entity", "type",
-                                                                                          Item.ANY);
-                                        if (!mdv.isEmpty()) {
-                                            String relTypeValue = mdv.get(0).getValue();
-                                            originType = entityTypeService.findByEntityType(c, relTypeValue).getLabel();
-                                            validateTypesByTypeByTypeName(c, targetType, originType, typeName,
-                                                                          originRow);
-                                        } else {
-                                            relationValidationErrors.add("Error on CSV row " + originRow + ":" + "\n" +
-                                                     "Cannot resolve Entity type for reference: " + originRefererUUID);
-                                        }
+                                // the entity type of its CSV line, if any, was found in the entityTypeMap above
+                                originItem = itemService.find(c, UUID.fromString(originRefererUUID));
+                                if (originItem != null) {
+                                    List<MetadataValue> mdv = itemService.getMetadata(originItem,
+                                                                                      "dspace",
+                                                                                      "entity", "type",
+                                                                                      Item.ANY);
+                                    if (!mdv.isEmpty()) {
+                                        String relTypeValue = mdv.get(0).getValue();
+                                        originType = entityTypeService.findByEntityType(c, relTypeValue).getLabel();
+                                        validateTypesByTypeByTypeName(c, targetType, originType, typeName,
+                                                                      originRow);
                                     } else {
                                         relationValidationErrors.add("Error on CSV row " + originRow + ":" + "\n" +
-                                                                         "Cannot resolve Entity type for reference: "
-                                                                         + originRefererUUID);
+                                                 "Cannot resolve Entity type for reference: " + originRefererUUID);
                                     }
+                                } else {
+                                    relationValidationErrors.add("Error on CSV row " + originRow + ":" + "\n" +
+                                                                     "Cannot resolve Entity type for reference: "
+                                                                     + originRefererUUID);
                                 }
-
                             } else {
                                 relationValidationErrors.add("Error on CSV row " + originRow + ":" + "\n" +
                                                                  "Cannot resolve Entity type for reference: "
@@ -1797,4 +2116,78 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
         return RelationshipUtils.matchRelationshipType(relTypes, targetType, originType, originTypeName);
     }
 
+    /**
+     * Handler of the lines of the CSV, once compared ahead of the import, see {@link ChangeDetector}
+     */
+    @FunctionalInterface
+    private interface ComparedLineHandler {
+
+        /**
+         * @param line      the line
+         * @param unchanged whether the line was compared with its existing Item, without changes
+         */
+        void handle(DSpaceCSVLine line, boolean unchanged) throws Exception;
+    }
+
+    /**
+     * Compares the lines with their existing Item in worker threads, ahead of the import, when more than one
+     * thread is used (see {@link #isComparedAhead(DSpaceCSVLine)}). The import then skips the lines without changes,
+     * without loading their Item in its context. The lines are handed to the handler in the order of the file.
+     */
+    private class ChangeDetector implements AutoCloseable {
+
+        private final int threads;
+
+        private final ComparedLineHandler lineHandler;
+
+        private final ExecutorService executor;
+
+        /**
+         * The lines being compared, in the order of the file, with their comparisons
+         */
+        private final Deque<DSpaceCSVLine> lines = new ArrayDeque<>();
+
+        private final Deque<CompletableFuture<Boolean>> comparisons = new ArrayDeque<>();
+
+        ChangeDetector(int threads, ComparedLineHandler lineHandler) {
+            this.threads = threads;
+            this.lineHandler = lineHandler;
+            if (threads > 1) {
+                executor = Executors.newFixedThreadPool(threads, new BasicThreadFactory.Builder()
+                    .namingPattern("csv-comparator-%d")
+                    .daemon(true)
+                    .build());
+            } else {
+                executor = null;
+            }
+        }
+
+        void add(DSpaceCSVLine line) throws Exception {
+            if (executor == null) {
+                lineHandler.handle(line, false);
+                return;
+            }
+            lines.add(line);
+            comparisons.add(isComparedAhead(line)
+                                ? CompletableFuture.supplyAsync(() -> hasNoChanges(line), executor)
+                                : CompletableFuture.completedFuture(false));
+            // import the compared lines, waiting for the oldest one when enough lines are being compared
+            while (comparisons.size() > threads * 2 || (!comparisons.isEmpty() && comparisons.peek().isDone())) {
+                lineHandler.handle(lines.poll(), comparisons.poll().join());
+            }
+        }
+
+        void finish() throws Exception {
+            while (!comparisons.isEmpty()) {
+                lineHandler.handle(lines.poll(), comparisons.poll().join());
+            }
+        }
+
+        @Override
+        public void close() {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
 }
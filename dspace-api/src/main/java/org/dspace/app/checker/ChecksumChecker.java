@@ -38,6 +38,8 @@ import org.dspace.content.factory.ContentServiceFactory;
 import org.dspace.content.service.BitstreamService;
 import org.dspace.core.Context;
 import org.dspace.core.Utils;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
 
 /**
  * Command line access to the checksum checker. Options are listed in the
@@ -79,6 +81,12 @@ public final class ChecksumChecker {
      * <dd>Report only errors in the logs</dd>
      * <dt>-p</dt>
      * <dd>Don't prune results before running checker</dd>
+     * <dt>-t [threads]</dt>
+     * <dd>number of threads computing the checksums</dd>
+     * <dt>-m [MB]</dt>
+     * <dd>maximum megabytes read per second</dd>
+     * <dt>-i [bitstreams]</dt>
+     * <dd>maximum bitstreams read per second</dd>
      * </dl>
      *
      * @param args the command line arguments given
@@ -100,6 +108,9 @@ public final class ChecksumChecker {
         options.addOption("c", "count", true, "Check count");
         options.addOption("a", "handle", true, "Specify a handle to check");
         options.addOption("v", "verbose", false, "Report all processing");
+        options.addOption("t", "threads", true, "Number of threads computing the checksums");
+        options.addOption("m", "mb-per-second", true, "Maximum megabytes read per second");
+        options.addOption("i", "bitstreams-per-second", true, "Maximum bitstreams read per second");
 
         Option option;
 
@@ -207,6 +218,15 @@ public final class ChecksumChecker {
                 checker.setReportVerbose(true);
             }
 
+            ConfigurationService configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
+            checker.setThreads(Integer.parseInt(line.getOptionValue('t',
+                configurationService.getProperty("checker.threads", "1"))));
+            checker.setBatchSize(configurationService.getIntProperty("checker.batch-size", 100));
+            checker.setMaxBytesPerSecond(Double.parseDouble(line.getOptionValue('m',
+                configurationService.getProperty("checker.throttle.mb-per-second", "0"))) * 1024 * 1024);
+            checker.setMaxBitstreamsPerSecond(Double.parseDouble(line.getOptionValue('i',
+                configurationService.getProperty("checker.throttle.bitstreams-per-second", "0"))));
+
             checker.setProcessStartDate(processStart);
             checker.setDispatcher(dispatcher);
             checker.setCollector(logger);
@@ -239,6 +259,7 @@ public final class ChecksumChecker {
         System.out.println("\nLoop continuously through all bitstreams: ChecksumChecker -L");
         System.out.println("\nCheck a defined number of bitstreams: ChecksumChecker -c 10");
         System.out.println("\nReport all processing (verbose)(default reports only errors): ChecksumChecker -v");
+        System.out.println("\nCheck with 8 threads, reading at most 100 MB per second: ChecksumChecker -l -t 8 -m 100");
         System.out.println("\nDefault (no arguments) is equivalent to '-c 1'");
         System.exit(0);
     }
@@ -7,6 +7,7 @@
  */
 package org.dspace.app.mediafilter;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -37,8 +38,9 @@ import org.dspace.utils.DSpace;
  * MFM: -v verbose outputs all extracted text to STDOUT; -f force forces all
  * bitstreams to be processed, even if they have been before; -n noindex does not
  * recreate index after processing bitstreams; -i [identifier] limits processing
- * scope to a community, collection or item; and -m [max] limits processing to a
- * maximum number of items.
+ * scope to a community, collection or item; -m [max] limits processing to a
+ * maximum number of items; -t [threads] sets the number of worker threads of each
+ * filter; and -c [file] records the last filtered item, and resumes after it.
  */
 public class MediaFilterScript extends DSpaceRunnable<MediaFilterScriptConfiguration> {
 
@@ -57,6 +59,8 @@ public class MediaFilterScript extends DSpaceRunnable<MediaFilterScriptConfigura
     private boolean isForce = false; // default to not forced
     private String identifier = null; // object scope limiter
     private int max2Process = Integer.MAX_VALUE;
+    private int threads;
+    private File checkpoint = null;
     private String[] filterNames;
     private String[] skipIds = null;
     private Map<String, List<String>> filterFormats = new HashMap<>();
@@ -112,6 +116,26 @@ public class MediaFilterScript extends DSpaceRunnable<MediaFilterScriptConfigura
             skipIds = commandLine.getOptionValues('s');
         }
 
+        threads = DSpaceServicesFactory.getInstance().getConfigurationService()
+                                       .getIntProperty("filter-media.threads", 1);
+        if (commandLine.hasOption('t')) {
+            threads = Integer.parseInt(commandLine.getOptionValue('t'));
+            if (threads < 1) {
+                handler.logWarning("Invalid number of threads '" +
+                                           commandLine.getOptionValue('t') + "' - ignoring");
+                threads = 1;
+            }
+        }
+
+        if (commandLine.hasOption('c')) {
+            if (identifier != null || skipIds != null) {
+                handler.logWarning("The checkpoint is only used when processing all items without skip list" +
+                                           " - ignoring");
+            } else {
+                checkpoint = new File(commandLine.getOptionValue('c'));
+            }
+        }
+
 
     }
 
@@ -127,6 +151,8 @@ public class MediaFilterScript extends DSpaceRunnable<MediaFilterScriptConfigura
         mediaFilterService.setQuiet(isQuiet);
         mediaFilterService.setVerbose(isVerbose);
         mediaFilterService.setMax2Process(max2Process);
+        mediaFilterService.setThreads(threads);
+        mediaFilterService.setCheckpoint(checkpoint);
 
         //initialize an array of our enabled filters
         List<FormatFilter> filterList = new ArrayList<>();
@@ -249,6 +275,7 @@ public class MediaFilterScript extends DSpaceRunnable<MediaFilterScriptConfigura
                 }
             }
 
+            mediaFilterService.logThroughput();
             c.complete();
             c = null;
         } catch (Exception e) {
@@ -35,6 +35,9 @@ public class MediaFilterScriptConfiguration<T extends MediaFilterScript> extends
         options.addOption("f", "force", false, "force all bitstreams to be processed");
         options.addOption("i", "identifier", true, "ONLY process bitstreams belonging to identifier");
         options.addOption("m", "maximum", true, "process no more than maximum items");
+        options.addOption("t", "threads", true, "number of worker threads running each Media Filter plugin");
+        options.addOption("c", "checkpoint", true, "record the last filtered item in this file, and resume after it " +
+            "(when processing all items without skip list)");
         options.addOption("h", "help", false, "help");
 
         Option pluginOption = Option.builder("p")
@@ -7,17 +7,37 @@
  */
 package org.dspace.app.mediafilter;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.dspace.app.mediafilter.service.MediaFilterService;
 import org.dspace.authorize.AuthorizeException;
 import org.dspace.authorize.service.AuthorizeService;
@@ -53,8 +73,15 @@ import org.springframework.beans.factory.annotation.Autowired;
  * recreate index after processing bitstreams; -i [identifier] limits processing
  * scope to a community, collection or item; and -m [max] limits processing to a
  * maximum number of items.
+ * <p>
+ * Each filter runs in its own pool of worker threads, whose size is set with -t [threads] or
+ * {@code filter.<class-name>[.<plugin-name>].threads}. The items are read, and the derivative bitstreams created,
+ * in the calling thread with its Context, in the order of the items.
  */
 public class MediaFilterServiceImpl implements MediaFilterService, InitializingBean {
+    // number of items between two commits when filtering from a checkpoint
+    private static final int CHECKPOINT_INTERVAL = 100;
+
     @Autowired(required = true)
     protected AuthorizeService authorizeService;
     @Autowired(required = true)
@@ -94,6 +121,26 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
     protected boolean isQuiet = false;
     protected boolean isForce = false; // default to not forced
 
+    protected int threads = 1; // default number of worker threads of each filter
+
+    protected File checkpoint = null; // file recording the last filtered item
+
+    // worker threads of each filter, and the thread interrupting the filters which time out
+    protected final Map<FormatFilter, ExecutorService> executors = new HashMap<>();
+    protected ScheduledThreadPoolExecutor timeoutExecutor = null;
+
+    // items whose bitstreams are being filtered, in processing order
+    protected final Deque<PendingItem> pendingItems = new ArrayDeque<>();
+    protected int pendingBitstreams = 0;
+
+    protected boolean checkpointing = false;
+    protected UUID lastCompleted = null; // last filtered item, not yet recorded in the checkpoint
+    protected int completedSinceCheckpoint = 0;
+
+    protected final Map<FormatFilter, FilterStatistics> statistics = new LinkedHashMap<>();
+    protected long started = 0; // nanoTime of the first item
+    protected long reported = 0; // nanoTime of the last throughput report
+
     protected MediaFilterServiceImpl() {
 
     }
@@ -120,12 +167,13 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
             for (Community topLevelCommunity : topLevelCommunities) {
                 applyFiltersCommunity(context, topLevelCommunity);
             }
+        } else if (checkpoint != null) {
+            //find every item after the checkpoint, and record the last filtered item
+            applyFiltersFromCheckpoint(context);
         } else {
             //otherwise, just find every item and process
-            Iterator<Item> itemIterator = itemService.findAll(context);
-            while (itemIterator.hasNext() && processed < max2Process) {
-                applyFiltersItem(context, itemIterator.next());
-            }
+            queueItems(context, itemService.findAll(context));
+            completePendingItems(context);
         }
     }
 
@@ -150,28 +198,177 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
         throws Exception {
         //only apply filters if collection not in skip-list
         if (!inSkipList(collection.getHandle())) {
-            Iterator<Item> itemIterator = itemService.findAllByCollection(context, collection);
-            while (itemIterator.hasNext() && processed < max2Process) {
-                applyFiltersItem(context, itemIterator.next());
-            }
+            queueItems(context, itemService.findAllByCollection(context, collection));
+            completePendingItems(context);
         }
     }
 
     @Override
     public void applyFiltersItem(Context c, Item item) throws Exception {
+        queueItem(c, item);
+        completePendingItems(c);
+    }
+
+    /**
+     * Apply the filters to all the items in the archive, in the order of their IDs, starting after the item recorded
+     * in the checkpoint file. The context is committed regularly, and the last item filtered so far is then recorded
+     * in the checkpoint file. The checkpoint file is deleted once all the items are filtered.
+     *
+     * @param context context
+     * @throws Exception if error
+     */
+    protected void applyFiltersFromCheckpoint(Context context) throws Exception {
+        UUID after = readCheckpoint();
+        if (after != null) {
+            logInfo("Resuming after item " + after + " (checkpoint: " + checkpoint + ")");
+        }
+        checkpointing = true;
+        try {
+            boolean all;
+            List<Item> items;
+            do {
+                items = itemService.findAllAfter(context, after, CHECKPOINT_INTERVAL);
+                if (!items.isEmpty()) {
+                    after = items.get(items.size() - 1).getID();
+                }
+                all = queueItems(context, items.iterator());
+            } while (all && items.size() == CHECKPOINT_INTERVAL);
+            completePendingItems(context);
+            commitCheckpoint(context);
+            if (all && !checkpoint.delete() && checkpoint.exists()) {
+                logError("Cannot delete the checkpoint file " + checkpoint);
+            }
+        } finally {
+            checkpointing = false;
+        }
+    }
+
+    /**
+     * Start filtering the items, until the maximum number of items is processed.
+     *
+     * @param context      context
+     * @param itemIterator the items
+     * @return false if the maximum number of items was processed before the last item
+     * @throws Exception if error
+     */
+    protected boolean queueItems(Context context, Iterator<Item> itemIterator) throws Exception {
+        while (itemIterator.hasNext()) {
+            if (processed + pendingItems.size() >= max2Process) {
+                // the pending items may not all be filtered
+                completePendingItems(context);
+                if (processed >= max2Process) {
+                    return false;
+                }
+            }
+            queueItem(context, itemIterator.next());
+        }
+        return true;
+    }
+
+    /**
+     * Start filtering the bitstreams of an item in the worker threads of the filters. The derivative bitstreams of
+     * the item are created once the filters are done, as soon as too many bitstreams are pending.
+     *
+     * @param context context
+     * @param item    item
+     * @throws Exception if error
+     */
+    protected void queueItem(Context context, Item item) throws Exception {
         //only apply filters if item not in skip-list
         if (!inSkipList(item.getHandle())) {
             //cache this item in MediaFilterManager
             //so it can be accessed by MediaFilters as necessary
             currentItem = item;
+            if (started == 0) {
+                started = System.nanoTime();
+                reported = started;
+            }
 
-            if (filterItem(c, item)) {
-                // increment processed count
-                ++processed;
+            PendingItem pendingItem = new PendingItem(item);
+            for (Bundle myBundle : itemService.getBundles(item, "ORIGINAL")) {
+                for (Bitstream myBitstream : myBundle.getBitstreams()) {
+                    for (FormatFilter filterClass : filterClasses) {
+                        if (!isApplicable(context, filterClass, myBitstream)) {
+                            continue;
+                        }
+                        try {
+                            PendingBitstream pendingBitstream = startFiltering(context, item, myBitstream,
+                                                                               filterClass);
+                            if (pendingBitstream != null) {
+                                pendingItem.bitstreams.add(pendingBitstream);
+                            }
+                        } catch (Exception e) {
+                            // Printout helpful information to find the errored bitstream.
+                            logError(formatBitstreamDetails(item.getHandle(), myBitstream));
+                            logError(ThrowableUtils.formatCauseChain(e));
+                        }
+                    }
+                }
             }
-            // clear item objects from context cache and internal cache
-            c.uncacheEntity(currentItem);
             currentItem = null;
+
+            pendingItems.add(pendingItem);
+            pendingBitstreams += pendingItem.bitstreams.size();
+            // complete the items in order, as soon as their filters are done or too many bitstreams are pending,
+            // so that the items with nothing to filter are not kept in the context
+            while (!pendingItems.isEmpty()
+                && (pendingItems.peek().isDone() || pendingBitstreams > getMaxPendingBitstreams())) {
+                completeItem(context, pendingItems.remove());
+            }
+        }
+    }
+
+    /**
+     * Create the derivative bitstreams of all the pending items.
+     *
+     * @param context context
+     * @throws Exception if error
+     */
+    protected void completePendingItems(Context context) throws Exception {
+        while (!pendingItems.isEmpty()) {
+            completeItem(context, pendingItems.remove());
+        }
+    }
+
+    /**
+     * Create the derivative bitstreams of an item, once the filters are done.
+     *
+     * @param context     context
+     * @param pendingItem the item, with its bitstreams being filtered
+     * @throws Exception if error
+     */
+    protected void completeItem(Context context, PendingItem pendingItem) throws Exception {
+        pendingBitstreams -= pendingItem.bitstreams.size();
+        Item item = pendingItem.item;
+        currentItem = item;
+        boolean filtered = false;
+        for (PendingBitstream pendingBitstream : pendingItem.bitstreams) {
+            try {
+                filtered |= finishFiltering(context, item, pendingBitstream);
+            } catch (Exception e) {
+                // Printout helpful information to find the errored bitstream.
+                logError(formatBitstreamDetails(item.getHandle(), pendingBitstream.source));
+                logError(ThrowableUtils.formatCauseChain(e));
+            }
+        }
+        if (filtered) {
+            itemService.update(context, item); // Make sure new bitstreams have a sequence number
+            // increment processed count
+            ++processed;
+        }
+        // clear item objects from context cache and internal cache
+        context.uncacheEntity(item);
+        currentItem = null;
+
+        if (checkpointing) {
+            lastCompleted = item.getID();
+            if (++completedSinceCheckpoint >= CHECKPOINT_INTERVAL) {
+                commitCheckpoint(context);
+            }
+        }
+        long reportInterval = configurationService.getLongProperty("filter-media.report-interval", 60);
+        if (reportInterval > 0 && System.nanoTime() - reported >= TimeUnit.SECONDS.toNanos(reportInterval)) {
+            logThroughput();
         }
     }
 
@@ -199,26 +396,7 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
         // iterate through filter classes. A single format may be actioned
         // by more than one filter
         for (FormatFilter filterClass : filterClasses) {
-            //List fmts = (List)filterFormats.get(filterClasses[i].getClass().getName());
-            String pluginName = null;
-
-            //if this filter class is a SelfNamedPlugin,
-            //its list of supported formats is different for
-            //differently named "plugin"
-            if (SelfNamedPlugin.class.isAssignableFrom(filterClass.getClass())) {
-                //get plugin instance name for this media filter
-                pluginName = ((SelfNamedPlugin) filterClass).getPluginInstanceName();
-            }
-
-            //Get list of supported formats for the filter (and possibly named plugin)
-            //For SelfNamedPlugins, map key is:
-            //  <class-name><separator><plugin-name>
-            //For other MediaFilters, map key is just:
-            //  <class-name>
-            List<String> fmts = filterFormats.get(filterClass.getClass().getName() +
-                                                      (pluginName != null ? FILTER_PLUGIN_SEPARATOR + pluginName : ""));
-
-            if (fmts.contains(myBitstream.getFormat(context).getShortDescription())) {
+            if (isApplicable(context, filterClass, myBitstream)) {
                 try {
                     // only update item if bitstream not skipped
                     if (processBitstream(context, myItem, myBitstream, filterClass)) {
@@ -231,107 +409,118 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
                     logError(formatBitstreamDetails(myItem.getHandle(), myBitstream));
                     logError(ThrowableUtils.formatCauseChain(e));
                 }
-            } else if (filterClass instanceof SelfRegisterInputFormats) {
-                // Filter implements self registration, so check to see if it should be applied
-                // given the formats it claims to support
-                SelfRegisterInputFormats srif = (SelfRegisterInputFormats) filterClass;
-                boolean applyFilter = false;
-
-                // Check MIME type
-                String[] mimeTypes = srif.getInputMIMETypes();
-                if (mimeTypes != null) {
-                    for (String mimeType : mimeTypes) {
-                        if (mimeType.equalsIgnoreCase(myBitstream.getFormat(context).getMIMEType())) {
-                            applyFilter = true;
-                        }
-                    }
-                }
+            }
+        }
+        return filtered;
+    }
 
-                // Check description
-                if (!applyFilter) {
-                    String[] descriptions = srif.getInputDescriptions();
-                    if (descriptions != null) {
-                        for (String desc : descriptions) {
-                            if (desc.equalsIgnoreCase(myBitstream.getFormat(context).getShortDescription())) {
-                                applyFilter = true;
-                            }
-                        }
+    /**
+     * Check whether a filter applies to the format of a bitstream.
+     *
+     * @param context     context
+     * @param filterClass the filter
+     * @param myBitstream the bitstream
+     * @return true if the format of the bitstream is one of the input formats of the filter
+     * @throws SQLException If something goes wrong in the database
+     */
+    protected boolean isApplicable(Context context, FormatFilter filterClass, Bitstream myBitstream)
+        throws SQLException {
+        String pluginName = null;
+
+        //if this filter class is a SelfNamedPlugin,
+        //its list of supported formats is different for
+        //differently named "plugin"
+        if (SelfNamedPlugin.class.isAssignableFrom(filterClass.getClass())) {
+            //get plugin instance name for this media filter
+            pluginName = ((SelfNamedPlugin) filterClass).getPluginInstanceName();
+        }
+
+        //Get list of supported formats for the filter (and possibly named plugin)
+        //For SelfNamedPlugins, map key is:
+        //  <class-name><separator><plugin-name>
+        //For other MediaFilters, map key is just:
+        //  <class-name>
+        List<String> fmts = filterFormats.get(filterClass.getClass().getName() +
+                                                  (pluginName != null ? FILTER_PLUGIN_SEPARATOR + pluginName : ""));
+
+        BitstreamFormat format = myBitstream.getFormat(context);
+        if (fmts != null && fmts.contains(format.getShortDescription())) {
+            return true;
+        } else if (filterClass instanceof SelfRegisterInputFormats) {
+            // Filter implements self registration, so check to see if it should be applied
+            // given the formats it claims to support
+            SelfRegisterInputFormats srif = (SelfRegisterInputFormats) filterClass;
+
+            // Check MIME type
+            String[] mimeTypes = srif.getInputMIMETypes();
+            if (mimeTypes != null) {
+                for (String mimeType : mimeTypes) {
+                    if (mimeType.equalsIgnoreCase(format.getMIMEType())) {
+                        return true;
                     }
                 }
+            }
 
-                // Check extensions
-                if (!applyFilter) {
-                    String[] extensions = srif.getInputExtensions();
-                    if (extensions != null) {
-                        for (String ext : extensions) {
-                            List<String> formatExtensions = myBitstream.getFormat(context).getExtensions();
-                            if (formatExtensions != null && formatExtensions.contains(ext)) {
-                                applyFilter = true;
-                            }
-                        }
+            // Check description
+            String[] descriptions = srif.getInputDescriptions();
+            if (descriptions != null) {
+                for (String desc : descriptions) {
+                    if (desc.equalsIgnoreCase(format.getShortDescription())) {
+                        return true;
                     }
                 }
+            }
 
-                // Filter claims to handle this type of file, so attempt to apply it
-                if (applyFilter) {
-                    try {
-                        // only update item if bitstream not skipped
-                        if (processBitstream(context, myItem, myBitstream, filterClass)) {
-                            itemService.update(context, myItem); // Make sure new bitstream has a sequence
-                            // number
-                            filtered = true;
-                        }
-                    } catch (Exception e) {
-                        logError("ERROR filtering, skipping bitstream #"
-                                               + myBitstream.getID() + " " + e);
-                        e.printStackTrace();
+            // Check extensions
+            String[] extensions = srif.getInputExtensions();
+            if (extensions != null) {
+                for (String ext : extensions) {
+                    List<String> formatExtensions = format.getExtensions();
+                    if (formatExtensions != null && formatExtensions.contains(ext)) {
+                        return true;
                     }
                 }
             }
         }
-        return filtered;
+        return false;
     }
 
     @Override
     public boolean processBitstream(Context context, Item item, Bitstream source, FormatFilter formatFilter)
         throws Exception {
+        PendingBitstream pendingBitstream = startFiltering(context, item, source, formatFilter);
+        return pendingBitstream != null && finishFiltering(context, item, pendingBitstream);
+    }
+
+    /**
+     * Start filtering a bitstream in the worker threads of the filter, unless the pre-processing of the bitstream
+     * fails, or its derivative bitstream exists and overWrite is not set.
+     *
+     * @param context      context
+     * @param item         item containing bitstream to process
+     * @param source       source bitstream to process
+     * @param formatFilter FormatFilter to perform filtering
+     * @return the bitstream being filtered, or null if the bitstream is skipped
+     * @throws Exception if error occurs
+     */
+    protected PendingBitstream startFiltering(Context context, Item item, Bitstream source,
+                                              FormatFilter formatFilter) throws Exception {
         //do pre-processing of this bitstream, and if it fails, skip this bitstream!
         if (!formatFilter.preProcessBitstream(context, item, source, isVerbose)) {
-            return false;
+            return null;
         }
 
-        boolean overWrite = isForce;
-
         // get bitstream filename, calculate destination filename
         String newName = formatFilter.getFilteredName(source.getName());
 
-        // check if destination bitstream exists
-        Bundle existingBundle = null;
-        List<Bitstream> existingBitstreams = new ArrayList<>();
-        List<Bundle> bundles = itemService.getBundles(item, formatFilter.getBundleName());
-
-        if (!bundles.isEmpty()) {
-            // only finds the last matching bundle and all matching bitstreams in the proper bundle(s)
-            for (Bundle bundle : bundles) {
-                List<Bitstream> bitstreams = bundle.getBitstreams();
-
-                for (Bitstream bitstream : bitstreams) {
-                    if (bitstream.getName().trim().equals(newName.trim())) {
-                        existingBundle = bundle;
-                        existingBitstreams.add(bitstream);
-                    }
-                }
-            }
-        }
-
         // if exists and overwrite = false, exit
-        if (!overWrite && (!existingBitstreams.isEmpty())) {
+        if (!isForce && !findDerivativeBitstreams(item, source, formatFilter).isEmpty()) {
             if (!isQuiet) {
                 logInfo("SKIPPED: bitstream " + source.getID()
                                        + " (item: " + item.getHandle() + ") because '" + newName + "' already exists");
             }
 
-            return false;
+            return null;
         }
 
         if (isVerbose) {
@@ -341,14 +530,32 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
 
         logInfo("File: " + newName);
 
-        // start filtering of the bitstream, using try with resource to close all InputStreams properly
-        try (
-                // get the source stream
-                InputStream srcStream = bitstreamService.retrieve(context, source);
-                // filter the source stream to produce the destination stream
-                // this is the hard work, check for OutOfMemoryErrors at the end of the try clause.
-                InputStream destStream = formatFilter.getDestinationStream(item, srcStream, isVerbose);
-        ) {
+        // get the source stream, which the worker thread filters and closes
+        InputStream srcStream = bitstreamService.retrieve(context, source);
+        FilterTask task = new FilterTask(formatFilter, item, srcStream, source.getSizeBytes());
+        getExecutor(formatFilter).execute(task);
+        return new PendingBitstream(source, formatFilter, newName, task.destination);
+    }
+
+    /**
+     * Create the derivative bitstream once the filter is done, and remove the previous derivative bitstreams.
+     *
+     * @param context          context
+     * @param item             item containing bitstream to process
+     * @param pendingBitstream the bitstream being filtered
+     * @return true if new rendition is created, false if the filter was unsuccessful or the rendition was created
+     * in the meantime
+     * @throws Exception if error occurs
+     */
+    protected boolean finishFiltering(Context context, Item item, PendingBitstream pendingBitstream)
+        throws Exception {
+        Bitstream source = pendingBitstream.source;
+        FormatFilter formatFilter = pendingBitstream.formatFilter;
+        String newName = pendingBitstream.newName;
+
+        // wait for the filter to produce the destination stream, using try with resource to close it properly
+        // this is the hard work, check for OutOfMemoryErrors at the end of the try clause.
+        try (InputStream destStream = getDestinationStream(pendingBitstream.destination)) {
             if (destStream == null) {
                 if (!isQuiet) {
                     logInfo("SKIPPED: bitstream " + source.getID()
@@ -357,7 +564,18 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
                 return false;
             }
 
+            // check if destination bitstream exists, it may have been created by a previous pending bitstream
+            List<Bitstream> existingBitstreams = findDerivativeBitstreams(item, source, formatFilter);
+            if (!isForce && !existingBitstreams.isEmpty()) {
+                if (!isQuiet) {
+                    logInfo("SKIPPED: bitstream " + source.getID()
+                            + " (item: " + item.getHandle() + ") because '" + newName + "' already exists");
+                }
+                return false;
+            }
+
             Bundle targetBundle; // bundle we're modifying
+            List<Bundle> bundles = itemService.getBundles(item, formatFilter.getBundleName());
             if (bundles.isEmpty()) {
                 // create new bundle if needed
                 targetBundle = bundleService.create(context, item, formatFilter.getBundleName());
@@ -385,14 +603,18 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
             //do post-processing of the generated bitstream
             formatFilter.postProcessBitstream(context, item, b);
 
+            // we are overwriting, so remove old bitstream
+            for (Bundle bundle : bundles) {
+                for (Bitstream bitstream : new ArrayList<>(bundle.getBitstreams())) {
+                    if (existingBitstreams.contains(bitstream)) {
+                        bundleService.removeBitstream(context, bundle, bitstream);
+                    }
+                }
+            }
         } catch (OutOfMemoryError oome) {
             logError("!!! OutOfMemoryError !!!");
             logError(formatBitstreamDetails(item.getHandle(), source));
-        }
-
-        // we are overwriting, so remove old bitstream
-        for (Bitstream existingBitstream : existingBitstreams) {
-            bundleService.removeBitstream(context, existingBundle, existingBitstream);
+            return false;
         }
 
         if (!isQuiet) {
@@ -403,6 +625,26 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
         return true;
     }
 
+    /**
+     * Wait for the destination stream of a filter.
+     *
+     * @param destination the destination stream, produced by a worker thread
+     * @return the destination stream, or null if the filtering was unsuccessful
+     * @throws Exception the exception thrown by the filter, or a TimeoutException if it timed out
+     */
+    private InputStream getDestinationStream(CompletableFuture<InputStream> destination) throws Exception {
+        try {
+            return destination.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
     @Override
     public void updatePoliciesOfDerivativeBitstreams(Context context, Item item, Bitstream source)
         throws SQLException, AuthorizeException {
@@ -468,6 +710,146 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
         }
     }
 
+    /**
+     * @param formatFilter the filter
+     * @return the prefix of the configuration of the filter: filter.&lt;class-name&gt;[.&lt;plugin-name&gt;]
+     */
+    protected String getFilterPrefix(FormatFilter formatFilter) {
+        String prefix = "filter." + formatFilter.getClass().getName();
+        if (formatFilter instanceof SelfNamedPlugin) {
+            prefix += "." + ((SelfNamedPlugin) formatFilter).getPluginInstanceName();
+        }
+        return prefix;
+    }
+
+    /**
+     * @param formatFilter the filter
+     * @return the number of worker threads running the filter
+     */
+    protected int getThreads(FormatFilter formatFilter) {
+        return Math.max(configurationService.getIntProperty(getFilterPrefix(formatFilter) + ".threads", threads), 1);
+    }
+
+    /**
+     * @param formatFilter the filter
+     * @return the maximum number of seconds the filter may take to filter a bitstream, 0 for no limit
+     */
+    protected long getTimeout(FormatFilter formatFilter) {
+        return configurationService.getLongProperty(getFilterPrefix(formatFilter) + ".timeout",
+            configurationService.getLongProperty("filter-media.timeout", 0));
+    }
+
+    /**
+     * @return the number of bitstreams being filtered above which the pending items are completed: twice the number
+     * of worker threads, so that the threads are busy while an item is completed, or none when filtering serially
+     */
+    protected int getMaxPendingBitstreams() {
+        int workers = 0;
+        for (FormatFilter formatFilter : filterClasses) {
+            workers += getThreads(formatFilter);
+        }
+        return workers > filterClasses.size() ? workers * 2 : 0;
+    }
+
+    /**
+     * @param formatFilter the filter
+     * @return the executor running the filter in its worker threads, or in the calling thread when the filter has
+     * a single thread and no timeout
+     */
+    protected synchronized Executor getExecutor(FormatFilter formatFilter) {
+        int size = getThreads(formatFilter);
+        if (size <= 1 && getTimeout(formatFilter) <= 0) {
+            return Runnable::run;
+        }
+        return executors.computeIfAbsent(formatFilter, filter -> {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new BasicThreadFactory.Builder()
+                    .namingPattern("filter-media-" + filter.getClass().getSimpleName() + "-%d")
+                    .daemon(true).build());
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        });
+    }
+
+    /**
+     * @return the executor interrupting the filters which time out
+     */
+    protected synchronized ScheduledThreadPoolExecutor getTimeoutExecutor() {
+        if (timeoutExecutor == null) {
+            timeoutExecutor = new ScheduledThreadPoolExecutor(1, new BasicThreadFactory.Builder()
+                .namingPattern("filter-media-timeout-%d").daemon(true).build());
+            timeoutExecutor.setRemoveOnCancelPolicy(true);
+        }
+        return timeoutExecutor;
+    }
+
+    /**
+     * Stop the worker threads of the filters, once their current bitstreams are filtered.
+     */
+    protected synchronized void shutdownExecutors() {
+        for (ExecutorService executor : executors.values()) {
+            executor.shutdown();
+        }
+        executors.clear();
+    }
+
+    protected synchronized FilterStatistics getStatistics(FormatFilter formatFilter) {
+        return statistics.computeIfAbsent(formatFilter, filter -> new FilterStatistics());
+    }
+
+    @Override
+    public synchronized void logThroughput() {
+        if (started == 0) {
+            return;
+        }
+        reported = System.nanoTime();
+        double seconds = (reported - started) / 1e9;
+        logInfo(String.format("THROUGHPUT: %d items filtered in %.0f s (%.2f items/s)", processed, seconds,
+                              processed / Math.max(seconds, 1e-3)));
+        for (Map.Entry<FormatFilter, FilterStatistics> entry : statistics.entrySet()) {
+            FormatFilter formatFilter = entry.getKey();
+            FilterStatistics filterStatistics = entry.getValue();
+            long bitstreams = filterStatistics.bitstreams.sum();
+            String name = formatFilter instanceof SelfNamedPlugin
+                ? ((SelfNamedPlugin) formatFilter).getPluginInstanceName() : formatFilter.getClass().getSimpleName();
+            logInfo(String.format("THROUGHPUT: %s (%d threads): %d bitstreams, %d MB (%.2f bitstreams/s, "
+                                      + "%.0f ms per bitstream), %d failed, %d timed out", name,
+                                  getThreads(formatFilter), bitstreams,
+                                  filterStatistics.bytes.sum() / (1024 * 1024),
+                                  bitstreams / Math.max(seconds, 1e-3),
+                                  bitstreams > 0 ? filterStatistics.nanos.sum() / 1e6 / bitstreams : 0.0,
+                                  filterStatistics.failures.sum(), filterStatistics.timeouts.sum()));
+        }
+    }
+
+    /**
+     * @return the ID of the last item recorded in the checkpoint file, or null if the file does not exist
+     * @throws IOException if the checkpoint file cannot be read
+     */
+    protected UUID readCheckpoint() throws IOException {
+        if (!checkpoint.exists()) {
+            return null;
+        }
+        String last = StringUtils.trimToNull(FileUtils.readFileToString(checkpoint, StandardCharsets.UTF_8));
+        return last != null ? UUID.fromString(last) : null;
+    }
+
+    /**
+     * Commit the derivative bitstreams created so far, and record the last filtered item in the checkpoint file.
+     *
+     * @param context context
+     * @throws SQLException If something goes wrong in the database
+     * @throws IOException  if the checkpoint file cannot be written
+     */
+    protected void commitCheckpoint(Context context) throws SQLException, IOException {
+        if (lastCompleted != null) {
+            context.commit();
+            FileUtils.writeStringToFile(checkpoint, lastCompleted.toString(), StandardCharsets.UTF_8);
+            lastCompleted = null;
+        }
+        completedSinceCheckpoint = 0;
+    }
+
     @Override
     public Item getCurrentItem() {
         return currentItem;
@@ -560,9 +942,27 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
 
     @Override
     public void setFilterClasses(List<FormatFilter> filterClasses) {
+        shutdownExecutors();
+        // the filters are set for each run, whose counts start again
+        synchronized (this) {
+            statistics.clear();
+            started = 0;
+            processed = 0;
+        }
         this.filterClasses = filterClasses;
     }
 
+    @Override
+    public void setThreads(int threads) {
+        shutdownExecutors();
+        this.threads = Math.max(threads, 1);
+    }
+
+    @Override
+    public void setCheckpoint(File checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
     @Override
     public void setSkipList(List<String> skipList) {
         this.skipList = skipList;
@@ -577,4 +977,125 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
     public void setLogHandler(DSpaceRunnableHandler handler) {
         this.handler = handler;
     }
+
+    /**
+     * An item whose bitstreams are being filtered.
+     */
+    protected static class PendingItem {
+        protected final Item item;
+        protected final List<PendingBitstream> bitstreams = new ArrayList<>();
+
+        protected PendingItem(Item item) {
+            this.item = item;
+        }
+
+        /**
+         * @return true if the filters of all the bitstreams of the item are done, or if it has none
+         */
+        protected boolean isDone() {
+            for (PendingBitstream pendingBitstream : bitstreams) {
+                if (!pendingBitstream.destination.isDone()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A bitstream being filtered, with the future destination stream of the filter.
+     */
+    protected static class PendingBitstream {
+        protected final Bitstream source;
+        protected final FormatFilter formatFilter;
+        protected final String newName;
+        protected final CompletableFuture<InputStream> destination;
+
+        protected PendingBitstream(Bitstream source, FormatFilter formatFilter, String newName,
+                                   CompletableFuture<InputStream> destination) {
+            this.source = source;
+            this.formatFilter = formatFilter;
+            this.newName = newName;
+            this.destination = destination;
+        }
+    }
+
+    /**
+     * The bitstreams filtered by a filter, counted by its worker threads.
+     */
+    protected static class FilterStatistics {
+        protected final LongAdder bitstreams = new LongAdder();
+        protected final LongAdder bytes = new LongAdder();
+        protected final LongAdder nanos = new LongAdder();
+        protected final LongAdder failures = new LongAdder();
+        protected final LongAdder timeouts = new LongAdder();
+    }
+
+    /**
+     * Filters a source stream in a worker thread, and closes it. The thread is interrupted, and the destination
+     * completed with a TimeoutException, once the timeout of the filter expires.
+     */
+    protected class FilterTask implements Runnable {
+        protected final FormatFilter formatFilter;
+        protected final Item item;
+        protected final InputStream source;
+        protected final long size;
+        protected final long timeout;
+        protected final FilterStatistics filterStatistics;
+        protected final CompletableFuture<InputStream> destination = new CompletableFuture<>();
+        private Thread worker = null;
+
+        protected FilterTask(FormatFilter formatFilter, Item item, InputStream source, long size) {
+            this.formatFilter = formatFilter;
+            this.item = item;
+            this.source = source;
+            this.size = size;
+            this.timeout = getTimeout(formatFilter);
+            this.filterStatistics = getStatistics(formatFilter);
+        }
+
+        @Override
+        public void run() {
+            ScheduledFuture<?> expiry = null;
+            if (timeout > 0) {
+                synchronized (this) {
+                    worker = Thread.currentThread();
+                }
+                expiry = getTimeoutExecutor().schedule(this::expire, timeout, TimeUnit.SECONDS);
+            }
+            long start = System.nanoTime();
+            try (InputStream srcStream = source) {
+                InputStream destStream = formatFilter.getDestinationStream(item, srcStream, isVerbose);
+                if (destination.complete(destStream)) {
+                    filterStatistics.bitstreams.increment();
+                    filterStatistics.bytes.add(size);
+                    filterStatistics.nanos.add(System.nanoTime() - start);
+                } else if (destStream != null) {
+                    // the filter timed out
+                    destStream.close();
+                }
+            } catch (Exception | Error e) {
+                if (destination.completeExceptionally(e)) {
+                    filterStatistics.failures.increment();
+                }
+            } finally {
+                if (expiry != null) {
+                    expiry.cancel(false);
+                    synchronized (this) {
+                        worker = null;
+                    }
+                    // the interruption of a filter which timed out must not reach the next filter of this thread
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        private synchronized void expire() {
+            if (worker != null && destination.completeExceptionally(new TimeoutException(
+                formatFilter.getClass().getSimpleName() + " did not complete within " + timeout + " seconds"))) {
+                filterStatistics.timeouts.increment();
+                worker.interrupt();
+            }
+        }
+    }
 }
@@ -7,6 +7,7 @@
  */
 package org.dspace.app.mediafilter.service;
 
+import java.io.File;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
@@ -144,6 +145,30 @@ public interface MediaFilterService {
 
     public void setFilterFormats(Map<String, List<String>> filterFormats);
 
+    /**
+     * Set the number of worker threads running each filter, unless set for a filter with
+     * {@code filter.<class-name>[.<plugin-name>].threads}. With a single thread and no timeout
+     * ({@code filter-media.timeout}), the filters run in the calling thread.
+     *
+     * @param threads number of worker threads of each filter
+     */
+    public void setThreads(int threads);
+
+    /**
+     * Set the file recording the last item filtered by applyFiltersAllItems, when there is no skip list. The items
+     * are then filtered in the order of their IDs, starting after the recorded item, and the context is committed
+     * regularly. The file is deleted once all the items are filtered.
+     *
+     * @param checkpoint the checkpoint file, or null to filter all the items in a single transaction
+     */
+    public void setCheckpoint(File checkpoint);
+
+    /**
+     * Log the number of items filtered, and the number of bitstreams, size and time per bitstream of each filter,
+     * since the filters were set.
+     */
+    public void logThroughput();
+
     /**
      * Set the log handler used in the DSpace scripts and processes framework
      * @param handler
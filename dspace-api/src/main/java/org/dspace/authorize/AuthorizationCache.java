@@ -0,0 +1,414 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.authorize;
+
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Bundle;
+import org.dspace.content.DSpaceObject;
+import org.dspace.content.Item;
+import org.dspace.core.Context;
+import org.dspace.eperson.EPerson;
+import org.dspace.services.ConfigurationService;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Cache of the authorization decisions shared by all the contexts of the JVM, so that the policies of an object
+ * and the group memberships of a user are not checked again by every request.
+ * <p>
+ * The decisions are cached per object, action, user (or anonymous) and set of special groups. The decisions about
+ * an object are invalidated when the changes made to its policies, to its lifecycle (install, withdrawal, move,
+ * deletion...) or to the bundles of an item are committed, together with the decisions about the bundles and
+ * bitstreams of the object. Changes to the groups and their members, to the policies of collections and
+ * communities, or to the structure of the repository clear the whole cache. These changes are recorded by the
+ * {@link Context} which makes them and applied once it commits: until then, the context does not use the cache.
+ * <p>
+ * The cache is disabled unless {@code authorize.cache.enabled} is set. Changes made by other processes (e.g.
+ * command line scripts) are not seen, so the decisions expire after {@code authorize.cache.ttl} seconds, or
+ * earlier if a policy of the object starts or ends before. The decisions granted through the delegated
+ * administration settings ({@code core.authorization.*}) are not cached, as these settings may be changed while
+ * running.
+ */
+public class AuthorizationCache implements AuthorizationCacheMXBean {
+
+    private static final Logger log = LogManager.getLogger();
+
+    @Autowired(required = true)
+    protected ConfigurationService configurationService;
+
+    private boolean enabled;
+    private int maxSize;
+    private long ttl;
+
+    // cached decisions by object, in access order
+    private final LinkedHashMap<UUID, ObjectEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // objects (bundles and bitstreams) whose decisions depend on another object (bundles and items)
+    private final Map<UUID, Set<UUID>> dependents = new HashMap<>();
+    private int size;
+    // incremented by every invalidation, so that decisions computed meanwhile are not cached
+    private long version;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong clears = new AtomicLong();
+
+    private ObjectName mBeanName;
+
+    protected AuthorizationCache() {
+    }
+
+    public void init() {
+        enabled = configurationService.getBooleanProperty("authorize.cache.enabled", false);
+        maxSize = configurationService.getIntProperty("authorize.cache.max-size", 100000);
+        ttl = TimeUnit.SECONDS.toMillis(configurationService.getLongProperty("authorize.cache.ttl", 300));
+        if (enabled && maxSize > 0 && ttl > 0) {
+            registerMBean();
+        } else {
+            enabled = false;
+        }
+    }
+
+    public void destroy() {
+        if (mBeanName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(mBeanName);
+            } catch (Exception e) {
+                log.warn("Unable to unregister the MBean of the authorization cache: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Start the lookup of a decision.
+     *
+     * @param context        current context
+     * @param dso            object the action is attempted on
+     * @param action         ID of the action, from {@link org.dspace.core.Constants}
+     * @param eperson        user attempting the action, or null for anonymous
+     * @param useInheritance whether ADMIN on a parent object grants the action
+     * @return the lookup, holding the cached decision if any, or null if the cache cannot be used by the context
+     */
+    public Lookup lookup(Context context, DSpaceObject dso, int action, EPerson eperson, boolean useInheritance) {
+        if (!enabled || context.hasAuthorizationChanges() || dso.getID() == null) {
+            return null;
+        }
+        DecisionKey key = new DecisionKey(action, useInheritance, eperson != null ? eperson.getID() : null,
+                                          context.getSpecialGroupUuids());
+        long now = System.currentTimeMillis();
+        Boolean result = null;
+        long lookupVersion;
+        synchronized (this) {
+            lookupVersion = version;
+            ObjectEntry entry = entries.get(dso.getID());
+            if (entry != null) {
+                Decision decision = entry.decisions.get(key);
+                if (decision != null) {
+                    if (decision.expiresAt > now) {
+                        result = decision.authorized;
+                    } else {
+                        entry.decisions.remove(key);
+                        size--;
+                    }
+                }
+            }
+        }
+        (result != null ? hits : misses).incrementAndGet();
+        return new Lookup(dso, key, lookupVersion, result, now + ttl);
+    }
+
+    /**
+     * Cache a decision, unless it was computed while the cache was invalidated.
+     *
+     * @param lookup     lookup which missed the decision, may be null
+     * @param authorized the decision
+     * @throws SQLException if the parents of the object cannot be loaded
+     */
+    public void store(Lookup lookup, boolean authorized) throws SQLException {
+        if (lookup == null || !lookup.shared || lookup.expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        UUID id = lookup.dso.getID();
+        Set<UUID> parents = getParents(lookup.dso);
+        synchronized (this) {
+            if (lookup.version != version) {
+                return;
+            }
+            ObjectEntry entry = entries.get(id);
+            if (entry == null) {
+                entry = new ObjectEntry(parents);
+                entries.put(id, entry);
+                for (UUID parent : parents) {
+                    dependents.computeIfAbsent(parent, k -> new HashSet<>()).add(id);
+                }
+            }
+            if (entry.decisions.put(lookup.key, new Decision(authorized, lookup.expiresAt)) == null) {
+                size++;
+            }
+            evict();
+        }
+    }
+
+    /**
+     * Invalidate the decisions about the given objects, and about the objects depending on them.
+     *
+     * @param ids identifiers of the changed objects
+     */
+    public void invalidate(Collection<UUID> ids) {
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            version++;
+            for (UUID id : ids) {
+                remove(id);
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            version++;
+            entries.clear();
+            dependents.clear();
+            size = 0;
+        }
+        clears.incrementAndGet();
+    }
+
+    private void remove(UUID id) {
+        ObjectEntry entry = entries.remove(id);
+        if (entry != null) {
+            unlink(id, entry);
+            invalidations.incrementAndGet();
+        }
+        Set<UUID> children = dependents.remove(id);
+        if (children != null) {
+            for (UUID child : children) {
+                remove(child);
+            }
+        }
+    }
+
+    private void unlink(UUID id, ObjectEntry entry) {
+        size -= entry.decisions.size();
+        for (UUID parent : entry.parents) {
+            Set<UUID> children = dependents.get(parent);
+            if (children != null) {
+                children.remove(id);
+                if (children.isEmpty()) {
+                    dependents.remove(parent);
+                }
+            }
+        }
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<UUID, ObjectEntry>> iterator = entries.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            Map.Entry<UUID, ObjectEntry> eldest = iterator.next();
+            iterator.remove();
+            unlink(eldest.getKey(), eldest.getValue());
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return the objects whose changes affect the decisions about the given object: the bundles and items of a
+     * bitstream, the items of a bundle
+     */
+    private Set<UUID> getParents(DSpaceObject dso) throws SQLException {
+        Set<UUID> parents = new LinkedHashSet<>();
+        if (dso instanceof Bitstream) {
+            for (Bundle bundle : ((Bitstream) dso).getBundles()) {
+                parents.add(bundle.getID());
+                for (Item item : bundle.getItems()) {
+                    parents.add(item.getID());
+                }
+            }
+        } else if (dso instanceof Bundle) {
+            for (Item item : ((Bundle) dso).getItems()) {
+                parents.add(item.getID());
+            }
+        }
+        return parents;
+    }
+
+    private void registerMBean() {
+        try {
+            mBeanName = new ObjectName("org.dspace:type=AuthorizationCache");
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, mBeanName);
+        } catch (Exception e) {
+            // e.g. another webapp of the same JVM already registered it
+            log.warn("Unable to register the MBean of the authorization cache: " + e.getMessage());
+            mBeanName = null;
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @Override
+    public double getHitRatio() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    @Override
+    public synchronized int getObjectCount() {
+        return entries.size();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    @Override
+    public long getInvalidationCount() {
+        return invalidations.get();
+    }
+
+    @Override
+    public long getClearCount() {
+        return clears.get();
+    }
+
+    /**
+     * Lookup of a decision, started before it is computed so that the decision is not cached if the cache was
+     * invalidated meanwhile.
+     */
+    public static class Lookup {
+        private final DSpaceObject dso;
+        private final DecisionKey key;
+        private final long version;
+        private final Boolean result;
+        private long expiresAt;
+        private boolean shared = true;
+
+        private Lookup(DSpaceObject dso, DecisionKey key, long version, Boolean result, long expiresAt) {
+            this.dso = dso;
+            this.key = key;
+            this.version = version;
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * @return the cached decision, or null if there is none
+         */
+        public Boolean getResult() {
+            return result;
+        }
+
+        /**
+         * Make the decision expire at the given date if it is in the future, e.g. as a policy starts or ends.
+         *
+         * @param date date after which the decision may change, may be null
+         */
+        public void expireOn(Date date) {
+            if (date != null && date.getTime() > System.currentTimeMillis() && date.getTime() < expiresAt) {
+                expiresAt = date.getTime();
+            }
+        }
+
+        /**
+         * Do not cache the decision, as it depends on something which is not tracked.
+         */
+        public void doNotShare() {
+            shared = false;
+        }
+    }
+
+    private static class DecisionKey {
+        private final int action;
+        private final boolean useInheritance;
+        private final UUID eperson;
+        private final Set<UUID> specialGroups;
+
+        DecisionKey(int action, boolean useInheritance, UUID eperson, Set<UUID> specialGroups) {
+            this.action = action;
+            this.useInheritance = useInheritance;
+            this.eperson = eperson;
+            this.specialGroups = specialGroups.isEmpty() ? Set.of() : Set.copyOf(specialGroups);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DecisionKey)) {
+                return false;
+            }
+            DecisionKey other = (DecisionKey) o;
+            return action == other.action && useInheritance == other.useInheritance
+                && Objects.equals(eperson, other.eperson) && specialGroups.equals(other.specialGroups);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(action, useInheritance, eperson, specialGroups);
+        }
+    }
+
+    private static class Decision {
+        private final boolean authorized;
+        private final long expiresAt;
+
+        Decision(boolean authorized, long expiresAt) {
+            this.authorized = authorized;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static class ObjectEntry {
+        private final Set<UUID> parents;
+        private final Map<DecisionKey, Decision> decisions = new HashMap<>();
+
+        ObjectEntry(Set<UUID> parents) {
+            this.parents = parents;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.authorize;
+
+/**
+ * MBean type for monitoring the {@link AuthorizationCache}.
+ */
+public interface AuthorizationCacheMXBean {
+    /**
+     * @return whether the decisions are shared between the contexts
+     */
+    public boolean isEnabled();
+
+    /**
+     * @return number of decisions found in the cache since it was started
+     */
+    public long getHitCount();
+
+    /**
+     * @return number of decisions not found in the cache since it was started
+     */
+    public long getMissCount();
+
+    /**
+     * @return ratio of the lookups which found a decision, or 0 if there was none
+     */
+    public double getHitRatio();
+
+    /**
+     * @return number of objects with cached decisions
+     */
+    public int getObjectCount();
+
+    /**
+     * @return number of objects evicted to keep the cache under its maximum size since it was started
+     */
+    public long getEvictionCount();
+
+    /**
+     * @return number of objects whose decisions were invalidated by a change since the cache was started
+     */
+    public long getInvalidationCount();
+
+    /**
+     * @return number of times the whole cache was cleared by a change since it was started
+     */
+    public long getClearCount();
+
+    /**
+     * Remove all the cached decisions.
+     */
+    public void clear();
+}
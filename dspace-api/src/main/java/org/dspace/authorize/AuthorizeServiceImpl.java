@@ -14,7 +14,12 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 import org.apache.commons.collections4.CollectionUtils;
@@ -83,6 +88,8 @@ public class AuthorizeServiceImpl implements AuthorizeService {
     protected WorkflowItemService workflowItemService;
     @Autowired(required = true)
     private SearchService searchService;
+    @Autowired(required = true)
+    protected AuthorizationCache authorizationCache;
 
 
     protected AuthorizeServiceImpl() {
@@ -251,6 +258,43 @@ public class AuthorizeServiceImpl implements AuthorizeService {
             return cachedResult;
         }
 
+        // If authorization was evaluated in bulk before
+        if (useInheritance) {
+            Boolean decision = c.getAuthorizationDecision(o, action, e);
+            if (decision != null) {
+                return decision;
+            }
+        }
+
+        // If authorization was given before to another context
+        AuthorizationCache.Lookup lookup = authorizationCache.lookup(c, o, action, e, useInheritance);
+        if (lookup != null && lookup.getResult() != null) {
+            c.cacheAuthorizedAction(o, action, e, lookup.getResult(), null);
+            return lookup.getResult();
+        }
+
+        boolean result = authorize(c, o, action, e, useInheritance, lookup);
+        authorizationCache.store(lookup, result);
+        return result;
+    }
+
+    /**
+     * Check the policies of an object, without looking up the decisions cached by the other contexts.
+     *
+     * @param c              current context
+     * @param o              object action is being attempted on
+     * @param action         ID of action being attempted, from
+     *                       <code>org.dspace.core.Constants</code>
+     * @param e              user attempting action
+     * @param useInheritance flag to say if ADMIN action on the current object or parent
+     *                       object can be used
+     * @param lookup         lookup of the decision in the shared cache, told when the decision expires; may be null
+     * @return <code>true</code> if user is authorized to perform the given
+     * action, <code>false</code> otherwise
+     * @throws SQLException if database error
+     */
+    protected boolean authorize(Context c, DSpaceObject o, int action, EPerson e, boolean useInheritance,
+                                AuthorizationCache.Lookup lookup) throws SQLException {
         // is eperson set? if not, userToCheck = null (anonymous)
         EPerson userToCheck = null;
         if (e != null) {
@@ -262,33 +306,7 @@ public class AuthorizeServiceImpl implements AuthorizeService {
             }
         }
 
-        // In case the dso is an bundle or bitstream we must ignore custom
-        // policies if it does not belong to at least one installed item (see
-        // DS-2614).
-        // In case the dso is an item and a corresponding workspace or workflow
-        // item exist, we have to ignore custom policies (see DS-2614).
-        boolean ignoreCustomPolicies = false;
-        if (o instanceof Bitstream) {
-            Bitstream b = (Bitstream) o;
-
-            // Ensure that this is not a collection or community logo
-            DSpaceObject parent = bitstreamService.getParentObject(c, b);
-            if (!(parent instanceof Collection) && !(parent instanceof Community)) {
-                ignoreCustomPolicies = !isAnyItemInstalled(c, b.getBundles());
-            }
-        }
-        if (o instanceof Bundle) {
-            ignoreCustomPolicies = !isAnyItemInstalled(c, Arrays.asList(((Bundle) o)));
-        }
-        if (o instanceof Item) {
-            // the isArchived check is fast and would exclude the possibility that the item
-            // is a workspace or workflow without further queries
-            if (!((Item) o).isArchived() &&
-                    (workspaceItemService.findByItem(c, (Item) o) != null ||
-                    workflowItemService.findByItem(c, (Item) o) != null)) {
-                ignoreCustomPolicies = true;
-            }
-        }
+        boolean ignoreCustomPolicies = isIgnoreCustomPolicies(c, o);
 
         for (ResourcePolicy rp : getPoliciesActionFilter(c, o, action)) {
 
@@ -302,6 +320,12 @@ public class AuthorizeServiceImpl implements AuthorizeService {
                 continue;
             }
 
+            if (lookup != null) {
+                // the decision may change when a policy starts or ends
+                lookup.expireOn(rp.getStartDate());
+                lookup.expireOn(rp.getEndDate());
+            }
+
             // check policies for date validity
             if (resourcePolicyService.isDateValid(rp)) {
                 if (rp.getEPerson() != null && rp.getEPerson().equals(userToCheck)) {
@@ -329,6 +353,10 @@ public class AuthorizeServiceImpl implements AuthorizeService {
             // if user is an Admin on this object
             DSpaceObject adminObject = useInheritance ? serviceFactory.getDSpaceObjectService(o)
                                                                       .getAdminObject(c, o, action) : null;
+            if (lookup != null && useInheritance) {
+                // the admin object depends on the delegated administration settings
+                lookup.doNotShare();
+            }
 
             if (isAdmin(c, e, adminObject)) {
                 c.cacheAuthorizedAction(o, action, e, true, null);
@@ -340,6 +368,189 @@ public class AuthorizeServiceImpl implements AuthorizeService {
         return false;
     }
 
+    @Override
+    public Map<UUID, Set<Integer>> authorizeActions(Context c, EPerson e, List<? extends DSpaceObject> objects,
+                                                    List<Integer> actions, boolean useInheritance)
+        throws SQLException {
+        Map<UUID, Set<Integer>> authorized = new HashMap<>();
+        List<DSpaceObject> toCheck = new ArrayList<>();
+        for (DSpaceObject o : objects) {
+            if (o != null && authorized.put(o.getID(), new HashSet<>()) == null) {
+                toCheck.add(o);
+            }
+        }
+        if (toCheck.isEmpty() || actions.isEmpty()) {
+            return authorized;
+        }
+
+        if (c.ignoreAuthorization() || (e != null && isAdmin(c, e))) {
+            for (DSpaceObject o : toCheck) {
+                authorized.get(o.getID()).addAll(actions);
+            }
+            return authorized;
+        }
+
+        // one query for the policies of all the objects
+        Map<UUID, List<ResourcePolicy>> policies = new HashMap<>();
+        for (ResourcePolicy rp : resourcePolicyService.find(c, toCheck, actions)) {
+            policies.computeIfAbsent(rp.getdSpaceObject().getID(), id -> new ArrayList<>()).add(rp);
+        }
+        // two queries for all the groups of the user, loaded when first needed
+        Set<UUID> groups = null;
+        boolean groupsLoaded = false;
+        // the objects administered by the user, as many objects share the same admin object
+        Map<UUID, Boolean> administered = new HashMap<>();
+
+        for (DSpaceObject o : toCheck) {
+            Boolean ignoreCustomPolicies = null;
+            List<ResourcePolicy> objectPolicies = policies.getOrDefault(o.getID(), List.of());
+            for (int action : actions) {
+                Boolean result = c.getCachedAuthorizationResult(o, action, e);
+                if (result == null && useInheritance) {
+                    result = c.getAuthorizationDecision(o, action, e);
+                }
+                AuthorizationCache.Lookup lookup = null;
+                if (result == null) {
+                    lookup = authorizationCache.lookup(c, o, action, e, useInheritance);
+                    result = lookup != null ? lookup.getResult() : null;
+                }
+                if (result == null) {
+                    if (ignoreCustomPolicies == null) {
+                        ignoreCustomPolicies = isIgnoreCustomPolicies(c, o);
+                    }
+                    if (!groupsLoaded) {
+                        groups = getMemberGroupIds(c, e);
+                        groupsLoaded = true;
+                    }
+                    result = isAuthorizedByPolicies(c, objectPolicies, action, e, groups, ignoreCustomPolicies,
+                                                    lookup);
+                    if (!result && e != null) {
+                        result = isAdminOfParent(c, o, action, e, useInheritance, administered, lookup);
+                    }
+                    authorizationCache.store(lookup, result);
+                }
+                if (useInheritance) {
+                    c.cacheAuthorizationDecision(o, action, e, result);
+                    if (action == Constants.ADMIN) {
+                        // the same decision as isAdmin(Context, EPerson, DSpaceObject)
+                        c.cacheAuthorizedAction(o, action, e, result, null);
+                    }
+                }
+                if (result) {
+                    authorized.get(o.getID()).add(action);
+                }
+            }
+        }
+        return authorized;
+    }
+
+    /**
+     * @return the identifiers of all the groups of a user, or null if they cannot be loaded at once because the
+     * special groups of the current user would be wrongly counted in
+     */
+    private Set<UUID> getMemberGroupIds(Context c, EPerson e) throws SQLException {
+        if (!Objects.equals(c.getCurrentUser(), e) && !c.getSpecialGroupUuids().isEmpty()) {
+            return null;
+        }
+        Set<UUID> groups = new HashSet<>();
+        for (Group group : groupService.allMemberGroupsSet(c, e)) {
+            groups.add(group.getID());
+        }
+        return groups;
+    }
+
+    /**
+     * Check the preloaded policies of an object for an action, as in
+     * {@link #authorize(Context, DSpaceObject, int, EPerson, boolean, AuthorizationCache.Lookup)}.
+     */
+    private boolean isAuthorizedByPolicies(Context c, List<ResourcePolicy> policies, int action, EPerson e,
+                                           Set<UUID> groups, boolean ignoreCustomPolicies,
+                                           AuthorizationCache.Lookup lookup) throws SQLException {
+        for (ResourcePolicy rp : policies) {
+            if (rp.getAction() != action
+                || (ignoreCustomPolicies && ResourcePolicy.TYPE_CUSTOM.equals(rp.getRpType()))) {
+                continue;
+            }
+            if (lookup != null) {
+                lookup.expireOn(rp.getStartDate());
+                lookup.expireOn(rp.getEndDate());
+            }
+            if (resourcePolicyService.isDateValid(rp)) {
+                if (rp.getEPerson() != null && rp.getEPerson().equals(e)) {
+                    return true;
+                }
+                if (rp.getGroup() != null && (groups != null ? groups.contains(rp.getGroup().getID())
+                                                                : groupService.isMember(c, e, rp.getGroup()))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether the user administers the object an action is delegated to, as in
+     * {@link #authorize(Context, DSpaceObject, int, EPerson, boolean, AuthorizationCache.Lookup)}.
+     */
+    private boolean isAdminOfParent(Context c, DSpaceObject o, int action, EPerson e, boolean useInheritance,
+                                    Map<UUID, Boolean> administered, AuthorizationCache.Lookup lookup)
+        throws SQLException {
+        if (!useInheritance) {
+            // the user is not a system administrator
+            return false;
+        }
+        if (lookup != null) {
+            // the admin object depends on the delegated administration settings
+            lookup.doNotShare();
+        }
+        // as in isAdmin(Context, EPerson, DSpaceObject), ADMIN is inherited from the parent object
+        DSpaceObject adminObject = action == Constants.ADMIN
+            ? serviceFactory.getDSpaceObjectService(o).getParentObject(c, o)
+            : serviceFactory.getDSpaceObjectService(o).getAdminObject(c, o, action);
+        if (adminObject == null) {
+            return false;
+        }
+        Boolean admin = administered.get(adminObject.getID());
+        if (admin == null) {
+            admin = isAdmin(c, e, adminObject);
+            administered.put(adminObject.getID(), admin);
+        }
+        return admin;
+    }
+
+    /**
+     * In case the dso is an bundle or bitstream we must ignore custom
+     * policies if it does not belong to at least one installed item (see
+     * DS-2614).
+     * In case the dso is an item and a corresponding workspace or workflow
+     * item exist, we have to ignore custom policies (see DS-2614).
+     */
+    protected boolean isIgnoreCustomPolicies(Context c, DSpaceObject o) throws SQLException {
+        boolean ignoreCustomPolicies = false;
+        if (o instanceof Bitstream) {
+            Bitstream b = (Bitstream) o;
+
+            // Ensure that this is not a collection or community logo
+            DSpaceObject parent = bitstreamService.getParentObject(c, b);
+            if (!(parent instanceof Collection) && !(parent instanceof Community)) {
+                ignoreCustomPolicies = !isAnyItemInstalled(c, b.getBundles());
+            }
+        }
+        if (o instanceof Bundle) {
+            ignoreCustomPolicies = !isAnyItemInstalled(c, Arrays.asList(((Bundle) o)));
+        }
+        if (o instanceof Item) {
+            // the isArchived check is fast and would exclude the possibility that the item
+            // is a workspace or workflow without further queries
+            if (!((Item) o).isArchived() &&
+                    (workspaceItemService.findByItem(c, (Item) o) != null ||
+                    workflowItemService.findByItem(c, (Item) o) != null)) {
+                ignoreCustomPolicies = true;
+            }
+        }
+        return ignoreCustomPolicies;
+    }
+
     // check whether any bundle belongs to any item that passed submission
     // and workflow process
     protected boolean isAnyItemInstalled(Context ctx, List<Bundle> bundles)
@@ -8,6 +8,7 @@
 package org.dspace.authorize;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
@@ -103,6 +104,15 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
         return resourcePolicyDAO.findByDSoAndAction(c, o, actionId);
     }
 
+    @Override
+    public List<ResourcePolicy> find(Context c, List<? extends DSpaceObject> dsos, List<Integer> actionIds)
+        throws SQLException {
+        if (CollectionUtils.isEmpty(dsos) || CollectionUtils.isEmpty(actionIds)) {
+            return new ArrayList<>();
+        }
+        return resourcePolicyDAO.findByDSosAndActions(c, dsos, actionIds);
+    }
+
     @Override
     public List<ResourcePolicy> find(Context c, DSpaceObject dso, Group group, int action) throws SQLException {
         return resourcePolicyDAO.findByTypeGroupAction(c, dso, group, action);
@@ -140,6 +150,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
         // FIXME: authorizations
         // Remove ourself
         resourcePolicyDAO.delete(context, resourcePolicy);
+        context.invalidateAuthorizations(resourcePolicy.getdSpaceObject());
 
         context.turnOffAuthorisationSystem();
         if (resourcePolicy.getdSpaceObject() != null) {
@@ -219,6 +230,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     @Override
     public void removeAllPolicies(Context c, DSpaceObject o) throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDso(c, o);
+        c.invalidateAuthorizations(o);
         c.turnOffAuthorisationSystem();
         contentServiceFactory.getDSpaceObjectService(o).updateLastModified(c, o);
         c.restoreAuthSystemState();
@@ -227,6 +239,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     @Override
     public void removePolicies(Context c, DSpaceObject o, String type) throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDsoAndType(c, o, type);
+        c.invalidateAuthorizations(o);
         c.turnOffAuthorisationSystem();
         contentServiceFactory.getDSpaceObjectService(o).updateLastModified(c, o);
         c.restoreAuthSystemState();
@@ -236,6 +249,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     public void removePolicies(Context c, DSpaceObject o, String type, int action)
         throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDsoAndTypeAndAction(c, o, type, action);
+        c.invalidateAuthorizations(o);
         c.turnOffAuthorisationSystem();
         contentServiceFactory.getDSpaceObjectService(o).updateLastModified(c, o);
         c.restoreAuthSystemState();
@@ -245,6 +259,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     public void removeDsoGroupPolicies(Context context, DSpaceObject dso, Group group)
         throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDsoGroupPolicies(context, dso, group);
+        context.invalidateAuthorizations(dso);
         context.turnOffAuthorisationSystem();
         contentServiceFactory.getDSpaceObjectService(dso).updateLastModified(context, dso);
         context.restoreAuthSystemState();
@@ -254,6 +269,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     public void removeDsoEPersonPolicies(Context context, DSpaceObject dso, EPerson ePerson)
         throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDsoEPersonPolicies(context, dso, ePerson);
+        context.invalidateAuthorizations(dso);
         context.turnOffAuthorisationSystem();
         contentServiceFactory.getDSpaceObjectService(dso).updateLastModified(context, dso);
         context.restoreAuthSystemState();
@@ -263,11 +279,13 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     @Override
     public void removeAllEPersonPolicies(Context context, EPerson ePerson) throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByEPerson(context, ePerson);
+        context.invalidateAuthorizations(null);
     }
 
     @Override
     public void removeGroupPolicies(Context c, Group group) throws SQLException {
         resourcePolicyDAO.deleteByGroup(c, group);
+        c.invalidateAuthorizations(null);
     }
 
     @Override
@@ -276,6 +294,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
             removeAllPolicies(c, o);
         } else {
             resourcePolicyDAO.deleteByDsoAndAction(c, o, actionId);
+            c.invalidateAuthorizations(o);
             c.turnOffAuthorisationSystem();
             contentServiceFactory.getDSpaceObjectService(o).updateLastModified(c, o);
             c.restoreAuthSystemState();
@@ -286,6 +305,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     public void removeDsoAndTypeNotEqualsToPolicies(Context c, DSpaceObject o, String type)
         throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDsoAndTypeNotEqualsTo(c, o, type);
+        c.invalidateAuthorizations(o);
         c.turnOffAuthorisationSystem();
         contentServiceFactory.getDSpaceObjectService(o).updateLastModified(c, o);
         c.restoreAuthSystemState();
@@ -316,6 +336,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
             for (ResourcePolicy resourcePolicy : resourcePolicies) {
                 if (resourcePolicy.getdSpaceObject() != null) {
                     relatedDSpaceObjects.add(resourcePolicy.getdSpaceObject());
+                    context.invalidateAuthorizations(resourcePolicy.getdSpaceObject());
                 }
 
                 // FIXME: Check authorisation
@@ -39,6 +39,18 @@ public interface ResourcePolicyDAO extends GenericDAO<ResourcePolicy> {
 
     public List<ResourcePolicy> findByDSoAndAction(Context context, DSpaceObject dso, int actionId) throws SQLException;
 
+    /**
+     * Find the policies of several objects for several actions with a single query.
+     *
+     * @param context   DSpace context
+     * @param dsos      the objects
+     * @param actionIds the actions
+     * @return the policies of the objects for these actions
+     * @throws SQLException if database error
+     */
+    public List<ResourcePolicy> findByDSosAndActions(Context context, List<? extends DSpaceObject> dsos,
+                                                     List<Integer> actionIds) throws SQLException;
+
     public void deleteByDsoAndTypeAndAction(Context context, DSpaceObject dSpaceObject, String type, int action)
         throws SQLException;
 
@@ -103,6 +103,21 @@ public class ResourcePolicyDAOImpl extends AbstractHibernateDAO<ResourcePolicy>
         return list(context, criteriaQuery, false, ResourcePolicy.class, -1, -1);
     }
 
+    @Override
+    public List<ResourcePolicy> findByDSosAndActions(Context context, List<? extends DSpaceObject> dsos,
+                                                     List<Integer> actionIds) throws SQLException {
+        CriteriaBuilder criteriaBuilder = getCriteriaBuilder(context);
+        CriteriaQuery criteriaQuery = getCriteriaQuery(criteriaBuilder, ResourcePolicy.class);
+        Root<ResourcePolicy> resourcePolicyRoot = criteriaQuery.from(ResourcePolicy.class);
+        criteriaQuery.select(resourcePolicyRoot);
+        criteriaQuery
+            .where(criteriaBuilder.and(resourcePolicyRoot.get(ResourcePolicy_.dSpaceObject).in(dsos),
+                                       resourcePolicyRoot.get(ResourcePolicy_.actionId).in(actionIds)
+                   )
+        );
+        return list(context, criteriaQuery, false, ResourcePolicy.class, -1, -1);
+    }
+
     @Override
     public void deleteByDsoAndTypeAndAction(Context context, DSpaceObject dso, String type, int actionId)
         throws SQLException {
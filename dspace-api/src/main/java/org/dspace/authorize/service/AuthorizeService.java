@@ -10,6 +10,9 @@ package org.dspace.authorize.service;
 import java.sql.SQLException;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 import org.dspace.authorize.AuthorizeException;
 import org.dspace.authorize.ResourcePolicy;
@@ -151,6 +154,26 @@ public interface AuthorizeService {
     public boolean authorizeActionBoolean(Context c, EPerson e, DSpaceObject o, int a, boolean useInheritance)
         throws SQLException;
 
+    /**
+     * Check several actions on several objects at once. The policies of all the objects and the groups of the user
+     * are loaded with a few queries, instead of a few queries for each object and action. The decisions are kept by
+     * the context (when <code>useInheritance</code> is set), so that the following checks of these actions on these
+     * objects, e.g. by {@link #authorizeActionBoolean(Context, EPerson, DSpaceObject, int, boolean)}, are answered
+     * without querying the database until the context changes policies or group memberships.
+     *
+     * @param c              DSpace context
+     * @param e              EPerson to use in the check, null for anonymous
+     * @param objects        the objects, null elements are ignored
+     * @param actions        the actions being attempted, from <code>org.dspace.core.Constants</code>
+     * @param useInheritance flag to say if ADMIN action on the current object or parent
+     *                       object can be used
+     * @return the authorized actions on each object, by object identifier
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    public Map<UUID, Set<Integer>> authorizeActions(Context c, EPerson e, List<? extends DSpaceObject> objects,
+                                                    List<Integer> actions, boolean useInheritance)
+        throws SQLException;
+
     ///////////////////////////////////////////////
     // admin check methods
     ///////////////////////////////////////////////
@@ -35,6 +35,18 @@ public interface ResourcePolicyService extends DSpaceCRUDService<ResourcePolicy>
 
     public List<ResourcePolicy> find(Context c, DSpaceObject o, int actionId) throws SQLException;
 
+    /**
+     * Find the policies of several objects for several actions with a single query.
+     *
+     * @param c         DSpace context
+     * @param dsos      the objects
+     * @param actionIds the actions, from <code>org.dspace.core.Constants</code>
+     * @return the policies of the objects for these actions, or an empty list if there is no object or no action
+     * @throws SQLException if database error
+     */
+    public List<ResourcePolicy> find(Context c, List<? extends DSpaceObject> dsos, List<Integer> actionIds)
+        throws SQLException;
+
     public List<ResourcePolicy> find(Context c, DSpaceObject dso, Group group, int action) throws SQLException;
 
     public List<ResourcePolicy> find(Context context, Group group) throws SQLException;
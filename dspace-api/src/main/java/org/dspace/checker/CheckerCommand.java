@@ -9,10 +9,18 @@ package org.dspace.checker;
 
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayDeque;
 import java.util.Date;
+import java.util.Deque;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import com.google.common.util.concurrent.RateLimiter;
 import org.apache.commons.collections4.MapUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.logging.log4j.Logger;
 import org.dspace.checker.factory.CheckerServiceFactory;
 import org.dspace.checker.service.ChecksumHistoryService;
@@ -30,6 +38,13 @@ import org.dspace.storage.bitstore.service.BitstreamStorageService;
  * against the last calculated checksum for that bitstream.
  * </p>
  *
+ * <p>
+ * With more than one thread, the checksums are computed by a pool of worker
+ * threads, while the bitstreams are dispatched and the results recorded in the
+ * calling thread. The bitstream reads may be throttled, in bytes and in
+ * bitstreams per second.
+ * </p>
+ *
  * @author Jim Downing
  * @author Grace Carpenter
  * @author Nathan Sarr
@@ -78,6 +93,22 @@ public final class CheckerCommand {
      */
     private boolean reportVerbose = false;
 
+    /**
+     * Number of threads computing the checksums.
+     */
+    private int threads = 1;
+
+    /**
+     * Number of bitstreams checked between two commits, with more than one thread.
+     */
+    private int batchSize = 100;
+
+    /**
+     * Limits of the bytes and bitstreams read per second, or null for no limit.
+     */
+    private RateLimiter byteRateLimiter = null;
+    private RateLimiter bitstreamRateLimiter = null;
+
     /**
      * Default constructor uses DSpace plugin manager to construct dependencies.
      *
@@ -120,22 +151,153 @@ public final class CheckerCommand {
         // bitstream table - this always done.
         checksumService.updateMissingBitstreams(context);
 
+        if (threads > 1) {
+            processConcurrently();
+            return;
+        }
+
         Bitstream bitstream = dispatcher.next();
 
         while (bitstream != null) {
             LOG.debug("Processing bitstream id = " + bitstream.getID());
             MostRecentChecksum info = checkBitstream(bitstream);
 
-            if (reportVerbose
-                || !ChecksumResultCode.CHECKSUM_MATCH.equals(info.getChecksumResult().getResultCode())) {
-                collector.collect(context, info);
-            }
+            collect(info);
 
             context.uncacheEntity(bitstream);
             bitstream = dispatcher.next();
         }
     }
 
+    /**
+     * <p>
+     * Accepts bitstreams from the dispatcher, and computes their checksums in
+     * the worker threads. Up to twice as many bitstreams as threads are
+     * pending. A bitstream is claimed when it is dispatched, by setting its
+     * process dates, so that the dispatcher hands out another bitstream.
+     * </p>
+     *
+     * <p>
+     * The results are recorded in this thread, in the order of the
+     * bitstreams, as soon as their checksums are computed, and committed every
+     * batchSize bitstreams.
+     * </p>
+     *
+     * @throws SQLException if database error
+     */
+    protected void processConcurrently() throws SQLException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new BasicThreadFactory.Builder()
+            .namingPattern("checksum-checker-%d").daemon(true).build());
+        Deque<PendingChecksum> pending = new ArrayDeque<>();
+        int commits = 0;
+        int recorded = 0;
+        try {
+            Bitstream bitstream = dispatcher.next();
+            while (bitstream != null || !pending.isEmpty()) {
+                // dispatch bitstreams until all the threads are busy
+                while (bitstream != null && pending.size() < threads * 2) {
+                    LOG.debug("Processing bitstream id = " + bitstream.getID());
+                    MostRecentChecksum info = checksumService.findByBitstream(context, bitstream);
+                    if (info != null && info.isToBeProcessed() && !info.getBitstream().isDeleted()) {
+                        Date now = new Date();
+                        info.setProcessStartDate(now);
+                        info.setProcessEndDate(now);
+                        Bitstream source = info.getBitstream();
+                        pending.add(new PendingChecksum(info, commits, CompletableFuture.supplyAsync(
+                            () -> computeChecksum(source), executor)));
+                    } else {
+                        collect(checkBitstream(bitstream));
+                        context.uncacheEntity(bitstream);
+                    }
+                    bitstream = dispatcher.next();
+                }
+
+                // record the results of the oldest bitstream, and of the following ones already computed
+                do {
+                    PendingChecksum checksum = pending.remove();
+                    MostRecentChecksum info = checksum.info;
+                    if (checksum.commits != commits) {
+                        // committed since the bitstream was dispatched
+                        info = checksumService.findByBitstream(context, info.getBitstream());
+                    }
+                    Map<String, Object> checksumMap = null;
+                    IOException error = null;
+                    try {
+                        checksumMap = checksum.checksumMap.join();
+                    } catch (CompletionException e) {
+                        if (!(e.getCause() instanceof IOException)) {
+                            throw e;
+                        }
+                        error = (IOException) e.getCause();
+                    }
+                    recordChecksum(info, checksumMap, error);
+                    collect(info);
+                    context.uncacheEntity(info.getBitstream());
+
+                    if (++recorded % batchSize == 0) {
+                        context.commit();
+                        commits++;
+                    }
+                } while (!pending.isEmpty() && pending.peek().checksumMap.isDone());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Compute the checksum of a bitstream in a worker thread, once the rate
+     * limits allow it.
+     *
+     * @param bitstream the bitstream
+     * @return the checksum and its algorithm
+     * @throws CompletionException wrapping the IOException if the bitstream
+     *                             cannot be read
+     */
+    private Map<String, Object> computeChecksum(Bitstream bitstream) {
+        throttle(bitstream);
+        try {
+            // the bit stores do not use the context, which is not shared with the worker threads
+            return bitstreamStorageService.computeChecksum(null, bitstream);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Wait until the bitstream may be read without exceeding the limits of
+     * bytes and bitstreams per second.
+     *
+     * @param bitstream the bitstream to be read
+     */
+    protected void throttle(Bitstream bitstream) {
+        if (bitstreamRateLimiter != null) {
+            bitstreamRateLimiter.acquire();
+        }
+        if (byteRateLimiter != null) {
+            long bytes = bitstream.getSizeBytes();
+            while (bytes > 0) {
+                int permits = (int) Math.min(bytes, Integer.MAX_VALUE);
+                byteRateLimiter.acquire(permits);
+                bytes -= permits;
+            }
+        }
+    }
+
+    /**
+     * Hand the information about a checked bitstream to the collector, if it
+     * is to be reported.
+     *
+     * @param info the information about the bitstream and its checksum data
+     * @throws SQLException if database error
+     */
+    protected void collect(MostRecentChecksum info) throws SQLException {
+        if (reportVerbose
+            || !ChecksumResultCode.CHECKSUM_MATCH.equals(info.getChecksumResult().getResultCode())) {
+            collector.collect(context, info);
+        }
+    }
+
     /**
      * Check a specified bitstream.
      *
@@ -244,9 +406,38 @@ public final class CheckerCommand {
     protected void processBitstream(MostRecentChecksum info) throws SQLException {
         info.setProcessStartDate(new Date());
 
+        Map<String, Object> checksumMap = null;
+        IOException error = null;
         try {
-            Map<String, Object> checksumMap = bitstreamStorageService.computeChecksum(context, info.getBitstream());
-            if (MapUtils.isNotEmpty(checksumMap)) {
+            throttle(info.getBitstream());
+            checksumMap = bitstreamStorageService.computeChecksum(context, info.getBitstream());
+        } catch (IOException e) {
+            error = e;
+        }
+        recordChecksum(info, checksumMap, error);
+    }
+
+    /**
+     * Compare the computed checksum of a bitstream to its expected checksum,
+     * and record the result.
+     *
+     * @param info        BitstreamInfo to handle
+     * @param checksumMap the computed checksum and its algorithm, if the
+     *                    bitstream could be read
+     * @param error       the error reading the bitstream, if it could not be
+     *                    read
+     * @throws SQLException if database error
+     */
+    protected void recordChecksum(MostRecentChecksum info, Map<String, Object> checksumMap, IOException error)
+        throws SQLException {
+        try {
+            if (error != null) {
+                // bitstream located, but file missing from asset store
+                info.setChecksumResult(getChecksumResultByCode(ChecksumResultCode.BITSTREAM_NOT_FOUND));
+                info.setToBeProcessed(false);
+                LOG.error("Error retrieving bitstream ID " + info.getBitstream().getID()
+                              + " from " + "asset store.", error);
+            } else if (MapUtils.isNotEmpty(checksumMap)) {
                 info.setBitstreamFound(true);
                 if (checksumMap.containsKey("checksum")) {
                     info.setCurrentChecksum(checksumMap.get("checksum").toString());
@@ -265,12 +456,6 @@ public final class CheckerCommand {
                 info.setToBeProcessed(false);
             }
 
-        } catch (IOException e) {
-            // bitstream located, but file missing from asset store
-            info.setChecksumResult(getChecksumResultByCode(ChecksumResultCode.BITSTREAM_NOT_FOUND));
-            info.setToBeProcessed(false);
-            LOG.error("Error retrieving bitstream ID " + info.getBitstream().getID()
-                          + " from " + "asset store.", e);
         } catch (SQLException e) {
             // ??this code only executes if an SQL
             // exception occurs in *DSpace* code, probably
@@ -362,4 +547,59 @@ public final class CheckerCommand {
     public void setReportVerbose(boolean reportVerbose) {
         this.reportVerbose = reportVerbose;
     }
+
+    /**
+     * Set the number of threads computing the checksums. With more than one
+     * thread, the results are committed every batchSize bitstreams.
+     *
+     * @param threads number of threads
+     */
+    public void setThreads(int threads) {
+        this.threads = Math.max(threads, 1);
+    }
+
+    /**
+     * Set the number of bitstreams checked between two commits, with more than
+     * one thread.
+     *
+     * @param batchSize number of bitstreams
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    /**
+     * Limit the number of bytes read per second.
+     *
+     * @param bytesPerSecond maximum number of bytes per second, 0 for no limit
+     */
+    public void setMaxBytesPerSecond(double bytesPerSecond) {
+        byteRateLimiter = bytesPerSecond > 0 ? RateLimiter.create(bytesPerSecond) : null;
+    }
+
+    /**
+     * Limit the number of bitstreams read per second.
+     *
+     * @param bitstreamsPerSecond maximum number of bitstreams per second, 0
+     *                            for no limit
+     */
+    public void setMaxBitstreamsPerSecond(double bitstreamsPerSecond) {
+        bitstreamRateLimiter = bitstreamsPerSecond > 0 ? RateLimiter.create(bitstreamsPerSecond) : null;
+    }
+
+    /**
+     * A bitstream whose checksum is being computed.
+     */
+    private static class PendingChecksum {
+        private final MostRecentChecksum info;
+        private final int commits;
+        private final CompletableFuture<Map<String, Object>> checksumMap;
+
+        private PendingChecksum(MostRecentChecksum info, int commits,
+                                CompletableFuture<Map<String, Object>> checksumMap) {
+            this.info = info;
+            this.commits = commits;
+            this.checksumMap = checksumMap;
+        }
+    }
 }
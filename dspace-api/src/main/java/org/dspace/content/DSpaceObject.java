@@ -58,6 +58,13 @@ public abstract class DSpaceObject implements Serializable, ReloadableEntity<jav
     @OrderBy("metadataField, place")
     private List<MetadataValue> metadata = new ArrayList<>();
 
+    /**
+     * Lookup structure over {@link #metadata}, built on first use and discarded on every change
+     * to the list of metadata values.
+     */
+    @Transient
+    private MetadataValueIndex metadataIndex = null;
+
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "dso")
     // OrderBy is here to ensure that the oldest handle is retrieved first.
     // Multiple handles are assigned to the latest version of an item.
@@ -176,6 +183,21 @@ public abstract class DSpaceObject implements Serializable, ReloadableEntity<jav
 
     public void setMetadata(List<MetadataValue> metadata) {
         this.metadata = metadata;
+        this.metadataIndex = null;
+    }
+
+    /**
+     * Get the lookup structure over the metadata values of this object, building it if the list
+     * of metadata values has changed since it was last built.
+     *
+     * @return the metadata index
+     */
+    MetadataValueIndex getMetadataIndex() {
+        List<MetadataValue> metadataValues = getMetadata();
+        if (metadataIndex == null || !metadataIndex.isIndexOf(metadataValues)) {
+            metadataIndex = new MetadataValueIndex(metadataValues);
+        }
+        return metadataIndex;
     }
 
     protected void removeMetadata(MetadataValue metadataValue) {
@@ -205,6 +227,7 @@ public abstract class DSpaceObject implements Serializable, ReloadableEntity<jav
 
     protected void setMetadataModified() {
         this.modifiedMetadata = true;
+        this.metadataIndex = null;
     }
 
     public boolean isModified() {
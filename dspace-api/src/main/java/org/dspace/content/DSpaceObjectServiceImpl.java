@@ -118,9 +118,19 @@ public abstract class DSpaceObjectServiceImpl<T extends DSpaceObject> implements
 
     @Override
     public List<MetadataValue> getMetadata(T dso, String schema, String element, String qualifier, String lang) {
-        // Build up list of matching values
+        // Build up list of matching values, only looking at the values of the requested element when it is known
+        List<MetadataValue> candidates;
+        if (Item.ANY.equals(schema) || Item.ANY.equals(element)) {
+            candidates = dso.getMetadata();
+        } else if (StringUtils.isBlank(qualifier)) {
+            candidates = dso.getMetadataIndex().get(schema, element, null);
+        } else if (!qualifier.equals(Item.ANY)) {
+            candidates = dso.getMetadataIndex().get(schema, element, qualifier);
+        } else {
+            candidates = dso.getMetadataIndex().get(schema, element);
+        }
         List<MetadataValue> values = new ArrayList<>();
-        for (MetadataValue dcv : dso.getMetadata()) {
+        for (MetadataValue dcv : candidates) {
             if (match(schema, element, qualifier, lang, dcv)) {
                 values.add(dcv);
             }
@@ -115,6 +115,9 @@ public class Item extends DSpaceObject implements DSpaceObjectLegacySupport {
     @Transient
     private List<MetadataValue> cachedMetadata = new ArrayList<>();
 
+    @Transient
+    private MetadataValueIndex cachedMetadataIndex = null;
+
     /**
      * Protected constructor, create object using:
      * {@link org.dspace.content.service.ItemService#create(Context, WorkspaceItem)}
@@ -400,6 +403,17 @@ public class Item extends DSpaceObject implements DSpaceObjectLegacySupport {
 
     protected void setCachedMetadata(List<MetadataValue> cachedMetadata) {
         this.cachedMetadata = cachedMetadata;
+        this.cachedMetadataIndex = null;
         modifiedMetadataCache = false;
     }
+
+    /**
+     * @return the lookup structure over {@link #getCachedMetadata()}, built on first use
+     */
+    MetadataValueIndex getCachedMetadataIndex() {
+        if (cachedMetadataIndex == null || !cachedMetadataIndex.isIndexOf(cachedMetadata)) {
+            cachedMetadataIndex = new MetadataValueIndex(cachedMetadata);
+        }
+        return cachedMetadataIndex;
+    }
 }
@@ -35,6 +35,9 @@ import org.dspace.authorize.ResourcePolicy;
 import org.dspace.authorize.service.AuthorizeService;
 import org.dspace.authorize.service.ResourcePolicyService;
 import org.dspace.content.authority.Choices;
+import org.dspace.content.dao.BitstreamDAO;
+import org.dspace.content.dao.BundleDAO;
+import org.dspace.content.dao.CollectionDAO;
 import org.dspace.content.dao.ItemDAO;
 import org.dspace.content.factory.ContentServiceFactory;
 import org.dspace.content.service.BitstreamFormatService;
@@ -47,6 +50,7 @@ import org.dspace.content.service.InstallItemService;
 import org.dspace.content.service.ItemService;
 import org.dspace.content.service.MetadataSchemaService;
 import org.dspace.content.service.RelationshipService;
+import org.dspace.content.service.VirtualMetadataService;
 import org.dspace.content.service.WorkspaceItemService;
 import org.dspace.content.virtual.VirtualMetadataPopulator;
 import org.dspace.core.Constants;
@@ -99,6 +103,12 @@ public class ItemServiceImpl extends DSpaceObjectServiceImpl<Item> implements It
 
     @Autowired(required = true)
     protected ItemDAO itemDAO;
+    @Autowired(required = true)
+    protected CollectionDAO collectionDAO;
+    @Autowired(required = true)
+    protected BundleDAO bundleDAO;
+    @Autowired(required = true)
+    protected BitstreamDAO bitstreamDAO;
 
     @Autowired(required = true)
     protected CommunityService communityService;
@@ -147,6 +157,9 @@ public class ItemServiceImpl extends DSpaceObjectServiceImpl<Item> implements It
     @Autowired(required = true)
     private RelationshipMetadataService relationshipMetadataService;
 
+    @Autowired(required = true)
+    private VirtualMetadataService virtualMetadataService;
+
     @Autowired(required = true)
     private EntityTypeService entityTypeService;
 
@@ -205,6 +218,36 @@ public class ItemServiceImpl extends DSpaceObjectServiceImpl<Item> implements It
         return null;
     }
 
+    @Override
+    public void prefetch(Context context, List<Item> items, boolean owningCollections, boolean bundles,
+                         boolean bitstreams) throws SQLException {
+        itemDAO.fetchMetadata(context, items);
+        if (owningCollections) {
+            List<Collection> collections = new ArrayList<>(items.size());
+            for (Item item : items) {
+                // a proxy, not initialized until the query below
+                collections.add(item.getOwningCollection());
+            }
+            collectionDAO.fetchMetadata(context, collections);
+        }
+        if (bundles || bitstreams) {
+            itemDAO.fetchBundles(context, items);
+            List<Bundle> itemBundles = new ArrayList<>();
+            for (Item item : items) {
+                itemBundles.addAll(item.getBundles());
+            }
+            bundleDAO.fetchMetadata(context, itemBundles);
+            if (bitstreams) {
+                bundleDAO.fetchBitstreams(context, itemBundles);
+                List<Bitstream> bundleBitstreams = new ArrayList<>();
+                for (Bundle bundle : itemBundles) {
+                    bundleBitstreams.addAll(bundle.getBitstreams());
+                }
+                bitstreamDAO.fetchMetadata(context, bundleBitstreams);
+            }
+        }
+    }
+
     @Override
     public Item find(Context context, UUID id) throws SQLException {
         Item item = itemDAO.findByID(context, Item.class, id);
@@ -286,6 +329,11 @@ public class ItemServiceImpl extends DSpaceObjectServiceImpl<Item> implements It
         return itemDAO.findAll(context, true, limit, offset);
     }
 
+    @Override
+    public List<Item> findAllAfter(Context context, UUID after, int limit) throws SQLException {
+        return itemDAO.findAllAfter(context, true, after, limit);
+    }
+
     @Override
     public Iterator<Item> findAllUnfiltered(Context context) throws SQLException {
         return itemDAO.findAll(context, true, true);
@@ -296,6 +344,11 @@ public class ItemServiceImpl extends DSpaceObjectServiceImpl<Item> implements It
         return itemDAO.findAllRegularItems(context);
     }
 
+    @Override
+    public Iterator<Item> findAllRegularItems(Context context, UUID from, UUID to) throws SQLException {
+        return itemDAO.findAllRegularItems(context, from, to);
+    }
+
     @Override
     public Iterator<Item> findBySubmitter(Context context, EPerson eperson) throws SQLException {
         return itemDAO.findBySubmitter(context, eperson);
@@ -626,6 +679,8 @@ public class ItemServiceImpl extends DSpaceObjectServiceImpl<Item> implements It
             itemDAO.save(context, item);
 
             if (item.isMetadataModified()) {
+                // The stored virtual metadata of the item and of its related items may depend on the changes
+                virtualMetadataService.invalidate(context, item);
                 context.addEvent(new Event(Event.MODIFY_METADATA, item.getType(), item.getID(), item.getDetails(),
                                            getIdentifiers(context, item)));
             }
@@ -779,6 +834,8 @@ public class ItemServiceImpl extends DSpaceObjectServiceImpl<Item> implements It
             + item.getID()));
         //remove subscription related with it
         subscribeService.deleteByDspaceObject(context, item);
+        // Remove the stored virtual metadata of the item and of the items depending on it
+        virtualMetadataService.invalidate(context, item);
         // Remove relationships
         for (Relationship relationship : relationshipService.findByItem(context, item, -1, -1, false, false)) {
             relationshipService.forceDelete(context, relationship, false, false);
@@ -1663,9 +1720,20 @@ prevent the generation of resource policy entry values with null dspace_object a
         }
 
         log.debug("Called getMetadata for " + item.getID() + " based on cache");
-        // Build up list of matching values based on the cache
+        // Build up list of matching values based on the cache, only looking at the values of the requested element
+        // when it is known
+        List<MetadataValue> candidates;
+        if (Item.ANY.equals(schema) || Item.ANY.equals(element)) {
+            candidates = item.getCachedMetadata();
+        } else if (StringUtils.isBlank(qualifier)) {
+            candidates = item.getCachedMetadataIndex().get(schema, element, null);
+        } else if (!qualifier.equals(Item.ANY)) {
+            candidates = item.getCachedMetadataIndex().get(schema, element, qualifier);
+        } else {
+            candidates = item.getCachedMetadataIndex().get(schema, element);
+        }
         List<MetadataValue> values = new ArrayList<>();
-        for (MetadataValue dcv : item.getCachedMetadata()) {
+        for (MetadataValue dcv : candidates) {
             if (match(schema, element, qualifier, lang, dcv)) {
                 values.add(dcv);
             }
@@ -0,0 +1,77 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lookup structure over a list of metadata values of a {@link DSpaceObject}, grouping them by
+ * {@link MetadataField} and by schema and element. Each group keeps the values in the order of
+ * the list, so that filtering a group yields the same result as filtering the whole list.
+ * <p>
+ * The index is a snapshot: it is built by {@link DSpaceObject} on first use and discarded
+ * whenever the list of metadata values is changed.
+ */
+class MetadataValueIndex {
+
+    private final List<MetadataValue> source;
+    private final int size;
+    private final Map<String, List<MetadataValue>> byField = new HashMap<>();
+    private final Map<String, List<MetadataValue>> byElement = new HashMap<>();
+
+    MetadataValueIndex(List<MetadataValue> source) {
+        this.source = source;
+        for (MetadataValue metadataValue : source) {
+            MetadataField metadataField = metadataValue.getMetadataField();
+            byField.computeIfAbsent(metadataField.toString('.'), key -> new ArrayList<>()).add(metadataValue);
+            String elementKey = key(metadataField.getMetadataSchema().getName(), metadataField.getElement());
+            byElement.computeIfAbsent(elementKey, key -> new ArrayList<>()).add(metadataValue);
+        }
+        this.size = source.size();
+    }
+
+    /**
+     * Check that this index still reflects the given list, as a safeguard against changes made to
+     * the list without going through {@link DSpaceObject}, e.g. by Hibernate reloading it.
+     *
+     * @param metadata the current metadata values of the object
+     * @return true if the index was built from this list, and its size is unchanged
+     */
+    boolean isIndexOf(List<MetadataValue> metadata) {
+        return source == metadata && size == metadata.size();
+    }
+
+    /**
+     * @param schema    the name of the schema
+     * @param element   the element
+     * @param qualifier the qualifier, or null for the unqualified field
+     * @return the values of the given field, never null
+     */
+    List<MetadataValue> get(String schema, String element, String qualifier) {
+        String key = key(schema, element);
+        return byField.getOrDefault(qualifier == null ? key : key + "." + qualifier, Collections.emptyList());
+    }
+
+    /**
+     * @param schema  the name of the schema
+     * @param element the element
+     * @return the values of all the fields with the given schema and element, whatever their
+     * qualifier, never null
+     */
+    List<MetadataValue> get(String schema, String element) {
+        return byElement.getOrDefault(key(schema, element), Collections.emptyList());
+    }
+
+    private static String key(String schema, String element) {
+        return schema + "." + element;
+    }
+}
@@ -30,6 +30,18 @@ public interface RelationshipMetadataService {
      */
     public List<RelationshipMetadataValue> getRelationshipMetadata(Item item, boolean enableVirtualMetadata);
 
+    /**
+     * This method computes the list of MetadataValue objects constructed from processing the given Item's
+     * Relationships through the config given to the {@link VirtualMetadataPopulator}, without reading the virtual
+     * metadata stored by the {@link org.dspace.content.service.VirtualMetadataService}.
+     * @param context   The context
+     * @param item      The Item that will be processed through it's Relationships
+     * @return          The list of MetadataValue objects constructed through the Relationships
+     * @throws SQLException If something goes wrong
+     */
+    public List<RelationshipMetadataValue> computeRelationshipMetadata(Context context, Item item)
+        throws SQLException;
+
     /**
      * Retrieves the list of RelationshipMetadataValue objects specific to only one Relationship of the item.
      *
@@ -25,6 +25,7 @@ import org.dspace.content.service.ItemService;
 import org.dspace.content.service.MetadataFieldService;
 import org.dspace.content.service.RelationshipService;
 import org.dspace.content.service.RelationshipTypeService;
+import org.dspace.content.service.VirtualMetadataService;
 import org.dspace.content.virtual.VirtualMetadataConfiguration;
 import org.dspace.content.virtual.VirtualMetadataPopulator;
 import org.dspace.core.Constants;
@@ -53,6 +54,9 @@ public class RelationshipMetadataServiceImpl implements RelationshipMetadataServ
     @Autowired(required = true)
     protected MetadataFieldService metadataFieldService;
 
+    @Autowired(required = true)
+    protected VirtualMetadataService virtualMetadataService;
+
     @Override
     public List<RelationshipMetadataValue> getRelationshipMetadata(Item item, boolean enableVirtualMetadata) {
         Context context = new Context();
@@ -60,26 +64,16 @@ public class RelationshipMetadataServiceImpl implements RelationshipMetadataServ
         try {
             EntityType entityType = itemService.getEntityType(context, item);
             if (entityType != null) {
-                // NOTE: The following code will add metadata fields of type relation.*.latestForDiscovery
-                //       (e.g. relation.isAuthorOfPublication.latestForDiscovery).
-                //       These fields contain the UUIDs of the items that have a relationship with current item,
-                //       from the perspective of the other item. In other words, given a relationship with this item,
-                //       the current item should have "latest status" in order for the other item to appear in
-                //       relation.*.latestForDiscovery fields.
-                fullMetadataValueList.addAll(findLatestForDiscoveryMetadataValues(context, item, entityType));
-
-                // NOTE: The following code will, among other things,
-                //       add metadata fields of type relation.* (e.g. relation.isAuthorOfPublication).
-                //       These fields contain the UUIDs of the items that have a relationship with current item,
-                //       from the perspective of this item. In other words, given a relationship with this item,
-                //       the other item should have "latest status" in order to appear in relation.* fields.
-                List<Relationship> relationships = relationshipService.findByItem(context, item, -1, -1, true);
-                for (Relationship relationship : relationships) {
-                    fullMetadataValueList
-                        .addAll(findRelationshipMetadataValueForItemRelationship(context, item, entityType.getLabel(),
-                                relationship, enableVirtualMetadata));
+                if (enableVirtualMetadata && virtualMetadataService.isEnabled()) {
+                    // the stored metadata is only written in contexts of its own, once the changes are committed:
+                    // this context shares the transaction of the caller, which may not be committed
+                    List<RelationshipMetadataValue> storedMetadataValueList =
+                        virtualMetadataService.find(context, item);
+                    if (storedMetadataValueList != null) {
+                        return storedMetadataValueList;
+                    }
                 }
-
+                addRelationshipMetadata(context, item, entityType, enableVirtualMetadata, fullMetadataValueList);
             }
         } catch (SQLException e) {
             log.error("Lookup for Relationships for item with uuid: " + item.getID() + " caused DSpace to crash", e);
@@ -87,6 +81,50 @@ public class RelationshipMetadataServiceImpl implements RelationshipMetadataServ
         return fullMetadataValueList;
     }
 
+    @Override
+    public List<RelationshipMetadataValue> computeRelationshipMetadata(Context context, Item item)
+        throws SQLException {
+        List<RelationshipMetadataValue> fullMetadataValueList = new LinkedList<>();
+        EntityType entityType = itemService.getEntityType(context, item);
+        if (entityType != null) {
+            addRelationshipMetadata(context, item, entityType, true, fullMetadataValueList);
+        }
+        return fullMetadataValueList;
+    }
+
+    /**
+     * Add the virtual metadata computed from the relationships of the given item to a list.
+     * @param context the DSpace context.
+     * @param item the item.
+     * @param entityType the entity type of the item.
+     * @param enableVirtualMetadata whether the metadata configured in the VirtualMetadataPopulator is added.
+     * @param fullMetadataValueList the list to which the virtual metadata is added.
+     */
+    private void addRelationshipMetadata(Context context, Item item, EntityType entityType,
+                                         boolean enableVirtualMetadata,
+                                         List<RelationshipMetadataValue> fullMetadataValueList)
+        throws SQLException {
+        // NOTE: The following code will add metadata fields of type relation.*.latestForDiscovery
+        //       (e.g. relation.isAuthorOfPublication.latestForDiscovery).
+        //       These fields contain the UUIDs of the items that have a relationship with current item,
+        //       from the perspective of the other item. In other words, given a relationship with this item,
+        //       the current item should have "latest status" in order for the other item to appear in
+        //       relation.*.latestForDiscovery fields.
+        fullMetadataValueList.addAll(findLatestForDiscoveryMetadataValues(context, item, entityType));
+
+        // NOTE: The following code will, among other things,
+        //       add metadata fields of type relation.* (e.g. relation.isAuthorOfPublication).
+        //       These fields contain the UUIDs of the items that have a relationship with current item,
+        //       from the perspective of this item. In other words, given a relationship with this item,
+        //       the other item should have "latest status" in order to appear in relation.* fields.
+        List<Relationship> relationships = relationshipService.findByItem(context, item, -1, -1, true);
+        for (Relationship relationship : relationships) {
+            fullMetadataValueList
+                .addAll(findRelationshipMetadataValueForItemRelationship(context, item, entityType.getLabel(),
+                        relationship, enableVirtualMetadata));
+        }
+    }
+
     /**
      * Create the list of relation.*.latestForDiscovery virtual metadata values for the given item.
      * @param context the DSpace context.
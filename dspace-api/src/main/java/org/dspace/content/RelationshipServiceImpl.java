@@ -9,9 +9,11 @@ package org.dspace.content;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -29,6 +31,7 @@ import org.dspace.content.service.EntityTypeService;
 import org.dspace.content.service.ItemService;
 import org.dspace.content.service.RelationshipService;
 import org.dspace.content.service.RelationshipTypeService;
+import org.dspace.content.service.VirtualMetadataService;
 import org.dspace.content.virtual.VirtualMetadataConfiguration;
 import org.dspace.content.virtual.VirtualMetadataPopulator;
 import org.dspace.core.Constants;
@@ -68,6 +71,9 @@ public class RelationshipServiceImpl implements RelationshipService {
     @Autowired
     private VirtualMetadataPopulator virtualMetadataPopulator;
 
+    @Autowired
+    private VirtualMetadataService virtualMetadataService;
+
     @Override
     public Relationship create(Context context) throws SQLException, AuthorizeException {
         if (!authorizeService.isAdmin(context)) {
@@ -666,6 +672,8 @@ public class RelationshipServiceImpl implements RelationshipService {
                     authorizeService.authorizeActionBoolean(context, relationship.getRightItem(), Constants.WRITE)) {
                     if (isRelationshipValidToCreate(context, relationship)) {
                         relationshipDAO.save(context, relationship);
+                        virtualMetadataService.invalidate(context, relationship.getLeftItem());
+                        virtualMetadataService.invalidate(context, relationship.getRightItem());
                     }
                 } else {
                     throw new AuthorizeException("You do not have write rights on this relationship's items");
@@ -1116,4 +1124,15 @@ public class RelationshipServiceImpl implements RelationshipService {
         return relationshipDAO
                .countByItemAndRelationshipTypeAndList(context, focusUUID, relationshipType, items, isLeft);
     }
+
+    @Override
+    public Set<UUID> findRelatedItemIds(Context context, Collection<UUID> itemIds, Collection<String> typeNames)
+        throws SQLException {
+        return relationshipDAO.findRelatedItemIds(context, itemIds, typeNames);
+    }
+
+    @Override
+    public Set<UUID> findItemIdsWithRelationships(Context context) throws SQLException {
+        return relationshipDAO.findItemIdsWithRelationships(context);
+    }
 }
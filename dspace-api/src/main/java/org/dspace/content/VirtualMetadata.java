@@ -0,0 +1,90 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content;
+
+import java.util.Date;
+import java.util.UUID;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.dspace.core.ReloadableEntity;
+import org.hibernate.annotations.Type;
+
+/**
+ * Database entity representation of the virtual_metadata table: the virtual metadata of an Item, computed from its
+ * relationships by the {@link RelationshipMetadataService} and stored as a JSON array.
+ */
+@Entity
+@Table(name = "virtual_metadata")
+public class VirtualMetadata implements ReloadableEntity<Integer> {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "virtual_metadata_id_seq")
+    @SequenceGenerator(name = "virtual_metadata_id_seq", sequenceName = "virtual_metadata_id_seq",
+        allocationSize = 1)
+    private Integer id;
+
+    @Column(name = "item_id", nullable = false)
+    private UUID itemID;
+
+    @Lob
+    @Type(type = "org.hibernate.type.TextType")
+    @Column(name = "metadata", nullable = false)
+    private String metadata;
+
+    /**
+     * Time at which the computation of the metadata started
+     */
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "computed", nullable = false)
+    private Date computed;
+
+    /**
+     * Protected constructor, create handled by the
+     * {@link org.dspace.content.service.VirtualMetadataService}
+     */
+    protected VirtualMetadata() {
+    }
+
+    @Override
+    public Integer getID() {
+        return id;
+    }
+
+    public UUID getItemID() {
+        return itemID;
+    }
+
+    public void setItemID(UUID itemID) {
+        this.itemID = itemID;
+    }
+
+    public String getMetadata() {
+        return metadata;
+    }
+
+    public void setMetadata(String metadata) {
+        this.metadata = metadata;
+    }
+
+    public Date getComputed() {
+        return computed;
+    }
+
+    public void setComputed(Date computed) {
+        this.computed = computed;
+    }
+}
@@ -0,0 +1,354 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.annotation.PreDestroy;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.content.dao.VirtualMetadataDAO;
+import org.dspace.content.service.ItemService;
+import org.dspace.content.service.MetadataFieldService;
+import org.dspace.content.service.RelationshipService;
+import org.dspace.content.service.VirtualMetadataService;
+import org.dspace.content.virtual.VirtualMetadataPopulator;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.core.ReloadableEntity;
+import org.dspace.event.service.EventOutboxService;
+import org.dspace.services.ConfigurationService;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Service implementation for the stored virtual metadata.
+ * <p>
+ * The virtual metadata of an Item is stored as a JSON array in one row of the virtual_metadata table. Each value
+ * holds the ID of its metadata field, and the ID of the relationship from which it is derived.
+ * <p>
+ * The stored metadata is deleted in the transaction which changes the relationships or the metadata it depends on,
+ * so that this transaction reads the virtual metadata computed again. Once this transaction is committed, the
+ * virtual metadata of these Items is computed again and stored by a background thread, in a Context of its own.
+ * The virtual-metadata script stores the virtual metadata of all the Items, e.g. after a configuration change.
+ *
+ * This class is responsible for all business logic calls for the stored virtual metadata and is autowired by spring.
+ * This class should never be accessed directly.
+ */
+public class VirtualMetadataServiceImpl implements VirtualMetadataService {
+
+    private static final Logger log = LogManager.getLogger();
+
+    /**
+     * Number of Items whose virtual metadata is stored between two commits of a rebuild
+     */
+    private static final int REBUILD_BATCH_SIZE = 100;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * IDs of the Items whose virtual metadata is stored again by the updater, in the order they were invalidated
+     */
+    private final Set<UUID> pendingUpdates = new LinkedHashSet<>();
+
+    private final ExecutorService updater = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "virtual-metadata-updater");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired(required = true)
+    protected VirtualMetadataDAO virtualMetadataDAO;
+
+    @Autowired(required = true)
+    protected RelationshipMetadataService relationshipMetadataService;
+
+    @Autowired(required = true)
+    protected RelationshipService relationshipService;
+
+    @Autowired(required = true)
+    protected ItemService itemService;
+
+    @Autowired(required = true)
+    protected MetadataFieldService metadataFieldService;
+
+    @Autowired(required = true)
+    protected VirtualMetadataPopulator virtualMetadataPopulator;
+
+    @Autowired(required = true)
+    protected ConfigurationService configurationService;
+
+    @Autowired(required = true)
+    protected EventOutboxService eventOutboxService;
+
+    protected VirtualMetadataServiceImpl() {
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return configurationService.getBooleanProperty("virtual-metadata.store.enabled", false);
+    }
+
+    @Override
+    public List<RelationshipMetadataValue> find(Context context, Item item) throws SQLException {
+        VirtualMetadata virtualMetadata = virtualMetadataDAO.findLatest(context, item.getID());
+        if (virtualMetadata == null) {
+            return null;
+        }
+        long maxAge = getMaxAge();
+        if (maxAge > 0 && virtualMetadata.getComputed().getTime() < System.currentTimeMillis() - maxAge * 1000) {
+            return null;
+        }
+        try {
+            return fromJson(context, item, mapper.readTree(virtualMetadata.getMetadata()));
+        } catch (IOException e) {
+            log.warn("Unreadable virtual metadata stored for item with uuid {}", item.getID(), e);
+            return null;
+        }
+    }
+
+    @Override
+    public VirtualMetadata store(Context context, Item item, List<RelationshipMetadataValue> values, Date computed)
+        throws SQLException {
+        VirtualMetadata latest = virtualMetadataDAO.findLatest(context, item.getID());
+        if (latest != null && !latest.getComputed().before(computed)) {
+            // stored meanwhile by another transaction, which did not start earlier
+            return latest;
+        }
+        // the previous metadata is not read anymore
+        virtualMetadataDAO.deleteComputedBefore(context, item.getID(), computed);
+        VirtualMetadata virtualMetadata = new VirtualMetadata();
+        virtualMetadata.setItemID(item.getID());
+        virtualMetadata.setMetadata(toJson(values).toString());
+        virtualMetadata.setComputed(computed);
+        return virtualMetadataDAO.create(context, virtualMetadata);
+    }
+
+    @Override
+    public void invalidate(Context context, Item item) throws SQLException {
+        if (!isEnabled()) {
+            return;
+        }
+        // the Items from which the Related configurations reach the given Item
+        Set<String> relatedTypes = virtualMetadataPopulator.getRelatedRelationshipTypes();
+        Set<UUID> reached = new HashSet<>();
+        reached.add(item.getID());
+        Set<UUID> frontier = reached;
+        for (int depth = virtualMetadataPopulator.getMaxRelatedDepth(); depth > 0 && !frontier.isEmpty(); depth--) {
+            frontier = relationshipService.findRelatedItemIds(context, frontier, relatedTypes);
+            frontier.removeAll(reached);
+            reached.addAll(frontier);
+        }
+        // and their related Items, whose virtual metadata is computed from their metadata
+        Set<UUID> invalidated = relationshipService.findRelatedItemIds(context, reached, null);
+        invalidated.addAll(reached);
+        virtualMetadataDAO.deleteByItems(context, invalidated);
+        eventOutboxService.afterCommit(context, () -> scheduleUpdate(invalidated));
+    }
+
+    @Override
+    public int rebuild(Context context) throws SQLException {
+        Date started = new Date();
+        int count = 0;
+        List<ReloadableEntity<?>> batch = new ArrayList<>();
+        for (UUID itemID : relationshipService.findItemIdsWithRelationships(context)) {
+            Item item = itemService.find(context, itemID);
+            if (item == null) {
+                continue;
+            }
+            Date computed = new Date();
+            List<RelationshipMetadataValue> values =
+                relationshipMetadataService.computeRelationshipMetadata(context, item);
+            batch.add(store(context, item, values, computed));
+            batch.add(item);
+            count++;
+            if (count % REBUILD_BATCH_SIZE == 0) {
+                commit(context, batch);
+            }
+        }
+        // the Items without relationships anymore
+        virtualMetadataDAO.deleteComputedBefore(context, started);
+        commit(context, batch);
+        return count;
+    }
+
+    @Override
+    public void rebuild(Context context, Item item) throws SQLException {
+        Date computed = new Date();
+        store(context, item, relationshipMetadataService.computeRelationshipMetadata(context, item), computed);
+    }
+
+    /**
+     * Wait until the virtual metadata of the invalidated Items has been stored again by the updater.
+     * This is mostly useful in tests.
+     *
+     * @param timeout the maximum time to wait, in milliseconds
+     * @return true if the updates scheduled before are done, false if the timeout elapsed
+     */
+    public boolean awaitUpdates(long timeout) throws InterruptedException, ExecutionException {
+        // the updater runs the tasks in order, so the updates already scheduled are done before this one
+        try {
+            updater.submit(() -> { }).get(timeout, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Stop the updater once the Items being stored are done.
+     */
+    @PreDestroy
+    public void destroy() {
+        updater.shutdown();
+        try {
+            if (!updater.awaitTermination(30, TimeUnit.SECONDS)) {
+                updater.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            updater.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queue the given Items for the updater. Called once the transaction which invalidated them is committed,
+     * so that the updater reads their committed relationships and metadata.
+     */
+    private void scheduleUpdate(Set<UUID> itemIDs) {
+        synchronized (pendingUpdates) {
+            pendingUpdates.addAll(itemIDs);
+        }
+        if (!updater.isShutdown()) {
+            updater.execute(this::storePendingUpdates);
+        }
+    }
+
+    /**
+     * Compute and store the virtual metadata of the queued Items, in batches committed in a Context of the
+     * updater thread. The Items without virtual metadata are not stored, their metadata is computed when read.
+     */
+    private void storePendingUpdates() {
+        List<UUID> itemIDs;
+        while (!(itemIDs = takePendingUpdates()).isEmpty()) {
+            Context context = new Context();
+            try {
+                context.turnOffAuthorisationSystem();
+                for (UUID itemID : itemIDs) {
+                    Item item = itemService.find(context, itemID);
+                    if (item == null) {
+                        continue;
+                    }
+                    Date computed = new Date();
+                    List<RelationshipMetadataValue> values =
+                        relationshipMetadataService.computeRelationshipMetadata(context, item);
+                    if (!values.isEmpty()) {
+                        store(context, item, values, computed);
+                    }
+                }
+                context.complete();
+            } catch (Exception e) {
+                // their virtual metadata is computed when read, until they are stored again
+                log.error("Unable to store the virtual metadata of items {}", itemIDs, e);
+            } finally {
+                if (context.isValid()) {
+                    context.abort();
+                }
+            }
+        }
+    }
+
+    private List<UUID> takePendingUpdates() {
+        List<UUID> itemIDs = new ArrayList<>();
+        synchronized (pendingUpdates) {
+            Iterator<UUID> iterator = pendingUpdates.iterator();
+            while (iterator.hasNext() && itemIDs.size() < REBUILD_BATCH_SIZE) {
+                itemIDs.add(iterator.next());
+                iterator.remove();
+            }
+        }
+        return itemIDs;
+    }
+
+    /**
+     * @return the maximum age, in seconds, of the stored virtual metadata which is read, or 0 if it has no limit
+     */
+    private long getMaxAge() {
+        return configurationService.getLongProperty("virtual-metadata.store.max-age", 0);
+    }
+
+    /**
+     * Commit the stored virtual metadata, and remove it from the context cache with its Items.
+     */
+    private void commit(Context context, List<ReloadableEntity<?>> batch) throws SQLException {
+        context.commit();
+        for (ReloadableEntity<?> entity : batch) {
+            context.uncacheEntity(entity);
+        }
+        batch.clear();
+    }
+
+    private ArrayNode toJson(List<RelationshipMetadataValue> values) {
+        ArrayNode array = mapper.createArrayNode();
+        for (RelationshipMetadataValue value : values) {
+            ObjectNode node = array.addObject();
+            node.put("field", value.getMetadataField().getID());
+            node.put("value", value.getValue());
+            node.put("relationship", value.getRelationshipId());
+            node.put("place", value.getPlace());
+            node.put("useForPlace", value.isUseForPlace());
+            node.put("confidence", value.getConfidence());
+            node.put("item", value.getDSpaceObject() != null);
+        }
+        return array;
+    }
+
+    /**
+     * @return the stored values, or null if the metadata field of a value does not exist anymore
+     */
+    private List<RelationshipMetadataValue> fromJson(Context context, Item item, JsonNode array)
+        throws SQLException {
+        List<RelationshipMetadataValue> values = new LinkedList<>();
+        for (JsonNode node : array) {
+            MetadataField field = metadataFieldService.find(context, node.get("field").asInt());
+            if (field == null) {
+                return null;
+            }
+            RelationshipMetadataValue value = new RelationshipMetadataValue();
+            value.setMetadataField(field);
+            value.setValue(node.get("value").asText());
+            value.setAuthority(Constants.VIRTUAL_AUTHORITY_PREFIX + node.get("relationship").asInt());
+            value.setPlace(node.get("place").asInt());
+            value.setUseForPlace(node.get("useForPlace").asBoolean());
+            value.setConfidence(node.get("confidence").asInt());
+            if (node.get("item").asBoolean()) {
+                value.setDSpaceObject(item);
+            }
+            values.add(value);
+        }
+        return values;
+    }
+}
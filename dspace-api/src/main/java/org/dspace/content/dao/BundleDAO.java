@@ -8,6 +8,7 @@
 package org.dspace.content.dao;
 
 import java.sql.SQLException;
+import java.util.List;
 
 import org.dspace.content.Bundle;
 import org.dspace.core.Context;
@@ -22,4 +23,14 @@ import org.dspace.core.Context;
  */
 public interface BundleDAO extends DSpaceObjectLegacySupportDAO<Bundle> {
     int countRows(Context context) throws SQLException;
+
+    /**
+     * Load the bitstreams of the given bundles with a query, rather than a query per bundle when they are first
+     * accessed.
+     *
+     * @param context current DSpace context.
+     * @param bundles the bundles, or proxies of the bundles.
+     * @throws SQLException if database error
+     */
+    void fetchBitstreams(Context context, List<Bundle> bundles) throws SQLException;
 }
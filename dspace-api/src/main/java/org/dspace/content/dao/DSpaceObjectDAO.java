@@ -7,7 +7,11 @@
  */
 package org.dspace.content.dao;
 
+import java.sql.SQLException;
+import java.util.List;
+
 import org.dspace.content.DSpaceObject;
+import org.dspace.core.Context;
 import org.dspace.core.GenericDAO;
 
 /**
@@ -18,4 +22,14 @@ import org.dspace.core.GenericDAO;
  * @author kevinvandevelde at atmire.com
  */
 public interface DSpaceObjectDAO<T extends DSpaceObject> extends GenericDAO<T> {
+
+    /**
+     * Load the metadata values and the handles of the given objects with a query per association, rather than
+     * a query per object when they are first accessed. Meant to be called before iterating over a page of objects.
+     *
+     * @param context current DSpace context.
+     * @param dsos    the objects, or proxies of the objects.
+     * @throws SQLException if database error
+     */
+    void fetchMetadata(Context context, List<? extends T> dsos) throws SQLException;
 }
@@ -32,6 +32,18 @@ public interface ItemDAO extends DSpaceObjectLegacySupportDAO<Item> {
 
     public Iterator<Item> findAll(Context context, boolean archived, int limit, int offset) throws SQLException;
 
+    /**
+     * Find the items following an item, in the order of their IDs.
+     *
+     * @param context  DSpace context object
+     * @param archived whether to find the items in the archive, or the other items
+     * @param after    ID of the item after which to find the items, or null to find the first items
+     * @param limit    maximum number of items
+     * @return the items following the given item, in the order of their IDs
+     * @throws SQLException if database error
+     */
+    public List<Item> findAllAfter(Context context, boolean archived, UUID after, int limit) throws SQLException;
+
     @Deprecated
     public Iterator<Item> findAll(Context context, boolean archived, boolean withdrawn) throws SQLException;
 
@@ -48,6 +60,16 @@ public interface ItemDAO extends DSpaceObjectLegacySupportDAO<Item> {
      */
     public Iterator<Item> findAllRegularItems(Context context) throws SQLException;
 
+    /**
+     * Find all regular items, as {@link #findAllRegularItems(Context)}, with a UUID between the given bounds.
+     * @param context the DSpace context.
+     * @param from    lowest UUID of the returned items (inclusive)
+     * @param to      highest UUID of the returned items (inclusive)
+     * @return iterator over the regular items in the given UUID range, ordered by UUID.
+     * @throws SQLException if database error.
+     */
+    public Iterator<Item> findAllRegularItems(Context context, UUID from, UUID to) throws SQLException;
+
     /**
      * Find all Items modified since a Date.
      *
@@ -195,4 +217,13 @@ public interface ItemDAO extends DSpaceObjectLegacySupportDAO<Item> {
     public int countItems(Context context, EPerson submitter, boolean includeArchived, boolean includeWithdrawn)
         throws SQLException;
 
+    /**
+     * Load the bundles of the given items with a query, rather than a query per item when they are first accessed.
+     *
+     * @param context context
+     * @param items   the items, or proxies of the items
+     * @throws SQLException if database error
+     */
+    void fetchBundles(Context context, List<Item> items) throws SQLException;
+
 }
@@ -8,7 +8,9 @@
 package org.dspace.content.dao;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import org.dspace.content.Item;
@@ -278,4 +280,26 @@ public interface RelationshipDAO extends GenericDAO<Relationship> {
      */
     int countByItemAndRelationshipTypeAndList(Context context, UUID focusUUID, RelationshipType relationshipType,
                                                List<UUID> items, boolean isLeft) throws SQLException;
+
+    /**
+     * Find the IDs of the Items which have a relationship with one of the given Items.
+     *
+     * @param context            DSpace context object
+     * @param itemIds            IDs of the Items
+     * @param typeNames          leftward or rightward types of the relationships to follow, or null to follow
+     *                           all the relationships
+     * @return                   IDs of the related Items
+     * @throws SQLException      If database error
+     */
+    Set<UUID> findRelatedItemIds(Context context, Collection<UUID> itemIds, Collection<String> typeNames)
+        throws SQLException;
+
+    /**
+     * Find the IDs of all the Items which have at least one relationship.
+     *
+     * @param context            DSpace context object
+     * @return                   IDs of the Items
+     * @throws SQLException      If database error
+     */
+    Set<UUID> findItemIdsWithRelationships(Context context) throws SQLException;
 }
@@ -0,0 +1,59 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content.dao;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Date;
+import java.util.UUID;
+
+import org.dspace.content.VirtualMetadata;
+import org.dspace.core.Context;
+import org.dspace.core.GenericDAO;
+
+/**
+ * Database Access Object interface class for the VirtualMetadata object.
+ * The implementation of this class is responsible for all database calls for the VirtualMetadata object and is
+ * autowired by spring.
+ * This class should only be accessed from a single service and should never be exposed outside of the API.
+ */
+public interface VirtualMetadataDAO extends GenericDAO<VirtualMetadata> {
+
+    /**
+     * @param context the DSpace context
+     * @param itemID  ID of the Item
+     * @return the most recently stored virtual metadata of the Item, or null if none is stored
+     * @throws SQLException if database error
+     */
+    VirtualMetadata findLatest(Context context, UUID itemID) throws SQLException;
+
+    /**
+     * @param context the DSpace context
+     * @param itemIDs IDs of the Items
+     * @return the number of deleted rows
+     * @throws SQLException if database error
+     */
+    int deleteByItems(Context context, Collection<UUID> itemIDs) throws SQLException;
+
+    /**
+     * @param context the DSpace context
+     * @param itemID  ID of the Item
+     * @param before  the rows computed before this time are deleted
+     * @return the number of deleted rows
+     * @throws SQLException if database error
+     */
+    int deleteComputedBefore(Context context, UUID itemID, Date before) throws SQLException;
+
+    /**
+     * @param context the DSpace context
+     * @param before  the rows of all the Items computed before this time are deleted
+     * @return the number of deleted rows
+     * @throws SQLException if database error
+     */
+    int deleteComputedBefore(Context context, Date before) throws SQLException;
+}
@@ -8,6 +8,7 @@
 package org.dspace.content.dao.impl;
 
 import java.sql.SQLException;
+import java.util.List;
 
 import org.dspace.content.Bundle;
 import org.dspace.content.dao.BundleDAO;
@@ -31,4 +32,9 @@ public class BundleDAOImpl extends AbstractHibernateDSODAO<Bundle> implements Bu
     public int countRows(Context context) throws SQLException {
         return count(createQuery(context, "SELECT count(*) from Bundle"));
     }
+
+    @Override
+    public void fetchBitstreams(Context context, List<Bundle> bundles) throws SQLException {
+        fetch(context, bundles, "bitstreams");
+    }
 }
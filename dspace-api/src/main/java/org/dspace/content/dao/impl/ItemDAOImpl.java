@@ -69,6 +69,17 @@ public class ItemDAOImpl extends AbstractHibernateDSODAO<Item> implements ItemDA
         return iterate(query);
     }
 
+    @Override
+    public List<Item> findAllAfter(Context context, boolean archived, UUID after, int limit) throws SQLException {
+        Query query = createQuery(context, "FROM Item WHERE inArchive=:in_archive"
+            + (after != null ? " AND id > :after" : "") + " ORDER BY id");
+        query.setParameter("in_archive", archived);
+        if (after != null) {
+            query.setParameter("after", after);
+        }
+        return list(query, limit, 0);
+    }
+
 
     @Override
     public Iterator<Item> findAll(Context context, boolean archived, boolean withdrawn) throws SQLException {
@@ -93,6 +104,21 @@ public class ItemDAOImpl extends AbstractHibernateDSODAO<Item> implements ItemDA
         return iterate(query);
     }
 
+    @Override
+    public Iterator<Item> findAllRegularItems(Context context, UUID from, UUID to) throws SQLException {
+        Query query = createQuery(
+            context,
+            "SELECT i FROM Item as i " +
+            "LEFT JOIN Version as v ON i = v.item " +
+            "WHERE (i.inArchive=true or i.withdrawn=true or (i.inArchive=false and v.id IS NOT NULL)) " +
+            "AND i.id >= :from AND i.id <= :to " +
+            "ORDER BY i.id"
+        );
+        query.setParameter("from", from);
+        query.setParameter("to", to);
+        return iterate(query);
+    }
+
     @Override
     public Iterator<Item> findAll(Context context, boolean archived,
                                   boolean withdrawn, boolean discoverable, Date lastModified)
@@ -438,4 +464,9 @@ public class ItemDAOImpl extends AbstractHibernateDSODAO<Item> implements ItemDA
         return count(query);
 
     }
+
+    @Override
+    public void fetchBundles(Context context, List<Item> items) throws SQLException {
+        fetch(context, items, "bundles");
+    }
 }
@@ -9,7 +9,11 @@ package org.dspace.content.dao.impl;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import javax.persistence.Query;
@@ -19,6 +23,7 @@ import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
+import org.apache.commons.collections4.ListUtils;
 import org.dspace.content.Item;
 import org.dspace.content.Item_;
 import org.dspace.content.Relationship;
@@ -34,6 +39,11 @@ import org.dspace.core.Context;
 
 public class RelationshipDAOImpl extends AbstractHibernateDAO<Relationship> implements RelationshipDAO {
 
+    /**
+     * Maximum number of Items in a statement
+     */
+    private static final int BATCH_SIZE = 500;
+
     @Override
     public List<Relationship> findByItem(
         Context context, Item item, boolean excludeTilted, boolean excludeNonLatest
@@ -446,4 +456,37 @@ public class RelationshipDAOImpl extends AbstractHibernateDAO<Relationship> impl
         return count(query);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<UUID> findRelatedItemIds(Context context, Collection<UUID> itemIds, Collection<String> typeNames)
+        throws SQLException {
+        Set<UUID> relatedItemIds = new HashSet<>();
+        if (typeNames != null && typeNames.isEmpty()) {
+            return relatedItemIds;
+        }
+        String typeFilter = typeNames == null ? "" : " AND (r.relationshipType.leftwardType IN (:typeNames)"
+            + " OR r.relationshipType.rightwardType IN (:typeNames))";
+        for (List<UUID> batch : ListUtils.partition(new ArrayList<>(itemIds), BATCH_SIZE)) {
+            for (String side : new String[] {"left", "right"}) {
+                String otherSide = side.equals("left") ? "right" : "left";
+                Query query = createQuery(context, "SELECT r." + otherSide + "Item.id FROM Relationship r"
+                    + " WHERE r." + side + "Item.id IN (:itemIds)" + typeFilter);
+                query.setParameter("itemIds", batch);
+                if (typeNames != null) {
+                    query.setParameter("typeNames", typeNames);
+                }
+                relatedItemIds.addAll(query.getResultList());
+            }
+        }
+        return relatedItemIds;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<UUID> findItemIdsWithRelationships(Context context) throws SQLException {
+        Set<UUID> itemIds = new LinkedHashSet<>();
+        itemIds.addAll(createQuery(context, "SELECT DISTINCT r.leftItem.id FROM Relationship r").getResultList());
+        itemIds.addAll(createQuery(context, "SELECT DISTINCT r.rightItem.id FROM Relationship r").getResultList());
+        return itemIds;
+    }
 }
@@ -0,0 +1,75 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content.dao.impl;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import javax.persistence.Query;
+import javax.persistence.TemporalType;
+
+import org.apache.commons.collections4.ListUtils;
+import org.dspace.content.VirtualMetadata;
+import org.dspace.content.dao.VirtualMetadataDAO;
+import org.dspace.core.AbstractHibernateDAO;
+import org.dspace.core.Context;
+
+/**
+ * Hibernate implementation of the Database Access Object interface class for the VirtualMetadata object.
+ * This class is responsible for all database calls for the VirtualMetadata object and is autowired by spring
+ * This class should never be accessed directly.
+ */
+public class VirtualMetadataDAOImpl extends AbstractHibernateDAO<VirtualMetadata> implements VirtualMetadataDAO {
+
+    /**
+     * Maximum number of Items in a statement
+     */
+    private static final int BATCH_SIZE = 500;
+
+    protected VirtualMetadataDAOImpl() {
+        super();
+    }
+
+    @Override
+    public VirtualMetadata findLatest(Context context, UUID itemID) throws SQLException {
+        Query query = createQuery(context, "FROM VirtualMetadata WHERE itemID = :itemID ORDER BY id DESC");
+        query.setParameter("itemID", itemID);
+        List<VirtualMetadata> results = list(query, 1, 0);
+        return results.isEmpty() ? null : results.get(0);
+    }
+
+    @Override
+    public int deleteByItems(Context context, Collection<UUID> itemIDs) throws SQLException {
+        int deleted = 0;
+        for (List<UUID> batch : ListUtils.partition(new ArrayList<>(itemIDs), BATCH_SIZE)) {
+            Query query = createQuery(context, "DELETE FROM VirtualMetadata WHERE itemID IN (:itemIDs)");
+            query.setParameter("itemIDs", batch);
+            deleted += query.executeUpdate();
+        }
+        return deleted;
+    }
+
+    @Override
+    public int deleteComputedBefore(Context context, UUID itemID, Date before) throws SQLException {
+        Query query = createQuery(context, "DELETE FROM VirtualMetadata WHERE itemID = :itemID"
+            + " AND computed < :before");
+        query.setParameter("itemID", itemID);
+        query.setParameter("before", before, TemporalType.TIMESTAMP);
+        return query.executeUpdate();
+    }
+
+    @Override
+    public int deleteComputedBefore(Context context, Date before) throws SQLException {
+        Query query = createQuery(context, "DELETE FROM VirtualMetadata WHERE computed < :before");
+        query.setParameter("before", before, TemporalType.TIMESTAMP);
+        return query.executeUpdate();
+    }
+}
@@ -31,6 +31,7 @@ import org.dspace.content.service.MetadataValueService;
 import org.dspace.content.service.RelationshipService;
 import org.dspace.content.service.RelationshipTypeService;
 import org.dspace.content.service.SiteService;
+import org.dspace.content.service.VirtualMetadataService;
 import org.dspace.content.service.WorkspaceItemService;
 import org.dspace.eperson.service.SubscribeService;
 import org.dspace.services.factory.DSpaceServicesFactory;
@@ -105,6 +106,13 @@ public abstract class ContentServiceFactory {
 
     public abstract RelationshipMetadataService getRelationshipMetadataService();
 
+    /**
+     * Return the implementation of the VirtualMetadataService interface
+     *
+     * @return the VirtualMetadataService
+     */
+    public abstract VirtualMetadataService getVirtualMetadataService();
+
     public InProgressSubmissionService getInProgressSubmissionService(InProgressSubmission inProgressSubmission) {
         if (inProgressSubmission instanceof WorkspaceItem) {
             return getWorkspaceItemService();
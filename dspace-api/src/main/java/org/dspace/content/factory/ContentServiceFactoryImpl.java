@@ -28,6 +28,7 @@ import org.dspace.content.service.MetadataValueService;
 import org.dspace.content.service.RelationshipService;
 import org.dspace.content.service.RelationshipTypeService;
 import org.dspace.content.service.SiteService;
+import org.dspace.content.service.VirtualMetadataService;
 import org.dspace.content.service.WorkspaceItemService;
 import org.dspace.eperson.service.SubscribeService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -78,6 +79,8 @@ public class ContentServiceFactoryImpl extends ContentServiceFactory {
     @Autowired(required = true)
     private RelationshipMetadataService relationshipMetadataService;
     @Autowired(required = true)
+    private VirtualMetadataService virtualMetadataService;
+    @Autowired(required = true)
     private EntityTypeService entityTypeService;
     @Autowired(required = true)
     private EntityService entityService;
@@ -181,4 +184,9 @@ public class ContentServiceFactoryImpl extends ContentServiceFactory {
     public RelationshipMetadataService getRelationshipMetadataService() {
         return relationshipMetadataService;
     }
+
+    @Override
+    public VirtualMetadataService getVirtualMetadataService() {
+        return virtualMetadataService;
+    }
 }
@@ -44,6 +44,21 @@ public interface ItemService
 
     public Thumbnail getThumbnail(Context context, Item item, boolean requireOriginal) throws SQLException;
 
+    /**
+     * Load, with a few queries, what would otherwise be lazily loaded one item at a time while iterating over
+     * the given items: their metadata and handles and, on demand, their owning collections and their bundles
+     * with their bitstreams, each with their own metadata and handles.
+     *
+     * @param context           DSpace context object
+     * @param items             the items, e.g. a page of items about to be converted
+     * @param owningCollections whether to load the owning collections
+     * @param bundles           whether to load the bundles
+     * @param bitstreams        whether to load the bitstreams of the bundles, which implies loading the bundles
+     * @throws SQLException if database error
+     */
+    public void prefetch(Context context, List<Item> items, boolean owningCollections, boolean bundles,
+                         boolean bitstreams) throws SQLException;
+
     /**
      * Create a new item, with a new internal ID. Authorization is done
      * inside of this method.
@@ -105,6 +120,18 @@ public interface ItemService
      */
     public Iterator<Item> findAll(Context context, Integer limit, Integer offset) throws SQLException;
 
+    /**
+     * Get the items in the archive following an item, in the order of their IDs. Unlike an offset, the ID of the
+     * last item read keeps its position when the items are paged while other items are created or deleted.
+     *
+     * @param context DSpace context object
+     * @param after   ID of the item after which to find the items, or null to find the first items
+     * @param limit   maximum number of items
+     * @return the items in the archive following the given item
+     * @throws SQLException if database error
+     */
+    public List<Item> findAllAfter(Context context, UUID after, int limit) throws SQLException;
+
     /**
      * Get all "final" items in the archive, both archived ("in archive" flag) or
      * withdrawn items are included. The order of the list is indeterminate.
@@ -129,6 +156,17 @@ public interface ItemService
      */
     public Iterator<Item> findAllRegularItems(Context context) throws SQLException;
 
+    /**
+     * Find all regular items, as {@link #findAllRegularItems(Context)}, with a UUID between the given bounds.
+     * Used to split the iteration over all items between several threads.
+     * @param context the DSpace context.
+     * @param from    lowest UUID of the returned items (inclusive)
+     * @param to      highest UUID of the returned items (inclusive)
+     * @return iterator over the regular items in the given UUID range.
+     * @throws SQLException if database error.
+     */
+    public Iterator<Item> findAllRegularItems(Context context, UUID from, UUID to) throws SQLException;
+
     /**
      * Find all the items in the archive by a given submitter. The order is
      * indeterminate. Only items with the "in archive" flag set are included.
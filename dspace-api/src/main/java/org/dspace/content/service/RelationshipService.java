@@ -8,7 +8,9 @@
 package org.dspace.content.service;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import org.dspace.authorize.AuthorizeException;
@@ -525,4 +527,26 @@ public interface RelationshipService extends DSpaceCRUDService<Relationship> {
     public int countByItemRelationshipTypeAndRelatedList(Context context, UUID focusUUID,
            RelationshipType relationshipType, List<UUID> items, boolean isLeft) throws SQLException;
 
+    /**
+     * Find the IDs of the Items which have a relationship with one of the given Items, including the relationships
+     * which are tilted or not the latest.
+     *
+     * @param context            DSpace context object
+     * @param itemIds            IDs of the Items
+     * @param typeNames          leftward or rightward types of the relationships to follow, or null to follow
+     *                           all the relationships
+     * @return                   IDs of the related Items
+     * @throws SQLException      If database error
+     */
+    public Set<UUID> findRelatedItemIds(Context context, Collection<UUID> itemIds, Collection<String> typeNames)
+        throws SQLException;
+
+    /**
+     * Find the IDs of all the Items which have at least one relationship.
+     *
+     * @param context            DSpace context object
+     * @return                   IDs of the Items
+     * @throws SQLException      If database error
+     */
+    public Set<UUID> findItemIdsWithRelationships(Context context) throws SQLException;
 }
@@ -0,0 +1,90 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content.service;
+
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+
+import org.dspace.content.Item;
+import org.dspace.content.RelationshipMetadataValue;
+import org.dspace.content.VirtualMetadata;
+import org.dspace.core.Context;
+
+/**
+ * Service interface class for the stored virtual metadata: the metadata computed from the relationships of an Item
+ * by the {@link org.dspace.content.RelationshipMetadataService}, stored in the database so that it is read with one
+ * query instead of being computed again from all the relationships and related Items.
+ * <p>
+ * The stored metadata of an Item is deleted when its relationships change, or the metadata of an Item it depends
+ * on changes, and computed again when it is read until it is stored again, once these changes are committed.
+ * The implementation of this class is responsible for all business logic calls for the stored virtual metadata and
+ * is autowired by spring
+ */
+public interface VirtualMetadataService {
+
+    /**
+     * @return whether the virtual metadata is stored ({@code virtual-metadata.store.enabled})
+     */
+    public boolean isEnabled();
+
+    /**
+     * Read the stored virtual metadata of an Item.
+     *
+     * @param context the DSpace context
+     * @param item    the Item
+     * @return the virtual metadata, or null if it is not stored, or expired
+     * @throws SQLException if database error
+     */
+    public List<RelationshipMetadataValue> find(Context context, Item item) throws SQLException;
+
+    /**
+     * Store the virtual metadata of an Item, replacing the metadata computed before. Nothing is stored if
+     * metadata computed later has already been stored.
+     *
+     * @param context  the DSpace context
+     * @param item     the Item
+     * @param values   the virtual metadata of the Item
+     * @param computed the time at which the computation of the virtual metadata started
+     * @return the stored virtual metadata
+     * @throws SQLException if database error
+     */
+    public VirtualMetadata store(Context context, Item item, List<RelationshipMetadataValue> values, Date computed)
+        throws SQLException;
+
+    /**
+     * Delete the stored virtual metadata which depends on the relationships or the metadata of an Item: the virtual
+     * metadata of the Item and of its related Items, and of the Items related to the Items from which the
+     * {@link org.dspace.content.virtual.Related} configurations reach it. Their virtual metadata is computed and
+     * stored again in the background once the transaction of the context is committed.
+     *
+     * @param context the DSpace context
+     * @param item    the Item whose relationships or metadata changed
+     * @throws SQLException if database error
+     */
+    public void invalidate(Context context, Item item) throws SQLException;
+
+    /**
+     * Compute and store again the virtual metadata of all the Items with relationships, replacing it Item by Item,
+     * then delete the virtual metadata of the other Items. The context is committed regularly.
+     *
+     * @param context the DSpace context
+     * @return the number of Items whose virtual metadata was stored
+     * @throws SQLException if database error
+     */
+    public int rebuild(Context context) throws SQLException;
+
+    /**
+     * Compute and store again the virtual metadata of an Item, replacing the stored virtual metadata.
+     *
+     * @param context the DSpace context
+     * @param item    the Item
+     * @throws SQLException if database error
+     */
+    public void rebuild(Context context, Item item) throws SQLException;
+}
@@ -8,7 +8,9 @@
 package org.dspace.content.virtual;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.dspace.content.RelationshipType;
 
@@ -65,4 +67,43 @@ public class VirtualMetadataPopulator {
         }
         return false;
     }
+
+    /**
+     * This method will return the relationships followed by the {@link Related} configurations to reach further
+     * Items from the related Items. The virtual metadata of an Item depends on the metadata of the Items reached
+     * from its related Items through these relationships, up to {@link #getMaxRelatedDepth()} times.
+     * @return  The leftward or rightward types of these relationships
+     */
+    public Set<String> getRelatedRelationshipTypes() {
+        Set<String> relationshipTypes = new HashSet<>();
+        for (HashMap<String, VirtualMetadataConfiguration> hashMaps : getMap().values()) {
+            for (VirtualMetadataConfiguration virtualBean : hashMaps.values()) {
+                while (virtualBean instanceof Related) {
+                    relationshipTypes.add(((Related) virtualBean).getRelationshipTypeString());
+                    virtualBean = ((Related) virtualBean).getVirtualMetadataConfiguration();
+                }
+            }
+        }
+        return relationshipTypes;
+    }
+
+    /**
+     * This method will return the maximum number of nested {@link Related} configurations, which is the number of
+     * relationships followed from the related Items of an Item to compute its virtual metadata.
+     * @return  The maximum number of nested Related configurations, 0 if there is none
+     */
+    public int getMaxRelatedDepth() {
+        int maxDepth = 0;
+        for (HashMap<String, VirtualMetadataConfiguration> hashMaps : getMap().values()) {
+            for (VirtualMetadataConfiguration virtualBean : hashMaps.values()) {
+                int depth = 0;
+                while (virtualBean instanceof Related) {
+                    depth++;
+                    virtualBean = ((Related) virtualBean).getVirtualMetadataConfiguration();
+                }
+                maxDepth = Math.max(maxDepth, depth);
+            }
+        }
+        return maxDepth;
+    }
 }
@@ -0,0 +1,87 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content.virtual;
+
+import java.util.UUID;
+
+import org.apache.commons.cli.ParseException;
+import org.dspace.content.Item;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.ItemService;
+import org.dspace.content.service.VirtualMetadataService;
+import org.dspace.core.Context;
+import org.dspace.scripts.DSpaceRunnable;
+import org.dspace.utils.DSpace;
+
+/**
+ * Script to compute again and store the virtual metadata of all the Items with relationships, or of one Item, e.g.
+ * after the virtual metadata configuration changed.
+ */
+public class VirtualMetadataRebuild extends DSpaceRunnable<VirtualMetadataRebuildScriptConfiguration> {
+
+    private boolean help = false;
+
+    private UUID itemId;
+
+    private VirtualMetadataService virtualMetadataService;
+
+    private ItemService itemService;
+
+    @Override
+    public void internalRun() throws Exception {
+        if (help) {
+            printHelp();
+            return;
+        }
+        if (!virtualMetadataService.isEnabled()) {
+            handler.logWarning("The virtual metadata is not read from the database (virtual-metadata.store.enabled)");
+        }
+        Context context = new Context();
+        try {
+            context.turnOffAuthorisationSystem();
+            if (itemId != null) {
+                Item item = itemService.find(context, itemId);
+                if (item == null) {
+                    throw new IllegalArgumentException("No item found with uuid " + itemId);
+                }
+                virtualMetadataService.rebuild(context, item);
+                handler.logInfo("Stored the virtual metadata of item " + itemId);
+            } else {
+                handler.logInfo("Storing the virtual metadata of the items with relationships");
+                int count = virtualMetadataService.rebuild(context);
+                handler.logInfo("Stored the virtual metadata of " + count + " items");
+            }
+            context.restoreAuthSystemState();
+            context.complete();
+        } finally {
+            if (context.isValid()) {
+                context.abort();
+            }
+        }
+    }
+
+    @Override
+    public VirtualMetadataRebuildScriptConfiguration getScriptConfiguration() {
+        return new DSpace().getServiceManager().getServiceByName("virtual-metadata",
+                                                                 VirtualMetadataRebuildScriptConfiguration.class);
+    }
+
+    @Override
+    public void setup() throws ParseException {
+        virtualMetadataService = ContentServiceFactory.getInstance().getVirtualMetadataService();
+        itemService = ContentServiceFactory.getInstance().getItemService();
+        help = commandLine.hasOption('h');
+        if (commandLine.hasOption('i')) {
+            try {
+                itemId = UUID.fromString(commandLine.getOptionValue('i'));
+            } catch (IllegalArgumentException e) {
+                throw new ParseException("Invalid item uuid: " + commandLine.getOptionValue('i'));
+            }
+        }
+    }
+}
@@ -8,8 +8,13 @@
 package org.dspace.core;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import javax.persistence.PersistenceUnitUtil;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Root;
@@ -19,6 +24,9 @@ import org.apache.commons.collections.ListUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.dspace.content.DSpaceObject;
 import org.dspace.content.MetadataField;
+import org.hibernate.Session;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.HibernateProxyHelper;
 
 /**
  * Hibernate implementation used by DSpaceObject Database Access Objects.
@@ -31,6 +39,12 @@ import org.dspace.content.MetadataField;
  * @param <T> type of DSO represented.
  */
 public abstract class AbstractHibernateDSODAO<T extends DSpaceObject> extends AbstractHibernateDAO<T> {
+
+    /**
+     * Maximum number of objects whose associations are loaded by a single query
+     */
+    private static final int FETCH_BATCH_SIZE = 500;
+
     /**
      * Find a DSO by its "legacy ID".  Former versions of DSpace used integer
      * record IDs, and these may still be found in external records such as AIPs.
@@ -151,4 +165,48 @@ public abstract class AbstractHibernateDSODAO<T extends DSpaceObject> extends Ab
         }
     }
 
+    @Override
+    public void fetchMetadata(Context context, List<? extends T> dsos) throws SQLException {
+        fetch(context, dsos, "metadata");
+        fetch(context, dsos, "handles");
+    }
+
+    /**
+     * Initialize a lazy association of the given objects with a join fetch query per batch of objects, rather
+     * than one query per object when the association of each of them is first accessed. The objects whose
+     * association is already initialized are skipped, and uninitialized proxies are loaded along the way.
+     *
+     * @param context  current DSpace context.
+     * @param dsos     the objects, or proxies of the objects, all of the same type.
+     * @param property the name of the association to initialize.
+     * @throws SQLException if database error
+     */
+    protected void fetch(Context context, List<? extends T> dsos, String property) throws SQLException {
+        Session session = getHibernateSession(context);
+        PersistenceUnitUtil persistenceUnitUtil = session.getSessionFactory().getPersistenceUnitUtil();
+        Class<?> entityClass = null;
+        Set<UUID> ids = new LinkedHashSet<>();
+        for (T dso : dsos) {
+            if (dso == null || persistenceUnitUtil.isLoaded(dso, property)) {
+                continue;
+            }
+            if (entityClass == null) {
+                entityClass = HibernateProxyHelper.getClassWithoutInitializingProxy(dso);
+            }
+            // getID() would initialize a proxy
+            ids.add(dso instanceof HibernateProxy
+                        ? (UUID) ((HibernateProxy) dso).getHibernateLazyInitializer().getIdentifier()
+                        : dso.getID());
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        String query = "SELECT d FROM " + entityClass.getName() + " d LEFT JOIN FETCH d." + property
+            + " WHERE d.id IN (:ids)";
+        List<UUID> idList = new ArrayList<>(ids);
+        for (int start = 0; start < idList.size(); start += FETCH_BATCH_SIZE) {
+            List<UUID> batch = idList.subList(start, Math.min(start + FETCH_BATCH_SIZE, idList.size()));
+            createQuery(context, query).setParameter("ids", batch).getResultList();
+        }
+    }
 }
@@ -9,19 +9,26 @@ package org.dspace.core;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.apache.commons.lang3.tuple.Triple;
 import org.apache.logging.log4j.Logger;
+import org.dspace.authorize.AuthorizationCache;
 import org.dspace.authorize.ResourcePolicy;
+import org.dspace.authorize.factory.AuthorizeServiceFactory;
+import org.dspace.authorize.service.AuthorizeService;
 import org.dspace.content.DSpaceObject;
 import org.dspace.eperson.EPerson;
 import org.dspace.eperson.Group;
@@ -109,6 +116,31 @@ public class Context implements AutoCloseable {
      */
     private LinkedList<Event> events = null;
 
+    /**
+     * Objects whose cached authorization decisions are invalidated when this context commits
+     */
+    private Set<UUID> authorizationChanges = null;
+
+    /**
+     * Whether all the cached authorization decisions are invalidated when this context commits
+     */
+    private boolean authorizationReset = false;
+
+    /**
+     * Authorization decisions evaluated in bulk, see {@link AuthorizeService#authorizeActions}
+     */
+    private Map<Triple<UUID, Integer, UUID>, Boolean> authorizationDecisions = null;
+
+    /**
+     * EPersons added to or removed from a group, whose groups are not computed again yet
+     */
+    private Set<UUID> membershipChanges = null;
+
+    /**
+     * EPersons whose groups were computed again, invalidated in the shared cache when this context commits
+     */
+    private Set<UUID> updatedMemberships = null;
+
     /**
      * Event dispatcher name
      */
@@ -430,6 +462,10 @@ public class Context implements AutoCloseable {
         }
 
         try {
+            // Compute again the groups of the EPersons whose memberships changed
+            if (!CollectionUtils.isEmpty(membershipChanges)) {
+                EPersonServiceFactory.getInstance().getGroupService().updateMemberGroups(this);
+            }
             // Dispatch events before committing changes to the database,
             // as the consumers may change something too
             dispatchEvents();
@@ -441,6 +477,8 @@ public class Context implements AutoCloseable {
             if (dbConnection != null) {
                 // Commit our changes (this closes the transaction but leaves database connection open)
                 dbConnection.commit();
+                applyAuthorizationChanges();
+                applyMembershipChanges();
                 reloadContextBoundEntities();
             }
         }
@@ -486,6 +524,13 @@ public class Context implements AutoCloseable {
         dispName = dispatcher;
     }
 
+    /**
+     * @return the name of the selected event dispatcher, <code>null</code> if the default one is used
+     */
+    public String getDispatcher() {
+        return dispName;
+    }
+
     /**
      * Add an event to be dispatched when this context is committed.
      * NOTE: Read-only Contexts cannot add events, as they cannot modify objects.
@@ -505,6 +550,8 @@ public class Context implements AutoCloseable {
         }
 
         events.add(event);
+        recordAuthorizationChanges(event);
+        recordMembershipChange(event);
     }
 
     /**
@@ -538,6 +585,226 @@ public class Context implements AutoCloseable {
         }
     }
 
+    /**
+     * Invalidate the shared authorization decisions about an object once this context commits, as its policies
+     * changed. Until then, this context does not use the shared decisions.
+     *
+     * @param dso the object whose policies changed, or null if the policies of several objects changed
+     * @see AuthorizationCache
+     */
+    public void invalidateAuthorizations(DSpaceObject dso) {
+        if (dso == null || (dso.getType() != Constants.ITEM && dso.getType() != Constants.BUNDLE
+            && dso.getType() != Constants.BITSTREAM)) {
+            // the decisions about the children of collections and communities depend on their policies
+            resetAuthorizations();
+        } else {
+            addAuthorizationChange(dso.getID());
+        }
+    }
+
+    /**
+     * Whether this context made changes affecting the authorization decisions which are not committed yet.
+     *
+     * @return true or false
+     */
+    public boolean hasAuthorizationChanges() {
+        return authorizationReset || !CollectionUtils.isEmpty(authorizationChanges);
+    }
+
+    /**
+     * Record the authorization decisions made stale by an event: the lifecycle of items, bundles and bitstreams,
+     * the structure of the repository and the group memberships.
+     *
+     * @param event event added to this context
+     */
+    private void recordAuthorizationChanges(Event event) {
+        int eventType = event.getEventType();
+        switch (event.getSubjectType()) {
+            case Constants.ITEM:
+            case Constants.BUNDLE:
+            case Constants.BITSTREAM:
+                if (eventType != Event.CREATE && eventType != Event.MODIFY_METADATA) {
+                    addAuthorizationChange(event.getSubjectID());
+                    int objectType = event.getObjectType();
+                    if (objectType == Constants.ITEM || objectType == Constants.BUNDLE
+                        || objectType == Constants.BITSTREAM) {
+                        addAuthorizationChange(event.getObjectID());
+                    }
+                }
+                break;
+            case Constants.COLLECTION:
+            case Constants.COMMUNITY:
+                if (eventType == Event.ADD || eventType == Event.REMOVE) {
+                    if (event.getObjectType() == Constants.ITEM) {
+                        // item mapped, unmapped or moved
+                        addAuthorizationChange(event.getObjectID());
+                    } else {
+                        resetAuthorizations();
+                    }
+                } else if (eventType == Event.DELETE) {
+                    resetAuthorizations();
+                }
+                break;
+            case Constants.GROUP:
+                if (eventType != Event.CREATE) {
+                    resetAuthorizations();
+                }
+                break;
+            case Constants.EPERSON:
+                if (eventType == Event.DELETE) {
+                    resetAuthorizations();
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Record the EPerson added to or removed from a group by an event.
+     *
+     * @param event event added to this context
+     */
+    private void recordMembershipChange(Event event) {
+        if (event.getSubjectType() == Constants.GROUP && event.getObjectType() == Constants.EPERSON
+            && (event.getEventType() == Event.ADD || event.getEventType() == Event.REMOVE)
+            && event.getObjectID() != null) {
+            if (membershipChanges == null) {
+                membershipChanges = new HashSet<>();
+            }
+            membershipChanges.add(event.getObjectID());
+        }
+    }
+
+    /**
+     * Get the EPersons added to or removed from a group by this context whose groups are not computed again yet,
+     * and forget them.
+     *
+     * @return the identifiers of the EPersons, possibly empty
+     */
+    public Set<UUID> takeMembershipChanges() {
+        Set<UUID> changes = membershipChanges != null ? membershipChanges : Set.of();
+        membershipChanges = null;
+        return changes;
+    }
+
+    /**
+     * Record that the groups of some EPersons were computed again, so that they are invalidated in the shared cache
+     * once this context commits.
+     *
+     * @param ePersonIds the identifiers of the EPersons
+     * @see org.dspace.eperson.GroupMembershipCache
+     */
+    public void membershipsUpdated(Collection<UUID> ePersonIds) {
+        if (updatedMemberships == null) {
+            updatedMemberships = new HashSet<>();
+        }
+        updatedMemberships.addAll(ePersonIds);
+    }
+
+    /**
+     * Whether this context changed group memberships which are not committed yet.
+     *
+     * @return true if the groups of some EPersons changed
+     */
+    public boolean hasMembershipChanges() {
+        return !CollectionUtils.isEmpty(membershipChanges) || !CollectionUtils.isEmpty(updatedMemberships);
+    }
+
+    /**
+     * Invalidate the shared groups of the EPersons whose memberships were committed.
+     */
+    private void applyMembershipChanges() {
+        if (!CollectionUtils.isEmpty(updatedMemberships)) {
+            try {
+                EPersonServiceFactory.getInstance().getGroupMembershipCache().invalidate(updatedMemberships);
+            } finally {
+                updatedMemberships = null;
+            }
+        }
+    }
+
+    private void discardMembershipChanges() {
+        membershipChanges = null;
+        updatedMemberships = null;
+    }
+
+    private void addAuthorizationChange(UUID id) {
+        if (id != null) {
+            if (authorizationChanges == null) {
+                authorizationChanges = new HashSet<>();
+            }
+            authorizationChanges.add(id);
+            authorizationDecisions = null;
+        }
+    }
+
+    private void resetAuthorizations() {
+        authorizationReset = true;
+        authorizationDecisions = null;
+    }
+
+    /**
+     * Invalidate the shared authorization decisions made stale by the committed changes.
+     */
+    private void applyAuthorizationChanges() {
+        if (!hasAuthorizationChanges()) {
+            return;
+        }
+        try {
+            AuthorizationCache authorizationCache = AuthorizeServiceFactory.getInstance().getAuthorizationCache();
+            if (authorizationReset) {
+                authorizationCache.clear();
+            } else {
+                authorizationCache.invalidate(authorizationChanges);
+            }
+        } finally {
+            discardAuthorizationChanges();
+        }
+    }
+
+    private void discardAuthorizationChanges() {
+        authorizationChanges = null;
+        authorizationReset = false;
+        authorizationDecisions = null;
+    }
+
+    /**
+     * Get an authorization decision evaluated in bulk by this context, see {@link AuthorizeService#authorizeActions}.
+     *
+     * @param dspaceObject the object
+     * @param action       the action, from {@link Constants}
+     * @param eperson      the user, null for anonymous
+     * @return the decision, or null if it was not evaluated or if this context changed authorizations since
+     */
+    public Boolean getAuthorizationDecision(DSpaceObject dspaceObject, int action, EPerson eperson) {
+        if (authorizationDecisions == null) {
+            return null;
+        }
+        return authorizationDecisions.get(Triple.of(dspaceObject.getID(), action,
+                                                    eperson != null ? eperson.getID() : null));
+    }
+
+    /**
+     * Keep an authorization decision evaluated in bulk, until this context changes authorizations.
+     *
+     * @param dspaceObject the object
+     * @param action       the action, from {@link Constants}
+     * @param eperson      the user, null for anonymous
+     * @param authorized   the decision
+     */
+    public void cacheAuthorizationDecision(DSpaceObject dspaceObject, int action, EPerson eperson,
+                                           boolean authorized) {
+        if (hasAuthorizationChanges()) {
+            return;
+        }
+        if (authorizationDecisions == null) {
+            authorizationDecisions = new HashMap<>();
+        }
+        authorizationDecisions.put(Triple.of(dspaceObject.getID(), action, eperson != null ? eperson.getID() : null),
+                                   authorized);
+    }
+
     /**
      * Rollback the current transaction with the database, without persisting any
      * pending changes. The database connection is not closed and can be reused
@@ -565,6 +832,8 @@ public class Context implements AutoCloseable {
             }
         } finally {
             events = null;
+            discardAuthorizationChanges();
+            discardMembershipChanges();
         }
     }
 
@@ -603,6 +872,8 @@ public class Context implements AutoCloseable {
                 log.error("Error closing the database connection", ex);
             }
             events = null;
+            discardAuthorizationChanges();
+            discardMembershipChanges();
         }
     }
 
@@ -0,0 +1,41 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.core;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate {@link StatementInspector} counting the SQL statements prepared by the current thread, so that the
+ * number of statements issued while serving a request (e.g. by lazy loads while converting a page of objects)
+ * can be reported. It is registered through the {@code hibernate.session_factory.statement_inspector} property
+ * of hibernate.cfg.xml, and does not alter the statements.
+ */
+public class SQLStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> count = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        count.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * @return the number of SQL statements prepared by the current thread since the last {@link #reset()}
+     */
+    public static long getCount() {
+        return count.get()[0];
+    }
+
+    /**
+     * Restart counting the SQL statements prepared by the current thread, e.g. at the start of a request.
+     */
+    public static void reset() {
+        count.get()[0] = 0;
+    }
+}
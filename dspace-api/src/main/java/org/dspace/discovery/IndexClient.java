@@ -8,13 +8,23 @@
 package org.dspace.discovery;
 
 import java.io.IOException;
+import java.math.BigInteger;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.ParseException;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.dspace.content.Collection;
 import org.dspace.content.Community;
 import org.dspace.content.DSpaceObject;
@@ -27,6 +37,7 @@ import org.dspace.discovery.indexobject.IndexableCommunity;
 import org.dspace.discovery.indexobject.IndexableItem;
 import org.dspace.discovery.indexobject.factory.IndexFactory;
 import org.dspace.discovery.indexobject.factory.IndexObjectFactoryFactory;
+import org.dspace.discovery.indexobject.factory.ItemIndexFactory;
 import org.dspace.handle.factory.HandleServiceFactory;
 import org.dspace.scripts.DSpaceRunnable;
 import org.dspace.services.factory.DSpaceServicesFactory;
@@ -37,6 +48,17 @@ import org.dspace.utils.DSpace;
  */
 public class IndexClient extends DSpaceRunnable<IndexDiscoveryScriptConfiguration> {
 
+    /**
+     * Number of UUID ranges indexed by each thread of a parallel reindex, so that threads finishing early
+     * can take over ranges from the slower ones.
+     */
+    protected static final int RANGES_PER_THREAD = 4;
+
+    /**
+     * Interval in milliseconds between two progress reports of a parallel reindex
+     */
+    protected static final long REPORT_INTERVAL = 30 * 1000;
+
     private Context context;
     private IndexingService indexer = DSpaceServicesFactory.getInstance().getServiceManager()
                                                .getServiceByName(IndexingService.class.getName(),
@@ -44,6 +66,8 @@ public class IndexClient extends DSpaceRunnable<IndexDiscoveryScriptConfiguratio
 
     private IndexClientOptions indexClientOptions;
 
+    private int threads = 1;
+
     @Override
     public void internalRun() throws Exception {
         if (indexClientOptions == IndexClientOptions.HELP) {
@@ -114,7 +138,11 @@ public class IndexClient extends DSpaceRunnable<IndexDiscoveryScriptConfiguratio
             indexClientOptions == IndexClientOptions.BUILDANDSPELLCHECK) {
             handler.logInfo("(Re)building index from scratch.");
             indexer.deleteIndex();
-            indexer.createIndex(context);
+            if (threads > 1) {
+                parallelUpdateIndex(true);
+            } else {
+                indexer.createIndex(context);
+            }
             if (indexClientOptions == IndexClientOptions.BUILDANDSPELLCHECK) {
                 checkRebuildSpellCheck(commandLine, indexer);
             }
@@ -133,14 +161,22 @@ public class IndexClient extends DSpaceRunnable<IndexDiscoveryScriptConfiguratio
         } else if (indexClientOptions == IndexClientOptions.UPDATE ||
             indexClientOptions == IndexClientOptions.UPDATEANDSPELLCHECK) {
             handler.logInfo("Updating Index");
-            indexer.updateIndex(context, false);
+            if (threads > 1) {
+                parallelUpdateIndex(false);
+            } else {
+                indexer.updateIndex(context, false);
+            }
             if (indexClientOptions == IndexClientOptions.UPDATEANDSPELLCHECK) {
                 checkRebuildSpellCheck(commandLine, indexer);
             }
         } else if (indexClientOptions == IndexClientOptions.FORCEUPDATE ||
             indexClientOptions == IndexClientOptions.FORCEUPDATEANDSPELLCHECK) {
             handler.logInfo("Updating Index");
-            indexer.updateIndex(context, true);
+            if (threads > 1) {
+                parallelUpdateIndex(true);
+            } else {
+                indexer.updateIndex(context, true);
+            }
             if (indexClientOptions == IndexClientOptions.FORCEUPDATEANDSPELLCHECK) {
                 checkRebuildSpellCheck(commandLine, indexer);
             }
@@ -163,6 +199,131 @@ public class IndexClient extends DSpaceRunnable<IndexDiscoveryScriptConfiguratio
             throw new ParseException("Unable to create a new DSpace Context: " + e.getMessage());
         }
         indexClientOptions = IndexClientOptions.getIndexClientOption(commandLine);
+        if (commandLine.hasOption('t')) {
+            try {
+                threads = Integer.parseInt(commandLine.getOptionValue('t'));
+            } catch (NumberFormatException e) {
+                throw new ParseException("Invalid number of threads: " + commandLine.getOptionValue('t'));
+            }
+            if (threads < 1) {
+                throw new ParseException("The number of threads must be a positive integer");
+            }
+        }
+    }
+
+    /**
+     * Update the index with several threads. Items are split in ranges of UUIDs, each range being indexed by a
+     * thread with its own Context, and their documents are sent to the search core in batches. All other objects
+     * are indexed by the current thread.
+     *
+     * @param force whether or not to force the reindexing of objects which are up to date in the index
+     * @throws Exception if indexing fails
+     */
+    protected void parallelUpdateIndex(boolean force) throws Exception {
+        IndexObjectFactoryFactory indexObjectFactoryFactory = IndexObjectFactoryFactory.getInstance();
+        for (IndexFactory indexFactory : indexObjectFactoryFactory.getIndexFactories()) {
+            if (!(indexFactory instanceof ItemIndexFactory)) {
+                indexer.updateIndex(context, force, indexFactory.getType());
+            }
+        }
+
+        ItemIndexFactory itemIndexFactory = (ItemIndexFactory) indexObjectFactoryFactory
+            .getIndexFactoryByType(IndexableItem.TYPE);
+        int batchSize = DSpaceServicesFactory.getInstance().getConfigurationService()
+                                             .getIntProperty("discovery.index.batch-size", 100);
+        handler.logInfo("Indexing items with " + threads + " threads, in batches of " + batchSize + " documents");
+
+        AtomicLong processed = new AtomicLong();
+        AtomicLong indexed = new AtomicLong();
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new BasicThreadFactory.Builder()
+            .namingPattern("index-discovery-%d")
+            .build());
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (UUID[] range : splitUuidSpace(threads * RANGES_PER_THREAD)) {
+                futures.add(executor.submit(() -> indexItemRange(itemIndexFactory, range[0], range[1], force,
+                                                                 batchSize, processed, indexed)));
+            }
+            executor.shutdown();
+            while (!executor.awaitTermination(REPORT_INTERVAL, TimeUnit.MILLISECONDS)) {
+                reportProgress(start, processed.get(), indexed.get());
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        } finally {
+            executor.shutdownNow();
+        }
+        indexer.commit();
+        reportProgress(start, processed.get(), indexed.get());
+    }
+
+    /**
+     * Index the items with a UUID in the given range, in a new Context.
+     */
+    private Void indexItemRange(ItemIndexFactory itemIndexFactory, UUID from, UUID to, boolean force,
+                                int batchSize, AtomicLong processed, AtomicLong indexed) throws Exception {
+        Context rangeContext = new Context(Context.Mode.READ_ONLY);
+        rangeContext.turnOffAuthorisationSystem();
+        try {
+            List<IndexableObject> batch = new ArrayList<>(batchSize);
+            Iterator<IndexableItem> items = itemIndexFactory.findAll(rangeContext, from, to);
+            while (items.hasNext()) {
+                batch.add(items.next());
+                if (batch.size() >= batchSize) {
+                    indexBatch(rangeContext, batch, force, processed, indexed);
+                }
+            }
+            indexBatch(rangeContext, batch, force, processed, indexed);
+        } finally {
+            rangeContext.abort();
+        }
+        return null;
+    }
+
+    private void indexBatch(Context rangeContext, List<IndexableObject> batch, boolean force, AtomicLong processed,
+                            AtomicLong indexed) throws SQLException, SearchServiceException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        indexed.addAndGet(indexer.indexContent(rangeContext, batch, force));
+        processed.addAndGet(batch.size());
+        //To prevent memory issues, discard the objects from the cache after processing
+        for (IndexableObject indexableObject : batch) {
+            rangeContext.uncacheEntity(indexableObject.getIndexedObject());
+        }
+        batch.clear();
+    }
+
+    private void reportProgress(long start, long processed, long indexed) {
+        double seconds = Math.max(System.currentTimeMillis() - start, 1) / 1000d;
+        handler.logInfo(String.format("Processed %d items, indexed %d documents in %.0f seconds (%.1f docs/sec)",
+                                      processed, indexed, seconds, indexed / seconds));
+    }
+
+    /**
+     * Split the space of all UUIDs in contiguous ranges of the same size.
+     *
+     * @param ranges the number of ranges
+     * @return the lowest and highest UUID (both inclusive) of each range, in ascending order
+     */
+    protected static List<UUID[]> splitUuidSpace(int ranges) {
+        BigInteger size = BigInteger.ONE.shiftLeft(128);
+        BigInteger step = size.divide(BigInteger.valueOf(ranges));
+        List<UUID[]> result = new ArrayList<>(ranges);
+        for (int i = 0; i < ranges; i++) {
+            BigInteger from = step.multiply(BigInteger.valueOf(i));
+            BigInteger to = i == ranges - 1 ? size.subtract(BigInteger.ONE) : from.add(step).subtract(BigInteger.ONE);
+            result.add(new UUID[] {toUuid(from), toUuid(to)});
+        }
+        return result;
+    }
+
+    private static UUID toUuid(BigInteger value) {
+        return new UUID(value.shiftRight(64).longValue(), value.longValue());
     }
     /**
      * Indexes the given object and all children, if applicable.
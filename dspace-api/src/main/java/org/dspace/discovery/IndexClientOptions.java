@@ -84,6 +84,8 @@ public enum IndexClientOptions {
         options.addOption("s", "spellchecker", false, "Rebuild the spellchecker, can be combined with -b and -f.");
         options.addOption("f", "force", false,
                           "if updating existing index, force each handle to be reindexed even if uptodate");
+        options.addOption("t", "threads", true,
+                          "number of threads indexing items in parallel, when (re)building or updating the index");
         options.addOption("h", "help", false, "print this help message");
         return options;
     }
@@ -9,10 +9,13 @@ package org.dspace.discovery;
 
 import java.sql.SQLException;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import org.apache.logging.log4j.Logger;
+import org.apache.solr.common.SolrInputDocument;
 import org.dspace.content.Bundle;
 import org.dspace.content.DSpaceObject;
 import org.dspace.core.Constants;
@@ -44,12 +47,12 @@ public class IndexEventConsumer implements Consumer {
     // unique search IDs to delete
     private Set<String> uniqueIdsToDelete = new HashSet<>();
 
-    IndexingService indexer = DSpaceServicesFactory.getInstance().getServiceManager()
-                                                   .getServiceByName(IndexingService.class.getName(),
-                                                                     IndexingService.class);
-
     IndexObjectFactoryFactory indexObjectServiceFactory = IndexObjectFactoryFactory.getInstance();
 
+    IndexUpdateQueue indexUpdateQueue = DSpaceServicesFactory.getInstance().getServiceManager()
+                                                             .getServiceByName(IndexUpdateQueue.class.getName(),
+                                                                               IndexUpdateQueue.class);
+
     @Override
     public void initialize() throws Exception {
 
@@ -202,38 +205,28 @@ public class IndexEventConsumer implements Consumer {
     public void end(Context ctx) throws Exception {
 
         try {
-            for (String uid : uniqueIdsToDelete) {
-                try {
-                    indexer.unIndexContent(ctx, uid, false);
-                    if (log.isDebugEnabled()) {
-                        log.debug("UN-Indexed Item, handle=" + uid);
-                    }
-                } catch (Exception e) {
-                    log.error("Failed while UN-indexing object: " + uid, e);
-                }
-            }
-            // update the changed Items not deleted because they were on create list
+            // build the documents of the changed objects, the documents of the created Items
+            // with a pre-db status replacing them
+            Map<String, SolrInputDocument> documents = new LinkedHashMap<>();
             for (IndexableObject iu : objectsToUpdate) {
-                indexObject(ctx, iu, false);
+                buildDocument(ctx, iu, false, documents);
             }
-            // update the created Items with a pre-db status
             for (IndexableObject iu : createdItemsToUpdate) {
-                indexObject(ctx, iu, true);
+                buildDocument(ctx, iu, true, documents);
             }
-        } finally {
-            if (!objectsToUpdate.isEmpty() || !uniqueIdsToDelete.isEmpty()) {
-
-                indexer.commit();
-
-                // "free" the resources
-                objectsToUpdate.clear();
-                uniqueIdsToDelete.clear();
-                createdItemsToUpdate.clear();
+            if (!documents.isEmpty() || !uniqueIdsToDelete.isEmpty()) {
+                indexUpdateQueue.submit(uniqueIdsToDelete, documents);
             }
+        } finally {
+            // "free" the resources
+            objectsToUpdate.clear();
+            uniqueIdsToDelete.clear();
+            createdItemsToUpdate.clear();
         }
     }
 
-    private void indexObject(Context ctx, IndexableObject iu, boolean preDb) throws SQLException {
+    private void buildDocument(Context ctx, IndexableObject iu, boolean preDb,
+                               Map<String, SolrInputDocument> documents) throws SQLException {
         /* we let all types through here and
          * allow the search indexer to make
          * decisions on indexing and/or removal
@@ -242,7 +235,8 @@ public class IndexEventConsumer implements Consumer {
         String uniqueIndexID = iu.getUniqueIndexID();
         if (uniqueIndexID != null) {
             try {
-                indexer.indexContent(ctx, iu, true, false, preDb);
+                documents.put(uniqueIndexID, indexObjectServiceFactory.getIndexableObjectFactory(iu)
+                                                                      .buildCompleteDocument(ctx, iu, preDb));
                 log.debug("Indexed "
                         + iu.getTypeText()
                         + ", id=" + iu.getID()
@@ -0,0 +1,350 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.PreDestroy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.request.UpdateRequest;
+import org.apache.solr.common.SolrInputDocument;
+import org.dspace.discovery.indexobject.factory.IndexFactory;
+import org.dspace.discovery.indexobject.factory.IndexObjectFactoryFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Sends the index updates of the {@link IndexEventConsumer} to the search core in batches: all the removals of
+ * a set of updates are sent in a single request, followed by all the added documents in a single request.
+ * <p>
+ * By default the updates are sent by the thread submitting them and committed explicitly. When
+ * {@link #setCommitWithin(int)} is set, Solr commits them itself within that time instead.
+ * <p>
+ * In asynchronous mode the updates are queued and sent by a background thread. Updates of the same object which
+ * are still queued are coalesced, so that only its last state is sent. The queue holds at most
+ * {@link #setCapacity(int)} objects: when it is full, submitting threads wait for the background thread to send
+ * a batch.
+ */
+public class IndexUpdateQueue {
+
+    private static final Logger log = LogManager.getLogger(IndexUpdateQueue.class);
+
+    @Autowired
+    protected SolrSearchCore solrSearchCore;
+
+    private boolean async = false;
+    private int capacity = 10000;
+    private int batchSize = 100;
+    private int commitWithin = -1;
+    private long linger = 200;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition idle = lock.newCondition();
+    private final Map<String, PendingUpdate> pending = new LinkedHashMap<>();
+    private boolean sending = false;
+    private boolean stopped = false;
+    private Thread worker;
+
+    /**
+     * Remove the given objects from the index, then add the given documents.
+     *
+     * @param uniqueIdsToDelete unique index IDs of the objects to remove
+     * @param documents         documents to add, by unique index ID
+     * @throws InterruptedException if interrupted while waiting for room in the queue
+     */
+    public void submit(Collection<String> uniqueIdsToDelete, Map<String, SolrInputDocument> documents)
+        throws InterruptedException {
+        if (!async) {
+            Map<String, PendingUpdate> updates = new LinkedHashMap<>();
+            merge(updates, uniqueIdsToDelete, documents);
+            send(updates.values());
+            return;
+        }
+
+        lock.lockInterruptibly();
+        try {
+            while (pending.size() >= capacity && !stopped) {
+                notFull.await();
+            }
+            merge(pending, uniqueIdsToDelete, documents);
+            startWorker();
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait until all the queued updates have been sent to the search core.
+     *
+     * @param timeout maximum time to wait, in milliseconds
+     * @return true if all the updates have been sent
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean flush(long timeout) throws InterruptedException {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while ((!pending.isEmpty() || sending) && remaining > 0 && worker != null) {
+                notEmpty.signal();
+                remaining = idle.awaitNanos(remaining);
+            }
+            return pending.isEmpty() && !sending;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Send the queued updates and stop the background thread.
+     */
+    @PreDestroy
+    public void destroy() throws InterruptedException {
+        flush(TimeUnit.SECONDS.toMillis(30));
+        lock.lock();
+        try {
+            stopped = true;
+            if (!pending.isEmpty()) {
+                log.warn(pending.size() + " index updates could not be sent before shutdown");
+            }
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of objects waiting to be sent to the search core
+     */
+    public int getQueueSize() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Merge the removals, then the additions, into the given updates. A removal drops the queued documents it
+     * would remove from the index, so that they are not added back once the removal has been sent.
+     */
+    private void merge(Map<String, PendingUpdate> updates, Collection<String> uniqueIdsToDelete,
+                       Map<String, SolrInputDocument> documents) {
+        for (String uniqueId : uniqueIdsToDelete) {
+            IndexFactory indexFactory = IndexObjectFactoryFactory.getInstance().getIndexableObjectFactory(uniqueId);
+            if (indexFactory == null) {
+                log.warn("Object not found in Solr index: " + uniqueId);
+                continue;
+            }
+            for (PendingUpdate update : updates.values()) {
+                if (update.document != null && indexFactory.isDeletedWith(uniqueId, update.document)) {
+                    update.document = null;
+                }
+            }
+            updates.computeIfAbsent(uniqueId, PendingUpdate::new).delete = true;
+        }
+        for (Map.Entry<String, SolrInputDocument> document : documents.entrySet()) {
+            updates.computeIfAbsent(document.getKey(), PendingUpdate::new).document = document.getValue();
+        }
+    }
+
+    private void startWorker() {
+        if (worker == null && !stopped) {
+            worker = new Thread(this::run, "discovery-index-updates");
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            List<PendingUpdate> batch = new ArrayList<>(batchSize);
+            lock.lock();
+            try {
+                while (pending.isEmpty() && !stopped) {
+                    idle.signalAll();
+                    notEmpty.await();
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+                // give other transactions a chance to add to the batch, or to coalesce with the queued updates
+                if (pending.size() < batchSize && linger > 0 && !stopped) {
+                    notEmpty.await(linger, TimeUnit.MILLISECONDS);
+                }
+                Iterator<PendingUpdate> iterator = pending.values().iterator();
+                while (iterator.hasNext() && batch.size() < batchSize) {
+                    batch.add(iterator.next());
+                    iterator.remove();
+                }
+                sending = true;
+                notFull.signalAll();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                send(batch);
+            } catch (RuntimeException e) {
+                log.error("Failed to send " + batch.size() + " index updates", e);
+            } finally {
+                lock.lock();
+                try {
+                    sending = false;
+                    if (pending.isEmpty()) {
+                        idle.signalAll();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Send the given updates to the search core: one request with all the removals, then one request with all
+     * the added documents. When a request fails, its updates are sent one by one so that a single invalid
+     * update does not prevent the others from being indexed.
+     */
+    protected void send(Collection<PendingUpdate> updates) {
+        SolrClient solr = solrSearchCore.getSolr();
+        if (solr == null || updates.isEmpty()) {
+            return;
+        }
+        List<PendingUpdate> deletes = new ArrayList<>();
+        List<PendingUpdate> adds = new ArrayList<>();
+        for (PendingUpdate update : updates) {
+            if (update.delete) {
+                deletes.add(update);
+            }
+            if (update.document != null) {
+                adds.add(update);
+            }
+        }
+
+        process(solr, deletes, true);
+        process(solr, adds, false);
+
+        if (commitWithin <= 0) {
+            try {
+                solr.commit();
+            } catch (IOException | SolrServerException e) {
+                log.error("Failed to commit index updates", e);
+            }
+        }
+    }
+
+    private void process(SolrClient solr, List<PendingUpdate> updates, boolean delete) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        try {
+            createRequest(updates, delete).process(solr);
+            return;
+        } catch (IOException | SolrServerException | RuntimeException e) {
+            if (updates.size() == 1) {
+                log.error("Failed while " + (delete ? "UN-indexing" : "indexing") + " object: "
+                              + updates.get(0).uniqueId, e);
+                return;
+            }
+            log.warn("Failed to send " + updates.size() + " index updates in a single request, sending them "
+                         + "one by one", e);
+        }
+        for (PendingUpdate update : updates) {
+            process(solr, List.of(update), delete);
+        }
+    }
+
+    private UpdateRequest createRequest(List<PendingUpdate> updates, boolean delete) {
+        UpdateRequest updateRequest = new UpdateRequest();
+        for (PendingUpdate update : updates) {
+            if (delete) {
+                IndexObjectFactoryFactory.getInstance().getIndexableObjectFactory(update.uniqueId)
+                                         .delete(updateRequest, update.uniqueId);
+            } else {
+                updateRequest.add(update.document);
+            }
+        }
+        if (commitWithin > 0) {
+            updateRequest.setCommitWithin(commitWithin);
+        }
+        return updateRequest;
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = Math.max(capacity, 1);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    public int getCommitWithin() {
+        return commitWithin;
+    }
+
+    public void setCommitWithin(int commitWithin) {
+        this.commitWithin = commitWithin;
+    }
+
+    public long getLinger() {
+        return linger;
+    }
+
+    public void setLinger(long linger) {
+        this.linger = linger;
+    }
+
+    /**
+     * The state of an object to send to the search core: whether it must be removed from the index first, and
+     * the document to add, if any.
+     */
+    protected static class PendingUpdate {
+        private final String uniqueId;
+        private boolean delete = false;
+        private SolrInputDocument document;
+
+        protected PendingUpdate(String uniqueId) {
+            this.uniqueId = uniqueId;
+        }
+    }
+}
@@ -9,6 +9,7 @@ package org.dspace.discovery;
 
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.solr.client.solrj.SolrServerException;
@@ -43,6 +44,17 @@ public interface IndexingService {
     void indexContent(Context context, IndexableObject dso,
                       boolean force, boolean commit, boolean preDb) throws SQLException, SearchServiceException;
 
+    /**
+     * Index the given objects, sending their documents to the search core in a single update request.
+     * Changes are not committed.
+     * @param context           The DSpace Context
+     * @param indexableObjects  The objects to index
+     * @param force             Force update even if not stale
+     * @return the number of documents sent to the search core
+     */
+    int indexContent(Context context, List<IndexableObject> indexableObjects, boolean force)
+        throws SQLException, SearchServiceException;
+
     void unIndexContent(Context context, IndexableObject dso)
         throws SQLException, IOException;
 
@@ -164,6 +164,32 @@ public class SolrServiceImpl implements SearchService, IndexingService {
         }
     }
 
+    @Override
+    public int indexContent(Context context, List<IndexableObject> indexableObjects, boolean force)
+        throws SQLException, SearchServiceException {
+        List<SolrInputDocument> documents = new ArrayList<>(indexableObjects.size());
+        for (IndexableObject indexableObject : indexableObjects) {
+            try {
+                if (force || requiresIndexing(indexableObject.getUniqueIndexID(),
+                                              indexableObject.getLastModified())) {
+                    documents.add(indexObjectServiceFactory.getIndexableObjectFactory(indexableObject)
+                                                           .buildCompleteDocument(context, indexableObject, false));
+                }
+            } catch (IOException e) {
+                log.error("Error occurred while building SOLR document for {} object {}",
+                          indexableObject.getType(), indexableObject.getID(), e);
+            }
+        }
+        try {
+            if (!documents.isEmpty() && solrSearchCore.getSolr() != null) {
+                solrSearchCore.getSolr().add(documents);
+            }
+        } catch (IOException | SolrServerException e) {
+            throw new SearchServiceException(e.getMessage(), e);
+        }
+        return documents.size();
+    }
+
     protected void update(Context context, IndexFactory indexableObjectService,
                           IndexableObject indexableObject) throws IOException, SQLException, SolrServerException {
         final SolrInputDocument solrInputDocument = indexableObjectService.buildDocument(context, indexableObject);
@@ -30,6 +30,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.DateFormatUtils;
 import org.apache.logging.log4j.Logger;
 import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.request.UpdateRequest;
 import org.apache.solr.common.SolrInputDocument;
 import org.dspace.authority.service.AuthorityValueService;
 import org.dspace.content.Collection;
@@ -112,7 +113,15 @@ public class ItemIndexFactoryImpl extends DSpaceObjectIndexFactoryImpl<Indexable
 
     @Override
     public Iterator<IndexableItem> findAll(Context context) throws SQLException {
-        Iterator<Item> items = itemService.findAllRegularItems(context);
+        return toIndexableItems(itemService.findAllRegularItems(context));
+    }
+
+    @Override
+    public Iterator<IndexableItem> findAll(Context context, UUID from, UUID to) throws SQLException {
+        return toIndexableItems(itemService.findAllRegularItems(context, from, to));
+    }
+
+    private Iterator<IndexableItem> toIndexableItems(Iterator<Item> items) {
         return new Iterator<IndexableItem>() {
             @Override
             public boolean hasNext() {
@@ -632,7 +641,13 @@ public class ItemIndexFactoryImpl extends DSpaceObjectIndexFactoryImpl<Indexable
     @Override
     public void writeDocument(Context context, IndexableItem indexableObject, SolrInputDocument solrInputDocument)
             throws SQLException, IOException, SolrServerException {
-        writeDocument(solrInputDocument, new FullTextContentStreams(context, indexableObject.getIndexedObject()));
+        writeDocument(solrInputDocument, getFullTextContentStreams(context, indexableObject));
+    }
+
+    @Override
+    protected FullTextContentStreams getFullTextContentStreams(Context context, IndexableItem indexableObject)
+            throws SQLException {
+        return new FullTextContentStreams(context, indexableObject.getIndexedObject());
     }
 
     @Override
@@ -669,17 +684,33 @@ public class ItemIndexFactoryImpl extends DSpaceObjectIndexFactoryImpl<Indexable
 
     private void deleteInProgressData(String indexableObjectIdentifier) throws SolrServerException, IOException {
         // Also delete any possible workflowItem / workspaceItem / tasks related to this item
-        String query = "inprogress.item:\"" + indexableObjectIdentifier + "\"";
+        String query = getInProgressDataQuery(indexableObjectIdentifier);
         log.debug("Try to delete all in progress submission [DELETEBYQUERY]:" + query);
         solrSearchCore.getSolr().deleteByQuery(query);
     }
 
+    private String getInProgressDataQuery(String indexableObjectIdentifier) {
+        return "inprogress.item:\"" + indexableObjectIdentifier + "\"";
+    }
+
     @Override
     public void delete(String indexableObjectIdentifier) throws IOException, SolrServerException {
         super.delete(indexableObjectIdentifier);
         deleteInProgressData(indexableObjectIdentifier);
     }
 
+    @Override
+    public void delete(UpdateRequest updateRequest, String indexableObjectIdentifier) {
+        super.delete(updateRequest, indexableObjectIdentifier);
+        updateRequest.deleteByQuery(getInProgressDataQuery(indexableObjectIdentifier));
+    }
+
+    @Override
+    public boolean isDeletedWith(String indexableObjectIdentifier, SolrInputDocument document) {
+        return super.isDeletedWith(indexableObjectIdentifier, document)
+            || indexableObjectIdentifier.equals(document.getFieldValue("inprogress.item"));
+    }
+
     @Override
     public boolean supports(Object object) {
         return object instanceof Item;
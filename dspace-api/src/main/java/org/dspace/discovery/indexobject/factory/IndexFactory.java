@@ -14,6 +14,7 @@ import java.util.List;
 import java.util.Optional;
 
 import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.request.UpdateRequest;
 import org.apache.solr.common.SolrInputDocument;
 import org.dspace.core.Context;
 import org.dspace.discovery.IndexableObject;
@@ -54,6 +55,17 @@ public interface IndexFactory<T extends IndexableObject, S> {
      */
     SolrInputDocument buildNewDocument(Context context, T indexableObject) throws SQLException, IOException;
 
+    /**
+     * Create the solr document as written to the search core by
+     * {@link #writeDocument(Context, IndexableObject, SolrInputDocument)}, including any full text, so that it can
+     * be added to the search core together with other documents in a single request.
+     * @param indexableObject   the indexableObject that we want to index
+     * @param preDb             build the document as {@link #buildNewDocument(Context, IndexableObject)} does
+     * @return                  complete solr document
+     */
+    SolrInputDocument buildCompleteDocument(Context context, T indexableObject, boolean preDb)
+            throws SQLException, IOException;
+
     /**
      * Write the provided document to the solr core
      * @param context               DSpace context object
@@ -82,6 +94,23 @@ public interface IndexFactory<T extends IndexableObject, S> {
      */
     void delete(String indexableObjectIdentifier) throws IOException, SolrServerException;
 
+    /**
+     * Add the removal of the provided indexable object from the solr core to an update request, so that it can be
+     * sent to the search core together with other updates in a single request
+     * @param updateRequest             The update request to add the removal to
+     * @param indexableObjectIdentifier The identifier that we want to remove from the search core
+     */
+    void delete(UpdateRequest updateRequest, String indexableObjectIdentifier);
+
+    /**
+     * Check whether removing the provided indexable object also removes the given document from the search core,
+     * as done by {@link #delete(String)}
+     * @param indexableObjectIdentifier The identifier removed from the search core
+     * @param document                  The solr document to check
+     * @return                          true if the document is removed with the indexable object
+     */
+    boolean isDeletedWith(String indexableObjectIdentifier, SolrInputDocument document);
+
     /**
      * Remove all indexable objects of the implementing type from the search core
      * @throws IOException          If IO error
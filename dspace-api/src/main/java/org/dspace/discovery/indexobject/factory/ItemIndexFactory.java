@@ -9,7 +9,9 @@ package org.dspace.discovery.indexobject.factory;
 
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.UUID;
 
 import org.apache.solr.common.SolrInputDocument;
 import org.dspace.content.Item;
@@ -24,6 +26,17 @@ import org.dspace.discovery.indexobject.IndexableItem;
  */
 public interface ItemIndexFactory extends DSpaceObjectIndexFactory<IndexableItem, Item> {
 
+    /**
+     * Retrieve all the indexable items with a UUID between the given bounds, so that the items can be indexed by
+     * several threads each iterating over a range of UUIDs
+     * @param context   DSpace context object
+     * @param from      lowest UUID of the returned items (inclusive)
+     * @param to        highest UUID of the returned items (inclusive)
+     * @return          An iterator over the indexable items in the given range
+     * @throws SQLException If database error
+     */
+    Iterator<IndexableItem> findAll(Context context, UUID from, UUID to) throws SQLException;
+
     /**
      * Store item fields in the solr document
      * @param doc                       Solr input document which will be written to our discovery solr core
@@ -0,0 +1,76 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.eperson;
+
+import java.io.Serializable;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+
+import org.hibernate.proxy.HibernateProxyHelper;
+
+/**
+ * Database entity representation of the eperson2groupcache table, which holds all the groups an EPerson is a
+ * member of: the groups it was added to and their parent groups.
+ * The table is maintained by the {@link org.dspace.eperson.service.GroupService} as the memberships change, and
+ * is only queried, the entity is never created by Hibernate.
+ */
+@Entity
+@Table(name = "eperson2groupcache")
+public class EPerson2GroupCache implements Serializable {
+
+    @Id
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "eperson_id", nullable = false)
+    private EPerson eperson;
+
+    @Id
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "group_id", nullable = false)
+    private Group group;
+
+    /**
+     * Protected constructor, the rows are written by the
+     * {@link org.dspace.eperson.service.GroupService}
+     */
+    protected EPerson2GroupCache() {
+
+    }
+
+    public EPerson getEPerson() {
+        return eperson;
+    }
+
+    public Group getGroup() {
+        return group;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null) {
+            return false;
+        }
+        Class<?> objClass = HibernateProxyHelper.getClassWithoutInitializingProxy(obj);
+        if (getClass() != objClass) {
+            return false;
+        }
+        final EPerson2GroupCache other = (EPerson2GroupCache) obj;
+        return eperson.equals(other.getEPerson()) && group.equals(other.getGroup());
+    }
+
+    @Override
+    public int hashCode() {
+        return new org.apache.commons.lang3.builder.HashCodeBuilder()
+            .append(eperson == null ? "" : eperson.getID())
+            .append(group == null ? "" : group.getID())
+            .toHashCode();
+    }
+}
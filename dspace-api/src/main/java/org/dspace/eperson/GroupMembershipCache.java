@@ -0,0 +1,132 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.eperson;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.dspace.core.Context;
+import org.dspace.services.ConfigurationService;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Cache of the groups of the EPersons (see {@link EPerson2GroupCache}) shared by all the contexts of the JVM, so
+ * that they are not queried again by every request.
+ * <p>
+ * The groups of an EPerson are invalidated once the context which changed them commits: until then, this context
+ * does not use the cache (see {@link Context#hasMembershipChanges()}). As the changes made by other processes
+ * (e.g. command line scripts) are not seen, the groups expire after {@code eperson.groups.cache.ttl} seconds,
+ * and the cache is disabled unless {@code eperson.groups.cache.enabled} is set.
+ */
+public class GroupMembershipCache {
+
+    @Autowired(required = true)
+    protected ConfigurationService configurationService;
+
+    private boolean enabled;
+    private int maxSize;
+    private long ttl;
+
+    // groups by EPerson, in access order
+    private final LinkedHashMap<UUID, CachedGroups> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, CachedGroups> eldest) {
+            return size() > maxSize;
+        }
+    };
+    // incremented by every invalidation, so that the groups loaded meanwhile are not cached
+    private long version;
+
+    protected GroupMembershipCache() {
+    }
+
+    public void init() {
+        enabled = configurationService.getBooleanProperty("eperson.groups.cache.enabled", false);
+        maxSize = configurationService.getIntProperty("eperson.groups.cache.max-size", 50000);
+        ttl = TimeUnit.SECONDS.toMillis(configurationService.getLongProperty("eperson.groups.cache.ttl", 300));
+        enabled = enabled && maxSize > 0 && ttl > 0;
+    }
+
+    /**
+     * @param context current context
+     * @return whether the context can use the cache
+     */
+    public boolean isEnabled(Context context) {
+        return enabled && !context.hasMembershipChanges();
+    }
+
+    /**
+     * @return the version to give back to {@link #put(UUID, Set, long)}, read before loading the groups
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * @param ePersonId identifier of an EPerson
+     * @return the identifiers of the groups of the EPerson, or null if they are not cached
+     */
+    public synchronized Set<UUID> get(UUID ePersonId) {
+        CachedGroups entry = entries.get(ePersonId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(ePersonId);
+            return null;
+        }
+        return entry.groups;
+    }
+
+    /**
+     * Cache the groups of an EPerson, unless the cache was invalidated since they were loaded.
+     *
+     * @param ePersonId identifier of the EPerson
+     * @param groups    identifiers of its groups
+     * @param version   the version of the cache before the groups were loaded
+     */
+    public synchronized void put(UUID ePersonId, Set<UUID> groups, long version) {
+        if (enabled && this.version == version) {
+            entries.put(ePersonId, new CachedGroups(Set.copyOf(groups), System.currentTimeMillis() + ttl));
+        }
+    }
+
+    /**
+     * Invalidate the groups of some EPersons.
+     *
+     * @param ePersonIds identifiers of the EPersons
+     */
+    public synchronized void invalidate(Collection<UUID> ePersonIds) {
+        if (!ePersonIds.isEmpty()) {
+            version++;
+            entries.keySet().removeAll(ePersonIds);
+        }
+    }
+
+    /**
+     * Remove the groups of all the EPersons.
+     */
+    public synchronized void clear() {
+        version++;
+        entries.clear();
+    }
+
+    private static class CachedGroups {
+        private final Set<UUID> groups;
+        private final long expiresAt;
+
+        CachedGroups(Set<UUID> groups, long expiresAt) {
+            this.groups = groups;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
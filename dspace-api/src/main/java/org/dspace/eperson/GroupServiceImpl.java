@@ -38,6 +38,7 @@ import org.dspace.content.service.CommunityService;
 import org.dspace.core.Constants;
 import org.dspace.core.Context;
 import org.dspace.core.LogHelper;
+import org.dspace.eperson.dao.EPerson2GroupCacheDAO;
 import org.dspace.eperson.dao.Group2GroupCacheDAO;
 import org.dspace.eperson.dao.GroupDAO;
 import org.dspace.eperson.factory.EPersonServiceFactory;
@@ -72,6 +73,12 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
     @Autowired(required = true)
     protected Group2GroupCacheDAO group2GroupCacheDAO;
 
+    @Autowired(required = true)
+    protected EPerson2GroupCacheDAO ePerson2GroupCacheDAO;
+
+    @Autowired(required = true)
+    protected GroupMembershipCache groupMembershipCache;
+
     @Autowired(required = true)
     protected CollectionService collectionService;
 
@@ -332,10 +339,11 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
         Set<Group> groups = new HashSet<>();
 
         if (ePerson != null) {
-            // two queries - first to get groups eperson is a member of
-            // second query gets parent groups for groups eperson is a member of
-            groups.addAll(groupDAO.findByEPerson(context, ePerson));
+            // the groups eperson is a member of, with their parent groups
+            groups.addAll(groupDAO.findByIds(context, getMemberGroupIds(context, ePerson)));
         }
+        // the special groups and the anonymous group, whose parent groups are looked up below
+        Set<Group> otherGroups = new HashSet<>();
         // Also need to get all "Special Groups" user is a member of!
         // Otherwise, you're ignoring the user's membership to these groups!
         // However, we only do this is we are looking up the special groups
@@ -344,15 +352,16 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
         if ((context.getCurrentUser() == null) || (context.getCurrentUser().equals(ePerson))) {
             List<Group> specialGroups = context.getSpecialGroups();
             for (Group special : specialGroups) {
-                groups.add(special);
+                otherGroups.add(special);
             }
         }
 
         // all the users are members of the anonymous group
-        groups.add(findByName(context, Group.ANONYMOUS));
+        otherGroups.add(findByName(context, Group.ANONYMOUS));
 
-        List<Group2GroupCache> groupCache = group2GroupCacheDAO.findByChildren(context, groups);
+        List<Group2GroupCache> groupCache = group2GroupCacheDAO.findByChildren(context, otherGroups);
         // now we have all owning groups, also grab all parents of owning groups
+        groups.addAll(otherGroups);
         for (Group2GroupCache group2GroupCache : groupCache) {
             groups.add(group2GroupCache.getParent());
         }
@@ -492,11 +501,15 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
             ePerson.getGroups().remove(group);
         }
 
+        // the members of the group lose its parent groups
+        Set<UUID> members = new HashSet<>(ePerson2GroupCacheDAO.findEPersonIds(context, group));
+
         // empty out group2groupcache table (if we do it after we delete our object we get an issue with references)
         group2GroupCacheDAO.deleteAll(context);
         // Remove ourself
         groupDAO.delete(context, group);
         rethinkGroupCache(context, false);
+        updateMemberGroups(context, members);
 
         log.info(LogHelper.getHeader(context, "delete_group", "group_id="
             + group.getID()));
@@ -587,7 +600,11 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
         }
 
         if (group.isGroupsChanged()) {
+            // the members of the group, before and after the change, gain or lose parent groups
+            Set<UUID> members = new HashSet<>(ePerson2GroupCacheDAO.findEPersonIds(context, group));
             rethinkGroupCache(context, true);
+            members.addAll(ePerson2GroupCacheDAO.findMemberIds(context, group));
+            updateMemberGroups(context, members);
             group.clearGroupsChanged();
         }
 
@@ -598,7 +615,53 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
 
     protected boolean isEPersonInGroup(Context context, Group group, EPerson ePerson)
         throws SQLException {
-        return groupDAO.findByIdAndMembership(context, group.getID(), ePerson) != null;
+        return getMemberGroupIds(context, ePerson).contains(group.getID());
+    }
+
+    /**
+     * Get the identifiers of all the groups an EPerson is a member of, directly or through a child group, from the
+     * shared cache or else from the eperson2groupcache table. The special groups are not included.
+     *
+     * @param context The relevant DSpace Context.
+     * @param ePerson the EPerson
+     * @return the identifiers of the groups
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    protected Set<UUID> getMemberGroupIds(Context context, EPerson ePerson) throws SQLException {
+        if (!context.isReadOnly()) {
+            updateMemberGroups(context);
+        }
+        if (!groupMembershipCache.isEnabled(context)) {
+            return new HashSet<>(ePerson2GroupCacheDAO.findGroupIds(context, ePerson));
+        }
+        Set<UUID> groupIds = groupMembershipCache.get(ePerson.getID());
+        if (groupIds == null) {
+            long version = groupMembershipCache.getVersion();
+            groupIds = new HashSet<>(ePerson2GroupCacheDAO.findGroupIds(context, ePerson));
+            groupMembershipCache.put(ePerson.getID(), groupIds, version);
+        }
+        return groupIds;
+    }
+
+    @Override
+    public void updateMemberGroups(Context context) throws SQLException {
+        updateMemberGroups(context, context.takeMembershipChanges());
+    }
+
+    /**
+     * Compute again the groups of some EPersons in the eperson2groupcache table, and invalidate them in the shared
+     * cache once the context commits.
+     *
+     * @param context    The relevant DSpace Context.
+     * @param ePersonIds the identifiers of the EPersons
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    protected void updateMemberGroups(Context context, Set<UUID> ePersonIds) throws SQLException {
+        if (ePersonIds.isEmpty()) {
+            return;
+        }
+        ePerson2GroupCacheDAO.update(context, ePersonIds);
+        context.membershipsUpdated(ePersonIds);
     }
 
 
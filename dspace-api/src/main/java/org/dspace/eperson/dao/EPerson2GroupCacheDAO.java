@@ -0,0 +1,69 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.eperson.dao;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.dspace.core.Context;
+import org.dspace.core.GenericDAO;
+import org.dspace.eperson.EPerson;
+import org.dspace.eperson.EPerson2GroupCache;
+import org.dspace.eperson.Group;
+
+/**
+ * Database Access Object interface class for the EPerson2GroupCache object.
+ * The implementation of this class is responsible for all database calls for the EPerson2GroupCache object and is
+ * autowired by spring
+ * This class should only be accessed from a single service and should never be exposed outside of the API
+ */
+public interface EPerson2GroupCacheDAO extends GenericDAO<EPerson2GroupCache> {
+
+    /**
+     * Find the identifiers of all the groups an EPerson is a member of, directly or through a child group.
+     *
+     * @param context DSpace context object
+     * @param ePerson the EPerson
+     * @return the identifiers of the groups
+     * @throws SQLException if database error
+     */
+    public List<UUID> findGroupIds(Context context, EPerson ePerson) throws SQLException;
+
+    /**
+     * Find the identifiers of all the EPersons member of a group, directly or through a child group.
+     *
+     * @param context DSpace context object
+     * @param group   the group
+     * @return the identifiers of the EPersons
+     * @throws SQLException if database error
+     */
+    public List<UUID> findEPersonIds(Context context, Group group) throws SQLException;
+
+    /**
+     * Find the identifiers of all the EPersons member of a group, directly or through a child group, from the
+     * memberships and the group2groupcache table rather than from this table.
+     *
+     * @param context DSpace context object
+     * @param group   the group
+     * @return the identifiers of the EPersons
+     * @throws SQLException if database error
+     */
+    public List<UUID> findMemberIds(Context context, Group group) throws SQLException;
+
+    /**
+     * Compute again the groups of some EPersons, from their direct memberships and the group2groupcache table.
+     * The pending changes of the session are flushed first.
+     *
+     * @param context    DSpace context object
+     * @param ePersonIds the identifiers of the EPersons
+     * @throws SQLException if database error
+     */
+    public void update(Context context, Collection<UUID> ePersonIds) throws SQLException;
+}
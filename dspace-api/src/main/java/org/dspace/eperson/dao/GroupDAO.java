@@ -8,6 +8,7 @@
 package org.dspace.eperson.dao;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -75,6 +76,16 @@ public interface GroupDAO extends DSpaceObjectDAO<Group>, DSpaceObjectLegacySupp
      */
     List<Group> findByEPerson(Context context, EPerson ePerson) throws SQLException;
 
+    /**
+     * Find the groups with the given identifiers
+     *
+     * @param context The DSpace context
+     * @param ids     The identifiers of the groups
+     * @return The groups found
+     * @throws SQLException if database error
+     */
+    List<Group> findByIds(Context context, Collection<UUID> ids) throws SQLException;
+
     /**
      * Get a list of all direct parent - child group relations in the database
      *
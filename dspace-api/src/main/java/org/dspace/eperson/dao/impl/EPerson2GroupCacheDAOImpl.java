@@ -0,0 +1,89 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.eperson.dao.impl;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.commons.collections4.ListUtils;
+import org.dspace.core.AbstractHibernateDAO;
+import org.dspace.core.Context;
+import org.dspace.eperson.EPerson;
+import org.dspace.eperson.EPerson2GroupCache;
+import org.dspace.eperson.Group;
+import org.dspace.eperson.dao.EPerson2GroupCacheDAO;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * Hibernate implementation of the Database Access Object interface class for the EPerson2GroupCache object.
+ * This class is responsible for all database calls for the EPerson2GroupCache object and is autowired by Spring.
+ * This class should never be accessed directly.
+ */
+public class EPerson2GroupCacheDAOImpl extends AbstractHibernateDAO<EPerson2GroupCache>
+    implements EPerson2GroupCacheDAO {
+
+    /**
+     * Maximum number of EPersons updated by a statement
+     */
+    private static final int BATCH_SIZE = 500;
+
+    protected EPerson2GroupCacheDAOImpl() {
+        super();
+    }
+
+    @Override
+    public List<UUID> findGroupIds(Context context, EPerson ePerson) throws SQLException {
+        return createQuery(context, "SELECT c.group.id FROM EPerson2GroupCache c WHERE c.eperson = :eperson")
+            .setParameter("eperson", ePerson)
+            .getResultList();
+    }
+
+    @Override
+    public List<UUID> findEPersonIds(Context context, Group group) throws SQLException {
+        return createQuery(context, "SELECT c.eperson.id FROM EPerson2GroupCache c WHERE c.group = :group")
+            .setParameter("group", group)
+            .getResultList();
+    }
+
+    @Override
+    public List<UUID> findMemberIds(Context context, Group group) throws SQLException {
+        return createQuery(context, "SELECT DISTINCT e.id FROM Group g JOIN g.epeople e WHERE g = :group " +
+            "OR g IN (SELECT c.child FROM Group2GroupCache c WHERE c.parent = :group)")
+            .setParameter("group", group)
+            .getResultList();
+    }
+
+    @Override
+    public void update(Context context, Collection<UUID> ePersonIds) throws SQLException {
+        if (ePersonIds.isEmpty()) {
+            return;
+        }
+        Session session = getHibernateSession(context);
+        // the statements below read the memberships from the database
+        session.flush();
+        for (List<UUID> batch : ListUtils.partition(new ArrayList<>(ePersonIds), BATCH_SIZE)) {
+            session.createNativeQuery("DELETE FROM eperson2groupcache WHERE eperson_id IN (:ids)")
+                   .addSynchronizedEntityClass(EPerson2GroupCache.class)
+                   .setParameter("ids", batch)
+                   .executeUpdate();
+            NativeQuery<?> insert = session.createNativeQuery(
+                "INSERT INTO eperson2groupcache (eperson_id, group_id) " +
+                "SELECT eperson_id, eperson_group_id FROM epersongroup2eperson WHERE eperson_id IN (:ids) " +
+                "UNION " +
+                "SELECT m.eperson_id, c.parent_id FROM epersongroup2eperson m " +
+                "JOIN group2groupcache c ON c.child_id = m.eperson_group_id WHERE m.eperson_id IN (:ids)");
+            insert.addSynchronizedEntityClass(EPerson2GroupCache.class)
+                  .setParameter("ids", batch)
+                  .executeUpdate();
+        }
+    }
+}
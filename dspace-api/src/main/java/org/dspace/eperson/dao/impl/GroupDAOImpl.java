@@ -8,6 +8,7 @@
 package org.dspace.eperson.dao.impl;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
@@ -99,6 +100,17 @@ public class GroupDAOImpl extends AbstractHibernateDSODAO<Group> implements Grou
         return list(query);
     }
 
+    @Override
+    public List<Group> findByIds(Context context, Collection<UUID> ids) throws SQLException {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Query query = createQuery(context, "SELECT g FROM Group g WHERE g.id IN (:ids)");
+        query.setParameter("ids", ids);
+
+        return list(query);
+    }
+
     @Override
     public Group findByName(final Context context, final String name) throws SQLException {
         Query query = createQuery(context,
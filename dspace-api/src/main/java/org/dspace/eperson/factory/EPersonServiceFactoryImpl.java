@@ -7,6 +7,7 @@
  */
 package org.dspace.eperson.factory;
 
+import org.dspace.eperson.GroupMembershipCache;
 import org.dspace.eperson.service.AccountService;
 import org.dspace.eperson.service.EPersonService;
 import org.dspace.eperson.service.GroupService;
@@ -32,6 +33,8 @@ public class EPersonServiceFactoryImpl extends EPersonServiceFactory {
     private AccountService accountService;
     @Autowired(required = true)
     private SubscribeService subscribeService;
+    @Autowired(required = true)
+    private GroupMembershipCache groupMembershipCache;
 
     @Override
     public EPersonService getEPersonService() {
@@ -58,4 +61,9 @@ public class EPersonServiceFactoryImpl extends EPersonServiceFactory {
         return subscribeService;
     }
 
+    @Override
+    public GroupMembershipCache getGroupMembershipCache() {
+        return groupMembershipCache;
+    }
+
 }
@@ -188,6 +188,16 @@ public interface GroupService extends DSpaceObjectService<Group>, DSpaceObjectLe
 
     Set<Group> allMemberGroupsSet(Context context, EPerson ePerson) throws SQLException;
 
+    /**
+     * Compute again the groups of the EPersons added to or removed from a group with this context, as kept in the
+     * eperson2groupcache table. This is done before the context commits, or before the groups of an EPerson are
+     * looked up.
+     *
+     * @param context DSpace context
+     * @throws SQLException if database error
+     */
+    public void updateMemberGroups(Context context) throws SQLException;
+
     /**
      * Get all of the epeople who are a member of the
      * specified group, or a member of a sub-group of the
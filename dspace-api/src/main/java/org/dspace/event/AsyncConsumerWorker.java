@@ -0,0 +1,399 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.event;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.core.Context;
+import org.dspace.event.factory.EventServiceFactory;
+import org.dspace.event.service.EventOutboxService;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+
+/**
+ * Processes the events stored in the outbox for an asynchronous consumer of the {@link AsyncDispatcher}.
+ * <p>
+ * A background thread claims batches of events from the outbox, so that several DSpace processes sharing the
+ * database do not process the same events, and sends them to the consumer in a new Context. The events are
+ * removed from the outbox in the same transaction as the changes made by the consumer. Events which could not be
+ * processed are retried until they failed {@code event.outbox.max-attempts} times. The later events of the same
+ * object are not processed before the failed event has been retried, unless it failed too many times.
+ * <p>
+ * With {@code event.consumer.<name>.async.threads} greater than 1, each batch is split by subject between as many
+ * instances of the consumer, running in parallel: events of the same object are still processed in order.
+ * <p>
+ * The thread polls the outbox every {@code event.outbox.poll-interval} milliseconds, and as soon as a
+ * transaction storing events for the consumer is committed.
+ */
+public class AsyncConsumerWorker implements AsyncConsumerWorkerMXBean {
+
+    private static final Logger log = LogManager.getLogger(AsyncConsumerWorker.class);
+
+    private final String consumerName;
+    private final int threads;
+    private final String workerId = UUID.randomUUID().toString();
+
+    private final EventOutboxService eventOutboxService;
+    private final ConfigurationService configurationService;
+
+    private final List<Consumer> consumers = new ArrayList<>();
+    private ExecutorService executor;
+    private Thread poller;
+    private ObjectName mBeanName;
+
+    private final Object monitor = new Object();
+    private boolean signalled = false;
+    private long completedPolls = 0;
+    private volatile boolean stopped = false;
+
+    private final AtomicLong processedCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private volatile long queueDepth = 0;
+    private volatile long failedEventCount = 0;
+    private volatile Date oldestPendingDate = null;
+
+    /**
+     * @param consumerName name of the consumer, as configured in {@code event.consumer.<name>.class}
+     * @param threads      number of instances of the consumer processing events in parallel
+     */
+    public AsyncConsumerWorker(String consumerName, int threads) {
+        this.consumerName = consumerName;
+        this.threads = Math.max(threads, 1);
+        this.eventOutboxService = EventServiceFactory.getInstance().getEventOutboxService();
+        this.configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
+    }
+
+    /**
+     * Create the instances of the consumer and start the background thread.
+     *
+     * @throws Exception if the consumer cannot be created or initialized
+     */
+    public synchronized void start() throws Exception {
+        if (poller != null) {
+            return;
+        }
+        for (int i = 0; i < threads; i++) {
+            Consumer consumer = ConsumerProfile.makeConsumerProfile(consumerName).getConsumer();
+            consumer.initialize();
+            consumers.add(consumer);
+        }
+        if (threads > 1) {
+            executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "event-consumer-" + consumerName + "-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        poller = new Thread(this::run, "event-consumer-" + consumerName);
+        poller.setDaemon(true);
+        poller.start();
+        registerMBean();
+        log.info("Started asynchronous processing of the events of consumer " + consumerName + " with "
+                     + threads + " thread(s)");
+    }
+
+    /**
+     * Stop the background thread once the current batch has been processed, and release the events
+     * claimed by this worker.
+     */
+    public void stop() {
+        synchronized (monitor) {
+            stopped = true;
+            monitor.notifyAll();
+        }
+        try {
+            if (poller != null) {
+                poller.join(TimeUnit.SECONDS.toMillis(30));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        unregisterMBean();
+
+        Context context = new Context();
+        try {
+            eventOutboxService.releaseClaims(context, workerId);
+            context.complete();
+        } catch (Exception e) {
+            log.warn("Unable to release the events claimed by the worker of consumer " + consumerName, e);
+        } finally {
+            if (context.isValid()) {
+                context.abort();
+            }
+        }
+    }
+
+    /**
+     * Make the background thread poll the outbox now.
+     */
+    public void wakeUp() {
+        synchronized (monitor) {
+            signalled = true;
+            monitor.notifyAll();
+        }
+    }
+
+    /**
+     * Wait until the background thread has processed all the events of the consumer which can be
+     * claimed, e.g. before checking their effects in tests.
+     *
+     * @param timeout maximum time to wait, in milliseconds
+     * @return true if the outbox has been polled until it had no more events to process
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean flush(long timeout) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeout;
+        synchronized (monitor) {
+            // the poll running when flush is called may have started before the last events were committed
+            long target = completedPolls + 2;
+            while (completedPolls < target && !stopped) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                signalled = true;
+                monitor.notifyAll();
+                monitor.wait(remaining);
+            }
+            return completedPolls >= target;
+        }
+    }
+
+    private void run() {
+        long pollInterval = configurationService.getLongProperty("event.outbox.poll-interval", 5000);
+        while (!stopped) {
+            try {
+                while (!stopped && processBatch()) {
+                    // keep processing until the outbox is empty
+                }
+                updateStatistics();
+            } catch (Exception e) {
+                log.error("Error while processing the events of consumer " + consumerName, e);
+            }
+
+            synchronized (monitor) {
+                completedPolls++;
+                monitor.notifyAll();
+                try {
+                    if (!signalled && !stopped) {
+                        monitor.wait(pollInterval);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                signalled = false;
+            }
+        }
+    }
+
+    /**
+     * Claim a batch of events and send them to the consumer.
+     *
+     * @return true if events were found in the outbox
+     */
+    private boolean processBatch() throws Exception {
+        int batchSize = configurationService.getIntProperty("event.outbox.batch-size", 100);
+        long lease = configurationService.getLongProperty("event.outbox.lease", 300000);
+
+        List<OutboxEvent> batch;
+        Context context = new Context();
+        try {
+            batch = eventOutboxService.claim(context, consumerName, workerId, batchSize, lease);
+            context.complete();
+        } finally {
+            if (context.isValid()) {
+                context.abort();
+            }
+        }
+        if (batch.isEmpty()) {
+            return false;
+        }
+
+        if (threads == 1) {
+            process(consumers.get(0), batch);
+            return true;
+        }
+
+        // split by subject, so that the events of an object are processed in order by the same consumer
+        Map<Integer, List<OutboxEvent>> partitions = new LinkedHashMap<>();
+        for (OutboxEvent outboxEvent : batch) {
+            int partition = Math.floorMod(Objects.hashCode(outboxEvent.getSubjectID()), threads);
+            partitions.computeIfAbsent(partition, p -> new ArrayList<>()).add(outboxEvent);
+        }
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (Map.Entry<Integer, List<OutboxEvent>> partition : partitions.entrySet()) {
+            Consumer consumer = consumers.get(partition.getKey());
+            tasks.add(() -> {
+                process(consumer, partition.getValue());
+                return null;
+            });
+        }
+        executor.invokeAll(tasks);
+        return true;
+    }
+
+    /**
+     * Send the events to the consumer in a new Context, then remove them from the outbox in the same
+     * transaction. Events the consumer failed to process are kept to be retried, and the following events
+     * of the same objects are released without being processed, to be processed after them.
+     */
+    private void process(Consumer consumer, List<OutboxEvent> outboxEvents) {
+        Map<OutboxEvent, Exception> failures = new LinkedHashMap<>();
+        Set<UUID> failedSubjects = new HashSet<>();
+        List<OutboxEvent> deferred = new ArrayList<>();
+        Context context = new Context();
+        try {
+            context.turnOffAuthorisationSystem();
+            for (OutboxEvent outboxEvent : outboxEvents) {
+                if (outboxEvent.getSubjectID() != null && failedSubjects.contains(outboxEvent.getSubjectID())) {
+                    deferred.add(outboxEvent);
+                    continue;
+                }
+                try {
+                    consumer.consume(context, eventOutboxService.toEvent(outboxEvent));
+                } catch (Exception e) {
+                    log.error("Consumer(\"" + consumerName + "\").consume threw: " + e.toString(), e);
+                    failures.put(outboxEvent, e);
+                    failedSubjects.add(outboxEvent.getSubjectID());
+                }
+            }
+            consumer.end(context);
+            for (OutboxEvent outboxEvent : outboxEvents) {
+                if (!failures.containsKey(outboxEvent) && !deferred.contains(outboxEvent)) {
+                    eventOutboxService.complete(context, outboxEvent);
+                }
+            }
+            context.restoreAuthSystemState();
+            context.complete();
+            processedCount.addAndGet(outboxEvents.size() - failures.size() - deferred.size());
+        } catch (Exception e) {
+            log.error("Error in Consumer(\"" + consumerName + "\").end: " + e.toString(), e);
+            for (OutboxEvent outboxEvent : outboxEvents) {
+                if (!deferred.contains(outboxEvent)) {
+                    failures.putIfAbsent(outboxEvent, e);
+                }
+            }
+        } finally {
+            if (context.isValid()) {
+                context.abort();
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            recordFailures(failures, deferred);
+        }
+    }
+
+    private void recordFailures(Map<OutboxEvent, Exception> failures, List<OutboxEvent> deferred) {
+        failureCount.addAndGet(failures.size());
+        Context context = new Context();
+        try {
+            for (Map.Entry<OutboxEvent, Exception> failure : failures.entrySet()) {
+                eventOutboxService.fail(context, failure.getKey(), failure.getValue());
+            }
+            for (OutboxEvent outboxEvent : deferred) {
+                eventOutboxService.release(context, outboxEvent);
+            }
+            context.complete();
+        } catch (Exception e) {
+            // the events will be retried once their claim has expired
+            log.error("Unable to record the failures of consumer " + consumerName, e);
+        } finally {
+            if (context.isValid()) {
+                context.abort();
+            }
+        }
+    }
+
+    private void updateStatistics() throws Exception {
+        Context context = new Context(Context.Mode.READ_ONLY);
+        try {
+            queueDepth = eventOutboxService.countPending(context, consumerName);
+            failedEventCount = eventOutboxService.countFailed(context, consumerName);
+            oldestPendingDate = eventOutboxService.getOldestPendingDate(context, consumerName);
+        } finally {
+            if (context.isValid()) {
+                context.abort();
+            }
+        }
+    }
+
+    private void registerMBean() {
+        try {
+            mBeanName = new ObjectName("org.dspace:type=AsyncEventConsumer,name=" + ObjectName.quote(consumerName));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, mBeanName);
+        } catch (Exception e) {
+            // e.g. another webapp of the same JVM already registered it
+            log.warn("Unable to register the MBean of consumer " + consumerName + ": " + e.getMessage());
+            mBeanName = null;
+        }
+    }
+
+    private void unregisterMBean() {
+        if (mBeanName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(mBeanName);
+            } catch (Exception e) {
+                log.warn("Unable to unregister the MBean of consumer " + consumerName + ": " + e.getMessage());
+            }
+            mBeanName = null;
+        }
+    }
+
+    @Override
+    public String getConsumerName() {
+        return consumerName;
+    }
+
+    @Override
+    public long getQueueDepth() {
+        return queueDepth;
+    }
+
+    @Override
+    public long getLagMillis() {
+        Date oldest = oldestPendingDate;
+        return oldest != null ? Math.max(System.currentTimeMillis() - oldest.getTime(), 0) : 0;
+    }
+
+    @Override
+    public long getProcessedCount() {
+        return processedCount.get();
+    }
+
+    @Override
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    @Override
+    public long getFailedEventCount() {
+        return failedEventCount;
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.event;
+
+/**
+ * MBean type for monitoring the processing of the events of an asynchronous consumer.
+ * The counts read from the database are refreshed every time the worker polls the outbox.
+ */
+public interface AsyncConsumerWorkerMXBean {
+    /**
+     * @return name of the consumer
+     */
+    public String getConsumerName();
+
+    /**
+     * @return number of events of the consumer waiting in the outbox, including those being processed
+     */
+    public long getQueueDepth();
+
+    /**
+     * @return age in milliseconds of the oldest event waiting in the outbox, or 0 if there is none
+     */
+    public long getLagMillis();
+
+    /**
+     * @return number of events processed by this worker since it started
+     */
+    public long getProcessedCount();
+
+    /**
+     * @return number of failures to process an event since this worker started, including retried events
+     */
+    public long getFailureCount();
+
+    /**
+     * @return number of events of the consumer left in the outbox because they failed too many times
+     */
+    public long getFailedEventCount();
+}
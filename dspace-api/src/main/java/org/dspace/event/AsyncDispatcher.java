@@ -0,0 +1,114 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.event;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.core.Context;
+import org.dspace.event.factory.EventServiceFactory;
+import org.dspace.event.service.EventOutboxService;
+
+/**
+ * Dispatcher sending the events to the consumers configured with {@code event.consumer.<name>.async = true}
+ * in the background, so that the committing thread does not wait for them. Other consumers are called
+ * synchronously, as by the {@link BasicDispatcher}.
+ * <p>
+ * The events of asynchronous consumers are stored in the event_outbox table, in the transaction being committed,
+ * so that they are not lost if DSpace stops before they are processed, and are not processed if the transaction
+ * is rolled back. They are processed by one {@link AsyncConsumerWorker} per consumer, shared by all the
+ * dispatchers of the JVM, once the transaction has been committed: unlike synchronous consumers, asynchronous
+ * consumers see the committed state of the objects, in a Context of their own.
+ */
+public class AsyncDispatcher extends BasicDispatcher {
+
+    private static final Logger log = LogManager.getLogger(AsyncDispatcher.class);
+
+    /**
+     * Workers of the asynchronous consumers, by consumer name
+     */
+    private static final Map<String, AsyncConsumerWorker> workers = new ConcurrentHashMap<>();
+
+    protected EventOutboxService eventOutboxService = EventServiceFactory.getInstance().getEventOutboxService();
+
+    /**
+     * Asynchronous consumers which received events in the current dispatch
+     */
+    private final Set<String> notifiedConsumers = new HashSet<>();
+
+    public AsyncDispatcher(String name) {
+        super(name);
+    }
+
+    @Override
+    public void addConsumerProfile(ConsumerProfile cp) throws IllegalArgumentException {
+        super.addConsumerProfile(cp);
+        if (cp.isAsync()) {
+            workers.computeIfAbsent(cp.getName(), consumerName -> {
+                AsyncConsumerWorker worker = new AsyncConsumerWorker(consumerName, cp.getAsyncThreads());
+                try {
+                    worker.start();
+                } catch (Exception e) {
+                    throw new IllegalStateException("Unable to start the worker of consumer " + consumerName, e);
+                }
+                return worker;
+            });
+        }
+    }
+
+    @Override
+    protected void consume(Context ctx, ConsumerProfile cp, Event event) throws Exception {
+        if (!cp.isAsync()) {
+            super.consume(ctx, cp, event);
+            return;
+        }
+        eventOutboxService.add(ctx, cp.getName(), event);
+        notifiedConsumers.add(cp.getName());
+    }
+
+    @Override
+    protected void end(Context ctx, ConsumerProfile cp) throws Exception {
+        if (!cp.isAsync()) {
+            super.end(ctx, cp);
+            return;
+        }
+        if (notifiedConsumers.remove(cp.getName())) {
+            AsyncConsumerWorker worker = workers.get(cp.getName());
+            if (worker != null) {
+                eventOutboxService.afterCommit(ctx, worker::wakeUp);
+            } else {
+                log.warn("No worker running for consumer " + cp.getName() + ", its events stay in the outbox");
+            }
+        }
+    }
+
+    /**
+     * @param consumerName name of an asynchronous consumer
+     * @return the worker processing its events in this JVM, or null if no dispatcher using it was created
+     */
+    public static AsyncConsumerWorker getWorker(String consumerName) {
+        return workers.get(consumerName);
+    }
+
+    /**
+     * Stop the workers of all the asynchronous consumers, releasing the events they claimed so that other
+     * DSpace processes can process them at once, e.g. when DSpace is shut down.
+     */
+    public static void stopWorkers() {
+        for (String consumerName : workers.keySet()) {
+            AsyncConsumerWorker worker = workers.remove(consumerName);
+            if (worker != null) {
+                worker.stop();
+            }
+        }
+    }
+}
@@ -101,7 +101,7 @@ public class BasicDispatcher extends Dispatcher {
                         }
 
                         try {
-                            cp.getConsumer().consume(ctx, event);
+                            consume(ctx, cp, event);
 
                             // Record that the event has been consumed by this
                             // consumer
@@ -125,7 +125,7 @@ public class BasicDispatcher extends Dispatcher {
                     }
 
                     try {
-                        cp.getConsumer().end(ctx);
+                        end(ctx, cp);
                     } catch (Exception e) {
                         log.error("Error in Consumer(\"" + cp.getName()
                                       + "\").end: " + e.toString(), e);
@@ -135,4 +135,27 @@ public class BasicDispatcher extends Dispatcher {
         }
     }
 
+    /**
+     * Send an event to a consumer.
+     *
+     * @param ctx   the execution context
+     * @param cp    profile of the consumer
+     * @param event the event
+     * @throws Exception passed through from the consumer
+     */
+    protected void consume(Context ctx, ConsumerProfile cp, Event event) throws Exception {
+        cp.getConsumer().consume(ctx, event);
+    }
+
+    /**
+     * Signal a consumer that all the events of the context have been sent.
+     *
+     * @param ctx the execution context
+     * @param cp  profile of the consumer
+     * @throws Exception passed through from the consumer
+     */
+    protected void end(Context ctx, ConsumerProfile cp) throws Exception {
+        cp.getConsumer().end(ctx);
+    }
+
 }
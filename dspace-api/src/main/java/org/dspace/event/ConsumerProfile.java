@@ -43,6 +43,16 @@ public class ConsumerProfile {
      */
     private List<int[]> filters;
 
+    /**
+     * Whether events are processed by the consumer in the background, by an {@link AsyncDispatcher}
+     */
+    private boolean async;
+
+    /**
+     * Number of threads processing the events of an asynchronous consumer
+     */
+    private int asyncThreads;
+
     // Prefix of keys in DSpace Configuration.
     private static final String CONSUMER_PREFIX = "event.consumer.";
 
@@ -104,6 +114,9 @@ public class ConsumerProfile {
                 "No filters configured for consumer named: " + name);
         }
 
+        async = configurationService.getBooleanProperty(CONSUMER_PREFIX + name + ".async", false);
+        asyncThreads = Math.max(configurationService.getIntProperty(CONSUMER_PREFIX + name + ".async.threads", 1), 1);
+
         consumer = Class.forName(className.trim())
                 .asSubclass(Consumer.class)
                 .getDeclaredConstructor().newInstance();
@@ -163,4 +176,19 @@ public class ConsumerProfile {
     public String getName() {
         return name;
     }
+
+    /**
+     * @return true if the events should be processed by the consumer in the background, when
+     * dispatched by an {@link AsyncDispatcher}
+     */
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * @return the number of threads processing the events of an asynchronous consumer
+     */
+    public int getAsyncThreads() {
+        return asyncThreads;
+    }
 }
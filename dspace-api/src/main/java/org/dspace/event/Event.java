@@ -519,6 +519,15 @@ public class Event implements Serializable {
         return timeStamp;
     }
 
+    /**
+     * Restore the timestamp of an event read back from the {@link OutboxEvent} table.
+     *
+     * @param timeStamp timestamp at which event occurred
+     */
+    void setTimeStamp(long timeStamp) {
+        this.timeStamp = timeStamp;
+    }
+
     /**
      * @return hashcode identifier of name of Dispatcher which first dispatched
      * this event. (Needed by asynch dispatch code.)
@@ -0,0 +1,155 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.event;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.dspace.core.Context;
+import org.dspace.event.dao.OutboxEventDAO;
+import org.dspace.event.service.EventOutboxService;
+import org.dspace.services.ConfigurationService;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Service implementation for the {@link OutboxEvent} object.
+ * This class is responsible for all business logic calls for the OutboxEvent object and is autowired by spring.
+ * This class should never be accessed directly.
+ */
+public class EventOutboxServiceImpl implements EventOutboxService {
+
+    @Autowired(required = true)
+    protected OutboxEventDAO outboxEventDAO;
+
+    @Autowired(required = true)
+    protected ConfigurationService configurationService;
+
+    protected EventOutboxServiceImpl() {
+    }
+
+    @Override
+    public void add(Context context, String consumer, Event event) throws SQLException {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setConsumer(consumer);
+        outboxEvent.setEventType(event.getEventType());
+        outboxEvent.setSubjectType(event.getSubjectType());
+        outboxEvent.setSubjectID(event.getSubjectID());
+        outboxEvent.setObjectType(event.getObjectType());
+        outboxEvent.setObjectID(event.getObjectID());
+        outboxEvent.setDetail(event.getDetail());
+        if (!event.getIdentifiers().isEmpty()) {
+            outboxEvent.setIdentifiers(StringUtils.join(event.getIdentifiers(), '\n'));
+        }
+        outboxEvent.setTransactionID(event.getTransactionID());
+        outboxEvent.setDispatcher(event.getDispatcher());
+        outboxEvent.setTimeStamp(event.getTimeStamp());
+        outboxEvent.setCreated(new Date());
+        outboxEventDAO.create(context, outboxEvent);
+    }
+
+    @Override
+    public List<OutboxEvent> claim(Context context, String consumer, String claimedBy, int limit, long leaseMillis)
+        throws SQLException {
+        Date now = new Date();
+        List<Integer> ids = outboxEventDAO.findClaimableIds(context, consumer, now, getMaxAttempts(), limit);
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        outboxEventDAO.claim(context, ids, claimedBy, new Date(now.getTime() + leaseMillis), now);
+        return outboxEventDAO.findByClaim(context, consumer, claimedBy);
+    }
+
+    @Override
+    public void complete(Context context, OutboxEvent outboxEvent) throws SQLException {
+        OutboxEvent reloaded = context.reloadEntity(outboxEvent);
+        if (reloaded != null) {
+            outboxEventDAO.delete(context, reloaded);
+        }
+    }
+
+    @Override
+    public void fail(Context context, OutboxEvent outboxEvent, Throwable error) throws SQLException {
+        OutboxEvent reloaded = context.reloadEntity(outboxEvent);
+        if (reloaded == null) {
+            return;
+        }
+        reloaded.setAttempts(reloaded.getAttempts() + 1);
+        reloaded.setLastError(ExceptionUtils.getStackTrace(error));
+        reloaded.setClaimedBy(null);
+        reloaded.setClaimedUntil(null);
+        outboxEventDAO.save(context, reloaded);
+    }
+
+    @Override
+    public void release(Context context, OutboxEvent outboxEvent) throws SQLException {
+        OutboxEvent reloaded = context.reloadEntity(outboxEvent);
+        if (reloaded == null) {
+            return;
+        }
+        reloaded.setClaimedBy(null);
+        reloaded.setClaimedUntil(null);
+        outboxEventDAO.save(context, reloaded);
+    }
+
+    @Override
+    public void releaseClaims(Context context, String claimedBy) throws SQLException {
+        outboxEventDAO.releaseClaims(context, claimedBy);
+    }
+
+    @Override
+    public long countPending(Context context, String consumer) throws SQLException {
+        return outboxEventDAO.countPending(context, consumer, getMaxAttempts());
+    }
+
+    @Override
+    public long countFailed(Context context, String consumer) throws SQLException {
+        return outboxEventDAO.countFailed(context, consumer, getMaxAttempts());
+    }
+
+    @Override
+    public Date getOldestPendingDate(Context context, String consumer) throws SQLException {
+        return outboxEventDAO.findOldestPendingDate(context, consumer, getMaxAttempts());
+    }
+
+    @Override
+    public Event toEvent(OutboxEvent outboxEvent) {
+        ArrayList<String> identifiers = new ArrayList<>();
+        if (outboxEvent.getIdentifiers() != null) {
+            identifiers.addAll(Arrays.asList(StringUtils.split(outboxEvent.getIdentifiers(), '\n')));
+        }
+        Event event;
+        if (outboxEvent.getObjectType() < 0) {
+            event = new Event(outboxEvent.getEventType(), outboxEvent.getSubjectType(), outboxEvent.getSubjectID(),
+                              outboxEvent.getDetail(), identifiers);
+        } else {
+            event = new Event(outboxEvent.getEventType(), outboxEvent.getSubjectType(), outboxEvent.getSubjectID(),
+                              outboxEvent.getObjectType(), outboxEvent.getObjectID(), outboxEvent.getDetail(),
+                              identifiers);
+        }
+        event.setDispatcher(outboxEvent.getDispatcher());
+        event.setTransactionID(outboxEvent.getTransactionID());
+        event.setTimeStamp(outboxEvent.getTimeStamp());
+        return event;
+    }
+
+    @Override
+    public void afterCommit(Context context, Runnable action) throws SQLException {
+        outboxEventDAO.afterCommit(context, action);
+    }
+
+    @Override
+    public int getMaxAttempts() {
+        return configurationService.getIntProperty("event.outbox.max-attempts", 5);
+    }
+}
@@ -9,10 +9,13 @@ package org.dspace.event;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.PreDestroy;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.pool2.KeyedObjectPool;
@@ -94,6 +97,14 @@ public class EventServiceImpl implements EventService {
         }
     }
 
+    /**
+     * Stop the workers of the asynchronous consumers when DSpace is shut down.
+     */
+    @PreDestroy
+    public void destroy() {
+        AsyncDispatcher.stopWorkers();
+    }
+
     @Override
     public Dispatcher getDispatcher(String name) {
         if (dispatcherPool == null) {
@@ -121,6 +132,22 @@ public class EventServiceImpl implements EventService {
         }
     }
 
+    @Override
+    public void registerConsumers(String name, String[] consumers) {
+        if (dispatcherPool == null) {
+            initPool();
+        }
+        String[] previous = dispatcherFactory.registeredConsumers.put(name, consumers.clone());
+        if (previous != null && !Arrays.equals(previous, consumers)) {
+            // the idle dispatchers were made with the previous consumers
+            try {
+                dispatcherPool.clear(name);
+            } catch (Exception e) {
+                log.warn("Unable to clear the idle dispatchers named " + name, e);
+            }
+        }
+    }
+
     @Override
     public int getConsumerIndex(String consumerClass) {
         Integer index = (Integer) consumerIndicies.get(consumerClass);
@@ -156,6 +183,9 @@ public class EventServiceImpl implements EventService {
         // Cache of event dispatchers, keyed by name, for re-use.
         protected Map<String, String> dispatchers = new HashMap<String, String>();
 
+        // Consumers of the dispatchers, registered instead of configured, keyed by dispatcher name
+        protected Map<String, String[]> registeredConsumers = new ConcurrentHashMap<>();
+
         public DispatcherPoolFactory() {
             parseEventConfig();
         }
@@ -184,6 +214,9 @@ public class EventServiceImpl implements EventService {
                         + ".consumers";
                     String[] consumers = configurationService
                         .getArrayProperty(consumerKey);
+                    if (ArrayUtils.isEmpty(consumers) && registeredConsumers.containsKey(dispatcherName)) {
+                        consumers = registeredConsumers.get(dispatcherName);
+                    }
                     if (ArrayUtils.isEmpty(consumers)) {
                         throw new IllegalStateException(
                             "No Configuration entry found for consumer list of event Dispatcher: \""
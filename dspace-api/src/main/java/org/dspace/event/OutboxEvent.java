@@ -0,0 +1,247 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.event;
+
+import java.util.Date;
+import java.util.UUID;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.dspace.core.ReloadableEntity;
+import org.hibernate.annotations.Type;
+
+/**
+ * Database entity representation of the event_outbox table: an {@link Event} waiting to be
+ * consumed by an asynchronous consumer of the {@link AsyncDispatcher}. There is one row per
+ * event and consumer, removed once the consumer has processed the event.
+ */
+@Entity
+@Table(name = "event_outbox")
+public class OutboxEvent implements ReloadableEntity<Integer> {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "event_outbox_id_seq")
+    @SequenceGenerator(name = "event_outbox_id_seq", sequenceName = "event_outbox_id_seq", allocationSize = 1)
+    private Integer id;
+
+    @Column(name = "consumer", nullable = false)
+    private String consumer;
+
+    @Column(name = "event_type", nullable = false)
+    private int eventType;
+
+    @Column(name = "subject_type", nullable = false)
+    private int subjectType;
+
+    @Column(name = "subject_id")
+    private UUID subjectID;
+
+    @Column(name = "object_type", nullable = false)
+    private int objectType;
+
+    @Column(name = "object_id")
+    private UUID objectID;
+
+    @Lob
+    @Type(type = "org.hibernate.type.TextType")
+    @Column(name = "detail")
+    private String detail;
+
+    /**
+     * Identifiers of the subject, one per line
+     */
+    @Lob
+    @Type(type = "org.hibernate.type.TextType")
+    @Column(name = "identifiers")
+    private String identifiers;
+
+    @Column(name = "transaction_id")
+    private String transactionID;
+
+    @Column(name = "dispatcher", nullable = false)
+    private int dispatcher;
+
+    @Column(name = "time_stamp", nullable = false)
+    private long timeStamp;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created", nullable = false)
+    private Date created;
+
+    /**
+     * Number of failed attempts to consume the event
+     */
+    @Column(name = "attempts", nullable = false)
+    private int attempts = 0;
+
+    @Lob
+    @Type(type = "org.hibernate.type.TextType")
+    @Column(name = "last_error")
+    private String lastError;
+
+    /**
+     * Identifier of the worker processing the event, if any
+     */
+    @Column(name = "claimed_by")
+    private String claimedBy;
+
+    /**
+     * Time after which the event can be claimed again, if its worker did not process it
+     */
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "claimed_until")
+    private Date claimedUntil;
+
+    /**
+     * Protected constructor, create handled by the
+     * {@link org.dspace.event.service.EventOutboxService}
+     */
+    protected OutboxEvent() {
+    }
+
+    @Override
+    public Integer getID() {
+        return id;
+    }
+
+    public String getConsumer() {
+        return consumer;
+    }
+
+    public void setConsumer(String consumer) {
+        this.consumer = consumer;
+    }
+
+    public int getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(int eventType) {
+        this.eventType = eventType;
+    }
+
+    public int getSubjectType() {
+        return subjectType;
+    }
+
+    public void setSubjectType(int subjectType) {
+        this.subjectType = subjectType;
+    }
+
+    public UUID getSubjectID() {
+        return subjectID;
+    }
+
+    public void setSubjectID(UUID subjectID) {
+        this.subjectID = subjectID;
+    }
+
+    public int getObjectType() {
+        return objectType;
+    }
+
+    public void setObjectType(int objectType) {
+        this.objectType = objectType;
+    }
+
+    public UUID getObjectID() {
+        return objectID;
+    }
+
+    public void setObjectID(UUID objectID) {
+        this.objectID = objectID;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public void setDetail(String detail) {
+        this.detail = detail;
+    }
+
+    public String getIdentifiers() {
+        return identifiers;
+    }
+
+    public void setIdentifiers(String identifiers) {
+        this.identifiers = identifiers;
+    }
+
+    public String getTransactionID() {
+        return transactionID;
+    }
+
+    public void setTransactionID(String transactionID) {
+        this.transactionID = transactionID;
+    }
+
+    public int getDispatcher() {
+        return dispatcher;
+    }
+
+    public void setDispatcher(int dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    public long getTimeStamp() {
+        return timeStamp;
+    }
+
+    public void setTimeStamp(long timeStamp) {
+        this.timeStamp = timeStamp;
+    }
+
+    public Date getCreated() {
+        return created;
+    }
+
+    public void setCreated(Date created) {
+        this.created = created;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public void setClaimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+
+    public Date getClaimedUntil() {
+        return claimedUntil;
+    }
+
+    public void setClaimedUntil(Date claimedUntil) {
+        this.claimedUntil = claimedUntil;
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.event.dao;
+
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+
+import org.dspace.core.Context;
+import org.dspace.core.GenericDAO;
+import org.dspace.event.OutboxEvent;
+
+/**
+ * Database Access Object interface class for the OutboxEvent object.
+ * The implementation of this class is responsible for all database calls for the OutboxEvent object and is autowired
+ * by spring.
+ * This class should only be accessed from a single service and should never be exposed outside of the API.
+ */
+public interface OutboxEventDAO extends GenericDAO<OutboxEvent> {
+
+    /**
+     * Find the IDs of the oldest events of a consumer which are not claimed by a worker, or whose
+     * claim has expired. Events of an object which has an earlier event claimed by a worker are skipped.
+     *
+     * @param context     the DSpace context
+     * @param consumer    name of the consumer
+     * @param now         the current time
+     * @param maxAttempts events which failed this number of times are ignored
+     * @param limit       maximum number of IDs to return
+     * @return the IDs, in the order the events were created
+     * @throws SQLException if database error
+     */
+    List<Integer> findClaimableIds(Context context, String consumer, Date now, int maxAttempts, int limit)
+        throws SQLException;
+
+    /**
+     * Claim the given events for a worker, unless another worker claimed them in the meantime.
+     *
+     * @param context      the DSpace context
+     * @param ids          IDs of the events to claim
+     * @param claimedBy    identifier of the worker
+     * @param claimedUntil expiry of the claim
+     * @param now          the current time
+     * @return the number of claimed events
+     * @throws SQLException if database error
+     */
+    int claim(Context context, List<Integer> ids, String claimedBy, Date claimedUntil, Date now)
+        throws SQLException;
+
+    /**
+     * @param context   the DSpace context
+     * @param consumer  name of the consumer
+     * @param claimedBy identifier of the worker
+     * @return the events of the consumer claimed by the given worker, in the order they were created
+     * @throws SQLException if database error
+     */
+    List<OutboxEvent> findByClaim(Context context, String consumer, String claimedBy) throws SQLException;
+
+    /**
+     * Release all the claims of a worker.
+     *
+     * @param context   the DSpace context
+     * @param claimedBy identifier of the worker
+     * @return the number of released events
+     * @throws SQLException if database error
+     */
+    int releaseClaims(Context context, String claimedBy) throws SQLException;
+
+    /**
+     * @param context     the DSpace context
+     * @param consumer    name of the consumer
+     * @param maxAttempts events which failed this number of times are not counted
+     * @return the number of events waiting to be consumed
+     * @throws SQLException if database error
+     */
+    long countPending(Context context, String consumer, int maxAttempts) throws SQLException;
+
+    /**
+     * @param context     the DSpace context
+     * @param consumer    name of the consumer
+     * @param maxAttempts number of failures after which an event is not retried anymore
+     * @return the number of events which will not be retried anymore
+     * @throws SQLException if database error
+     */
+    long countFailed(Context context, String consumer, int maxAttempts) throws SQLException;
+
+    /**
+     * @param context     the DSpace context
+     * @param consumer    name of the consumer
+     * @param maxAttempts events which failed this number of times are ignored
+     * @return the creation date of the oldest event waiting to be consumed, or null if there is none
+     * @throws SQLException if database error
+     */
+    Date findOldestPendingDate(Context context, String consumer, int maxAttempts) throws SQLException;
+
+    /**
+     * Register an action to run once the current transaction of the given context has been committed.
+     *
+     * @param context the DSpace context
+     * @param action  the action to run
+     * @throws SQLException if database error
+     */
+    void afterCommit(Context context, Runnable action) throws SQLException;
+}
@@ -0,0 +1,122 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.event.dao.impl;
+
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+import javax.persistence.Query;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+
+import org.dspace.core.AbstractHibernateDAO;
+import org.dspace.core.Context;
+import org.dspace.event.OutboxEvent;
+import org.dspace.event.dao.OutboxEventDAO;
+
+/**
+ * Hibernate implementation of the Database Access Object interface class for the OutboxEvent object.
+ * This class is responsible for all database calls for the OutboxEvent object and is autowired by spring
+ * This class should never be accessed directly.
+ */
+@SuppressWarnings("unchecked")
+public class OutboxEventDAOImpl extends AbstractHibernateDAO<OutboxEvent> implements OutboxEventDAO {
+
+    protected OutboxEventDAOImpl() {
+        super();
+    }
+
+    @Override
+    public List<Integer> findClaimableIds(Context context, String consumer, Date now, int maxAttempts, int limit)
+        throws SQLException {
+        Query query = createQuery(context, "SELECT e.id FROM OutboxEvent e WHERE e.consumer = :consumer"
+            + " AND e.attempts < :maxAttempts AND (e.claimedBy IS NULL OR e.claimedUntil < :now)"
+            // events of an object are not processed while an earlier one is being processed by another worker
+            + " AND NOT EXISTS (SELECT p.id FROM OutboxEvent p WHERE p.consumer = e.consumer"
+            + " AND p.subjectID = e.subjectID AND p.id < e.id AND p.attempts < :maxAttempts"
+            + " AND p.claimedBy IS NOT NULL AND p.claimedUntil >= :now) ORDER BY e.id");
+        query.setParameter("consumer", consumer);
+        query.setParameter("maxAttempts", maxAttempts);
+        query.setParameter("now", now);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    @Override
+    public int claim(Context context, List<Integer> ids, String claimedBy, Date claimedUntil, Date now)
+        throws SQLException {
+        Query query = createQuery(context, "UPDATE OutboxEvent SET claimedBy = :claimedBy,"
+            + " claimedUntil = :claimedUntil WHERE id IN (:ids) AND (claimedBy IS NULL OR claimedUntil < :now)");
+        query.setParameter("claimedBy", claimedBy);
+        query.setParameter("claimedUntil", claimedUntil);
+        query.setParameter("ids", ids);
+        query.setParameter("now", now);
+        return query.executeUpdate();
+    }
+
+    @Override
+    public List<OutboxEvent> findByClaim(Context context, String consumer, String claimedBy) throws SQLException {
+        Query query = createQuery(context,
+            "FROM OutboxEvent WHERE consumer = :consumer AND claimedBy = :claimedBy ORDER BY id");
+        query.setParameter("consumer", consumer);
+        query.setParameter("claimedBy", claimedBy);
+        return query.getResultList();
+    }
+
+    @Override
+    public int releaseClaims(Context context, String claimedBy) throws SQLException {
+        Query query = createQuery(context,
+            "UPDATE OutboxEvent SET claimedBy = NULL, claimedUntil = NULL WHERE claimedBy = :claimedBy");
+        query.setParameter("claimedBy", claimedBy);
+        return query.executeUpdate();
+    }
+
+    @Override
+    public long countPending(Context context, String consumer, int maxAttempts) throws SQLException {
+        Query query = createQuery(context,
+            "SELECT COUNT(e) FROM OutboxEvent e WHERE e.consumer = :consumer AND e.attempts < :maxAttempts");
+        query.setParameter("consumer", consumer);
+        query.setParameter("maxAttempts", maxAttempts);
+        return (long) query.getSingleResult();
+    }
+
+    @Override
+    public long countFailed(Context context, String consumer, int maxAttempts) throws SQLException {
+        Query query = createQuery(context,
+            "SELECT COUNT(e) FROM OutboxEvent e WHERE e.consumer = :consumer AND e.attempts >= :maxAttempts");
+        query.setParameter("consumer", consumer);
+        query.setParameter("maxAttempts", maxAttempts);
+        return (long) query.getSingleResult();
+    }
+
+    @Override
+    public Date findOldestPendingDate(Context context, String consumer, int maxAttempts) throws SQLException {
+        Query query = createQuery(context,
+            "SELECT MIN(e.created) FROM OutboxEvent e WHERE e.consumer = :consumer AND e.attempts < :maxAttempts");
+        query.setParameter("consumer", consumer);
+        query.setParameter("maxAttempts", maxAttempts);
+        return (Date) query.getSingleResult();
+    }
+
+    @Override
+    public void afterCommit(Context context, Runnable action) throws SQLException {
+        getHibernateSession(context).getTransaction().registerSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+                // nothing to do
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
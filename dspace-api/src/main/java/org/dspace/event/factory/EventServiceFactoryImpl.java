@@ -7,6 +7,7 @@
  */
 package org.dspace.event.factory;
 
+import org.dspace.event.service.EventOutboxService;
 import org.dspace.event.service.EventService;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -21,8 +22,16 @@ public class EventServiceFactoryImpl extends EventServiceFactory {
     @Autowired(required = true)
     private EventService eventService;
 
+    @Autowired(required = true)
+    private EventOutboxService eventOutboxService;
+
     @Override
     public EventService getEventService() {
         return eventService;
     }
+
+    @Override
+    public EventOutboxService getEventOutboxService() {
+        return eventOutboxService;
+    }
 }
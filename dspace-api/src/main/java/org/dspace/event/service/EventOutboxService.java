@@ -0,0 +1,137 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.event.service;
+
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+
+import org.dspace.core.Context;
+import org.dspace.event.Event;
+import org.dspace.event.OutboxEvent;
+
+/**
+ * Service interface class for the {@link OutboxEvent} object: the events waiting to be processed by
+ * the asynchronous consumers of the {@link org.dspace.event.AsyncDispatcher}.
+ * The implementation of this class is responsible for all business logic calls for the OutboxEvent
+ * object and is autowired by spring.
+ */
+public interface EventOutboxService {
+
+    /**
+     * Store an event for an asynchronous consumer, in the current transaction of the context.
+     *
+     * @param context  the DSpace context
+     * @param consumer name of the consumer
+     * @param event    the event
+     * @throws SQLException if database error
+     */
+    void add(Context context, String consumer, Event event) throws SQLException;
+
+    /**
+     * Claim the oldest events of a consumer for a worker. Events claimed by another worker are
+     * skipped, unless that claim has expired, as well as the events of the objects which have an
+     * earlier event claimed by another worker.
+     *
+     * @param context     the DSpace context
+     * @param consumer    name of the consumer
+     * @param claimedBy   identifier of the worker
+     * @param limit       maximum number of events to claim
+     * @param leaseMillis duration of the claim, in milliseconds
+     * @return the claimed events, in the order they were created
+     * @throws SQLException if database error
+     */
+    List<OutboxEvent> claim(Context context, String consumer, String claimedBy, int limit, long leaseMillis)
+        throws SQLException;
+
+    /**
+     * Remove an event which has been processed by its consumer.
+     *
+     * @param context     the DSpace context
+     * @param outboxEvent the event
+     * @throws SQLException if database error
+     */
+    void complete(Context context, OutboxEvent outboxEvent) throws SQLException;
+
+    /**
+     * Record a failure to process an event and release its claim, so that it is retried until it
+     * failed {@link #getMaxAttempts()} times.
+     *
+     * @param context     the DSpace context
+     * @param outboxEvent the event
+     * @param error       the cause of the failure
+     * @throws SQLException if database error
+     */
+    void fail(Context context, OutboxEvent outboxEvent, Throwable error) throws SQLException;
+
+    /**
+     * Release the claim of an event which has not been processed, without counting it as a failure,
+     * e.g. because an earlier event of the same object has to be retried first.
+     *
+     * @param context     the DSpace context
+     * @param outboxEvent the event
+     * @throws SQLException if database error
+     */
+    void release(Context context, OutboxEvent outboxEvent) throws SQLException;
+
+    /**
+     * Release all the claims of a worker, e.g. when it is stopped.
+     *
+     * @param context   the DSpace context
+     * @param claimedBy identifier of the worker
+     * @throws SQLException if database error
+     */
+    void releaseClaims(Context context, String claimedBy) throws SQLException;
+
+    /**
+     * @param context  the DSpace context
+     * @param consumer name of the consumer
+     * @return the number of events of the consumer waiting to be processed
+     * @throws SQLException if database error
+     */
+    long countPending(Context context, String consumer) throws SQLException;
+
+    /**
+     * @param context  the DSpace context
+     * @param consumer name of the consumer
+     * @return the number of events of the consumer which failed too many times to be retried
+     * @throws SQLException if database error
+     */
+    long countFailed(Context context, String consumer) throws SQLException;
+
+    /**
+     * @param context  the DSpace context
+     * @param consumer name of the consumer
+     * @return the creation date of the oldest event of the consumer waiting to be processed, or null
+     * @throws SQLException if database error
+     */
+    Date getOldestPendingDate(Context context, String consumer) throws SQLException;
+
+    /**
+     * Rebuild the event stored in the outbox.
+     *
+     * @param outboxEvent the stored event
+     * @return the event
+     */
+    Event toEvent(OutboxEvent outboxEvent);
+
+    /**
+     * Run an action once the current transaction of the context has been committed, e.g. to wake
+     * up the workers once the events they have to process are visible to them.
+     *
+     * @param context the DSpace context
+     * @param action  the action
+     * @throws SQLException if database error
+     */
+    void afterCommit(Context context, Runnable action) throws SQLException;
+
+    /**
+     * @return the number of failures after which an event is not retried anymore
+     */
+    int getMaxAttempts();
+}
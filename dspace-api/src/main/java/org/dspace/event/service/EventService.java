@@ -33,5 +33,15 @@ public interface EventService {
 
     public void returnDispatcher(String key, Dispatcher disp);
 
+    /**
+     * Register the consumers of a dispatcher, without changing the configuration. They are used when the
+     * "event.dispatcher.&lt;name&gt;.consumers" property is not configured, e.g. for a dispatcher whose consumers
+     * are derived from the consumers of another one. The class of the dispatcher must still be configured.
+     *
+     * @param name      dispatcher name
+     * @param consumers names of the consumers
+     */
+    public void registerConsumers(String name, String[] consumers);
+
     public int getConsumerIndex(String consumerClass);
 }
@@ -15,10 +15,19 @@ import static org.dspace.iiif.util.IIIFSharedUtils.METADATA_IIIF_WIDTH_QUALIFIER
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.dspace.authorize.AuthorizeException;
 import org.dspace.content.Bitstream;
 import org.dspace.content.Bundle;
@@ -60,6 +69,14 @@ public class IIIFCanvasDimensionServiceImpl implements IIIFCanvasDimensionServic
     private List<String> skipList = null;
     private int max2Process = Integer.MAX_VALUE;
     private int processed = 0;
+    private int threads = 1;
+    private ExecutorService executor = null;
+
+    // items whose bitstream dimensions are being read, in processing order
+    private final Deque<PendingItem> pendingItems = new ArrayDeque<>();
+    private int pendingBitstreams = 0;
+    // dimensions being read from the content of the bitstreams, whose streams are open
+    private final Deque<CompletableFuture<int[]>> openStreams = new ArrayDeque<>();
 
     // used to check for existing canvas dimension
     private static final String IIIF_WIDTH_METADATA = METADATA_IIIF_SCHEMA + "." + METADATA_IIIF_IMAGE_ELEMENT +
@@ -85,6 +102,11 @@ public class IIIFCanvasDimensionServiceImpl implements IIIFCanvasDimensionServic
         this.skipList = skipList;
     }
 
+    @Override
+    public void setThreads(int threads) {
+        this.threads = Math.max(threads, 1);
+    }
+
     @Override
     public int processCommunity(Context context, Community community) throws Exception {
         if (!inSkipList(community.getHandle())) {
@@ -104,66 +126,121 @@ public class IIIFCanvasDimensionServiceImpl implements IIIFCanvasDimensionServic
     public int processCollection(Context context, Collection collection) throws Exception {
         if (!inSkipList(collection.getHandle())) {
             Iterator<Item> itemIterator = itemService.findAllByCollection(context, collection);
-            while (itemIterator.hasNext() && processed < max2Process) {
-                processItem(context, itemIterator.next());
+            while (itemIterator.hasNext()) {
+                if (processed + pendingItems.size() >= max2Process) {
+                    // the pending items may not all be updated
+                    completePendingItems(context);
+                    if (processed >= max2Process) {
+                        break;
+                    }
+                }
+                queueItem(context, itemIterator.next());
             }
+            completePendingItems(context);
         }
         return processed;
     }
 
     @Override
     public void processItem(Context context, Item item) throws Exception {
+        queueItem(context, item);
+        completePendingItems(context);
+    }
+
+    /**
+     * Start reading the image dimensions of the IIIF bitstreams of an item. The metadata of the item is updated
+     * once the dimensions are read, as soon as too many bitstreams are pending.
+     * @param context
+     * @param item
+     * @throws Exception
+     */
+    private void queueItem(Context context, Item item) throws Exception {
         if (!inSkipList(item.getHandle())) {
             boolean isIIIFItem = IIIFSharedUtils.isIIIFItem(item);
             if (isIIIFItem) {
-                if (processItemBundles(context, item)) {
-                    ++processed;
+                PendingItem pendingItem = new PendingItem(item);
+                List<Bundle> bundles = IIIFSharedUtils.getIIIFBundles(item);
+                for (Bundle bundle : bundles) {
+                    List<Bitstream> bitstreams = bundle.getBitstreams();
+                    for (Bitstream bit : bitstreams) {
+                        if (isToBeProcessed(context, bit)) {
+                            pendingItem.bitstreams.add(bit);
+                            pendingItem.dimensions.add(readDimensions(context, bit));
+                        } else {
+                            context.uncacheEntity(bit);
+                        }
+                    }
+                }
+                pendingItems.add(pendingItem);
+                pendingBitstreams += pendingItem.bitstreams.size();
+                while (pendingBitstreams > (threads > 1 ? threads * 2 : 0)) {
+                    completeItem(context, pendingItems.remove());
                 }
-                context.uncacheEntity(item);
             }
         }
     }
 
     /**
-     * Process all IIIF bundles for an item.
+     * Update the metadata of all the pending items.
      * @param context
-     * @param item
-     * @return
      * @throws Exception
      */
-    private boolean processItemBundles(Context context, Item item) throws Exception {
-        List<Bundle> bundles = IIIFSharedUtils.getIIIFBundles(item);
+    private void completePendingItems(Context context) throws Exception {
+        try {
+            while (!pendingItems.isEmpty()) {
+                completeItem(context, pendingItems.remove());
+            }
+        } finally {
+            openStreams.clear();
+            if (executor != null) {
+                executor.shutdownNow();
+                executor = null;
+            }
+        }
+    }
+
+    /**
+     * Sets the canvas metadata of the IIIF bitstreams of an item, once their dimensions are read.
+     * @param context
+     * @param pendingItem
+     * @throws Exception
+     */
+    private void completeItem(Context context, PendingItem pendingItem) throws Exception {
+        pendingBitstreams -= pendingItem.bitstreams.size();
         boolean done = false;
-        for (Bundle bundle : bundles) {
-            List<Bitstream> bitstreams = bundle.getBitstreams();
-            for (Bitstream bit : bitstreams) {
-                done |= processBitstream(context, bit);
-                context.uncacheEntity(bit);
+        for (int i = 0; i < pendingItem.bitstreams.size(); i++) {
+            Bitstream bit = pendingItem.bitstreams.get(i);
+            int[] dims;
+            try {
+                dims = pendingItem.dimensions.get(i).join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
             }
+            if (dims != null) {
+                done |= setBitstreamMetadata(context, bit, dims);
+                // update the bitstream
+                bitstreamService.update(context, bit);
+            }
+            context.uncacheEntity(bit);
         }
         if (done) {
             if (!isQuiet) {
-                System.out.println("Updated canvas metadata for item: " + item.getID());
+                System.out.println("Updated canvas metadata for item: " + pendingItem.item.getID());
             }
+            ++processed;
         }
-        return done;
-
+        context.uncacheEntity(pendingItem.item);
     }
 
     /**
-     * Gets image height and width for the bitstream. For jp2 images, height and width are
-     * obtained from the IIIF image server. For other formats supported by ImageIO these values
-     * are read from the actual DSpace bitstream content. If bitstream width metadata already exists,
-     * the bitstream is processed when forceProcessing is true.
+     * Tests whether the canvas dimensions of the bitstream are to be set: it must be an image, and be processed
+     * again only when forceProcessing is true.
      * @param context
      * @param bitstream
      * @return
-     * @throws Exception
+     * @throws SQLException
      */
-    private boolean processBitstream(Context context, Bitstream bitstream) throws SQLException, AuthorizeException,
-        IOException {
-
-        boolean processed = false;
+    private boolean isToBeProcessed(Context context, Bitstream bitstream) throws SQLException {
         boolean isImage = bitstream.getFormat(context).getMIMEType().contains("image/");
         if (isImage) {
             Optional<MetadataValue> op = bitstream.getMetadata().stream()
@@ -173,34 +250,67 @@ public class IIIFCanvasDimensionServiceImpl implements IIIFCanvasDimensionServic
                 if (forceProcessing && !isQuiet) {
                     System.out.println("Force processing for bitstream: " + bitstream.getID());
                 }
-                int[] dims;
-                InputStream stream = null;
-                try {
-                    stream = bitstreamService.retrieve(context, bitstream);
-                    try {
-                        dims = ImageDimensionReader.getImageDimensions(stream);
-                        if (dims == null) {
-                            // If image dimensions are not available try the iiif image server.
-                            dims = iiifApiQuery.getImageDimensions(bitstream);
-                        }
-                    } catch (IOException e) {
-                        // If an exception was raised by ImageIO, try the iiif image server.
-                        dims = iiifApiQuery.getImageDimensions(bitstream);
-                    }
-                } finally {
-                    if (stream != null) {
-                        stream.close();
-                    }
-                }
+                return true;
+            }
+        }
+        return false;
+    }
 
-                if (dims != null) {
-                    processed = setBitstreamMetadata(context, bitstream, dims);
-                    // update the bitstream
-                    bitstreamService.update(context, bitstream);
+    /**
+     * Gets image height and width for the bitstream. These values are read from the header of the actual DSpace
+     * bitstream content, and obtained from the IIIF image server for the images whose format cannot be read.
+     * The content is opened in the current thread, and read by the worker threads when more than one is set: no more
+     * than twice as many streams as threads are opened at once, the next one is opened once a stream is read.
+     * @param context
+     * @param bitstream
+     * @return the dimensions, once read
+     * @throws Exception
+     */
+    private CompletableFuture<int[]> readDimensions(Context context, Bitstream bitstream) throws SQLException,
+        AuthorizeException, IOException {
+
+        awaitOpenStreams(threads * 2);
+        InputStream stream = bitstreamService.retrieve(context, bitstream);
+        CompletableFuture<int[]> dimensions = CompletableFuture.supplyAsync(() -> {
+            int[] dims;
+            try (InputStream image = stream) {
+                dims = ImageDimensionReader.getImageDimensions(image);
+                if (dims == null) {
+                    // If image dimensions are not available try the iiif image server.
+                    dims = iiifApiQuery.getImageDimensions(bitstream);
                 }
+            } catch (IOException e) {
+                // If the image could not be read, try the iiif image server.
+                dims = iiifApiQuery.getImageDimensions(bitstream);
             }
+            return dims;
+        }, getExecutor());
+        openStreams.add(dimensions);
+        return dimensions;
+    }
+
+    /**
+     * Waits until less than the given number of bitstream streams are open, the oldest first.
+     * @param max
+     */
+    private void awaitOpenStreams(int max) {
+        openStreams.removeIf(CompletableFuture::isDone);
+        while (openStreams.size() >= max) {
+            // a failure is reported once the item of the bitstream is completed
+            openStreams.remove().exceptionally(e -> null).join();
+            openStreams.removeIf(CompletableFuture::isDone);
         }
-        return processed;
+    }
+
+    private Executor getExecutor() {
+        if (threads <= 1) {
+            return Runnable::run;
+        }
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(threads, new BasicThreadFactory.Builder()
+                .namingPattern("iiif-canvas-dimension-%d").daemon(true).build());
+        }
+        return executor;
     }
 
     /**
@@ -241,4 +351,17 @@ public class IIIFCanvasDimensionServiceImpl implements IIIFCanvasDimensionServic
         }
     }
 
+    /**
+     * An item whose bitstream dimensions are being read.
+     */
+    private static class PendingItem {
+        private final Item item;
+        private final List<Bitstream> bitstreams = new ArrayList<>();
+        private final List<CompletableFuture<int[]>> dimensions = new ArrayList<>();
+
+        PendingItem(Item item) {
+            this.item = item;
+        }
+    }
+
 }
@@ -9,39 +9,360 @@ package org.dspace.iiif.canvasdimension;
 
 import static org.dspace.iiif.canvasdimension.Util.checkDimensions;
 
-import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 
 /**
  * Reads and return height and width dimensions for image bitstreams.
+ * <p>
+ * The dimensions are read from the header of JPEG, PNG, TIFF and JPEG 2000 images, which is found in their first
+ * bytes. Other images, and the images whose header is not within the first {@link #MAX_HEADER_LENGTH} bytes, are
+ * probed by an ImageIO {@link ImageReader}, which reads their dimensions without decoding the pixels.
  *
  * @author Michael Spalti mspalti@willamette.edu
  */
 public class ImageDimensionReader {
 
+    /**
+     * Maximum number of bytes read by the header parsers, which covers the metadata segments (e.g. EXIF or ICC
+     * profiles) usually found before the dimensions.
+     */
+    static final int MAX_HEADER_LENGTH = 1024 * 1024;
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private static final byte[] JP2_SIGNATURE = {0, 0, 0, 0x0C, 'j', 'P', ' ', ' ', '\r', '\n', (byte) 0x87, '\n'};
+
+    private static final int JP2_HEADER_BOX = 0x6A703268; // "jp2h"
+    private static final int JP2_IMAGE_HEADER_BOX = 0x69686472; // "ihdr"
+    private static final int JP2_CODESTREAM_BOX = 0x6A703263; // "jp2c"
+
+    private static final int TIFF_IMAGE_WIDTH = 256;
+    private static final int TIFF_IMAGE_LENGTH = 257;
+
     private ImageDimensionReader() {}
 
     /**
-     * Uses ImageIO to read height and width dimensions.
+     * Reads height and width dimensions from the image header, or using ImageIO if the header cannot be parsed.
      * @param image inputstream for dspace image
      * @return image dimensions or null if the image format cannot be read.
-     * @throws Exception
+     * @throws IOException if the image cannot be read
      */
     public static int[] getImageDimensions(InputStream image) throws IOException {
-        int[] dims = new int[2];
-        BufferedImage buf = ImageIO.read(image);
-        if (buf != null) {
-            int width = buf.getWidth(null);
-            int height = buf.getHeight(null);
-            if (width > 0 && height > 0) {
-                dims[0] = width;
-                dims[1] = height;
-                return checkDimensions(dims);
+        BufferedInputStream in = new BufferedInputStream(image);
+        in.mark(MAX_HEADER_LENGTH);
+        int[] dims = readHeaderDimensions(new HeaderInput(in, MAX_HEADER_LENGTH));
+        if (dims == null) {
+            in.reset();
+            dims = readImageReaderDimensions(in);
+        }
+        if (dims != null && dims[0] > 0 && dims[1] > 0) {
+            return checkDimensions(dims);
+        }
+        return null;
+    }
+
+    /**
+     * Parses the dimensions from the header of a JPEG, PNG, TIFF or JPEG 2000 image.
+     * @param in the first bytes of the image
+     * @return the width and height, or null if the image is not in one of these formats or its header is not
+     *         within the first bytes
+     * @throws IOException if the image cannot be read
+     */
+    static int[] readHeaderDimensions(HeaderInput in) throws IOException {
+        try {
+            byte[] signature = new byte[12];
+            in.readFully(signature, 0, 2);
+            if ((signature[0] & 0xFF) == 0xFF && (signature[1] & 0xFF) == 0xD8) {
+                return readJpegDimensions(in);
+            }
+            if ((signature[0] == 'I' && signature[1] == 'I') || (signature[0] == 'M' && signature[1] == 'M')) {
+                return readTiffDimensions(in, signature[0] == 'M');
+            }
+            if ((signature[0] & 0xFF) == 0xFF && (signature[1] & 0xFF) == 0x4F) {
+                return readJ2kDimensions(in);
             }
+            in.readFully(signature, 2, 6);
+            if (Arrays.equals(signature, 0, 8, PNG_SIGNATURE, 0, 8)) {
+                return readPngDimensions(in);
+            }
+            in.readFully(signature, 8, 4);
+            if (Arrays.equals(signature, JP2_SIGNATURE)) {
+                return readJp2Dimensions(in);
+            }
+        } catch (EOFException e) {
+            // the header is truncated, or not within the first bytes
         }
         return null;
     }
 
+    /**
+     * Reads the dimensions from the first "start of frame" segment of a JPEG image.
+     */
+    private static int[] readJpegDimensions(HeaderInput in) throws IOException {
+        while (true) {
+            if (in.read() != 0xFF) {
+                return null;
+            }
+            int marker = in.read();
+            while (marker == 0xFF) {
+                // fill bytes
+                marker = in.read();
+            }
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+                // markers without segment
+                continue;
+            }
+            if (marker == 0xD9 || marker == 0xDA) {
+                // end of image, or start of the scan without any frame header
+                return null;
+            }
+            int length = in.readUnsignedShort(true);
+            if (marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC) {
+                // start of frame: precision, number of lines, samples per line
+                in.skipFully(1);
+                int height = in.readUnsignedShort(true);
+                int width = in.readUnsignedShort(true);
+                return new int[] {width, height};
+            }
+            if (length < 2) {
+                return null;
+            }
+            in.skipFully(length - 2);
+        }
+    }
+
+    /**
+     * Reads the dimensions from the image header chunk of a PNG image, which is its first chunk.
+     */
+    private static int[] readPngDimensions(HeaderInput in) throws IOException {
+        // chunk length
+        in.skipFully(4);
+        if (in.readUnsignedInt(true) != 0x49484452) { // "IHDR"
+            return null;
+        }
+        return toDimensions(in.readUnsignedInt(true), in.readUnsignedInt(true));
+    }
+
+    /**
+     * Reads the dimensions from the first image file directory of a TIFF (or BigTIFF) image.
+     */
+    private static int[] readTiffDimensions(HeaderInput in, boolean bigEndian) throws IOException {
+        int version = in.readUnsignedShort(bigEndian);
+        boolean bigTiff = version == 43;
+        if (version != 42 && !bigTiff) {
+            return null;
+        }
+        long ifdOffset;
+        if (bigTiff) {
+            // offset size and reserved
+            in.skipFully(4);
+            ifdOffset = in.readLong(bigEndian);
+        } else {
+            ifdOffset = in.readUnsignedInt(bigEndian);
+        }
+        if (ifdOffset < in.getPosition()) {
+            return null;
+        }
+        in.skipFully(ifdOffset - in.getPosition());
+        long entries = bigTiff ? in.readLong(bigEndian) : in.readUnsignedShort(bigEndian);
+        long width = -1;
+        long height = -1;
+        for (long i = 0; i < entries && (width < 0 || height < 0); i++) {
+            int tag = in.readUnsignedShort(bigEndian);
+            int type = in.readUnsignedShort(bigEndian);
+            // count
+            in.skipFully(bigTiff ? 8 : 4);
+            int valueLength = bigTiff ? 8 : 4;
+            long value;
+            if (type == 3) { // SHORT
+                value = in.readUnsignedShort(bigEndian);
+                in.skipFully(valueLength - 2);
+            } else if (type == 4) { // LONG
+                value = in.readUnsignedInt(bigEndian);
+                in.skipFully(valueLength - 4);
+            } else if (type == 16 && bigTiff) { // LONG8
+                value = in.readLong(bigEndian);
+            } else {
+                in.skipFully(valueLength);
+                continue;
+            }
+            if (tag == TIFF_IMAGE_WIDTH) {
+                width = value;
+            } else if (tag == TIFF_IMAGE_LENGTH) {
+                height = value;
+            }
+        }
+        return toDimensions(width, height);
+    }
+
+    /**
+     * Reads the dimensions from the image header box of a JP2 image, or from the codestream if the box is missing.
+     */
+    private static int[] readJp2Dimensions(HeaderInput in) throws IOException {
+        while (true) {
+            long boxStart = in.getPosition();
+            long length = in.readUnsignedInt(true);
+            int type = (int) in.readUnsignedInt(true);
+            if (length == 1) {
+                length = in.readLong(true);
+            }
+            if (type == JP2_HEADER_BOX) {
+                // superbox, whose content is read as the next boxes
+                continue;
+            }
+            if (type == JP2_IMAGE_HEADER_BOX) {
+                long height = in.readUnsignedInt(true);
+                long width = in.readUnsignedInt(true);
+                return toDimensions(width, height);
+            }
+            if (type == JP2_CODESTREAM_BOX) {
+                if (in.readUnsignedShort(true) != 0xFF4F) {
+                    return null;
+                }
+                return readJ2kDimensions(in);
+            }
+            if (length == 0) {
+                // last box, extending to the end of the file
+                return null;
+            }
+            long boxEnd = boxStart + length;
+            if (boxEnd < in.getPosition()) {
+                return null;
+            }
+            in.skipFully(boxEnd - in.getPosition());
+        }
+    }
+
+    /**
+     * Reads the dimensions from the image and tile size marker segment of a JPEG 2000 codestream, which follows its
+     * start of codestream marker.
+     */
+    private static int[] readJ2kDimensions(HeaderInput in) throws IOException {
+        if (in.readUnsignedShort(true) != 0xFF51) {
+            return null;
+        }
+        // segment length and capabilities
+        in.skipFully(4);
+        long width = in.readUnsignedInt(true);
+        long height = in.readUnsignedInt(true);
+        long horizontalOffset = in.readUnsignedInt(true);
+        long verticalOffset = in.readUnsignedInt(true);
+        return toDimensions(width - horizontalOffset, height - verticalOffset);
+    }
+
+    private static int[] toDimensions(long width, long height) {
+        if (width <= 0 || height <= 0 || width > Integer.MAX_VALUE || height > Integer.MAX_VALUE) {
+            return null;
+        }
+        return new int[] {(int) width, (int) height};
+    }
+
+    /**
+     * Uses the first ImageIO reader supporting the image format to read its dimensions, without decoding it.
+     * @param in the image
+     * @return the width and height, or null if no reader supports the image format
+     * @throws IOException if the image cannot be read
+     */
+    private static int[] readImageReaderDimensions(InputStream in) throws IOException {
+        try (ImageInputStream imageInput = ImageIO.createImageInputStream(in)) {
+            if (imageInput == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInput);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInput, true, true);
+                return new int[] {reader.getWidth(0), reader.getHeight(0)};
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Reader of the first bytes of an image, ending after a maximum number of bytes.
+     */
+    static class HeaderInput {
+
+        private final InputStream in;
+
+        private final long limit;
+
+        private long position = 0;
+
+        HeaderInput(InputStream in, long limit) {
+            this.in = in;
+            this.limit = limit;
+        }
+
+        long getPosition() {
+            return position;
+        }
+
+        int read() throws IOException {
+            if (position >= limit) {
+                throw new EOFException();
+            }
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            position++;
+            return b;
+        }
+
+        void readFully(byte[] bytes, int offset, int length) throws IOException {
+            for (int i = 0; i < length; i++) {
+                bytes[offset + i] = (byte) read();
+            }
+        }
+
+        void skipFully(long count) throws IOException {
+            if (position + count > limit) {
+                throw new EOFException();
+            }
+            long remaining = count;
+            while (remaining > 0) {
+                long skipped = in.skip(remaining);
+                if (skipped <= 0) {
+                    // skip() may not detect the end of the stream
+                    if (in.read() < 0) {
+                        throw new EOFException();
+                    }
+                    skipped = 1;
+                }
+                remaining -= skipped;
+            }
+            position += count;
+        }
+
+        int readUnsignedShort(boolean bigEndian) throws IOException {
+            int b1 = read();
+            int b2 = read();
+            return bigEndian ? (b1 << 8) | b2 : (b2 << 8) | b1;
+        }
+
+        long readUnsignedInt(boolean bigEndian) throws IOException {
+            long s1 = readUnsignedShort(bigEndian);
+            long s2 = readUnsignedShort(bigEndian);
+            return bigEndian ? (s1 << 16) | s2 : (s2 << 16) | s1;
+        }
+
+        long readLong(boolean bigEndian) throws IOException {
+            long i1 = readUnsignedInt(bigEndian);
+            long i2 = readUnsignedInt(bigEndian);
+            return bigEndian ? (i1 << 32) | i2 : (i2 << 32) | i1;
+        }
+    }
 }
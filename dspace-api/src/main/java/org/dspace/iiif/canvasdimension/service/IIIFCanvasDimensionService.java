@@ -60,6 +60,14 @@ public interface IIIFCanvasDimensionService {
      */
     void setMax2Process(int max2Process);
 
+    /**
+     * Set the number of threads reading the image dimensions. With more than one
+     * thread, the bitstreams of the following items are read while the metadata
+     * of the previous ones is updated.
+     * @param threads
+     */
+    void setThreads(int threads);
+
     /**
      * Set dso identifiers to skip.
      * @param skipList
@@ -0,0 +1,110 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.scripts;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writer of the log of a {@link Process} into its temporary log file, which stays open while the process runs
+ * rather than being opened and closed for every line.
+ * <p>
+ * The lines are buffered, and written to the file once the buffer is full, when a line is appended more than
+ * the flush interval after the previous write, when {@link #flushIfIdle()} is called after the flush interval,
+ * and when the log is read or closed. Lines appended once the writer is closed are rejected.
+ */
+public class ProcessLogWriter implements Closeable {
+
+    private final File file;
+
+    private final BufferedWriter writer;
+
+    private final long flushInterval;
+
+    private long lastFlush;
+
+    private boolean pending = false;
+
+    private boolean closed = false;
+
+    /**
+     * @param file          the log file, appended to if it exists
+     * @param bufferSize    the number of characters buffered before they are written to the file
+     * @param flushInterval the maximum time in milliseconds during which appended lines may stay buffered
+     * @throws IOException if the file cannot be opened
+     */
+    public ProcessLogWriter(File file, int bufferSize, long flushInterval) throws IOException {
+        this.file = file;
+        this.writer = new BufferedWriter(
+            new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8), bufferSize);
+        this.flushInterval = flushInterval;
+        this.lastFlush = System.currentTimeMillis();
+    }
+
+    /**
+     * Append a line to the log.
+     *
+     * @param line the line, without line separator
+     * @throws IOException if the line cannot be written
+     */
+    public synchronized void append(String line) throws IOException {
+        if (closed) {
+            throw new IOException("The log " + file.getName() + " is closed");
+        }
+        writer.append(line);
+        writer.newLine();
+        pending = true;
+        if (System.currentTimeMillis() - lastFlush >= flushInterval) {
+            flush();
+        }
+    }
+
+    /**
+     * Write the buffered lines to the file if they were not written during the flush interval, so that the
+     * last lines of a process which stopped logging are not kept in the buffer.
+     *
+     * @throws IOException if the lines cannot be written
+     */
+    public synchronized void flushIfIdle() throws IOException {
+        if (pending && !closed && System.currentTimeMillis() - lastFlush >= flushInterval) {
+            flush();
+        }
+    }
+
+    /**
+     * Write the buffered lines to the file.
+     *
+     * @throws IOException if the lines cannot be written
+     */
+    public synchronized void flush() throws IOException {
+        if (closed) {
+            return;
+        }
+        writer.flush();
+        pending = false;
+        lastFlush = System.currentTimeMillis();
+    }
+
+    /**
+     * @return the log file
+     */
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        writer.close();
+    }
+}
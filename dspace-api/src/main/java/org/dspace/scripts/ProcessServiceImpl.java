@@ -7,27 +7,36 @@
  */
 package org.dspace.scripts;
 
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.sql.SQLException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
+import javax.annotation.PreDestroy;
 
 import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.logging.log4j.Logger;
 import org.dspace.authorize.AuthorizeException;
 import org.dspace.authorize.service.AuthorizeService;
@@ -47,6 +56,7 @@ import org.dspace.eperson.EPerson;
 import org.dspace.eperson.Group;
 import org.dspace.eperson.service.EPersonService;
 import org.dspace.scripts.service.ProcessService;
+import org.dspace.services.ConfigurationService;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -74,6 +84,32 @@ public class ProcessServiceImpl implements ProcessService {
     @Autowired
     private EPersonService ePersonService;
 
+    @Autowired
+    private ConfigurationService configurationService;
+
+    private static final DateTimeFormatter LOG_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    /**
+     * The writers of the logs of the running processes, by process ID
+     */
+    private final Map<Integer, ProcessLogWriter> logWriters = new ConcurrentHashMap<>();
+
+    /**
+     * The IDs of the last processes whose log has been stored in a bitstream, to reject the lines logged after
+     */
+    private final Set<Integer> storedLogs = Collections.newSetFromMap(Collections.synchronizedMap(
+        new LinkedHashMap<Integer, Boolean>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Boolean> eldest) {
+                return size() > 1000;
+            }
+        }));
+
+    /**
+     * Writes the lines buffered by the writers which did not receive new lines during the flush interval
+     */
+    private volatile ScheduledExecutorService logFlusher;
+
     @Override
     public Process create(Context context, EPerson ePerson, String scriptName,
                           List<DSpaceCommandLineParameter> parameters,
@@ -286,30 +322,109 @@ public class ProcessServiceImpl implements ProcessService {
     @Override
     public void appendLog(int processId, String scriptName, String output, ProcessLogLevel processLogLevel)
             throws IOException {
-        File tmpDir = FileUtils.getTempDirectory();
-        File tempFile = new File(tmpDir, scriptName + processId + ".log");
-        FileWriter out = new FileWriter(tempFile, true);
+        if (storedLogs.contains(processId)) {
+            log.warn("The log of process " + processId + " has already been stored, ignoring: " + output);
+            return;
+        }
+        if (logFlusher == null) {
+            startLogFlusher();
+        }
+        ProcessLogWriter writer;
         try {
-            try (BufferedWriter writer = new BufferedWriter(out)) {
-                writer.append(formatLogLine(processId, scriptName, output, processLogLevel));
-                writer.newLine();
-            }
-        } finally {
-            out.close();
+            writer = logWriters.computeIfAbsent(processId, id -> {
+                try {
+                    return new ProcessLogWriter(getLogFile(scriptName, processId),
+                        configurationService.getIntProperty("process.log.buffer-size", 65536),
+                        configurationService.getLongProperty("process.log.flush-interval", 1000));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
+        writer.append(formatLogLine(processId, scriptName, output, processLogLevel));
     }
 
     @Override
     public void createLogBitstream(Context context, Process process)
             throws IOException, SQLException, AuthorizeException {
-        File tmpDir = FileUtils.getTempDirectory();
-        File tempFile = new File(tmpDir, process.getName() + process.getID() + ".log");
+        storedLogs.add(process.getID());
+        ProcessLogWriter writer = logWriters.remove(process.getID());
+        if (writer != null) {
+            writer.close();
+        }
+        File tempFile = getLogFile(process.getName(), process.getID());
         FileInputStream inputStream = FileUtils.openInputStream(tempFile);
         appendFile(context, process, inputStream, Process.OUTPUT_TYPE, process.getName() + process.getID() + ".log");
         inputStream.close();
         tempFile.delete();
     }
 
+    @Override
+    public InputStream getLiveLog(Process process, long offset) throws IOException {
+        ProcessLogWriter writer = logWriters.get(process.getID());
+        if (writer == null) {
+            return null;
+        }
+        writer.flush();
+        InputStream inputStream = FileUtils.openInputStream(writer.getFile());
+        try {
+            IOUtils.skipFully(inputStream, Math.min(offset, writer.getFile().length()));
+        } catch (IOException e) {
+            inputStream.close();
+            throw e;
+        }
+        return inputStream;
+    }
+
+    private synchronized void startLogFlusher() {
+        if (logFlusher != null) {
+            return;
+        }
+        long flushInterval = configurationService.getLongProperty("process.log.flush-interval", 1000);
+        ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            new BasicThreadFactory.Builder().namingPattern("process-log-flusher").daemon(true).build());
+        if (flushInterval > 0) {
+            flusher.scheduleWithFixedDelay(this::flushIdleLogs, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        }
+        logFlusher = flusher;
+    }
+
+    private void flushIdleLogs() {
+        for (Map.Entry<Integer, ProcessLogWriter> entry : logWriters.entrySet()) {
+            try {
+                entry.getValue().flushIfIdle();
+            } catch (IOException e) {
+                log.warn("Unable to write the log of process " + entry.getKey(), e);
+            }
+        }
+    }
+
+    /**
+     * Write the buffered lines of the running processes when DSpace is shut down.
+     */
+    @PreDestroy
+    public void destroy() {
+        if (logFlusher != null) {
+            logFlusher.shutdownNow();
+        }
+        for (Map.Entry<Integer, ProcessLogWriter> entry : logWriters.entrySet()) {
+            try {
+                entry.getValue().flush();
+            } catch (IOException e) {
+                log.warn("Unable to write the log of process " + entry.getKey(), e);
+            }
+        }
+    }
+
+    /**
+     * Get the temporary file the logs of a process are written to until they are stored in a {@link Bitstream}
+     */
+    private File getLogFile(String scriptName, int processId) {
+        return new File(FileUtils.getTempDirectory(), scriptName + processId + ".log");
+    }
+
     @Override
     public List<Process> findByStatusAndCreationTimeOlderThan(Context context, List<ProcessStatus> statuses,
         Date date) throws SQLException {
@@ -322,9 +437,8 @@ public class ProcessServiceImpl implements ProcessService {
     }
 
     private String formatLogLine(int processId, String scriptName, String output, ProcessLogLevel processLogLevel) {
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
         StringBuilder sb = new StringBuilder();
-        sb.append(sdf.format(new Date()));
+        sb.append(LOG_DATE_FORMAT.format(LocalDateTime.now()));
         sb.append(" ");
         sb.append(processLogLevel);
         sb.append(" ");
@@ -223,7 +223,9 @@ public interface ProcessService {
      */
     int countSearch(Context context, ProcessQueryParameterContainer processQueryParameterContainer) throws SQLException;
     /**
-     * This method will append the given output to the {@link Process} its logs
+     * This method will append the given output to the {@link Process} its logs.
+     * The log file of the process is kept open, and the output buffered, until
+     * {@link #createLogBitstream(Context, Process)} is called.
      * @param processId     The ID of the {@link Process} to append the log for
      * @param scriptName    The name of the Script that Process runs
      * @param output        The output to append
@@ -243,6 +245,16 @@ public interface ProcessService {
     void createLogBitstream(Context context, Process process)
              throws IOException, SQLException, AuthorizeException;
 
+    /**
+     * This method will return the logs appended so far to the given running {@link Process}, so that they can
+     * be followed before the {@link Bitstream} containing them is created
+     * @param process       The {@link Process} to read the logs of
+     * @param offset        The number of bytes of the logs to skip
+     * @return              The logs from the given offset, or null if the process has no logs being written
+     * @throws IOException  If something goes wrong
+     */
+    InputStream getLiveLog(Process process, long offset) throws IOException;
+
     /**
      * Find all the processes with one of the given status and with a creation time
      * older than the specified date.
@@ -37,6 +37,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import javax.annotation.PreDestroy;
 import javax.servlet.http.HttpServletRequest;
 
 import com.maxmind.geoip2.DatabaseReader;
@@ -56,6 +57,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.solr.client.solrj.SolrClient;
 import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrRequest;
 import org.apache.solr.client.solrj.SolrServerException;
 import org.apache.solr.client.solrj.impl.HttpSolrClient;
 import org.apache.solr.client.solrj.impl.HttpSolrClient.RemoteSolrException;
@@ -76,6 +78,7 @@ import org.apache.solr.common.SolrInputDocument;
 import org.apache.solr.common.luke.FieldFlag;
 import org.apache.solr.common.params.CommonParams;
 import org.apache.solr.common.params.CoreAdminParams.CoreAdminAction;
+import org.apache.solr.common.params.CursorMarkParams;
 import org.apache.solr.common.params.FacetParams;
 import org.apache.solr.common.params.MapSolrParams;
 import org.apache.solr.common.params.ModifiableSolrParams;
@@ -98,9 +101,11 @@ import org.dspace.eperson.Group;
 import org.dspace.service.ClientInfoService;
 import org.dspace.services.ConfigurationService;
 import org.dspace.statistics.service.SolrLoggerService;
+import org.dspace.statistics.service.UsageRollupService;
 import org.dspace.statistics.util.LocationUtils;
 import org.dspace.statistics.util.SpiderDetector;
 import org.dspace.usage.UsageWorkflowEvent;
+import org.dspace.util.ThrowingConsumer;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -146,6 +151,8 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
     private SolrStatisticsCore solrStatisticsCore;
     @Autowired
     private GeoIpService geoIpService;
+    @Autowired(required = true)
+    private UsageRollupService usageRollupService;
 
     /** URL to the current-year statistics core.  Prior-year shards will have a year suffixed. */
     private String statisticsCoreURL;
@@ -153,6 +160,10 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
     /** Name of the current-year statistics core.  Prior-year shards will have a year suffixed. */
     private String statisticsCoreBase;
 
+    /** Queue of the usage events logged asynchronously, null when they are sent by the logging thread. */
+    private volatile UsageEventQueue usageEventQueue;
+    private volatile boolean usageEventQueueInit = false;
+
     public static enum StatisticsType {
         VIEW("view"),
         SEARCH("search"),
@@ -240,8 +251,11 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
 
             doc1.addField("statistics_type", StatisticsType.VIEW.text());
 
-
+            if (queue(doc1)) {
+                return;
+            }
             solr.add(doc1);
+            usageRollupService.record(doc1);
             // commits are executed automatically using the solr autocommit
             boolean useAutoCommit = configurationService.getBooleanProperty("solr-statistics.autoCommit", true);
             if (!useAutoCommit) {
@@ -287,7 +301,11 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
 
             doc1.addField("statistics_type", StatisticsType.VIEW.text());
 
+            if (queue(doc1)) {
+                return;
+            }
             solr.add(doc1);
+            usageRollupService.record(doc1);
             // commits are executed automatically using the solr autocommit
             boolean useAutoCommit = configurationService.getBooleanProperty("solr-statistics.autoCommit", true);
             if (!useAutoCommit) {
@@ -358,53 +376,13 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
                 doc1.addField("referrer", request.getHeader("referer"));
             }
 
-            InetAddress ipAddress = null;
-            try {
-                String dns;
-                if (!configurationService.getBooleanProperty("anonymize_statistics.anonymize_on_log", false)) {
-                    ipAddress = InetAddress.getByName(ip);
-                    dns = ipAddress.getHostName();
-                } else {
-                    dns = configurationService.getProperty("anonymize_statistics.dns_mask", "anonymized");
-                }
-                doc1.addField("dns", dns.toLowerCase(Locale.ROOT));
-            } catch (UnknownHostException e) {
-                log.info("Failed DNS Lookup for IP:  {}", ip);
-                log.debug(e.getMessage(), e);
-            }
             if (request.getHeader("User-Agent") != null) {
                 doc1.addField("userAgent", request.getHeader("User-Agent"));
             }
             doc1.addField("isBot", isSpiderBot);
-            // Save the location information if valid, save the event without
-            // location information if not valid
-            if (locationService != null && ipAddress != null) {
-                try {
-                    CityResponse location = locationService.city(ipAddress);
-                    String countryCode = location.getCountry().getIsoCode();
-                    double latitude = location.getLocation().getLatitude();
-                    double longitude = location.getLocation().getLongitude();
-                    if (!(
-                            "--".equals(countryCode)
-                            && latitude == -180
-                            && longitude == -180)
-                    ) {
-                        try {
-                            doc1.addField("continent", LocationUtils
-                                .getContinentCode(countryCode));
-                        } catch (Exception e) {
-                            log.warn("Failed to load country/continent table: {}", countryCode);
-                        }
-                        doc1.addField("countryCode", countryCode);
-                        doc1.addField("city", location.getCity().getName());
-                        doc1.addField("latitude", latitude);
-                        doc1.addField("longitude", longitude);
-                    }
-                } catch (IOException e) {
-                    log.warn("GeoIP lookup failed.", e);
-                } catch (GeoIp2Exception e) {
-                    log.info("Unable to get location of request: {}", e.getMessage());
-                }
+            // the host name and location are looked up by the background thread when the events are queued
+            if (getUsageEventQueue() == null) {
+                addHostAndLocation(doc1, ip);
             }
         }
 
@@ -450,6 +428,37 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
             doc1.addField("referrer", referrer);
         }
 
+        if (userAgent != null) {
+            doc1.addField("userAgent", userAgent);
+        }
+        doc1.addField("isBot", isSpiderBot);
+        // the host name and location are looked up by the background thread when the events are queued
+        if (getUsageEventQueue() == null) {
+            addHostAndLocation(doc1, ip);
+        }
+
+        if (dspaceObject != null) {
+            doc1.addField("id", dspaceObject.getID().toString());
+            doc1.addField("type", dspaceObject.getType());
+            storeParents(doc1, dspaceObject);
+        }
+        // Save the current time
+        doc1.addField("time", DateFormatUtils.format(new Date(), DATE_FORMAT_8601));
+        if (currentUser != null) {
+            doc1.addField("epersonid", currentUser.getID().toString());
+        }
+
+        return doc1;
+    }
+
+    /**
+     * Add the host name of the client, and its location when it can be found in the GeoIP database, to a usage
+     * event document. When the statistics are anonymized, the host name is masked and the location is not stored.
+     *
+     * @param doc1 the usage event document
+     * @param ip   the IP address of the client
+     */
+    protected void addHostAndLocation(SolrInputDocument doc1, String ip) {
         InetAddress ipAddress = null;
         try {
             String dns;
@@ -464,13 +473,9 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
             log.info("Failed DNS Lookup for IP:  {}", ip);
             log.debug(e.getMessage(), e);
         }
-        if (userAgent != null) {
-            doc1.addField("userAgent", userAgent);
-        }
-        doc1.addField("isBot", isSpiderBot);
         // Save the location information if valid, save the event without
         // location information if not valid
-        if (locationService != null) {
+        if (locationService != null && ipAddress != null) {
             try {
                 CityResponse location = locationService.city(ipAddress);
                 String countryCode = location.getCountry().getIsoCode();
@@ -478,15 +483,14 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
                 double longitude = location.getLocation().getLongitude();
                 if (!(
                         "--".equals(countryCode)
-                                && latitude == -180
-                                && longitude == -180)
+                        && latitude == -180
+                        && longitude == -180)
                 ) {
                     try {
                         doc1.addField("continent", LocationUtils
-                                .getContinentCode(countryCode));
+                            .getContinentCode(countryCode));
                     } catch (Exception e) {
-                        System.out
-                                .println("COUNTRY ERROR: " + countryCode);
+                        log.warn("Failed to load country/continent table: {}", countryCode);
                     }
                     doc1.addField("countryCode", countryCode);
                     doc1.addField("city", location.getCity().getName());
@@ -499,21 +503,106 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
                 log.info("Unable to get location of request: {}", e.getMessage());
             }
         }
+    }
 
-        if (dspaceObject != null) {
-            doc1.addField("id", dspaceObject.getID().toString());
-            doc1.addField("type", dspaceObject.getType());
-            storeParents(doc1, dspaceObject);
+    /**
+     * Queue a usage event document to be sent to the statistics core by a background thread, when
+     * {@code solr-statistics.async} is enabled.
+     *
+     * @param doc the usage event document
+     * @return false if the usage events are not logged asynchronously, and the document must be sent by the caller
+     */
+    protected boolean queue(SolrInputDocument doc) {
+        UsageEventQueue queue = getUsageEventQueue();
+        if (queue == null) {
+            return false;
         }
-        // Save the current time
-        doc1.addField("time", DateFormatUtils.format(new Date(), DATE_FORMAT_8601));
-        if (currentUser != null) {
-            doc1.addField("epersonid", currentUser.getID().toString());
+        try {
+            queue.submit(doc);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while queueing a usage event, it is discarded");
         }
+        return true;
+    }
 
-        return doc1;
+    /**
+     * @return the queue of the usage events, created on first use, or null if {@code solr-statistics.async} is
+     * disabled
+     */
+    protected UsageEventQueue getUsageEventQueue() {
+        if (!usageEventQueueInit) {
+            initUsageEventQueue();
+        }
+        return usageEventQueue;
+    }
+
+    private synchronized void initUsageEventQueue() {
+        if (usageEventQueueInit) {
+            return;
+        }
+        if (configurationService.getBooleanProperty("solr-statistics.async", false)) {
+            String journal = configurationService.getProperty("solr-statistics.async.journal");
+            UsageEventQueue queue = new UsageEventQueue(this::sendUsageEvents,
+                                                        StringUtils.isBlank(journal) ? null : new File(journal));
+            queue.setCapacity(configurationService.getIntProperty("solr-statistics.async.capacity", 10000));
+            queue.setBatchSize(configurationService.getIntProperty("solr-statistics.async.batch-size", 100));
+            queue.setLinger(configurationService.getLongProperty("solr-statistics.async.linger", 200));
+            queue.setRetryDelay(configurationService.getLongProperty("solr-statistics.async.retry-delay", 10000));
+            queue.setOverflowPolicy(UsageEventQueue.OverflowPolicy.valueOf(StringUtils.upperCase(
+                configurationService.getProperty("solr-statistics.async.overflow", "spill"), Locale.ROOT)));
+            queue.start();
+            usageEventQueue = queue;
+        }
+        usageEventQueueInit = true;
+    }
+
+    /**
+     * Send a batch of queued usage event documents to the statistics core, after looking up the host name and
+     * location of their clients.
+     *
+     * @param docs the usage event documents
+     * @throws SolrServerException if the documents cannot be added to the statistics core
+     * @throws IOException         if the documents cannot be added to the statistics core
+     */
+    protected void sendUsageEvents(List<SolrInputDocument> docs) throws SolrServerException, IOException {
+        for (SolrInputDocument doc : docs) {
+            // the documents of the spill journal may have been completed before they were sent
+            if (doc.containsKey("ip") && !doc.containsKey("dns")) {
+                addHostAndLocation(doc, String.valueOf(doc.getFieldValue("ip")));
+            }
+        }
+        solr.add(docs);
+        for (SolrInputDocument doc : docs) {
+            usageRollupService.record(doc);
+        }
+        if (!configurationService.getBooleanProperty("solr-statistics.autoCommit", true)) {
+            solr.commit(false, false);
+        }
+    }
+
+    /**
+     * Wait until the queued usage events have been sent to the statistics core.
+     *
+     * @param timeout maximum time to wait, in milliseconds
+     * @return true if all the queued usage events have been sent, or they are not logged asynchronously
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean flushUsageEvents(long timeout) throws InterruptedException {
+        UsageEventQueue queue = getUsageEventQueue();
+        return queue == null || queue.flush(timeout);
     }
 
+    /**
+     * Send the queued usage events before shutdown, or write them to the spill journal.
+     */
+    @PreDestroy
+    public synchronized void stopUsageEventQueue() {
+        if (usageEventQueue != null) {
+            usageEventQueue.stop();
+            usageEventQueue = null;
+        }
+    }
 
     @Override
     public void postSearch(DSpaceObject resultObject, HttpServletRequest request, EPerson currentUser,
@@ -556,7 +645,9 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
                 solrDoc.addField("page", page);
             }
 
-            solr.add(solrDoc);
+            if (!queue(solrDoc)) {
+                solr.add(solrDoc);
+            }
         } catch (RuntimeException re) {
             throw re;
         } catch (Exception e) {
@@ -1574,6 +1665,42 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
         solr.commit();
     }
 
+    @Override
+    public <E extends Exception> void processDocuments(List<String> filterQueries, List<String> fields,
+                                                       int pageSize,
+                                                       ThrowingConsumer<SolrDocumentList, E> processor)
+        throws SolrServerException, IOException, E {
+        if (solr == null) {
+            return;
+        }
+        initSolrYearCores();
+        SolrQuery solrQuery = new SolrQuery("*:*").setRows(pageSize);
+        addAdditionalSolrYearCores(solrQuery);
+        for (String filterQuery : filterQueries) {
+            solrQuery.addFilterQuery(filterQuery);
+        }
+        for (String field : fields) {
+            solrQuery.addField(field);
+        }
+        // a cursor needs the unique key to break the ties
+        solrQuery.addSort("time", SolrQuery.ORDER.asc);
+        solrQuery.addSort("uid", SolrQuery.ORDER.asc);
+
+        String cursorMark = CursorMarkParams.CURSOR_MARK_START;
+        while (true) {
+            solrQuery.set(CursorMarkParams.CURSOR_MARK_PARAM, cursorMark);
+            QueryResponse response = solr.query(solrQuery, SolrRequest.METHOD.POST);
+            if (!response.getResults().isEmpty()) {
+                processor.accept(response.getResults());
+            }
+            String nextCursorMark = response.getNextCursorMark();
+            if (cursorMark.equals(nextCursorMark)) {
+                return;
+            }
+            cursorMark = nextCursorMark;
+        }
+    }
+
     protected void addDocumentsToFile(Context context, SolrDocumentList docs, File exportOutput)
         throws SQLException, ParseException, IOException {
         for (SolrDocument doc : docs) {
@@ -0,0 +1,519 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.management.ObjectName;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.SolrInputField;
+import org.dspace.util.ThrowingConsumer;
+
+/**
+ * Queues the usage events logged by the {@link SolrLoggerServiceImpl}, so that the threads serving the requests
+ * do not wait for the statistics core. A background thread sends the queued documents to the statistics core in
+ * batches of {@link #setBatchSize(int)} documents.
+ * <p>
+ * The queue holds at most {@link #setCapacity(int)} documents in memory. When it is full, the
+ * {@link OverflowPolicy} decides whether the submitting thread waits for room in the queue, the document is
+ * discarded, or it is appended to the spill journal. The documents of the journal, and those of the batches which
+ * could not be sent, are sent again once the queue is empty, and when the queue is restarted. The documents still
+ * queued at shutdown are written to the journal as well.
+ */
+public class UsageEventQueue implements UsageEventQueueMXBean {
+
+    private static final Logger log = LogManager.getLogger(UsageEventQueue.class);
+
+    /**
+     * What to do with a document submitted while the queue is full.
+     */
+    public enum OverflowPolicy {
+        /** wait until there is room in the queue */
+        BLOCK,
+        /** discard the document */
+        DROP,
+        /** append the document to the spill journal */
+        SPILL
+    }
+
+    private final ThrowingConsumer<List<SolrInputDocument>, Exception> sender;
+    private final File journal;
+    private final File replayJournal;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private int capacity = 10000;
+    private int batchSize = 100;
+    private long linger = 200;
+    private long retryDelay = 10000;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.SPILL;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition idle = lock.newCondition();
+    private final Deque<SolrInputDocument> queue = new ArrayDeque<>();
+    private boolean sending = false;
+    private boolean stopped = false;
+    private volatile long retryAfter = 0;
+    private Thread worker;
+    private ObjectName mBeanName;
+
+    private final Object journalLock = new Object();
+    private long journalSize = 0;
+
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong spilledCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+
+    /**
+     * @param sender  sends a batch of documents to the statistics core
+     * @param journal file the documents are spilled to, or null to discard them instead
+     */
+    public UsageEventQueue(ThrowingConsumer<List<SolrInputDocument>, Exception> sender, File journal) {
+        this.sender = sender;
+        this.journal = journal;
+        this.replayJournal = journal != null ? new File(journal.getPath() + ".replay") : null;
+    }
+
+    /**
+     * Start the background thread, which first sends the documents left in the spill journal by a previous run.
+     */
+    public void start() {
+        if (journal != null) {
+            synchronized (journalLock) {
+                journalSize = countLines(journal) + countLines(replayJournal);
+            }
+        }
+        lock.lock();
+        try {
+            if (worker == null && !stopped) {
+                worker = new Thread(this::run, "usage-event-queue");
+                worker.setDaemon(true);
+                worker.start();
+            }
+        } finally {
+            lock.unlock();
+        }
+        registerMBean();
+    }
+
+    /**
+     * Queue a document to be sent to the statistics core.
+     *
+     * @param document the document
+     * @throws InterruptedException if interrupted while waiting for room in the queue
+     */
+    public void submit(SolrInputDocument document) throws InterruptedException {
+        submittedCount.incrementAndGet();
+        lock.lockInterruptibly();
+        try {
+            while (queue.size() >= capacity && !stopped) {
+                if (overflowPolicy != OverflowPolicy.BLOCK) {
+                    break;
+                }
+                notFull.await();
+            }
+            if (queue.size() < capacity && !stopped) {
+                queue.add(document);
+                notEmpty.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (overflowPolicy == OverflowPolicy.DROP || !spill(List.of(document))) {
+            droppedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Wait until all the documents of the queue have been sent to the statistics core. The documents of the spill
+     * journal are not waited for.
+     *
+     * @param timeout maximum time to wait, in milliseconds
+     * @return true if all the documents have been sent
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean flush(long timeout) throws InterruptedException {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while ((!queue.isEmpty() || sending) && remaining > 0 && worker != null) {
+                notEmpty.signal();
+                remaining = idle.awaitNanos(remaining);
+            }
+            return queue.isEmpty() && !sending;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Send the queued documents and stop the background thread. The documents which could not be sent in time are
+     * written to the spill journal.
+     */
+    public void stop() {
+        try {
+            flush(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<SolrInputDocument> remaining;
+        lock.lock();
+        try {
+            stopped = true;
+            remaining = new ArrayList<>(queue);
+            queue.clear();
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (!remaining.isEmpty() && !spill(remaining)) {
+            log.warn(remaining.size() + " usage events could not be sent before shutdown");
+            droppedCount.addAndGet(remaining.size());
+        }
+        unregisterMBean();
+    }
+
+    private void run() {
+        while (true) {
+            List<SolrInputDocument> batch = new ArrayList<>(batchSize);
+            lock.lock();
+            try {
+                while (queue.isEmpty() && !stopped && !isReplayDue()) {
+                    idle.signalAll();
+                    notEmpty.await(retryDelay, TimeUnit.MILLISECONDS);
+                }
+                if (stopped) {
+                    return;
+                }
+                // give other requests a chance to add to the batch
+                if (!queue.isEmpty() && queue.size() < batchSize && linger > 0) {
+                    notEmpty.await(linger, TimeUnit.MILLISECONDS);
+                }
+                while (!queue.isEmpty() && batch.size() < batchSize) {
+                    batch.add(queue.poll());
+                }
+                sending = true;
+                notFull.signalAll();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                if (batch.isEmpty()) {
+                    replay();
+                } else {
+                    send(batch);
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to send the queued usage events", e);
+            } finally {
+                lock.lock();
+                try {
+                    sending = false;
+                    if (queue.isEmpty()) {
+                        idle.signalAll();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Send a batch to the statistics core. A batch which cannot be sent is spilled to the journal, to be sent
+     * again after {@link #setRetryDelay(long)} milliseconds.
+     *
+     * @return true if the batch has been sent
+     */
+    private boolean send(List<SolrInputDocument> batch) {
+        try {
+            sender.accept(batch);
+            sentCount.addAndGet(batch.size());
+            return true;
+        } catch (Exception e) {
+            failureCount.addAndGet(batch.size());
+            retryAfter = System.currentTimeMillis() + retryDelay;
+            if (overflowPolicy == OverflowPolicy.DROP || !spill(batch)) {
+                log.error("Failed to send " + batch.size() + " usage events, they are discarded", e);
+                droppedCount.addAndGet(batch.size());
+            } else {
+                log.warn("Failed to send " + batch.size() + " usage events, they will be sent again", e);
+            }
+            return false;
+        }
+    }
+
+    private boolean isReplayDue() {
+        synchronized (journalLock) {
+            return journalSize > 0 && System.currentTimeMillis() >= retryAfter;
+        }
+    }
+
+    /**
+     * Send the documents of the spill journal. The journal is first renamed, so that the documents spilled
+     * meanwhile are kept for the next replay. When a batch cannot be sent, it is spilled again with the
+     * documents which were not sent yet.
+     */
+    private void replay() {
+        synchronized (journalLock) {
+            try {
+                if (!replayJournal.exists()) {
+                    if (!journal.exists()) {
+                        journalSize = 0;
+                        return;
+                    }
+                    Files.move(journal.toPath(), replayJournal.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                }
+            } catch (IOException e) {
+                log.error("Unable to replay the usage events of " + journal, e);
+                retryAfter = System.currentTimeMillis() + retryDelay;
+                return;
+            }
+        }
+
+        List<SolrInputDocument> batch = new ArrayList<>(batchSize);
+        long sent = 0;
+        try (BufferedReader reader = Files.newBufferedReader(replayJournal.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                batch.add(fromJson(line));
+                if (batch.size() >= batchSize) {
+                    if (!send(batch)) {
+                        // the failed batch has been spilled, the documents not sent yet follow it
+                        List<SolrInputDocument> rest = new ArrayList<>();
+                        while ((line = reader.readLine()) != null) {
+                            if (!line.isBlank()) {
+                                rest.add(fromJson(line));
+                            }
+                        }
+                        spill(rest);
+                        break;
+                    }
+                    sent += batch.size();
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty() && send(batch)) {
+                sent += batch.size();
+            }
+        } catch (IOException e) {
+            log.error("Unable to read the usage events of " + replayJournal, e);
+            retryAfter = System.currentTimeMillis() + retryDelay;
+            return;
+        }
+        synchronized (journalLock) {
+            try {
+                Files.deleteIfExists(replayJournal.toPath());
+            } catch (IOException e) {
+                log.error("Unable to delete " + replayJournal, e);
+            }
+            journalSize = countLines(journal);
+        }
+        log.info("Sent " + sent + " usage events of the spill journal");
+    }
+
+    /**
+     * Append documents to the spill journal, one JSON object per line.
+     *
+     * @return false if there is no journal, or it cannot be written
+     */
+    private boolean spill(List<SolrInputDocument> documents) {
+        if (journal == null || documents.isEmpty()) {
+            return journal != null;
+        }
+        synchronized (journalLock) {
+            try {
+                Files.createDirectories(journal.getAbsoluteFile().getParentFile().toPath());
+                try (BufferedWriter writer = Files.newBufferedWriter(journal.toPath(), StandardCharsets.UTF_8,
+                                                                     StandardOpenOption.CREATE,
+                                                                     StandardOpenOption.APPEND)) {
+                    for (SolrInputDocument document : documents) {
+                        writer.write(toJson(document));
+                        writer.newLine();
+                    }
+                }
+                journalSize += documents.size();
+                spilledCount.addAndGet(documents.size());
+                return true;
+            } catch (IOException e) {
+                log.error("Unable to write usage events to " + journal, e);
+                return false;
+            }
+        }
+    }
+
+    private String toJson(SolrInputDocument document) throws IOException {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (SolrInputField field : document) {
+            fields.put(field.getName(), field.getValue());
+        }
+        return mapper.writeValueAsString(fields);
+    }
+
+    private SolrInputDocument fromJson(String line) throws IOException {
+        Map<String, Object> fields = mapper.readValue(line, new TypeReference<LinkedHashMap<String, Object>>() { });
+        SolrInputDocument document = new SolrInputDocument();
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            document.addField(field.getKey(), field.getValue());
+        }
+        return document;
+    }
+
+    private static long countLines(File file) {
+        if (file == null || !file.exists()) {
+            return 0;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            return reader.lines().filter(line -> !line.isBlank()).count();
+        } catch (IOException e) {
+            log.warn("Unable to read " + file, e);
+            return 0;
+        }
+    }
+
+    private void registerMBean() {
+        try {
+            mBeanName = new ObjectName("org.dspace:type=UsageEventQueue");
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, mBeanName);
+        } catch (Exception e) {
+            // e.g. another webapp of the same JVM already registered it
+            log.warn("Unable to register the MBean of the usage event queue: " + e.getMessage());
+            mBeanName = null;
+        }
+    }
+
+    private void unregisterMBean() {
+        if (mBeanName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(mBeanName);
+            } catch (Exception e) {
+                log.warn("Unable to unregister the MBean of the usage event queue: " + e.getMessage());
+            }
+            mBeanName = null;
+        }
+    }
+
+    @Override
+    public int getQueueSize() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = Math.max(capacity, 1);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    public long getLinger() {
+        return linger;
+    }
+
+    public void setLinger(long linger) {
+        this.linger = linger;
+    }
+
+    public long getRetryDelay() {
+        return retryDelay;
+    }
+
+    public void setRetryDelay(long retryDelay) {
+        this.retryDelay = Math.max(retryDelay, 1);
+    }
+
+    @Override
+    public String getOverflowPolicy() {
+        return overflowPolicy.name().toLowerCase(Locale.ROOT);
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    @Override
+    public long getJournalSize() {
+        synchronized (journalLock) {
+            return journalSize;
+        }
+    }
+
+    @Override
+    public long getSubmittedCount() {
+        return submittedCount.get();
+    }
+
+    @Override
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    @Override
+    public long getSpilledCount() {
+        return spilledCount.get();
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    @Override
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics;
+
+/**
+ * MBean type for monitoring the queue of the usage events logged asynchronously to the statistics core.
+ */
+public interface UsageEventQueueMXBean {
+    /**
+     * @return number of usage events waiting in memory
+     */
+    public int getQueueSize();
+
+    /**
+     * @return maximum number of usage events waiting in memory
+     */
+    public int getCapacity();
+
+    /**
+     * @return policy applied when the queue is full: block, drop or spill
+     */
+    public String getOverflowPolicy();
+
+    /**
+     * @return number of usage events waiting in the spill journal
+     */
+    public long getJournalSize();
+
+    /**
+     * @return number of usage events submitted since the queue started
+     */
+    public long getSubmittedCount();
+
+    /**
+     * @return number of usage events sent to the statistics core since the queue started
+     */
+    public long getSentCount();
+
+    /**
+     * @return number of usage events written to the spill journal since the queue started
+     */
+    public long getSpilledCount();
+
+    /**
+     * @return number of usage events discarded since the queue started
+     */
+    public long getDroppedCount();
+
+    /**
+     * @return number of usage events which failed to be sent since the queue started, including retried events
+     */
+    public long getFailureCount();
+}
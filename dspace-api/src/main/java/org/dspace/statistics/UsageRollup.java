@@ -0,0 +1,130 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics;
+
+import java.util.Date;
+import java.util.UUID;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.dspace.core.ReloadableEntity;
+
+/**
+ * Database entity representation of the statistics_rollup table: the number of views of an object on a day, from
+ * a country and city. The country code and city are empty when the location of the views is unknown.
+ */
+@Entity
+@Table(name = "statistics_rollup")
+public class UsageRollup implements ReloadableEntity<Integer> {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "statistics_rollup_id_seq")
+    @SequenceGenerator(name = "statistics_rollup_id_seq", sequenceName = "statistics_rollup_id_seq",
+        allocationSize = 1)
+    private Integer id;
+
+    @Column(name = "dso_id", nullable = false)
+    private UUID dsoID;
+
+    @Column(name = "dso_type", nullable = false)
+    private int dsoType;
+
+    /**
+     * Item of a bitstream, null for the other objects
+     */
+    @Column(name = "owning_item")
+    private UUID owningItem;
+
+    @Temporal(TemporalType.DATE)
+    @Column(name = "view_date", nullable = false)
+    private Date viewDate;
+
+    @Column(name = "country_code", nullable = false)
+    private String countryCode = "";
+
+    @Column(name = "city", nullable = false)
+    private String city = "";
+
+    @Column(name = "views", nullable = false)
+    private long views;
+
+    /**
+     * Protected constructor, create handled by the
+     * {@link org.dspace.statistics.service.UsageRollupService}
+     */
+    protected UsageRollup() {
+    }
+
+    @Override
+    public Integer getID() {
+        return id;
+    }
+
+    public UUID getDsoID() {
+        return dsoID;
+    }
+
+    public void setDsoID(UUID dsoID) {
+        this.dsoID = dsoID;
+    }
+
+    public int getDsoType() {
+        return dsoType;
+    }
+
+    public void setDsoType(int dsoType) {
+        this.dsoType = dsoType;
+    }
+
+    public UUID getOwningItem() {
+        return owningItem;
+    }
+
+    public void setOwningItem(UUID owningItem) {
+        this.owningItem = owningItem;
+    }
+
+    public Date getViewDate() {
+        return viewDate;
+    }
+
+    public void setViewDate(Date viewDate) {
+        this.viewDate = viewDate;
+    }
+
+    public String getCountryCode() {
+        return countryCode;
+    }
+
+    public void setCountryCode(String countryCode) {
+        this.countryCode = countryCode;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public long getViews() {
+        return views;
+    }
+
+    public void setViews(long views) {
+        this.views = views;
+    }
+}
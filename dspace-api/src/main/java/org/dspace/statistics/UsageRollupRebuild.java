@@ -0,0 +1,60 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics;
+
+import org.apache.commons.cli.ParseException;
+import org.dspace.core.Context;
+import org.dspace.scripts.DSpaceRunnable;
+import org.dspace.statistics.factory.StatisticsServiceFactory;
+import org.dspace.statistics.service.UsageRollupService;
+import org.dspace.utils.DSpace;
+
+/**
+ * Script to rebuild the usage statistics rollups of the days before the current one from the views logged in the
+ * statistics core, e.g. to back-fill them when they are enabled.
+ */
+public class UsageRollupRebuild extends DSpaceRunnable<UsageRollupRebuildScriptConfiguration> {
+
+    private boolean help = false;
+
+    private UsageRollupService usageRollupService;
+
+    @Override
+    public void internalRun() throws Exception {
+        if (help) {
+            printHelp();
+            return;
+        }
+        if (!usageRollupService.isEnabled()) {
+            handler.logWarning("The usage statistics rollups are not enabled (usage-statistics.rollup.enabled)");
+        }
+        Context context = new Context();
+        try {
+            handler.logInfo("Rebuilding the usage statistics rollups from the statistics core");
+            long views = usageRollupService.rebuild(context);
+            context.complete();
+            handler.logInfo("Counted " + views + " views in the usage statistics rollups");
+        } finally {
+            if (context.isValid()) {
+                context.abort();
+            }
+        }
+    }
+
+    @Override
+    public UsageRollupRebuildScriptConfiguration getScriptConfiguration() {
+        return new DSpace().getServiceManager().getServiceByName("usage-rollup",
+                                                                 UsageRollupRebuildScriptConfiguration.class);
+    }
+
+    @Override
+    public void setup() throws ParseException {
+        usageRollupService = StatisticsServiceFactory.getInstance().getUsageRollupService();
+        help = commandLine.hasOption('h');
+    }
+}
@@ -0,0 +1,370 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrDocumentList;
+import org.apache.solr.common.SolrInputDocument;
+import org.dspace.content.DSpaceObject;
+import org.dspace.content.Item;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.services.ConfigurationService;
+import org.dspace.statistics.dao.UsageRollupDAO;
+import org.dspace.statistics.factory.StatisticsServiceFactory;
+import org.dspace.statistics.service.UsageRollupService;
+import org.dspace.util.ThrowingConsumer;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Service implementation for the usage statistics rollups. The views logged by the {@link SolrLoggerServiceImpl}
+ * are counted in memory, with the filters applied by the usage reports to the statistics core
+ * ({@code solr-statistics.query.filter.isBot} and {@code solr-statistics.query.filter.bundles}), and added to the
+ * statistics_rollup table every {@code usage-statistics.rollup.flush-interval} seconds by a background thread.
+ * <p>
+ * The rollups follow the views as they are logged: robots marked or deleted afterwards in the statistics core, or
+ * changes to the filters, are only taken into account by a {@link #rebuild(Context)}.
+ * This class should never be accessed directly.
+ */
+public class UsageRollupServiceImpl implements UsageRollupService {
+
+    private static final Logger log = LogManager.getLogger();
+
+    /**
+     * Fields of the statistics documents read to count their views
+     */
+    private static final List<String> FIELDS = List.of("id", "type", "owningItem", "time", "countryCode", "city",
+        "isBot", "bundleName", "statistics_type");
+
+    private static final int MAX_CITY_LENGTH = 256;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    private static final int REBUILD_BATCH_SIZE = 10000;
+
+    @Autowired(required = true)
+    protected UsageRollupDAO usageRollupDAO;
+
+    @Autowired(required = true)
+    protected ConfigurationService configurationService;
+
+    // views counted since the last flush
+    private final Map<RollupKey, Long> pending = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    private ScheduledExecutorService flusher;
+
+    protected UsageRollupServiceImpl() {
+    }
+
+    /**
+     * Write the counted views and stop the background thread.
+     */
+    public void destroy() {
+        synchronized (this) {
+            if (flusher != null) {
+                flusher.shutdownNow();
+                flusher = null;
+            }
+        }
+        flush();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return configurationService.getBooleanProperty("usage-statistics.rollup.enabled", false);
+    }
+
+    @Override
+    public boolean isReportingEnabled() {
+        return isEnabled() && configurationService.getBooleanProperty("usage-statistics.rollup.reports", false);
+    }
+
+    @Override
+    public void record(SolrInputDocument doc) {
+        if (!isEnabled()) {
+            return;
+        }
+        RollupKey key = toKey(doc::getFieldValues);
+        if (key != null) {
+            pending.merge(key, 1L, Long::sum);
+            startFlusher();
+        }
+    }
+
+    private synchronized void startFlusher() {
+        if (flusher == null) {
+            long interval = configurationService.getLongProperty("usage-statistics.rollup.flush-interval", 30);
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "usage-rollup-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void flush() {
+        synchronized (flushLock) {
+            Map<RollupKey, Long> views = new HashMap<>();
+            for (RollupKey key : pending.keySet()) {
+                Long count = pending.remove(key);
+                if (count != null) {
+                    views.put(key, count);
+                }
+            }
+            if (views.isEmpty()) {
+                return;
+            }
+            Context context = new Context();
+            try {
+                write(context, views);
+                context.complete();
+            } catch (SQLException | RuntimeException e) {
+                log.error("Unable to write the usage statistics rollups, they will be written with the next ones", e);
+                context.abort();
+                views.forEach((key, count) -> pending.merge(key, count, Long::sum));
+            }
+        }
+    }
+
+    @Override
+    public long rebuild(Context context) throws SQLException, SolrServerException, IOException {
+        flush();
+        LocalDate today = LocalDate.now();
+        int deleted = usageRollupDAO.deleteBefore(context, java.sql.Date.valueOf(today));
+        context.commit();
+        log.info("Deleted {} usage statistics rollups before {}", deleted, today);
+
+        Rebuild rebuild = new Rebuild(context);
+        // the time of the views is logged as a local time
+        List<String> filterQueries = List.of("time:[* TO " + today + "T00:00:00Z}",
+            "-(statistics_type:[* TO *] AND -statistics_type:" + SolrLoggerServiceImpl.StatisticsType.VIEW.text()
+                + ")");
+        StatisticsServiceFactory.getInstance().getSolrLoggerService()
+                                .processDocuments(filterQueries, FIELDS, REBUILD_PAGE_SIZE, rebuild);
+        rebuild.write();
+        return rebuild.total;
+    }
+
+    @Override
+    public long getTotalViews(Context context, DSpaceObject dso) throws SQLException {
+        return usageRollupDAO.sumViews(context, dso.getID());
+    }
+
+    @Override
+    public Map<YearMonth, Long> getViewsPerMonth(Context context, DSpaceObject dso, YearMonth from, YearMonth to)
+        throws SQLException {
+        Map<YearMonth, Long> views = new LinkedHashMap<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            views.put(month, 0L);
+        }
+        Map<Date, Long> days = usageRollupDAO.sumViewsPerDay(context, dso.getID(),
+            java.sql.Date.valueOf(from.atDay(1)), java.sql.Date.valueOf(to.atEndOfMonth()));
+        days.forEach((day, count) -> views.merge(YearMonth.from(toLocalDate(day)), count, Long::sum));
+        return views;
+    }
+
+    @Override
+    public List<ObjectCount> getTopCountries(Context context, DSpaceObject dso, int max) throws SQLException {
+        return usageRollupDAO.findTopCountries(context, dso.getID(), max);
+    }
+
+    @Override
+    public List<ObjectCount> getTopCities(Context context, DSpaceObject dso, int max) throws SQLException {
+        return usageRollupDAO.findTopCities(context, dso.getID(), max);
+    }
+
+    @Override
+    public List<ObjectCount> getTopBitstreams(Context context, Item item, int max) throws SQLException {
+        return usageRollupDAO.findTopBitstreams(context, item.getID(), max);
+    }
+
+    @Override
+    public List<ObjectCount> getTopObjects(Context context, int dsoType, int max) throws SQLException {
+        return usageRollupDAO.findTopObjects(context, dsoType, max);
+    }
+
+    private void write(Context context, Map<RollupKey, Long> views) throws SQLException {
+        for (Map.Entry<RollupKey, Long> entry : views.entrySet()) {
+            RollupKey key = entry.getKey();
+            UsageRollup rollup = new UsageRollup();
+            rollup.setDsoID(key.dsoID);
+            rollup.setDsoType(key.dsoType);
+            rollup.setOwningItem(key.owningItem);
+            rollup.setViewDate(java.sql.Date.valueOf(key.day));
+            rollup.setCountryCode(key.countryCode);
+            rollup.setCity(key.city);
+            rollup.setViews(entry.getValue());
+            usageRollupDAO.addViews(context, rollup);
+        }
+    }
+
+    /**
+     * @param fields the values of the fields of a statistics document
+     * @return the rollup counting the document, or null if the document is not a view counted by the reports
+     */
+    private RollupKey toKey(Function<String, Collection<Object>> fields) {
+        Collection<Object> types = fields.apply("statistics_type");
+        if (types != null && !types.contains(SolrLoggerServiceImpl.StatisticsType.VIEW.text())) {
+            return null;
+        }
+        if (configurationService.getBooleanProperty("solr-statistics.query.filter.isBot", true)
+            && Boolean.parseBoolean(Objects.toString(getFirst(fields, "isBot")))) {
+            return null;
+        }
+        String[] bundles = configurationService.getArrayProperty("solr-statistics.query.filter.bundles");
+        Collection<Object> bundleNames = fields.apply("bundleName");
+        if (ArrayUtils.isNotEmpty(bundles) && bundleNames != null && !bundleNames.isEmpty()
+            && bundleNames.stream().noneMatch(name -> ArrayUtils.contains(bundles, name.toString()))) {
+            return null;
+        }
+
+        Object id = getFirst(fields, "id");
+        Object type = getFirst(fields, "type");
+        Object time = getFirst(fields, "time");
+        if (id == null || type == null || time == null) {
+            return null;
+        }
+        UUID dsoID = toUUID(id);
+        if (dsoID == null) {
+            // legacy identifiers are not counted
+            return null;
+        }
+        int dsoType = type instanceof Number ? ((Number) type).intValue() : Integer.parseInt(type.toString());
+        UUID owningItem = dsoType == Constants.BITSTREAM ? toUUID(getFirst(fields, "owningItem")) : null;
+        LocalDate day = time instanceof Date
+            // the local time of the view, stored as UTC
+            ? ((Date) time).toInstant().atZone(ZoneOffset.UTC).toLocalDate()
+            : LocalDate.parse(time.toString().substring(0, 10));
+        String countryCode = Objects.toString(getFirst(fields, "countryCode"), "");
+        String city = StringUtils.truncate(Objects.toString(getFirst(fields, "city"), ""), MAX_CITY_LENGTH);
+        return new RollupKey(dsoID, dsoType, owningItem, day, countryCode, city);
+    }
+
+    private static Object getFirst(Function<String, Collection<Object>> fields, String name) {
+        Collection<Object> values = fields.apply(name);
+        return values == null || values.isEmpty() ? null : values.iterator().next();
+    }
+
+    private static UUID toUUID(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value.toString());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date instanceof java.sql.Date ? ((java.sql.Date) date).toLocalDate()
+            : Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    /**
+     * Counts the views of the pages of statistics documents, in the order of their time, and writes them once a
+     * day is complete.
+     */
+    private class Rebuild implements ThrowingConsumer<SolrDocumentList, SQLException> {
+        private final Context context;
+        private final Map<RollupKey, Long> views = new HashMap<>();
+        private LocalDate day;
+        private long total;
+
+        Rebuild(Context context) {
+            this.context = context;
+        }
+
+        @Override
+        public void accept(SolrDocumentList docs) throws SQLException {
+            for (SolrDocument doc : docs) {
+                RollupKey key = toKey(doc::getFieldValues);
+                if (key == null) {
+                    continue;
+                }
+                if (!key.day.equals(day) || views.size() >= REBUILD_BATCH_SIZE) {
+                    write();
+                    day = key.day;
+                }
+                views.merge(key, 1L, Long::sum);
+                total++;
+            }
+        }
+
+        void write() throws SQLException {
+            if (!views.isEmpty()) {
+                UsageRollupServiceImpl.this.write(context, views);
+                context.commit();
+                log.info("Counted {} views until {}", total, day);
+                views.clear();
+            }
+        }
+    }
+
+    private static class RollupKey {
+        private final UUID dsoID;
+        private final int dsoType;
+        private final UUID owningItem;
+        private final LocalDate day;
+        private final String countryCode;
+        private final String city;
+
+        RollupKey(UUID dsoID, int dsoType, UUID owningItem, LocalDate day, String countryCode, String city) {
+            this.dsoID = dsoID;
+            this.dsoType = dsoType;
+            this.owningItem = owningItem;
+            this.day = day;
+            this.countryCode = countryCode;
+            this.city = city;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RollupKey)) {
+                return false;
+            }
+            RollupKey other = (RollupKey) o;
+            return dsoID.equals(other.dsoID) && day.equals(other.day) && countryCode.equals(other.countryCode)
+                && city.equals(other.city);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dsoID, day, countryCode, city);
+        }
+    }
+}
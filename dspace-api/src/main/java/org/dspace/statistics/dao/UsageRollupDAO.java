@@ -0,0 +1,100 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics.dao;
+
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.dspace.core.Context;
+import org.dspace.core.GenericDAO;
+import org.dspace.statistics.ObjectCount;
+import org.dspace.statistics.UsageRollup;
+
+/**
+ * Database Access Object interface class for the UsageRollup object.
+ * The implementation of this class is responsible for all database calls for the UsageRollup object and is autowired
+ * by spring.
+ * This class should only be accessed from a single service and should never be exposed outside of the API.
+ */
+public interface UsageRollupDAO extends GenericDAO<UsageRollup> {
+
+    /**
+     * Add the views of the given rollup to the row of the same object, day, country and city, or insert the rollup
+     * if there is no such row yet.
+     *
+     * @param context the DSpace context
+     * @param rollup  the views to add
+     * @throws SQLException if database error
+     */
+    void addViews(Context context, UsageRollup rollup) throws SQLException;
+
+    /**
+     * @param context the DSpace context
+     * @param day     first day to keep
+     * @return the number of deleted rows
+     * @throws SQLException if database error
+     */
+    int deleteBefore(Context context, Date day) throws SQLException;
+
+    /**
+     * @param context the DSpace context
+     * @param dsoID   ID of the object
+     * @return the total number of views of the object
+     * @throws SQLException if database error
+     */
+    long sumViews(Context context, UUID dsoID) throws SQLException;
+
+    /**
+     * @param context the DSpace context
+     * @param dsoID   ID of the object
+     * @param from    first day
+     * @param to      last day
+     * @return the number of views of the object by day, for the days with views
+     * @throws SQLException if database error
+     */
+    Map<Date, Long> sumViewsPerDay(Context context, UUID dsoID, Date from, Date to) throws SQLException;
+
+    /**
+     * @param context the DSpace context
+     * @param dsoID   ID of the object
+     * @param limit   maximum number of countries
+     * @return the codes of the countries with the most views of the object, with their number of views
+     * @throws SQLException if database error
+     */
+    List<ObjectCount> findTopCountries(Context context, UUID dsoID, int limit) throws SQLException;
+
+    /**
+     * @param context the DSpace context
+     * @param dsoID   ID of the object
+     * @param limit   maximum number of cities
+     * @return the cities with the most views of the object, with their number of views
+     * @throws SQLException if database error
+     */
+    List<ObjectCount> findTopCities(Context context, UUID dsoID, int limit) throws SQLException;
+
+    /**
+     * @param context the DSpace context
+     * @param itemID  ID of the item
+     * @param limit   maximum number of bitstreams
+     * @return the IDs of the bitstreams of the item with the most views, with their number of views
+     * @throws SQLException if database error
+     */
+    List<ObjectCount> findTopBitstreams(Context context, UUID itemID, int limit) throws SQLException;
+
+    /**
+     * @param context the DSpace context
+     * @param dsoType type of the objects, from {@link org.dspace.core.Constants}
+     * @param limit   maximum number of objects
+     * @return the IDs of the objects of the given type with the most views, with their number of views
+     * @throws SQLException if database error
+     */
+    List<ObjectCount> findTopObjects(Context context, int dsoType, int limit) throws SQLException;
+}
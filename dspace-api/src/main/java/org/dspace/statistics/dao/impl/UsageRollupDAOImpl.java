@@ -0,0 +1,134 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics.dao.impl;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import javax.persistence.Query;
+import javax.persistence.TemporalType;
+
+import org.dspace.core.AbstractHibernateDAO;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.statistics.ObjectCount;
+import org.dspace.statistics.UsageRollup;
+import org.dspace.statistics.dao.UsageRollupDAO;
+import org.hibernate.Session;
+
+/**
+ * Hibernate implementation of the Database Access Object interface class for the UsageRollup object.
+ * This class is responsible for all database calls for the UsageRollup object and is autowired by spring
+ * This class should never be accessed directly.
+ */
+@SuppressWarnings("unchecked")
+public class UsageRollupDAOImpl extends AbstractHibernateDAO<UsageRollup> implements UsageRollupDAO {
+
+    protected UsageRollupDAOImpl() {
+        super();
+    }
+
+    @Override
+    public void addViews(Context context, UsageRollup rollup) throws SQLException {
+        Query query = createQuery(context, "UPDATE UsageRollup SET views = views + :views WHERE dsoID = :dsoID"
+            + " AND viewDate = :viewDate AND countryCode = :countryCode AND city = :city");
+        query.setParameter("views", rollup.getViews());
+        query.setParameter("dsoID", rollup.getDsoID());
+        query.setParameter("viewDate", rollup.getViewDate(), TemporalType.DATE);
+        query.setParameter("countryCode", rollup.getCountryCode());
+        query.setParameter("city", rollup.getCity());
+        if (query.executeUpdate() == 0) {
+            // the rows are only inserted, so they do not need to stay in the session
+            Session session = getHibernateSession(context);
+            session.persist(rollup);
+            session.flush();
+            session.evict(rollup);
+        }
+    }
+
+    @Override
+    public int deleteBefore(Context context, Date day) throws SQLException {
+        Query query = createQuery(context, "DELETE FROM UsageRollup WHERE viewDate < :day");
+        query.setParameter("day", day, TemporalType.DATE);
+        return query.executeUpdate();
+    }
+
+    @Override
+    public long sumViews(Context context, UUID dsoID) throws SQLException {
+        Query query = createQuery(context, "SELECT SUM(r.views) FROM UsageRollup r WHERE r.dsoID = :dsoID");
+        query.setParameter("dsoID", dsoID);
+        Long views = (Long) query.getSingleResult();
+        return views != null ? views : 0;
+    }
+
+    @Override
+    public Map<Date, Long> sumViewsPerDay(Context context, UUID dsoID, Date from, Date to) throws SQLException {
+        Query query = createQuery(context, "SELECT r.viewDate, SUM(r.views) FROM UsageRollup r"
+            + " WHERE r.dsoID = :dsoID AND r.viewDate >= :from AND r.viewDate <= :to"
+            + " GROUP BY r.viewDate ORDER BY r.viewDate");
+        query.setParameter("dsoID", dsoID);
+        query.setParameter("from", from, TemporalType.DATE);
+        query.setParameter("to", to, TemporalType.DATE);
+        Map<Date, Long> views = new LinkedHashMap<>();
+        for (Object[] row : (List<Object[]>) query.getResultList()) {
+            views.put((Date) row[0], (Long) row[1]);
+        }
+        return views;
+    }
+
+    @Override
+    public List<ObjectCount> findTopCountries(Context context, UUID dsoID, int limit) throws SQLException {
+        Query query = createQuery(context, "SELECT r.countryCode, SUM(r.views) FROM UsageRollup r"
+            + " WHERE r.dsoID = :dsoID AND r.countryCode <> '' GROUP BY r.countryCode"
+            + " ORDER BY SUM(r.views) DESC, r.countryCode");
+        query.setParameter("dsoID", dsoID);
+        return toObjectCounts(query, limit);
+    }
+
+    @Override
+    public List<ObjectCount> findTopCities(Context context, UUID dsoID, int limit) throws SQLException {
+        Query query = createQuery(context, "SELECT r.city, SUM(r.views) FROM UsageRollup r"
+            + " WHERE r.dsoID = :dsoID AND r.city <> '' GROUP BY r.city ORDER BY SUM(r.views) DESC, r.city");
+        query.setParameter("dsoID", dsoID);
+        return toObjectCounts(query, limit);
+    }
+
+    @Override
+    public List<ObjectCount> findTopBitstreams(Context context, UUID itemID, int limit) throws SQLException {
+        Query query = createQuery(context, "SELECT r.dsoID, SUM(r.views) FROM UsageRollup r"
+            + " WHERE r.owningItem = :itemID AND r.dsoType = :dsoType GROUP BY r.dsoID"
+            + " ORDER BY SUM(r.views) DESC, r.dsoID");
+        query.setParameter("itemID", itemID);
+        query.setParameter("dsoType", Constants.BITSTREAM);
+        return toObjectCounts(query, limit);
+    }
+
+    @Override
+    public List<ObjectCount> findTopObjects(Context context, int dsoType, int limit) throws SQLException {
+        Query query = createQuery(context, "SELECT r.dsoID, SUM(r.views) FROM UsageRollup r"
+            + " WHERE r.dsoType = :dsoType GROUP BY r.dsoID ORDER BY SUM(r.views) DESC, r.dsoID");
+        query.setParameter("dsoType", dsoType);
+        return toObjectCounts(query, limit);
+    }
+
+    private List<ObjectCount> toObjectCounts(Query query, int limit) {
+        query.setMaxResults(limit);
+        List<ObjectCount> counts = new ArrayList<>();
+        for (Object[] row : (List<Object[]>) query.getResultList()) {
+            ObjectCount count = new ObjectCount();
+            count.setValue(row[0].toString());
+            count.setCount((Long) row[1]);
+            counts.add(count);
+        }
+        return counts;
+    }
+}
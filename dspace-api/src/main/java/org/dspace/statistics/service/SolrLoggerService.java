@@ -16,12 +16,14 @@ import javax.servlet.http.HttpServletRequest;
 
 import org.apache.solr.client.solrj.SolrServerException;
 import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.SolrDocumentList;
 import org.apache.solr.common.SolrInputDocument;
 import org.dspace.content.DSpaceObject;
 import org.dspace.core.Context;
 import org.dspace.eperson.EPerson;
 import org.dspace.statistics.ObjectCount;
 import org.dspace.usage.UsageWorkflowEvent;
+import org.dspace.util.ThrowingConsumer;
 
 /**
  * Static holder for a HttpSolrClient connection pool to issue
@@ -283,6 +285,24 @@ public interface SolrLoggerService {
      */
     public void commit() throws IOException, SolrServerException;
 
+    /**
+     * Pass all the documents matching the given filter queries to a processor, page by page and in the order of
+     * their time. The pages are read with a cursor, so that their cost does not grow with their depth.
+     *
+     * @param filterQueries filter queries of the documents
+     * @param fields        fields of the documents to read
+     * @param pageSize      number of documents per page
+     * @param processor     processor of the pages
+     * @param <E>           exception thrown by the processor
+     * @throws SolrServerException Exception from the Solr server to the solrj Java client.
+     * @throws IOException         passed through.
+     * @throws E                   if the processor fails
+     */
+    public <E extends Exception> void processDocuments(List<String> filterQueries, List<String> fields,
+                                                       int pageSize,
+                                                       ThrowingConsumer<SolrDocumentList, E> processor)
+        throws SolrServerException, IOException, E;
+
     /**
      * Anonymize a given ip
      * @param ip
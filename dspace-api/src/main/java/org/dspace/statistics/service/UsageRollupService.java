@@ -0,0 +1,122 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics.service;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrInputDocument;
+import org.dspace.content.DSpaceObject;
+import org.dspace.content.Item;
+import org.dspace.core.Context;
+import org.dspace.statistics.ObjectCount;
+
+/**
+ * Service interface class for the usage statistics rollups: the views logged in the statistics core, counted by
+ * object, day, country and city in the database, so that the usage reports do not need to query the statistics
+ * core.
+ * The implementation of this class is responsible for all business logic calls for the rollups and is autowired by
+ * spring
+ */
+public interface UsageRollupService {
+
+    /**
+     * @return whether the logged views are counted in the rollups ({@code usage-statistics.rollup.enabled})
+     */
+    public boolean isEnabled();
+
+    /**
+     * @return whether the usage reports are answered from the rollups ({@code usage-statistics.rollup.reports})
+     */
+    public boolean isReportingEnabled();
+
+    /**
+     * Count a document logged in the statistics core, unless it is not a view counted by the usage reports (a view
+     * of a robot, or of a bitstream outside the reported bundles). The views are written to the database
+     * periodically.
+     *
+     * @param doc the document logged in the statistics core
+     */
+    public void record(SolrInputDocument doc);
+
+    /**
+     * Write the counted views to the database.
+     */
+    public void flush();
+
+    /**
+     * Rebuild the rollups of the days before the current one from the views logged in the statistics core. The
+     * rollups of the current day are left to the logged views.
+     *
+     * @param context the DSpace context
+     * @return the number of counted views
+     * @throws SQLException        if database error
+     * @throws SolrServerException if the statistics core cannot be queried
+     * @throws IOException         if the statistics core cannot be queried
+     */
+    public long rebuild(Context context) throws SQLException, SolrServerException, IOException;
+
+    /**
+     * @param context the DSpace context
+     * @param dso     the object
+     * @return the total number of views of the object
+     * @throws SQLException if database error
+     */
+    public long getTotalViews(Context context, DSpaceObject dso) throws SQLException;
+
+    /**
+     * @param context the DSpace context
+     * @param dso     the object
+     * @param from    first month
+     * @param to      last month
+     * @return the number of views of the object for each month of the range, in order
+     * @throws SQLException if database error
+     */
+    public Map<YearMonth, Long> getViewsPerMonth(Context context, DSpaceObject dso, YearMonth from, YearMonth to)
+        throws SQLException;
+
+    /**
+     * @param context the DSpace context
+     * @param dso     the object
+     * @param max     maximum number of countries
+     * @return the codes of the countries with the most views of the object, with their number of views
+     * @throws SQLException if database error
+     */
+    public List<ObjectCount> getTopCountries(Context context, DSpaceObject dso, int max) throws SQLException;
+
+    /**
+     * @param context the DSpace context
+     * @param dso     the object
+     * @param max     maximum number of cities
+     * @return the cities with the most views of the object, with their number of views
+     * @throws SQLException if database error
+     */
+    public List<ObjectCount> getTopCities(Context context, DSpaceObject dso, int max) throws SQLException;
+
+    /**
+     * @param context the DSpace context
+     * @param item    the item
+     * @param max     maximum number of bitstreams
+     * @return the IDs of the bitstreams of the item with the most views, with their number of views
+     * @throws SQLException if database error
+     */
+    public List<ObjectCount> getTopBitstreams(Context context, Item item, int max) throws SQLException;
+
+    /**
+     * @param context the DSpace context
+     * @param dsoType type of the objects, from {@link org.dspace.core.Constants}
+     * @param max     maximum number of objects
+     * @return the IDs of the objects of the given type with the most views, with their number of views
+     * @throws SQLException if database error
+     */
+    public List<ObjectCount> getTopObjects(Context context, int dsoType, int max) throws SQLException;
+}
@@ -0,0 +1,403 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.lucene.util.automaton.Automata;
+import org.apache.lucene.util.automaton.Automaton;
+import org.apache.lucene.util.automaton.CharacterRunAutomaton;
+import org.apache.lucene.util.automaton.Operations;
+import org.apache.lucene.util.automaton.RegExp;
+import org.apache.lucene.util.automaton.TooComplexToDeterminizeException;
+
+/**
+ * Finds whether a string contains a match of any of a list of regular expressions, as
+ * {@link java.util.regex.Matcher#find()} would for each of them, in a single pass over the string.
+ * <p>
+ * The expressions are merged into deterministic automata, which run in a time proportional to the length of the
+ * string whatever the number of expressions. The expressions using constructs which cannot be expressed as an
+ * automaton (e.g. look-arounds, back references, word boundaries or embedded flags) are matched one after the
+ * other with {@link Pattern}, as are the groups of expressions whose automaton would have more than
+ * {@link #MAX_STATES} states.
+ */
+public class CombinedPatternMatcher {
+
+    private static final Logger log = LogManager.getLogger(CombinedPatternMatcher.class);
+
+    /**
+     * Maximum number of states of the automaton of a group of expressions
+     */
+    static final int MAX_STATES = 50000;
+
+    /* automata of the expressions not anchored at the end of the string: a match may end anywhere */
+    private final List<CharacterRunAutomaton> prefixAutomata = new ArrayList<>();
+    /* automata of the expressions anchored at the end of the string: the whole string must be consumed */
+    private final List<CharacterRunAutomaton> wholeAutomata = new ArrayList<>();
+    private final List<Pattern> patterns = new ArrayList<>();
+
+    /**
+     * @param regexes regular expressions, in {@link Pattern} syntax
+     * @throws PatternSyntaxException if an expression is not valid
+     */
+    public CombinedPatternMatcher(Collection<String> regexes) {
+        // the expressions grouped by anchors: unanchored, anchored at the end, at the start, at both
+        List<List<Automaton>> expressions = List.of(new ArrayList<>(), new ArrayList<>(), new ArrayList<>(),
+                                                    new ArrayList<>());
+        List<List<Pattern>> sources = List.of(new ArrayList<>(), new ArrayList<>(), new ArrayList<>(),
+                                              new ArrayList<>());
+        for (String regex : regexes) {
+            // validate all the expressions like Pattern.compile did before
+            Pattern pattern = Pattern.compile(regex);
+            Translation translation = translate(regex);
+            Automaton automaton = null;
+            if (translation != null) {
+                try {
+                    automaton = new RegExp(translation.expression, RegExp.NONE).toAutomaton(MAX_STATES);
+                } catch (IllegalArgumentException | TooComplexToDeterminizeException e) {
+                    log.debug("Unable to compile {} into an automaton: {}", regex, e.getMessage());
+                }
+            }
+            if (automaton == null) {
+                patterns.add(pattern);
+            } else {
+                int group = (translation.anchoredStart ? 2 : 0) + (translation.anchoredEnd ? 1 : 0);
+                expressions.get(group).add(automaton);
+                sources.get(group).add(pattern);
+            }
+        }
+        for (int group = 0; group < 4; group++) {
+            compile(expressions.get(group), sources.get(group), group < 2, group % 2 == 0 ? prefixAutomata
+                : wholeAutomata);
+        }
+        log.debug("Compiled {} expressions into {} automata, {} expressions are matched one by one",
+                  regexes.size() - patterns.size(), getAutomatonCount(), patterns.size());
+    }
+
+    /**
+     * @param input the string to test
+     * @return true if any of the expressions is found in the string
+     */
+    public boolean find(String input) {
+        for (CharacterRunAutomaton automaton : prefixAutomata) {
+            if (runUntilAccepted(automaton, input)) {
+                return true;
+            }
+        }
+        for (CharacterRunAutomaton automaton : wholeAutomata) {
+            if (automaton.run(input)) {
+                return true;
+            }
+        }
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(input).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Run the automaton on the string until it reaches an accepting state: a match of an expression ends there.
+     */
+    private static boolean runUntilAccepted(CharacterRunAutomaton automaton, String input) {
+        int state = 0;
+        if (automaton.isAccept(state)) {
+            return true;
+        }
+        for (int i = 0; i < input.length(); ) {
+            int codePoint = input.codePointAt(i);
+            state = automaton.step(state, codePoint);
+            if (state == -1) {
+                return false;
+            }
+            if (automaton.isAccept(state)) {
+                return true;
+            }
+            i += Character.charCount(codePoint);
+        }
+        return false;
+    }
+
+    /**
+     * @return whether there are no expressions to match
+     */
+    public boolean isEmpty() {
+        return getAutomatonCount() == 0 && patterns.isEmpty();
+    }
+
+    /**
+     * @return the number of automata the expressions have been merged into
+     */
+    int getAutomatonCount() {
+        return prefixAutomata.size() + wholeAutomata.size();
+    }
+
+    /**
+     * @return the number of expressions which are matched one by one
+     */
+    int getPatternCount() {
+        return patterns.size();
+    }
+
+    /**
+     * Merge the expressions into a single automaton, or split them in halves when it would be too large.
+     *
+     * @param expressions the automata of the expressions
+     * @param sources     the expressions
+     * @param anywhere    whether the expressions may start anywhere in the string, rather than at its start
+     * @param automata    the list to add the automata to
+     */
+    private void compile(List<Automaton> expressions, List<Pattern> sources, boolean anywhere,
+                         List<CharacterRunAutomaton> automata) {
+        if (expressions.isEmpty()) {
+            return;
+        }
+        try {
+            Automaton automaton = Operations.union(expressions);
+            if (anywhere) {
+                // a single "any string" prefix keeps the states of the automaton close to those of Aho-Corasick
+                automaton = Operations.concatenate(Automata.makeAnyString(), automaton);
+            }
+            automaton = Operations.determinize(automaton, MAX_STATES);
+            automata.add(new CharacterRunAutomaton(automaton, MAX_STATES));
+        } catch (TooComplexToDeterminizeException e) {
+            if (expressions.size() == 1) {
+                patterns.add(sources.get(0));
+                return;
+            }
+            int half = expressions.size() / 2;
+            compile(expressions.subList(0, half), sources.subList(0, half), anywhere, automata);
+            compile(expressions.subList(half, expressions.size()), sources.subList(half, sources.size()), anywhere,
+                    automata);
+        }
+    }
+
+    /**
+     * A regular expression translated to {@link RegExp} syntax, without its anchors.
+     */
+    static class Translation {
+        final String expression;
+        /* whether the expression must match from the start of the input */
+        final boolean anchoredStart;
+        /* whether the expression must match up to the end of the input */
+        final boolean anchoredEnd;
+
+        Translation(String expression, boolean anchoredStart, boolean anchoredEnd) {
+            this.expression = expression;
+            this.anchoredStart = anchoredStart;
+            this.anchoredEnd = anchoredEnd;
+        }
+    }
+
+    /**
+     * Translate a regular expression from {@link Pattern} syntax to {@link RegExp} syntax.
+     *
+     * @param regex a regular expression in {@link Pattern} syntax
+     * @return the translation, or null if the expression uses constructs which cannot be translated
+     */
+    static Translation translate(String regex) {
+        StringBuilder expression = new StringBuilder();
+        boolean anchoredStart = false;
+        boolean anchoredEnd = false;
+        boolean alternation = false;
+        int depth = 0;
+        int i = 0;
+        int length = regex.length();
+        if (regex.startsWith("^")) {
+            anchoredStart = true;
+            i++;
+        }
+        while (i < length) {
+            char c = regex.charAt(i);
+            switch (c) {
+                case '\\':
+                    if (i + 1 >= length) {
+                        return null;
+                    }
+                    String escape = translateEscape(regex.charAt(i + 1), false);
+                    if (escape == null) {
+                        return null;
+                    }
+                    expression.append(escape);
+                    i += 2;
+                    break;
+                case '[':
+                    int end = translateClass(regex, i, expression);
+                    if (end < 0) {
+                        return null;
+                    }
+                    i = end;
+                    break;
+                case '(':
+                    if (regex.startsWith("(?:", i)) {
+                        i += 3;
+                    } else if (regex.startsWith("(?", i)) {
+                        // look-arounds, named groups, embedded flags...
+                        return null;
+                    } else {
+                        i++;
+                    }
+                    depth++;
+                    expression.append('(');
+                    break;
+                case ')':
+                    depth--;
+                    expression.append(')');
+                    i++;
+                    break;
+                case '|':
+                    if (depth == 0) {
+                        alternation = true;
+                    }
+                    expression.append('|');
+                    i++;
+                    break;
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                    int quantifierEnd = c == '{' ? regex.indexOf('}', i) + 1 : i + 1;
+                    if (quantifierEnd <= 0 || !regex.substring(i, quantifierEnd).matches("[*+?]|\\{\\d+(,\\d*)?}")) {
+                        return null;
+                    }
+                    expression.append(regex, i, quantifierEnd);
+                    i = quantifierEnd;
+                    if (i < length && regex.charAt(i) == '+') {
+                        // possessive quantifiers may prevent matches
+                        return null;
+                    }
+                    if (i < length && regex.charAt(i) == '?') {
+                        // reluctant quantifiers match the same strings
+                        i++;
+                    }
+                    break;
+                case '$':
+                    if (i != length - 1) {
+                        return null;
+                    }
+                    anchoredEnd = true;
+                    i++;
+                    break;
+                case '^':
+                    return null;
+                case '.':
+                    expression.append('.');
+                    i++;
+                    break;
+                default:
+                    if (Character.isSurrogate(c)) {
+                        // supplementary characters are rare enough in the expressions to be left to Pattern
+                        return null;
+                    }
+                    expression.append(literal(c));
+                    i++;
+                    break;
+            }
+        }
+        if (depth != 0 || (alternation && (anchoredStart || anchoredEnd))) {
+            return null;
+        }
+        return new Translation(expression.toString(), anchoredStart, anchoredEnd);
+    }
+
+    /**
+     * Translate a character class, starting at the given opening bracket.
+     *
+     * @return the index following the closing bracket, or -1 if the class cannot be translated
+     */
+    private static int translateClass(String regex, int start, StringBuilder expression) {
+        StringBuilder characterClass = new StringBuilder("[");
+        int i = start + 1;
+        if (i < regex.length() && regex.charAt(i) == '^') {
+            characterClass.append('^');
+            i++;
+        }
+        int contentStart = characterClass.length();
+        boolean first = true;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == ']' && !first) {
+                characterClass.append(']');
+                expression.append(characterClass);
+                return i + 1;
+            }
+            first = false;
+            if (c == '[' || (c == '&' && regex.startsWith("&&", i))) {
+                // nested classes, unions and intersections
+                return -1;
+            }
+            if (c == '\\') {
+                if (i + 1 >= regex.length()) {
+                    return -1;
+                }
+                String escape = translateEscape(regex.charAt(i + 1), true);
+                if (escape == null) {
+                    return -1;
+                }
+                characterClass.append(escape);
+                i += 2;
+            } else if (c == '-' && characterClass.length() > contentStart && i + 1 < regex.length()
+                && regex.charAt(i + 1) != ']') {
+                characterClass.append('-');
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                return -1;
+            } else {
+                characterClass.append(literal(c));
+                i++;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Translate an escape sequence.
+     *
+     * @param c       the escaped character
+     * @param inClass whether the escape is within a character class
+     * @return the translation, or null if it cannot be translated
+     */
+    private static String translateEscape(char c, boolean inClass) {
+        switch (c) {
+            case 'd':
+                return inClass ? "0-9" : "[0-9]";
+            case 's':
+                return inClass ? " \\\t\\\n\\\r\\\f\\\u000B" : "[ \\\t\\\n\\\r\\\f\\\u000B]";
+            case 'w':
+                return inClass ? "a-zA-Z0-9_" : "[a-zA-Z0-9_]";
+            case 'D':
+                return inClass ? null : "[^0-9]";
+            case 'S':
+                return inClass ? null : "[^ \\\t\\\n\\\r\\\f\\\u000B]";
+            case 'W':
+                return inClass ? null : "[^a-zA-Z0-9_]";
+            case 't':
+                return literal('\t');
+            case 'n':
+                return literal('\n');
+            case 'r':
+                return literal('\r');
+            case 'f':
+                return literal('\f');
+            default:
+                // other letters and digits are classes, anchors, back references or code points
+                return Character.isLetterOrDigit(c) ? null : literal(c);
+        }
+    }
+
+    private static String literal(char c) {
+        return Character.isLetterOrDigit(c) ? String.valueOf(c) : "\\" + c;
+    }
+}
@@ -7,10 +7,14 @@
  */
 package org.dspace.statistics.util;
 
+import java.net.Inet4Address;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
@@ -20,15 +24,32 @@ import org.apache.logging.log4j.Logger;
 /**
  * A Spare v4 IPTable implementation that uses nested HashMaps
  * to optimize IP address matching over ranges of IP addresses.
+ * <p>
+ * IPv6 addresses and ranges are supported as well. The ranges are looked up in
+ * a sorted array of disjoint 128-bit intervals, IPv4 addresses being mapped to
+ * {@code ::ffff:0:0/96}, so that {@link #contains(String)} is a binary search
+ * whatever the number of ranges.
  *
  * @author mdiggory at atmire.com
  */
 public class IPTable {
     private static final Logger log = LogManager.getLogger(IPTable.class);
 
+    /* Prefix of the IPv4 addresses mapped to IPv6 */
+    private static final long IPV4_MAPPED = 0xffff00000000L;
+
     /* A lookup tree for IP addresses and SubnetRanges */
     private final Set<IPRange> ipRanges = new HashSet<>();
 
+    /* IPv6 ranges, as {lowest high word, lowest low word, highest high word, highest low word} */
+    private final List<long[]> ipv6Ranges = new ArrayList<>();
+
+    /*
+     * Sorted, disjoint intervals of all the ranges, 4 words per interval as in ipv6Ranges.
+     * Built on first lookup, and discarded when a range is added.
+     */
+    private volatile long[] intervals = null;
+
     /**
      * Internal class representing an IP range
      */
@@ -78,6 +99,12 @@ public class IPTable {
      * @throws IPFormatException Exception Class to deal with IPFormat errors.
      */
     public void add(String ip) throws IPFormatException {
+        intervals = null;
+
+        if (ip.contains(":")) {
+            addIPv6(ip.trim());
+            return;
+        }
 
         String start;
 
@@ -133,6 +160,109 @@ public class IPTable {
         }
     }
 
+    /**
+     * Add an IPv6 address, CIDR block ({@code "2001:db8::/32"}) or range
+     * ({@code "2001:db8::1-2001:db8::ff"}).
+     */
+    private void addIPv6(String ip) throws IPFormatException {
+        try {
+            String[] range = ip.split("-");
+            if (range.length == 2) {
+                long[] lo = toWords(InetAddress.getByName(range[0].trim()));
+                long[] hi = toWords(InetAddress.getByName(range[1].trim()));
+                ipv6Ranges.add(new long[] {lo[0], lo[1], hi[0], hi[1]});
+            } else if (ip.contains("/")) {
+                String[] parts = ip.split("/");
+                long[] address = toWords(InetAddress.getByName(parts[0]));
+                int prefix = Integer.parseInt(parts[1]);
+                if (prefix < 0 || prefix > 128) {
+                    throw new NumberFormatException("prefix out of range");
+                }
+                long maskHi = prefix >= 64 ? -1L : prefix == 0 ? 0 : -1L << (64 - prefix);
+                long maskLo = prefix <= 64 ? 0 : prefix == 128 ? -1L : -1L << (128 - prefix);
+                ipv6Ranges.add(new long[] {address[0] & maskHi, address[1] & maskLo,
+                                           address[0] | ~maskHi, address[1] | ~maskLo});
+            } else {
+                long[] address = toWords(InetAddress.getByName(ip));
+                ipv6Ranges.add(new long[] {address[0], address[1], address[0], address[1]});
+            }
+        } catch (UnknownHostException | NumberFormatException e) {
+            throw new IPFormatException(ip + " - IPv6 format should be similar to 2001:db8::/32");
+        }
+    }
+
+    /**
+     * Convert an IP address to two 64-bit words, IPv4 addresses being mapped to IPv6.
+     */
+    private static long[] toWords(InetAddress ip) {
+        if (ip instanceof Inet4Address) {
+            return new long[] {0, IPV4_MAPPED | ipToLong(ip)};
+        }
+        byte[] octets = ip.getAddress();
+        long hi = 0;
+        long lo = 0;
+        for (int i = 0; i < 8; i++) {
+            hi = (hi << 8) | (octets[i] & 0xff);
+            lo = (lo << 8) | (octets[i + 8] & 0xff);
+        }
+        return new long[] {hi, lo};
+    }
+
+    private static String wordsToIp(long hi, long lo) {
+        byte[] octets = new byte[16];
+        for (int i = 0; i < 8; i++) {
+            octets[i] = (byte) (hi >>> (56 - 8 * i));
+            octets[i + 8] = (byte) (lo >>> (56 - 8 * i));
+        }
+        try {
+            return InetAddress.getByAddress(octets).getHostAddress();
+        } catch (UnknownHostException e) {
+            // cannot happen with 16 octets
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int compare(long hi1, long lo1, long hi2, long lo2) {
+        int result = Long.compareUnsigned(hi1, hi2);
+        return result != 0 ? result : Long.compareUnsigned(lo1, lo2);
+    }
+
+    /**
+     * Sort the ranges and merge the overlapping or adjacent ones.
+     */
+    private synchronized long[] buildIntervals() {
+        if (intervals != null) {
+            return intervals;
+        }
+        List<long[]> ranges = new ArrayList<>(ipv6Ranges);
+        for (IPRange ipRange : ipRanges) {
+            ranges.add(new long[] {0, IPV4_MAPPED | ipRange.getIpLo(), 0, IPV4_MAPPED | ipRange.getIpHi()});
+        }
+        ranges.sort((a, b) -> compare(a[0], a[1], b[0], b[1]));
+        long[] merged = new long[ranges.size() * 4];
+        int size = 0;
+        for (long[] range : ranges) {
+            if (size > 0) {
+                long lastHi = merged[size - 2];
+                long lastLo = merged[size - 1];
+                // the range starts within, or right after, the last interval
+                boolean adjacent = lastLo == -1L ? range[0] == lastHi + 1 && range[1] == 0
+                    : range[0] == lastHi && range[1] == lastLo + 1;
+                if (compare(range[0], range[1], lastHi, lastLo) <= 0 || adjacent) {
+                    if (compare(range[2], range[3], lastHi, lastLo) > 0) {
+                        merged[size - 2] = range[2];
+                        merged[size - 1] = range[3];
+                    }
+                    continue;
+                }
+            }
+            System.arraycopy(range, 0, merged, size, 4);
+            size += 4;
+        }
+        intervals = Arrays.copyOf(merged, size);
+        return intervals;
+    }
+
     /**
      * Convert an IP address to a long integer
      * @param ip    the IP address
@@ -169,19 +299,35 @@ public class IPTable {
      * Check whether a given address is contained in this netblock.
      *
      * @param ip the address to be tested
-     * @return true if {@code ip} is within this table's limits.  Returns false
-     *         if {@code ip} looks like an IPv6 address.
+     * @return true if {@code ip} is within this table's limits.
      * @throws IPFormatException Exception Class to deal with IPFormat errors.
      */
     public boolean contains(String ip) throws IPFormatException {
 
+        long[] address;
         try {
-            long ipToTest = ipToLong(InetAddress.getByName(ip));
-            return ipRanges.stream()
-                    .anyMatch(ipRange -> (ipToTest >= ipRange.getIpLo() && ipToTest <= ipRange.getIpHi()));
+            address = toWords(InetAddress.getByName(ip));
         } catch (UnknownHostException e) {
             throw new IPFormatException("ip not valid");
         }
+        long[] ranges = intervals;
+        if (ranges == null) {
+            ranges = buildIntervals();
+        }
+        // find the last interval starting at or before the address
+        int low = 0;
+        int high = ranges.length / 4 - 1;
+        int found = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (compare(ranges[middle * 4], ranges[middle * 4 + 1], address[0], address[1]) <= 0) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return found >= 0 && compare(address[0], address[1], ranges[found * 4 + 2], ranges[found * 4 + 3]) <= 0;
     }
 
     /**
@@ -210,7 +356,7 @@ public class IPTable {
      * @return true if empty, false otherwise
      */
     public boolean isEmpty() {
-        return ipRanges.isEmpty();
+        return ipRanges.isEmpty() && ipv6Ranges.isEmpty();
     }
 
     /**
@@ -239,6 +385,14 @@ public class IPTable {
                 stringBuilder.append(", ");
             }
         }
+        for (long[] ipv6Range : ipv6Ranges) {
+            if (stringBuilder.length() > 0) {
+                stringBuilder.append(", ");
+            }
+            stringBuilder.append(wordsToIp(ipv6Range[0], ipv6Range[1]))
+                    .append("-")
+                    .append(wordsToIp(ipv6Range[2], ipv6Range[3]));
+        }
         return stringBuilder.toString();
     }
 }
@@ -12,13 +12,15 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 import javax.servlet.http.HttpServletRequest;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.apache.commons.configuration2.ex.ConversionException;
 import org.apache.commons.lang3.StringUtils;
 import org.dspace.service.ClientInfoService;
@@ -43,11 +45,21 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
 
     private Boolean useCaseInsensitiveMatching;
 
-    private final List<Pattern> agents
-        = Collections.synchronizedList(new ArrayList<Pattern>());
+    /**
+     * All the agent patterns, merged into automata. Loaded on first use.
+     */
+    private volatile CombinedPatternMatcher agents = null;
 
-    private final List<Pattern> domains
-        = Collections.synchronizedList(new ArrayList<Pattern>());
+    /**
+     * All the domain patterns, merged into automata. Loaded on first use.
+     */
+    private volatile CombinedPatternMatcher domains = null;
+
+    /**
+     * Verdicts of the recently seen agents, as most requests come from a few agents. Created with the agent
+     * patterns, unless its size is not positive.
+     */
+    private volatile Cache<String, Boolean> agentVerdicts = null;
 
     private ConfigurationService configurationService;
     private ClientInfoService clientInfoService;
@@ -82,25 +94,13 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
     public boolean isSpider(String clientIP, String proxyIPs, String hostname, String agent) {
         // See if any agent patterns match
         if (null != agent) {
-            synchronized (agents) {
-                if (agents.isEmpty()) {
-                    loadPatterns("agents", agents);
-                }
-            }
-
             if (isUseCaseInsensitiveMatching()) {
                 agent = StringUtils.lowerCase(agent);
                 hostname = StringUtils.lowerCase(hostname);
             }
 
-            for (Pattern candidate : agents) {
-
-                // prevent matcher() invocation from a null Pattern object
-                if (null != candidate && candidate.matcher(agent).find()) {
-                    return true;
-                }
-
-
+            if (isSpiderAgent(agent)) {
+                return true;
             }
         }
 
@@ -120,16 +120,11 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
 
         // No.  See if any DNS names match
         if (null != hostname) {
-            synchronized (domains) {
-                if (domains.isEmpty()) {
-                    loadPatterns("domains", domains);
-                }
+            if (domains == null) {
+                loadDomainPatterns();
             }
-            for (Pattern candidate : domains) {
-                // prevent matcher() invocation from a null Pattern object
-                if (null != candidate && candidate.matcher(hostname).find()) {
-                    return true;
-                }
+            if (domains.find(hostname)) {
+                return true;
             }
         }
 
@@ -171,16 +166,56 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
         return patterns;
     }
 
+    /**
+     * Check whether a User-Agent matches any agent pattern. The verdicts of the last
+     * {@code usage-statistics.bots.agent-cache-size} agents are cached.
+     *
+     * @param agent User-Agent header value, lowercased if matching is case insensitive.
+     * @return true if the agent matches any agent pattern.
+     */
+    private boolean isSpiderAgent(String agent) {
+        if (agents == null) {
+            loadAgentPatterns();
+        }
+        Cache<String, Boolean> verdicts = agentVerdicts;
+        if (verdicts == null) {
+            return agents.find(agent);
+        }
+        Boolean verdict = verdicts.getIfPresent(agent);
+        if (verdict == null) {
+            verdict = agents.find(agent);
+            verdicts.put(agent, verdict);
+        }
+        return verdict;
+    }
+
+    private synchronized void loadAgentPatterns() {
+        if (agents == null) {
+            int agentCacheSize = configurationService.getIntProperty("usage-statistics.bots.agent-cache-size",
+                                                                     10000);
+            if (agentCacheSize > 0) {
+                agentVerdicts = CacheBuilder.newBuilder().maximumSize(agentCacheSize).build();
+            }
+            agents = new CombinedPatternMatcher(loadPatterns("agents"));
+        }
+    }
+
+    private synchronized void loadDomainPatterns() {
+        if (domains == null) {
+            domains = new CombinedPatternMatcher(loadPatterns("domains"));
+        }
+    }
+
     /**
      * Load agent name patterns from all files in a single subdirectory of config/spiders.
      *
      * @param directory   simple directory name (e.g. "agents").
      *                    "${dspace.dir}/config/spiders" will be prepended to yield the path to
      *                    the directory of pattern files.
-     * @param patternList patterns read from the files in {@code directory} will
-     *                    be added to this List.
+     * @return patterns read from the files in {@code directory}.
      */
-    private void loadPatterns(String directory, List<Pattern> patternList) {
+    private List<String> loadPatterns(String directory) {
+        List<String> patternList = new ArrayList<>();
         String dspaceHome = configurationService.getProperty("dspace.dir");
         File spidersDir = new File(dspaceHome, "config/spiders");
         File patternsDir = new File(spidersDir, directory);
@@ -199,7 +234,13 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
                     if (isUseCaseInsensitiveMatching()) {
                         pattern = StringUtils.lowerCase(pattern);
                     }
-                    patternList.add(Pattern.compile(pattern));
+                    try {
+                        Pattern.compile(pattern);
+                    } catch (PatternSyntaxException ex) {
+                        log.warn("Invalid pattern {} ignored in {}:  {}", pattern, file.getPath(), ex.getMessage());
+                        continue;
+                    }
+                    patternList.add(pattern);
                 }
 
 
@@ -208,6 +249,7 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
         } else {
             log.info("No patterns loaded from {}", patternsDir.getPath());
         }
+        return patternList;
     }
 
     /**
@@ -7,121 +7,100 @@
  */
 package org.dspace.storage.bitstore;
 
-import org.apache.commons.cli.CommandLine;
-import org.apache.commons.cli.CommandLineParser;
-import org.apache.commons.cli.DefaultParser;
-import org.apache.commons.cli.HelpFormatter;
-import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import org.dspace.core.Context;
+import org.dspace.scripts.DSpaceRunnable;
 import org.dspace.storage.bitstore.factory.StorageServiceFactory;
 import org.dspace.storage.bitstore.service.BitstreamStorageService;
+import org.dspace.utils.DSpace;
 
 /**
- * Command Line Utility to migrate bitstreams from one assetstore to another
+ * Script to migrate bitstreams from one assetstore to another.
+ * Bitstreams are copied by a pool of worker threads and verified against their recorded checksum. The progress
+ * is recorded per bitstream, so an interrupted migration is resumed by running the script again.
  */
-public class BitStoreMigrate {
-
-    /**
-     * log4j log
-     */
-    private static final Logger log = LogManager.getLogger(BitStoreMigrate.class);
-
-    private static final BitstreamStorageService bitstreamStorageService
-            = StorageServiceFactory.getInstance().getBitstreamStorageService();
-
-    /**
-     * Default constructor
-     */
-    private BitStoreMigrate() { }
-
-    /**
-     * Migrates asset store.
-     *
-     * @param argv the command line arguments given
-     */
-    public static void main(String[] argv) {
-        try {
-            log.info("Migrate Assetstore");
-
-            // set up command line parser
-            CommandLineParser parser = new DefaultParser();
-            CommandLine line = null;
-
-            // create an options object and populate it
-            Options options = new Options();
-
-            options.addOption("a", "source", true,
-                              "Source assetstore store_number (to lose content). This is a number such as 0 or 1");
-            options.addOption("b", "destination", true,
-                              "Destination assetstore store_number (to gain content). This is a number such as 0 or " +
-                                  "1.");
-            options.addOption("d", "delete", false,
-                              "Delete file from losing assetstore. (Default: Keep bitstream in old assetstore)");
-            options.addOption("p", "print", false, "Print out current assetstore information");
-            options.addOption("s", "size", true, "Batch commit size. (Default: 1, commit after each file transfer)");
-            options.addOption("h", "help", false, "Help");
-
-            try {
-                line = parser.parse(options, argv);
-            } catch (ParseException e) {
-                log.fatal(e);
-                System.exit(1);
-            }
+public class BitStoreMigrate extends DSpaceRunnable<BitStoreMigrateScriptConfiguration<BitStoreMigrate>> {
 
-            // user asks for help
-            if (line.hasOption('h')) {
-                printHelp(options);
-                System.exit(0);
-            }
+    private BitstreamStorageService bitstreamStorageService;
 
-            Context context = new Context(Context.Mode.BATCH_EDIT);
-            context.turnOffAuthorisationSystem();
+    private boolean help = false;
 
-            if (line.hasOption('p')) {
-                bitstreamStorageService.printStores(context);
-                System.exit(0);
-            }
+    private boolean print = false;
 
-            boolean deleteOld = false;
-            if (line.hasOption('d')) {
-                log.debug("DELETE flag set to remove bitstream from old assetstore");
-                deleteOld = true;
-            }
-            log.debug("deleteOldAssets = " + deleteOld);
+    private boolean deleteOld = false;
 
+    private Integer sourceAssetstore;
 
-            if (line.hasOption('a') && line.hasOption('b')) {
-                Integer sourceAssetstore = Integer.valueOf(line.getOptionValue('a'));
-                Integer destinationAssetstore = Integer.valueOf(line.getOptionValue('b'));
+    private Integer destinationAssetstore;
 
-                //Safe default, commit every time. TODO Performance Profile
-                Integer batchCommitSize = 1;
-                if (line.hasOption('s')) {
-                    batchCommitSize = Integer.parseInt(line.getOptionValue('s'));
-                }
+    private int threads = 1;
 
-                bitstreamStorageService
-                    .migrate(context, sourceAssetstore, destinationAssetstore, deleteOld, batchCommitSize);
-            } else {
-                printHelp(options);
-                System.exit(0);
-            }
+    private int queueSize = 100;
 
-            context.complete();
+    @Override
+    @SuppressWarnings("unchecked")
+    public BitStoreMigrateScriptConfiguration<BitStoreMigrate> getScriptConfiguration() {
+        return new DSpace().getServiceManager()
+                           .getServiceByName("bitstore-migrate", BitStoreMigrateScriptConfiguration.class);
+    }
+
+    @Override
+    public void setup() throws ParseException {
+        bitstreamStorageService = StorageServiceFactory.getInstance().getBitstreamStorageService();
+
+        help = commandLine.hasOption('h');
+        print = commandLine.hasOption('p');
+        deleteOld = commandLine.hasOption('d');
+        if (commandLine.hasOption('a')) {
+            sourceAssetstore = parseInt('a');
+        }
+        if (commandLine.hasOption('b')) {
+            destinationAssetstore = parseInt('b');
+        }
+        if (commandLine.hasOption('t')) {
+            threads = parseInt('t');
+        }
+        if (commandLine.hasOption('q')) {
+            queueSize = parseInt('q');
+        }
+        if (threads < 1 || queueSize < 1) {
+            throw new ParseException("The number of threads and the queue size must be positive integers");
+        }
+    }
 
-            System.exit(0);
-        } catch (Exception e) {
-            log.fatal("Caught exception:", e);
-            System.out.println("Exception during BitStoreMigrate: " + e.getMessage());
-            System.exit(1);
+    @Override
+    public void internalRun() throws Exception {
+        if (help || (!print && (sourceAssetstore == null || destinationAssetstore == null))) {
+            printHelp();
+            return;
+        }
+
+        Context context = new Context(Context.Mode.BATCH_EDIT);
+        context.turnOffAuthorisationSystem();
+        try {
+            if (print) {
+                bitstreamStorageService.printStores(context);
+                context.complete();
+                return;
+            }
+            if (commandLine.hasOption('s')) {
+                handler.logWarning("The -s option is ignored: each bitstream is committed once migrated");
+            }
+            handler.logInfo("Migrating assetstore[" + sourceAssetstore + "] to assetstore[" + destinationAssetstore
+                                + "] with " + threads + " thread(s)");
+            bitstreamStorageService.migrate(context, sourceAssetstore, destinationAssetstore, deleteOld, threads,
+                                            queueSize, handler);
+            context.complete();
+        } finally {
+            context.abort();
         }
     }
 
-    private static void printHelp(Options options) {
-        HelpFormatter myhelp = new HelpFormatter();
-        myhelp.printHelp("BitstoreMigrate\n", options);
+    private int parseInt(char option) throws ParseException {
+        try {
+            return Integer.parseInt(commandLine.getOptionValue(option));
+        } catch (NumberFormatException e) {
+            throw new ParseException("Invalid value for option -" + option + ": " + commandLine.getOptionValue(option));
+        }
     }
 }
@@ -0,0 +1,55 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.storage.bitstore;
+
+import org.apache.commons.cli.Options;
+import org.dspace.scripts.configuration.ScriptConfiguration;
+
+/**
+ * The {@link ScriptConfiguration} for the {@link BitStoreMigrate} script.
+ */
+public class BitStoreMigrateScriptConfiguration<T extends BitStoreMigrate> extends ScriptConfiguration<T> {
+
+    private Class<T> dspaceRunnableClass;
+
+    @Override
+    public Options getOptions() {
+        if (options == null) {
+
+            Options options = new Options();
+
+            options.addOption("a", "source", true,
+                              "Source assetstore store_number (to lose content). This is a number such as 0 or 1");
+            options.addOption("b", "destination", true,
+                              "Destination assetstore store_number (to gain content). This is a number such as 0 or " +
+                                  "1.");
+            options.addOption("d", "delete", false,
+                              "Delete file from losing assetstore. (Default: Keep bitstream in old assetstore)");
+            options.addOption("p", "print", false, "Print out current assetstore information");
+            options.addOption("t", "threads", true, "Number of bitstreams copied in parallel. (Default: 1)");
+            options.addOption("q", "queue", true,
+                              "Maximum number of bitstreams waiting for a free thread. (Default: 100)");
+            options.addOption("s", "size", true, "Deprecated and ignored: each bitstream is committed once migrated");
+            options.addOption("h", "help", false, "Help");
+
+            super.options = options;
+        }
+        return options;
+    }
+
+    @Override
+    public Class<T> getDspaceRunnableClass() {
+        return dspaceRunnableClass;
+    }
+
+    @Override
+    public void setDspaceRunnableClass(Class<T> dspaceRunnableClass) {
+        this.dspaceRunnableClass = dspaceRunnableClass;
+    }
+
+}
@@ -0,0 +1,139 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.storage.bitstore;
+
+import java.io.Serializable;
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.Lob;
+import javax.persistence.OneToOne;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.dspace.content.Bitstream;
+import org.hibernate.annotations.Type;
+
+/**
+ * Database entity representation of the bitstream_migration table: the checkpoint of the last
+ * assetstore migration of a bitstream, used to resume interrupted migrations and report failures.
+ */
+@Entity
+@Table(name = "bitstream_migration")
+public class BitstreamMigration implements Serializable {
+
+    @Id
+    @OneToOne
+    @JoinColumn(name = "bitstream_id", nullable = false)
+    private Bitstream bitstream;
+
+    @Column(name = "source_store", nullable = false)
+    private Integer sourceStore;
+
+    @Column(name = "destination_store", nullable = false)
+    private Integer destinationStore;
+
+    @Column(name = "status", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private BitstreamMigrationStatus status;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "last_modified", nullable = false)
+    private Date lastModified;
+
+    @Lob
+    @Type(type = "org.hibernate.type.TextType")
+    @Column(name = "message")
+    private String message;
+
+    /**
+     * Protected constructor, create handled by the
+     * {@link org.dspace.storage.bitstore.service.BitstreamStorageService}
+     */
+    protected BitstreamMigration() {
+    }
+
+    protected BitstreamMigration(Bitstream bitstream) {
+        this.bitstream = bitstream;
+    }
+
+    public Bitstream getBitstream() {
+        return bitstream;
+    }
+
+    public Integer getSourceStore() {
+        return sourceStore;
+    }
+
+    public void setSourceStore(Integer sourceStore) {
+        this.sourceStore = sourceStore;
+    }
+
+    public Integer getDestinationStore() {
+        return destinationStore;
+    }
+
+    public void setDestinationStore(Integer destinationStore) {
+        this.destinationStore = destinationStore;
+    }
+
+    public BitstreamMigrationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(BitstreamMigrationStatus status) {
+        this.status = status;
+    }
+
+    public Date getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Date lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || !(o instanceof BitstreamMigration)) {
+            return false;
+        }
+
+        BitstreamMigration that = (BitstreamMigration) o;
+
+        return new EqualsBuilder()
+            .append(bitstream, that.bitstream)
+            .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(17, 37)
+            .append(bitstream)
+            .toHashCode();
+    }
+}
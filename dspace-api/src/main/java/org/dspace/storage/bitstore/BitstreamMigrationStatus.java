@@ -0,0 +1,30 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.storage.bitstore;
+
+/**
+ * Status of a bitstream in an assetstore migration, see {@link BitstreamMigration}.
+ */
+public enum BitstreamMigrationStatus {
+
+    /**
+     * The bitstream has been copied to the destination store, verified and moved to it, but its
+     * copy in the source store still has to be removed.
+     */
+    COPIED,
+
+    /**
+     * The bitstream has been migrated. Its copy in the source store has been removed, if requested.
+     */
+    COMPLETED,
+
+    /**
+     * The migration of the bitstream failed. It is still stored in the source store.
+     */
+    FAILED
+}
@@ -9,16 +9,29 @@ package org.dspace.storage.bitstore;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.SQLException;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nullable;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.dspace.authorize.AuthorizeException;
@@ -29,6 +42,8 @@ import org.dspace.content.MetadataValue;
 import org.dspace.content.service.BitstreamService;
 import org.dspace.core.Context;
 import org.dspace.core.Utils;
+import org.dspace.scripts.handler.DSpaceRunnableHandler;
+import org.dspace.storage.bitstore.dao.BitstreamMigrationDAO;
 import org.dspace.storage.bitstore.service.BitstreamStorageService;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -70,6 +85,8 @@ public class BitstreamStorageServiceImpl implements BitstreamStorageService, Ini
     protected BitstreamService bitstreamService;
     @Autowired(required = true)
     protected ChecksumHistoryService checksumHistoryService;
+    @Autowired(required = true)
+    protected BitstreamMigrationDAO bitstreamMigrationDAO;
 
     /**
      * asset stores
@@ -86,6 +103,11 @@ public class BitstreamStorageServiceImpl implements BitstreamStorageService, Ini
      */
     protected final String REGISTERED_FLAG = "-R";
 
+    /**
+     * Interval in milliseconds between two throughput reports of a parallel assetstore migration
+     */
+    protected static final long MIGRATION_REPORT_INTERVAL = 30 * 1000;
+
     protected BitstreamStorageServiceImpl() {
 
     }
@@ -432,6 +454,278 @@ public class BitstreamStorageServiceImpl implements BitstreamStorageService, Ini
                 "] completed. " + processedCounter + " objects were transferred.");
     }
 
+    /**
+     * Migrates all assets off of one assetstore to another, with a pool of worker threads.
+     * See {@link BitstreamStorageService#migrate(Context, Integer, Integer, boolean, int, int,
+     * DSpaceRunnableHandler)}
+     */
+    @Override
+    public void migrate(Context context, Integer assetstoreSource, Integer assetstoreDestination, boolean deleteOld,
+                        int workers, int queueSize, DSpaceRunnableHandler handler) throws IOException, SQLException {
+        BitStoreService sourceStore = this.getStore(assetstoreSource);
+        BitStoreService destinationStore = this.getStore(assetstoreDestination);
+        MigrationProgress progress = new MigrationProgress();
+
+        // An interrupted run may have moved bitstreams without removing their source copy yet
+        if (deleteOld) {
+            for (BitstreamMigration migration : bitstreamMigrationDAO.findByStoresAndStatus(context,
+                    assetstoreSource, assetstoreDestination, BitstreamMigrationStatus.COPIED)) {
+                log.info("Removing bitstream:" + migration.getBitstream().getID() + " from assetstore["
+                             + assetstoreSource + "], left over by a previous migration");
+                sourceStore.remove(migration.getBitstream());
+                saveCheckpoint(context, migration.getBitstream(), assetstoreSource, assetstoreDestination,
+                               BitstreamMigrationStatus.COMPLETED, null);
+            }
+            context.commit();
+        }
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueSize), new BasicThreadFactory.Builder()
+                .namingPattern("bitstore-migrate-%d")
+                .build());
+        // Bounds the queued bitstreams: the iteration waits for a free slot instead of being rejected
+        Semaphore slots = new Semaphore(workers + queueSize);
+        long lastReport = System.currentTimeMillis();
+
+        try {
+            Iterator<Bitstream> allBitstreamsInSource = bitstreamService.findByStoreNumber(context, assetstoreSource);
+            while (allBitstreamsInSource.hasNext()) {
+                Bitstream bitstream = allBitstreamsInSource.next();
+                UUID bitstreamId = bitstream.getID();
+                context.uncacheEntity(bitstream);
+
+                slots.acquire();
+                executor.execute(() -> {
+                    try {
+                        migrateBitstream(bitstreamId, assetstoreSource, assetstoreDestination, deleteOld, progress);
+                    } finally {
+                        slots.release();
+                    }
+                });
+
+                if (System.currentTimeMillis() - lastReport > MIGRATION_REPORT_INTERVAL) {
+                    reportMigrationProgress(handler, progress);
+                    lastReport = System.currentTimeMillis();
+                }
+            }
+            executor.shutdown();
+            while (!executor.awaitTermination(MIGRATION_REPORT_INTERVAL, TimeUnit.MILLISECONDS)) {
+                reportMigrationProgress(handler, progress);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Assetstore migration interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        reportMigrationProgress(handler, progress);
+        long failed = bitstreamMigrationDAO.countByStoresAndStatus(context, assetstoreSource, assetstoreDestination,
+                                                                   BitstreamMigrationStatus.FAILED);
+        logMigration(handler, "Assetstore Migration from assetstore[" + assetstoreSource + "] to assetstore["
+            + assetstoreDestination + "] completed. " + progress.migrated + " objects were transferred, "
+            + progress.failed + " failed. " + failed + " failed objects are left in assetstore["
+            + assetstoreSource + "] and will be retried by the next run.");
+    }
+
+    /**
+     * Migrate a single bitstream in its own Context: copy it to the destination store, check the copy against
+     * the recorded checksum, move the bitstream to the destination store and remove the source copy if requested.
+     * Each step is recorded in the bitstream_migration checkpoint table.
+     */
+    protected void migrateBitstream(UUID bitstreamId, Integer assetstoreSource, Integer assetstoreDestination,
+                                    boolean deleteOld, MigrationProgress progress) {
+        Context context = new Context(Context.Mode.BATCH_EDIT);
+        context.turnOffAuthorisationSystem();
+        try {
+            Bitstream bitstream = bitstreamService.find(context, bitstreamId);
+            if (bitstream == null || !Objects.equals(bitstream.getStoreNumber(), assetstoreSource)) {
+                // already migrated or removed since the iteration started
+                return;
+            }
+            log.info("Copying bitstream:" + bitstream.getID() + " from assetstore[" + assetstoreSource
+                         + "] to assetstore[" + assetstoreDestination + "] Name:" + bitstream.getName()
+                         + ", SizeBytes:" + bitstream.getSizeBytes());
+
+            String expectedChecksum = bitstream.getChecksum();
+            String expectedChecksumAlgorithm = bitstream.getChecksumAlgorithm();
+            long expectedSize = bitstream.getSizeBytes();
+
+            BitStoreService destinationStore = this.getStore(assetstoreDestination);
+            //For efficiencies sake, PUT is responsible for setting bitstream size_bytes, checksum, and
+            // checksum_algorithm
+            try (InputStream inputStream = this.getStore(assetstoreSource).get(bitstream)) {
+                destinationStore.put(bitstream, inputStream);
+            }
+
+            String mismatch = verifyMigratedCopy(destinationStore, bitstream, expectedChecksum,
+                                                 expectedChecksumAlgorithm, expectedSize);
+            if (mismatch != null) {
+                bitstream.setChecksum(expectedChecksum);
+                bitstream.setChecksumAlgorithm(expectedChecksumAlgorithm);
+                bitstream.setSizeBytes(expectedSize);
+                destinationStore.remove(bitstream);
+                saveCheckpoint(context, bitstream, assetstoreSource, assetstoreDestination,
+                               BitstreamMigrationStatus.FAILED, mismatch);
+                context.commit();
+                progress.failure("Bitstream:" + bitstreamId + " not migrated: " + mismatch);
+                return;
+            }
+
+            bitstream.setStoreNumber(assetstoreDestination);
+            bitstreamService.update(context, bitstream);
+            saveCheckpoint(context, bitstream, assetstoreSource, assetstoreDestination,
+                           deleteOld ? BitstreamMigrationStatus.COPIED : BitstreamMigrationStatus.COMPLETED, null);
+            context.commit();
+
+            if (deleteOld) {
+                log.info("Removing bitstream:" + bitstream.getID() + " from assetstore[" + assetstoreSource + "]");
+                this.getStore(assetstoreSource).remove(bitstream);
+                saveCheckpoint(context, bitstream, assetstoreSource, assetstoreDestination,
+                               BitstreamMigrationStatus.COMPLETED, null);
+                context.commit();
+            }
+            progress.success(bitstream.getSizeBytes());
+        } catch (IOException | SQLException | AuthorizeException | RuntimeException e) {
+            log.error("Unable to migrate bitstream:" + bitstreamId + " from assetstore[" + assetstoreSource
+                          + "] to assetstore[" + assetstoreDestination + "]", e);
+            progress.failure("Bitstream:" + bitstreamId + " not migrated: " + e.getMessage());
+            recordMigrationFailure(context, bitstreamId, assetstoreSource, assetstoreDestination, e.getMessage());
+        } finally {
+            context.restoreAuthSystemState();
+            context.abort();
+        }
+    }
+
+    /**
+     * Read the copy back from the destination store, and compare its size and checksum with the ones recorded
+     * before the migration.
+     *
+     * @return null if the stored copy matches the size and checksum recorded before the migration, otherwise a
+     * description of the mismatch
+     * @throws IOException if the copy cannot be read from the destination store
+     */
+    protected String verifyMigratedCopy(BitStoreService destinationStore, Bitstream bitstream,
+                                        String expectedChecksum, String expectedChecksumAlgorithm,
+                                        long expectedSize) throws IOException {
+        MessageDigest digest = null;
+        if (StringUtils.isNotBlank(expectedChecksum) && StringUtils.isNotBlank(expectedChecksumAlgorithm)) {
+            try {
+                digest = MessageDigest.getInstance(expectedChecksumAlgorithm);
+            } catch (NoSuchAlgorithmException e) {
+                log.warn("Unable to verify the checksum of bitstream:" + bitstream.getID()
+                             + ", unknown algorithm " + expectedChecksumAlgorithm);
+            }
+        }
+        long size = 0;
+        byte[] buffer = new byte[8192];
+        try (InputStream in = destinationStore.get(bitstream)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                size += read;
+                if (digest != null) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        }
+        if (size != expectedSize) {
+            return "size mismatch, expected " + expectedSize + " but copied " + size;
+        }
+        if (digest != null) {
+            String checksum = Utils.toHex(digest.digest());
+            if (!StringUtils.equalsIgnoreCase(expectedChecksum, checksum)) {
+                return "checksum mismatch, expected " + expectedChecksum + " but copied " + checksum;
+            }
+        }
+        return null;
+    }
+
+    private void recordMigrationFailure(Context context, UUID bitstreamId, Integer assetstoreSource,
+                                        Integer assetstoreDestination, String message) {
+        try {
+            context.rollback();
+            Bitstream bitstream = bitstreamService.find(context, bitstreamId);
+            if (bitstream == null) {
+                return;
+            }
+            BitstreamMigration migration = bitstreamMigrationDAO.findByBitstream(context, bitstream);
+            // a bitstream already moved to the destination only failed the removal of its source copy
+            if (migration == null || migration.getStatus() != BitstreamMigrationStatus.COPIED) {
+                saveCheckpoint(context, bitstream, assetstoreSource, assetstoreDestination,
+                               BitstreamMigrationStatus.FAILED, message);
+                context.commit();
+            }
+        } catch (SQLException | RuntimeException e) {
+            log.error("Unable to record the migration failure of bitstream:" + bitstreamId, e);
+        }
+    }
+
+    private void saveCheckpoint(Context context, Bitstream bitstream, Integer assetstoreSource,
+                                Integer assetstoreDestination, BitstreamMigrationStatus status, String message)
+        throws SQLException {
+        BitstreamMigration migration = bitstreamMigrationDAO.findByBitstream(context, bitstream);
+        boolean created = migration == null;
+        if (created) {
+            migration = new BitstreamMigration(bitstream);
+        }
+        migration.setSourceStore(assetstoreSource);
+        migration.setDestinationStore(assetstoreDestination);
+        migration.setStatus(status);
+        migration.setMessage(message);
+        migration.setLastModified(new Date());
+        if (created) {
+            bitstreamMigrationDAO.create(context, migration);
+        } else {
+            bitstreamMigrationDAO.save(context, migration);
+        }
+    }
+
+    private void reportMigrationProgress(DSpaceRunnableHandler handler, MigrationProgress progress) {
+        String failure;
+        while ((failure = progress.failures.poll()) != null) {
+            if (handler != null) {
+                handler.logWarning(failure);
+            } else {
+                log.warn(failure);
+            }
+        }
+        double seconds = Math.max(System.currentTimeMillis() - progress.start, 1) / 1000d;
+        logMigration(handler, String.format("Migrated %d objects (%.1f MB) in %.0f s: %.1f objects/s, %.2f MB/s, "
+                                                + "%d failed", progress.migrated.get(),
+                                            progress.bytes.get() / 1048576d, seconds,
+                                            progress.migrated.get() / seconds,
+                                            progress.bytes.get() / 1048576d / seconds, progress.failed.get()));
+    }
+
+    private void logMigration(DSpaceRunnableHandler handler, String message) {
+        if (handler != null) {
+            handler.logInfo(message);
+        } else {
+            log.info(message);
+        }
+    }
+
+    /**
+     * Counters of a running assetstore migration, updated by the worker threads
+     */
+    protected static class MigrationProgress {
+        private final long start = System.currentTimeMillis();
+        private final AtomicLong migrated = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+        private final Queue<String> failures = new ConcurrentLinkedQueue<>();
+
+        protected void success(long sizeBytes) {
+            migrated.incrementAndGet();
+            bytes.addAndGet(sizeBytes);
+        }
+
+        protected void failure(String message) {
+            failed.incrementAndGet();
+            failures.add(message);
+        }
+    }
+
     @Override
     public void printStores(Context context) {
         try {
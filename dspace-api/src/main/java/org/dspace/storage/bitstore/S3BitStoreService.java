@@ -20,6 +20,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Executors;
 import java.util.function.Supplier;
 import javax.validation.constraints.NotNull;
 
@@ -34,6 +35,7 @@ import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.transfer.Download;
 import com.amazonaws.services.s3.transfer.TransferManager;
 import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
@@ -46,6 +48,7 @@ import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 import org.apache.commons.io.output.NullOutputStream;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.http.HttpStatus;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -82,6 +85,11 @@ public class S3BitStoreService extends BaseBitStoreService {
      */
     static final String CSA = "MD5";
 
+    /**
+     * Name of the S3 user metadata holding the checksum computed at put() time
+     */
+    static final String CHECKSUM_METADATA = "dspace-checksum-md5";
+
     // These settings control the way an identifier is hashed into
     // directory and file names
     //
@@ -102,6 +110,40 @@ public class S3BitStoreService extends BaseBitStoreService {
     private String awsRegionName;
     private boolean useRelativePath;
 
+    /**
+     * When true, get() returns the S3 object stream directly instead of downloading
+     * the whole object to a temporary file first
+     */
+    private boolean streamingGet = false;
+
+    /**
+     * When true, put() uploads the incoming stream in parts directly from memory
+     * instead of copying it to a scratch file first
+     */
+    private boolean streamingPut = false;
+
+    /**
+     * Size in bytes of each part of a streaming put
+     */
+    private int streamingPutPartSize = 16 * 1024 * 1024;
+
+    /**
+     * Number of threads uploading parts of streaming puts, which is also the maximum
+     * number of parts of a single upload held in memory while waiting to be sent
+     */
+    private int streamingPutThreads = 4;
+
+    /**
+     * When true, put() stores the computed checksum as S3 user metadata of the object
+     */
+    private boolean checksumMetadata = false;
+
+    /**
+     * When true, about() always downloads and hashes the object to compute its checksum,
+     * ignoring any checksum stored as user metadata
+     */
+    private boolean checksumDeepVerify = false;
+
     /**
      * container for all the assets
      */
@@ -123,6 +165,11 @@ public class S3BitStoreService extends BaseBitStoreService {
      */
     private TransferManager tm = null;
 
+    /**
+     * S3 multipart uploader used by streaming puts
+     */
+    private S3MultipartUploader multipartUploader = null;
+
     private static final ConfigurationService configurationService
             = DSpaceServicesFactory.getInstance().getConfigurationService();
 
@@ -231,6 +278,16 @@ public class S3BitStoreService extends BaseBitStoreService {
                                                                .withAlwaysCalculateMultipartMd5(true)
                                                                .withS3Client(s3Service)
                                                                .build());
+
+        if (streamingPut) {
+            multipartUploader = FunctionalUtils.getDefaultOrBuild(multipartUploader, () -> new S3MultipartUploader(
+                s3Service,
+                Executors.newFixedThreadPool(streamingPutThreads, new BasicThreadFactory.Builder()
+                    .namingPattern("s3-upload-%d")
+                    .daemon(true)
+                    .build()),
+                streamingPutPartSize, streamingPutThreads));
+        }
     }
 
     /**
@@ -247,6 +304,10 @@ public class S3BitStoreService extends BaseBitStoreService {
      * Retrieve the bits for the asset with ID. If the asset does not
      * exist, returns null.
      *
+     * When streaming get is enabled the returned stream reads the S3 object directly, and a skip
+     * before the first read is turned into a ranged GET, see {@link S3RangeInputStream}.
+     * Otherwise the object is first downloaded to a temporary file.
+     *
      * @param bitstream The ID of the asset to retrieve
      * @return The stream of bits, or null
      * @throws java.io.IOException If a problem occurs while retrieving the bits
@@ -258,6 +319,10 @@ public class S3BitStoreService extends BaseBitStoreService {
         if (isRegisteredBitstream(key)) {
             key = key.substring(REGISTERED_FLAG.length());
         }
+        if (streamingGet) {
+            long size = bitstream.getSizeBytes() > 0 ? bitstream.getSizeBytes() : -1;
+            return new S3RangeInputStream(s3Service, bucketName, key, size);
+        }
         try {
             File tempFile = File.createTempFile("s3-disk-copy-" + UUID.randomUUID(), "temp");
             tempFile.deleteOnExit();
@@ -282,12 +347,19 @@ public class S3BitStoreService extends BaseBitStoreService {
      * If an exception is thrown, the bits have not been stored.
      * </p>
      *
+     * When streaming put is enabled the stream is uploaded in parts straight from memory,
+     * see {@link S3MultipartUploader}. Otherwise it is first copied to a scratch file.
+     *
      * @param in The stream of bits to store
      * @throws java.io.IOException If a problem occurs while storing the bits
      */
     @Override
     public void put(Bitstream bitstream, InputStream in) throws IOException {
         String key = getFullKey(bitstream.getInternalId());
+        if (streamingPut) {
+            putStreaming(bitstream, key, in);
+            return;
+        }
         //Copy istream to temp file, and send the file, with some metadata
         File scratchFile = File.createTempFile(bitstream.getInternalId(), "s3bs");
         try (
@@ -298,14 +370,22 @@ public class S3BitStoreService extends BaseBitStoreService {
             Utils.bufferedCopy(dis, fos);
             in.close();
 
-            Upload upload = tm.upload(bucketName, key, scratchFile);
+            // we cannot use the S3 ETAG here as it could be not a MD5 in case of multipart upload (large files) or if
+            // the bucket is encrypted
+            String checksum = Utils.toHex(dis.getMessageDigest().digest());
+
+            PutObjectRequest putObjectRequest = new PutObjectRequest(bucketName, key, scratchFile);
+            if (checksumMetadata) {
+                ObjectMetadata objectMetadata = new ObjectMetadata();
+                objectMetadata.addUserMetadata(CHECKSUM_METADATA, checksum);
+                putObjectRequest.setMetadata(objectMetadata);
+            }
+            Upload upload = tm.upload(putObjectRequest);
 
             upload.waitForUploadResult();
 
             bitstream.setSizeBytes(scratchFile.length());
-            // we cannot use the S3 ETAG here as it could be not a MD5 in case of multipart upload (large files) or if
-            // the bucket is encrypted
-            bitstream.setChecksum(Utils.toHex(dis.getMessageDigest().digest()));
+            bitstream.setChecksum(checksum);
             bitstream.setChecksumAlgorithm(CSA);
 
         } catch (AmazonClientException | IOException | InterruptedException e) {
@@ -321,11 +401,42 @@ public class S3BitStoreService extends BaseBitStoreService {
         }
     }
 
+    /**
+     * Store a stream of bits without a local scratch file, computing its MD5 while it is uploaded.
+     *
+     * @param bitstream The bitstream to store
+     * @param key       The S3 key of the object
+     * @param in        The stream of bits to store
+     * @throws java.io.IOException If a problem occurs while storing the bits
+     */
+    protected void putStreaming(Bitstream bitstream, String key, InputStream in) throws IOException {
+        try (DigestInputStream dis = new DigestInputStream(in, MessageDigest.getInstance(CSA))) {
+            // the digest is complete, and can be read only once, when the uploader reaches the end of the stream
+            String[] checksum = new String[1];
+            Supplier<Map<String, String>> userMetadata = () -> {
+                checksum[0] = Utils.toHex(dis.getMessageDigest().digest());
+                return checksumMetadata ? Map.of(CHECKSUM_METADATA, checksum[0]) : Map.of();
+            };
+            long size = multipartUploader.upload(bucketName, key, dis, userMetadata);
+
+            bitstream.setSizeBytes(size);
+            bitstream.setChecksum(checksum[0]);
+            bitstream.setChecksumAlgorithm(CSA);
+        } catch (IOException e) {
+            log.error("put(" + bitstream.getInternalId() + ", is)", e);
+            throw e;
+        } catch (NoSuchAlgorithmException nsae) {
+            // Should never happen
+            log.warn("Caught NoSuchAlgorithmException", nsae);
+        }
+    }
+
     /**
      * Obtain technical metadata about an asset in the asset store.
      *
-     * Checksum used is (ETag) hex encoded 128-bit MD5 digest of an object's content as calculated by Amazon S3
-     * (Does not use getContentMD5, as that is 128-bit MD5 digest calculated on caller's side)
+     * Checksum used is the hex encoded 128-bit MD5 digest stored as user metadata of the object at put() time,
+     * when present. Otherwise, or when deep verification is enabled, the object is downloaded and hashed.
+     * (The ETag is not used, as it is not an MD5 digest for multipart uploads or encrypted buckets)
      *
      * @param bitstream The asset to describe
      * @param attrs     A List of desired metadata fields
@@ -348,14 +459,18 @@ public class S3BitStoreService extends BaseBitStoreService {
         try {
 
             ObjectMetadata objectMetadata = s3Service.getObjectMetadata(bucketName, key);
+            String storedChecksum = null;
             if (objectMetadata != null) {
                 putValueIfExistsKey(attrs, metadata, "size_bytes", objectMetadata.getContentLength());
                 putValueIfExistsKey(attrs, metadata, "modified", valueOf(objectMetadata.getLastModified().getTime()));
+                storedChecksum = objectMetadata.getUserMetaDataOf(CHECKSUM_METADATA);
             }
 
             putValueIfExistsKey(attrs, metadata, "checksum_algorithm", CSA);
 
-            if (attrs.contains("checksum")) {
+            if (attrs.contains("checksum") && !checksumDeepVerify && StringUtils.isNotBlank(storedChecksum)) {
+                metadata.put("checksum", storedChecksum);
+            } else if (attrs.contains("checksum")) {
                 try (InputStream in = get(bitstream);
                      DigestInputStream dis = new DigestInputStream(in, MessageDigest.getInstance(CSA))
                 ) {
@@ -504,6 +619,54 @@ public class S3BitStoreService extends BaseBitStoreService {
         this.useRelativePath = useRelativePath;
     }
 
+    public boolean isStreamingGet() {
+        return streamingGet;
+    }
+
+    public void setStreamingGet(boolean streamingGet) {
+        this.streamingGet = streamingGet;
+    }
+
+    public boolean isStreamingPut() {
+        return streamingPut;
+    }
+
+    public void setStreamingPut(boolean streamingPut) {
+        this.streamingPut = streamingPut;
+    }
+
+    public int getStreamingPutPartSize() {
+        return streamingPutPartSize;
+    }
+
+    public void setStreamingPutPartSize(int streamingPutPartSize) {
+        this.streamingPutPartSize = streamingPutPartSize;
+    }
+
+    public int getStreamingPutThreads() {
+        return streamingPutThreads;
+    }
+
+    public void setStreamingPutThreads(int streamingPutThreads) {
+        this.streamingPutThreads = streamingPutThreads;
+    }
+
+    public boolean isChecksumMetadata() {
+        return checksumMetadata;
+    }
+
+    public void setChecksumMetadata(boolean checksumMetadata) {
+        this.checksumMetadata = checksumMetadata;
+    }
+
+    public boolean isChecksumDeepVerify() {
+        return checksumDeepVerify;
+    }
+
+    public void setChecksumDeepVerify(boolean checksumDeepVerify) {
+        this.checksumDeepVerify = checksumDeepVerify;
+    }
+
     /**
      * Contains a command-line testing tool. Expects arguments:
      * -a accessKey -s secretKey -f assetFileName
@@ -0,0 +1,229 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.storage.bitstore;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import org.apache.commons.io.IOUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Uploads a stream of unknown length to S3 without copying it to local disk first.
+ * The stream is read in fixed-size parts which are uploaded in parallel with the S3 multipart
+ * API. Part buffers come from a fixed pool, so at most {@code maxPartsInFlight + 1} parts are
+ * held in memory for a single upload: reading blocks until an uploaded part frees its buffer.
+ * Streams shorter than one part are sent with a single PUT request.
+ */
+public class S3MultipartUploader {
+
+    private static final Logger log = LogManager.getLogger(S3MultipartUploader.class);
+
+    /**
+     * Minimum part size accepted by S3 (except for the last part)
+     */
+    public static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    /**
+     * Maximum size of an object that S3 can copy in a single request
+     */
+    public static final long MAX_COPY_SIZE = 5L * 1024 * 1024 * 1024;
+
+    private final AmazonS3 s3Service;
+    private final ExecutorService executor;
+    private final int partSize;
+    private final int maxPartsInFlight;
+
+    /**
+     * @param s3Service        the S3 client
+     * @param executor         executor running the part uploads
+     * @param partSize         size in bytes of each part, at least {@link #MIN_PART_SIZE}
+     * @param maxPartsInFlight maximum number of parts being uploaded at the same time for one upload
+     */
+    public S3MultipartUploader(AmazonS3 s3Service, ExecutorService executor, int partSize, int maxPartsInFlight) {
+        this.s3Service = s3Service;
+        this.executor = executor;
+        this.partSize = Math.max(partSize, MIN_PART_SIZE);
+        this.maxPartsInFlight = Math.max(maxPartsInFlight, 1);
+    }
+
+    /**
+     * Upload the content of the given stream, up to its end, as the object with the given key.
+     * The stream is not closed.
+     *
+     * @param bucketName bucket to store the object in
+     * @param key        key of the object
+     * @param in         the stream of bits to store
+     * @return the number of bytes uploaded
+     * @throws IOException if reading the stream or uploading to S3 fails. In that case any
+     *                     started multipart upload is aborted.
+     */
+    public long upload(String bucketName, String key, InputStream in) throws IOException {
+        return upload(bucketName, key, in, null);
+    }
+
+    /**
+     * Upload the content of the given stream, up to its end, as the object with the given key,
+     * with user metadata computed once the stream has been fully read (e.g. its checksum).
+     * S3 only accepts metadata when a multipart upload is initiated, so for multipart uploads it
+     * is added afterwards with a server-side copy of the object onto itself. S3 cannot copy
+     * objects larger than {@link #MAX_COPY_SIZE} in one request: those are left without it.
+     * The stream is not closed.
+     *
+     * @param bucketName   bucket to store the object in
+     * @param key          key of the object
+     * @param in           the stream of bits to store
+     * @param userMetadata supplier of the user metadata, called after the end of the stream
+     *                     has been reached. May be null. When it supplies no metadata, none is
+     *                     added to the object.
+     * @return the number of bytes uploaded
+     * @throws IOException if reading the stream or uploading to S3 fails. In that case any
+     *                     started multipart upload is aborted.
+     */
+    public long upload(String bucketName, String key, InputStream in, Supplier<Map<String, String>> userMetadata)
+        throws IOException {
+        byte[] buffer = new byte[partSize];
+        int read = IOUtils.read(in, buffer);
+        if (read < partSize) {
+            ObjectMetadata objectMetadata = new ObjectMetadata();
+            objectMetadata.setContentLength(read);
+            Map<String, String> metadata = userMetadata != null ? userMetadata.get() : null;
+            if (metadata != null && !metadata.isEmpty()) {
+                objectMetadata.setUserMetadata(metadata);
+            }
+            try {
+                s3Service.putObject(bucketName, key, new ByteArrayInputStream(buffer, 0, read), objectMetadata);
+            } catch (AmazonClientException e) {
+                throw new IOException(e);
+            }
+            return read;
+        }
+
+        String uploadId;
+        try {
+            uploadId = s3Service.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucketName, key))
+                                .getUploadId();
+        } catch (AmazonClientException e) {
+            throw new IOException(e);
+        }
+
+        BlockingQueue<byte[]> bufferPool = new ArrayBlockingQueue<>(maxPartsInFlight + 1);
+        List<Future<PartETag>> parts = new ArrayList<>();
+        long total = 0;
+        try {
+            while (read > 0) {
+                checkFailedParts(parts);
+                parts.add(submitPart(bucketName, key, uploadId, parts.size() + 1, buffer, read, bufferPool));
+                total += read;
+
+                buffer = bufferPool.poll();
+                if (buffer == null) {
+                    buffer = parts.size() <= maxPartsInFlight ? new byte[partSize] : bufferPool.take();
+                }
+                read = IOUtils.read(in, buffer);
+            }
+
+            List<PartETag> partETags = new ArrayList<>(parts.size());
+            for (Future<PartETag> part : parts) {
+                partETags.add(part.get());
+            }
+            s3Service.completeMultipartUpload(
+                new CompleteMultipartUploadRequest(bucketName, key, uploadId, partETags));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(bucketName, key, uploadId, parts);
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            abort(bucketName, key, uploadId, parts);
+            throw new IOException(e.getCause());
+        } catch (AmazonClientException | IOException e) {
+            abort(bucketName, key, uploadId, parts);
+            throw e instanceof IOException ? (IOException) e : new IOException(e);
+        }
+
+        Map<String, String> metadata = userMetadata != null ? userMetadata.get() : null;
+        if (metadata != null && !metadata.isEmpty()) {
+            addUserMetadata(bucketName, key, total, metadata);
+        }
+        return total;
+    }
+
+    private void addUserMetadata(String bucketName, String key, long size, Map<String, String> userMetadata)
+        throws IOException {
+        if (size > MAX_COPY_SIZE) {
+            log.warn("Object " + key + " is too large to add user metadata after a multipart upload");
+            return;
+        }
+        ObjectMetadata objectMetadata = new ObjectMetadata();
+        objectMetadata.setUserMetadata(userMetadata);
+        try {
+            s3Service.copyObject(new CopyObjectRequest(bucketName, key, bucketName, key)
+                                     .withNewObjectMetadata(objectMetadata));
+        } catch (AmazonClientException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private Future<PartETag> submitPart(String bucketName, String key, String uploadId, int partNumber,
+                                        byte[] data, int length, BlockingQueue<byte[]> bufferPool) {
+        return executor.submit(() -> {
+            try {
+                UploadPartRequest uploadPartRequest = new UploadPartRequest()
+                    .withBucketName(bucketName)
+                    .withKey(key)
+                    .withUploadId(uploadId)
+                    .withPartNumber(partNumber)
+                    .withPartSize(length)
+                    .withInputStream(new ByteArrayInputStream(data, 0, length));
+                return s3Service.uploadPart(uploadPartRequest).getPartETag();
+            } finally {
+                bufferPool.offer(data);
+            }
+        });
+    }
+
+    /**
+     * Fail fast: stop reading the source stream as soon as an uploaded part has failed.
+     */
+    private void checkFailedParts(List<Future<PartETag>> parts) throws ExecutionException, InterruptedException {
+        for (Future<PartETag> part : parts) {
+            if (part.isDone()) {
+                part.get();
+            }
+        }
+    }
+
+    private void abort(String bucketName, String key, String uploadId, List<Future<PartETag>> parts) {
+        parts.forEach(part -> part.cancel(true));
+        try {
+            s3Service.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName, key, uploadId));
+        } catch (AmazonClientException e) {
+            log.warn("Unable to abort multipart upload " + uploadId + " of " + key, e);
+        }
+    }
+}
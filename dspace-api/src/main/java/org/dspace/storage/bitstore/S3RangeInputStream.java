@@ -0,0 +1,164 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.storage.bitstore;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.S3ObjectInputStream;
+
+/**
+ * InputStream reading an S3 object directly from the S3 response, without a local copy.
+ * The GET request is only sent on the first read, starting from the current position, so a
+ * {@link #skip(long)} issued before reading (as done by Spring when serving an HTTP Range
+ * request) is turned into a ranged GET and the skipped bytes are never downloaded.
+ */
+public class S3RangeInputStream extends InputStream {
+
+    /**
+     * Forward skips larger than this on an already opened stream re-issue the GET from the new
+     * position instead of reading through the skipped bytes.
+     */
+    protected static final long REOPEN_SKIP_THRESHOLD = 1024 * 1024;
+
+    private final AmazonS3 s3Service;
+    private final String bucketName;
+    private final String key;
+    private final long size;
+
+    private S3ObjectInputStream delegate = null;
+    private long position = 0;
+    private boolean closed = false;
+
+    /**
+     * @param s3Service  the S3 client
+     * @param bucketName bucket holding the object
+     * @param key        key of the object
+     * @param size       size of the object in bytes, or a negative value if unknown
+     */
+    public S3RangeInputStream(AmazonS3 s3Service, String bucketName, String key, long size) {
+        this.s3Service = s3Service;
+        this.bucketName = bucketName;
+        this.key = key;
+        this.size = size;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (isAtEnd()) {
+            return -1;
+        }
+        int b = open().read();
+        if (b >= 0) {
+            position++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (isAtEnd()) {
+            return -1;
+        }
+        int read = open().read(b, off, len);
+        if (read > 0) {
+            position += read;
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        ensureOpen();
+        if (n <= 0) {
+            return 0;
+        }
+        long skippable = size >= 0 ? Math.min(n, size - position) : n;
+        if (skippable <= 0) {
+            return 0;
+        }
+        if (delegate != null && skippable <= REOPEN_SKIP_THRESHOLD) {
+            long skipped = delegate.skip(skippable);
+            position += skipped;
+            return skipped;
+        }
+        release();
+        position += skippable;
+        return skippable;
+    }
+
+    @Override
+    public int available() throws IOException {
+        ensureOpen();
+        return delegate != null ? delegate.available() : 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            release();
+        }
+    }
+
+    /**
+     * @return the current offset in the S3 object
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    private boolean isAtEnd() throws IOException {
+        ensureOpen();
+        return size >= 0 && position >= size;
+    }
+
+    private InputStream open() throws IOException {
+        if (delegate == null) {
+            GetObjectRequest getObjectRequest = new GetObjectRequest(bucketName, key);
+            if (position > 0) {
+                getObjectRequest.setRange(position);
+            }
+            try {
+                delegate = s3Service.getObject(getObjectRequest).getObjectContent();
+            } catch (AmazonClientException e) {
+                throw new IOException(e);
+            }
+        }
+        return delegate;
+    }
+
+    /**
+     * Release the current S3 connection. When the object has not been fully read the connection
+     * is aborted, which is cheaper than draining the remaining bytes of a large object.
+     */
+    private void release() throws IOException {
+        if (delegate != null) {
+            try {
+                if (size < 0 || position < size) {
+                    delegate.abort();
+                }
+                delegate.close();
+            } finally {
+                delegate = null;
+            }
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.storage.bitstore.dao;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import org.dspace.content.Bitstream;
+import org.dspace.core.Context;
+import org.dspace.core.GenericDAO;
+import org.dspace.storage.bitstore.BitstreamMigration;
+import org.dspace.storage.bitstore.BitstreamMigrationStatus;
+
+/**
+ * Database Access Object interface class for the BitstreamMigration object.
+ * The implementation of this class is responsible for all database calls for the BitstreamMigration object and is
+ * autowired by spring
+ * This class should only be accessed from a single service and should never be exposed outside of the API
+ */
+public interface BitstreamMigrationDAO extends GenericDAO<BitstreamMigration> {
+
+    public BitstreamMigration findByBitstream(Context context, Bitstream bitstream) throws SQLException;
+
+    public List<BitstreamMigration> findByStoresAndStatus(Context context, Integer sourceStore,
+                                                          Integer destinationStore, BitstreamMigrationStatus status)
+        throws SQLException;
+
+    public long countByStoresAndStatus(Context context, Integer sourceStore, Integer destinationStore,
+                                       BitstreamMigrationStatus status) throws SQLException;
+}
@@ -0,0 +1,76 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.storage.bitstore.dao.impl;
+
+import java.sql.SQLException;
+import java.util.List;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+
+import org.dspace.content.Bitstream;
+import org.dspace.core.AbstractHibernateDAO;
+import org.dspace.core.Context;
+import org.dspace.storage.bitstore.BitstreamMigration;
+import org.dspace.storage.bitstore.BitstreamMigrationStatus;
+import org.dspace.storage.bitstore.BitstreamMigration_;
+import org.dspace.storage.bitstore.dao.BitstreamMigrationDAO;
+
+/**
+ * Hibernate implementation of the Database Access Object interface class for the BitstreamMigration object.
+ * This class is responsible for all database calls for the BitstreamMigration object and is autowired by spring
+ * This class should never be accessed directly.
+ */
+public class BitstreamMigrationDAOImpl extends AbstractHibernateDAO<BitstreamMigration>
+    implements BitstreamMigrationDAO {
+
+    protected BitstreamMigrationDAOImpl() {
+        super();
+    }
+
+    @Override
+    public BitstreamMigration findByBitstream(Context context, Bitstream bitstream) throws SQLException {
+        CriteriaBuilder criteriaBuilder = getCriteriaBuilder(context);
+        CriteriaQuery<BitstreamMigration> criteriaQuery = getCriteriaQuery(criteriaBuilder, BitstreamMigration.class);
+        Root<BitstreamMigration> bitstreamMigrationRoot = criteriaQuery.from(BitstreamMigration.class);
+        criteriaQuery.select(bitstreamMigrationRoot);
+        criteriaQuery.where(criteriaBuilder.equal(bitstreamMigrationRoot.get(BitstreamMigration_.bitstream),
+                                                  bitstream));
+        return singleResult(context, criteriaQuery);
+    }
+
+    @Override
+    public List<BitstreamMigration> findByStoresAndStatus(Context context, Integer sourceStore,
+                                                          Integer destinationStore, BitstreamMigrationStatus status)
+        throws SQLException {
+        CriteriaBuilder criteriaBuilder = getCriteriaBuilder(context);
+        CriteriaQuery<BitstreamMigration> criteriaQuery = getCriteriaQuery(criteriaBuilder, BitstreamMigration.class);
+        Root<BitstreamMigration> bitstreamMigrationRoot = criteriaQuery.from(BitstreamMigration.class);
+        criteriaQuery.select(bitstreamMigrationRoot);
+        criteriaQuery.where(criteriaBuilder.and(
+            criteriaBuilder.equal(bitstreamMigrationRoot.get(BitstreamMigration_.sourceStore), sourceStore),
+            criteriaBuilder.equal(bitstreamMigrationRoot.get(BitstreamMigration_.destinationStore), destinationStore),
+            criteriaBuilder.equal(bitstreamMigrationRoot.get(BitstreamMigration_.status), status)
+        ));
+        return list(context, criteriaQuery, false, BitstreamMigration.class, -1, -1);
+    }
+
+    @Override
+    public long countByStoresAndStatus(Context context, Integer sourceStore, Integer destinationStore,
+                                       BitstreamMigrationStatus status) throws SQLException {
+        CriteriaBuilder criteriaBuilder = getCriteriaBuilder(context);
+        CriteriaQuery<Long> criteriaQuery = criteriaBuilder.createQuery(Long.class);
+        Root<BitstreamMigration> bitstreamMigrationRoot = criteriaQuery.from(BitstreamMigration.class);
+        criteriaQuery.where(criteriaBuilder.and(
+            criteriaBuilder.equal(bitstreamMigrationRoot.get(BitstreamMigration_.sourceStore), sourceStore),
+            criteriaBuilder.equal(bitstreamMigrationRoot.get(BitstreamMigration_.destinationStore), destinationStore),
+            criteriaBuilder.equal(bitstreamMigrationRoot.get(BitstreamMigration_.status), status)
+        ));
+        return countLong(context, criteriaQuery, criteriaBuilder, bitstreamMigrationRoot);
+    }
+}
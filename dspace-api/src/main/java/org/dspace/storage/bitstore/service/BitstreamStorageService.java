@@ -17,6 +17,7 @@ import javax.annotation.Nullable;
 import org.dspace.authorize.AuthorizeException;
 import org.dspace.content.Bitstream;
 import org.dspace.core.Context;
+import org.dspace.scripts.handler.DSpaceRunnableHandler;
 
 /**
  * <P>
@@ -180,6 +181,26 @@ public interface BitstreamStorageService {
     public void migrate(Context context, Integer assetstoreSource, Integer assetstoreDestination, boolean deleteOld,
                         Integer batchCommitSize) throws IOException, SQLException, AuthorizeException;
 
+    /**
+     * Migrate all the assets from assetstoreSource to assetstoreDestination with a pool of worker threads.
+     * Each bitstream is migrated and committed by a worker in its own Context: its copy is checked against the
+     * recorded size and checksum before the bitstream is moved to the destination store. The progress of every
+     * bitstream is recorded in the bitstream_migration table, so an interrupted migration can be resumed by
+     * running it again. Bitstreams that failed are left in the source store and retried by the next run.
+     *
+     * @param context               The relevant DSpace Context, used to iterate the bitstreams to migrate.
+     * @param assetstoreSource      source assetstore
+     * @param assetstoreDestination destination assetstore
+     * @param deleteOld             whether to delete files from the source assetstore after migration
+     * @param workers               number of worker threads
+     * @param queueSize             maximum number of bitstreams waiting for a free worker
+     * @param handler               handler receiving the throughput reports, may be null to only log them
+     * @throws IOException  A general class of exceptions produced by failed or interrupted I/O operations.
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    public void migrate(Context context, Integer assetstoreSource, Integer assetstoreDestination, boolean deleteOld,
+                        int workers, int queueSize, DSpaceRunnableHandler handler) throws IOException, SQLException;
+
 
     /**
      * Gets the last modified timestamp of the the given bitstream's content, if known.
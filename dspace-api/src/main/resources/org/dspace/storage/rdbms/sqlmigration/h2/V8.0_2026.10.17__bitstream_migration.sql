@@ -0,0 +1,23 @@
+--
+-- The contents of this file are subject to the license and copyright
+-- detailed in the LICENSE and NOTICE files at the root of the source
+-- tree and available online at
+--
+-- http://www.dspace.org/license/
+--
+
+-----------------------------------------------------------------------------------
+-- Create checkpoint table for assetstore migrations (bitstore-migrate)
+-----------------------------------------------------------------------------------
+
+CREATE TABLE bitstream_migration
+(
+    bitstream_id        UUID NOT NULL PRIMARY KEY REFERENCES bitstream(uuid) ON DELETE CASCADE,
+    source_store        INTEGER NOT NULL,
+    destination_store   INTEGER NOT NULL,
+    status              VARCHAR(32) NOT NULL,
+    last_modified       TIMESTAMP NOT NULL,
+    message             CLOB
+);
+
+CREATE INDEX bitstream_migration_stores_idx ON bitstream_migration(source_store, destination_store, status);
@@ -0,0 +1,37 @@
+--
+-- The contents of this file are subject to the license and copyright
+-- detailed in the LICENSE and NOTICE files at the root of the source
+-- tree and available online at
+--
+-- http://www.dspace.org/license/
+--
+
+-----------------------------------------------------------------------------------
+-- Create outbox table for events of asynchronous consumers (AsyncDispatcher)
+-----------------------------------------------------------------------------------
+
+CREATE SEQUENCE event_outbox_id_seq;
+
+CREATE TABLE event_outbox
+(
+    id                  INTEGER NOT NULL,
+    consumer            VARCHAR(64) NOT NULL,
+    event_type          INTEGER NOT NULL,
+    subject_type        INTEGER NOT NULL,
+    subject_id          UUID,
+    object_type         INTEGER NOT NULL,
+    object_id           UUID,
+    detail              CLOB,
+    identifiers         CLOB,
+    transaction_id      VARCHAR(64),
+    dispatcher          INTEGER NOT NULL,
+    time_stamp          BIGINT NOT NULL,
+    created             TIMESTAMP NOT NULL,
+    attempts            INTEGER NOT NULL,
+    last_error          CLOB,
+    claimed_by          VARCHAR(64),
+    claimed_until       TIMESTAMP,
+    CONSTRAINT event_outbox_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX event_outbox_consumer_idx ON event_outbox(consumer, attempts, id);
@@ -0,0 +1,26 @@
+--
+-- The contents of this file are subject to the license and copyright
+-- detailed in the LICENSE and NOTICE files at the root of the source
+-- tree and available online at
+--
+-- http://www.dspace.org/license/
+--
+
+-----------------------------------------------------------------------------------
+-- Create table of all the groups of each EPerson (direct memberships and parent groups)
+-----------------------------------------------------------------------------------
+
+CREATE TABLE eperson2groupcache
+(
+    eperson_id          UUID NOT NULL REFERENCES eperson(uuid) ON DELETE CASCADE,
+    group_id            UUID NOT NULL REFERENCES epersongroup(uuid) ON DELETE CASCADE,
+    CONSTRAINT eperson2groupcache_pkey PRIMARY KEY (eperson_id, group_id)
+);
+
+CREATE INDEX eperson2groupcache_group_idx ON eperson2groupcache(group_id);
+
+INSERT INTO eperson2groupcache (eperson_id, group_id)
+SELECT eperson_id, eperson_group_id FROM epersongroup2eperson
+UNION
+SELECT m.eperson_id, c.parent_id FROM epersongroup2eperson m
+JOIN group2groupcache c ON c.child_id = m.eperson_group_id;
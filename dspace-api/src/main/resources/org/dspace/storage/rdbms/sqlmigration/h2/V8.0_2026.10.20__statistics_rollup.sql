@@ -0,0 +1,31 @@
+--
+-- The contents of this file are subject to the license and copyright
+-- detailed in the LICENSE and NOTICE files at the root of the source
+-- tree and available online at
+--
+-- http://www.dspace.org/license/
+--
+
+-----------------------------------------------------------------------------------
+-- Create table of the usage statistics rollups: daily views by object, country and city
+-----------------------------------------------------------------------------------
+
+CREATE SEQUENCE statistics_rollup_id_seq;
+
+CREATE TABLE statistics_rollup
+(
+    id                  INTEGER NOT NULL,
+    dso_id              UUID NOT NULL,
+    dso_type            INTEGER NOT NULL,
+    owning_item         UUID,
+    view_date           DATE NOT NULL,
+    country_code        VARCHAR(16) NOT NULL,
+    city                VARCHAR(256) NOT NULL,
+    views               BIGINT NOT NULL,
+    CONSTRAINT statistics_rollup_pkey PRIMARY KEY (id),
+    CONSTRAINT statistics_rollup_unique UNIQUE (dso_id, view_date, country_code, city)
+);
+
+CREATE INDEX statistics_rollup_owning_item_idx ON statistics_rollup(owning_item);
+CREATE INDEX statistics_rollup_dso_type_idx ON statistics_rollup(dso_type, dso_id);
+CREATE INDEX statistics_rollup_view_date_idx ON statistics_rollup(view_date);
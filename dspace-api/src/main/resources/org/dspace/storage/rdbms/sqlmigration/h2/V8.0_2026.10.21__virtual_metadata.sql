@@ -0,0 +1,26 @@
+--
+-- The contents of this file are subject to the license and copyright
+-- detailed in the LICENSE and NOTICE files at the root of the source
+-- tree and available online at
+--
+-- http://www.dspace.org/license/
+--
+
+-----------------------------------------------------------------------------------
+-- Create table of the stored virtual metadata of the Items, computed from their relationships
+-- The rows are removed when the Items are deleted, and may be inserted by a transaction which
+-- did not write the Item: there is no foreign key to the item table.
+-----------------------------------------------------------------------------------
+
+CREATE SEQUENCE virtual_metadata_id_seq;
+
+CREATE TABLE virtual_metadata
+(
+    id                  INTEGER NOT NULL,
+    item_id             UUID NOT NULL,
+    metadata            CLOB NOT NULL,
+    computed            TIMESTAMP NOT NULL,
+    CONSTRAINT virtual_metadata_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX virtual_metadata_item_idx ON virtual_metadata(item_id);
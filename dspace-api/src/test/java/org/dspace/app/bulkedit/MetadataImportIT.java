@@ -9,12 +9,14 @@ package org.dspace.app.bulkedit;
 
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertTrue;
+import static org.junit.Assert.assertFalse;
 
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.OutputStreamWriter;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.commons.cli.ParseException;
@@ -37,12 +39,22 @@ import org.dspace.content.Relationship;
 import org.dspace.content.factory.ContentServiceFactory;
 import org.dspace.content.service.ItemService;
 import org.dspace.content.service.RelationshipService;
+import org.dspace.discovery.DiscoverQuery;
+import org.dspace.discovery.SearchService;
+import org.dspace.discovery.SearchUtils;
+import org.dspace.discovery.indexobject.IndexableCollection;
 import org.dspace.eperson.factory.EPersonServiceFactory;
 import org.dspace.eperson.service.EPersonService;
+import org.dspace.event.ConsumerProfile;
+import org.dspace.event.Dispatcher;
+import org.dspace.event.factory.EventServiceFactory;
+import org.dspace.event.service.EventService;
 import org.dspace.scripts.DSpaceRunnable;
 import org.dspace.scripts.configuration.ScriptConfiguration;
 import org.dspace.scripts.factory.ScriptServiceFactory;
 import org.dspace.scripts.service.ScriptService;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -54,6 +66,9 @@ public class MetadataImportIT extends AbstractIntegrationTestWithDatabase {
             = EPersonServiceFactory.getInstance().getEPersonService();
     private final RelationshipService relationshipService
             = ContentServiceFactory.getInstance().getRelationshipService();
+    private final ConfigurationService configurationService
+            = DSpaceServicesFactory.getInstance().getConfigurationService();
+    private final SearchService searchService = SearchUtils.getSearchService();
 
     private Collection collection;
     private Collection publicationCollection;
@@ -93,6 +108,91 @@ public class MetadataImportIT extends AbstractIntegrationTestWithDatabase {
         context.restoreAuthSystemState();
     }
 
+    @Test
+    public void metadataImportIndexesItemsOnceCommittedTest() throws Exception {
+        String[] csv = new String[6];
+        csv[0] = "id,collection,dc.title,dc.subject";
+        for (int i = 1; i < csv.length; i++) {
+            csv[i] = "+," + collection.getHandle() + ",\"Deferred Import " + i + "\",deferredimport";
+        }
+        // the lines are parsed by several threads, and the changes committed every 2 lines
+        configurationService.setProperty("bulkedit.parse.threads", 4);
+        configurationService.setProperty("bulkedit.change.commit.count", 2);
+        try {
+            performImportScript(csv);
+        } finally {
+            configurationService.setProperty("bulkedit.parse.threads", 1);
+            configurationService.setProperty("bulkedit.change.commit.count", 100);
+        }
+
+        // the changes were dispatched to the consumers of the default dispatcher, except discovery, registered
+        // without changing the configuration
+        assertFalse(configurationService.hasProperty("event.dispatcher.bulkedit.consumers"));
+        EventService eventService = EventServiceFactory.getInstance().getEventService();
+        Dispatcher dispatcher = eventService.getDispatcher("bulkedit");
+        try {
+            List<String> consumers = new ArrayList<>();
+            for (Object consumer : dispatcher.getConsumers()) {
+                consumers.add(((ConsumerProfile) consumer).getName());
+            }
+            assertEquals(List.of("versioning", "eperson", "orcidqueue", "iiif"), consumers);
+        } finally {
+            eventService.returnDispatcher("bulkedit", dispatcher);
+        }
+
+        List<Item> importedItems = new ArrayList<>();
+        for (int i = 1; i < csv.length; i++) {
+            importedItems.add(findItemByName("Deferred Import " + i));
+        }
+        DiscoverQuery discoverQuery = new DiscoverQuery();
+        discoverQuery.addFilterQueries("subject:deferredimport");
+        List<Item> foundItems = IteratorUtils.toList(
+            searchService.iteratorSearch(context, new IndexableCollection(collection), discoverQuery));
+        assertEquals(importedItems.size(), foundItems.size());
+        assertTrue(foundItems.containsAll(importedItems));
+
+        context.turnOffAuthorisationSystem();
+        for (Item importedItem : importedItems) {
+            itemService.delete(context, itemService.find(context, importedItem.getID()));
+        }
+        context.restoreAuthSystemState();
+    }
+
+    @Test
+    public void metadataImportComparesLinesAheadTest() throws Exception {
+        context.turnOffAuthorisationSystem();
+        List<Item> items = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            items.add(ItemBuilder.createItem(context, collection)
+                                 .withTitle("Compared Import " + i)
+                                 .withSubject("comparedimport")
+                                 .build());
+        }
+        context.restoreAuthSystemState();
+
+        String[] csv = new String[items.size() + 1];
+        csv[0] = "id,collection,dc.title,dc.subject";
+        for (int i = 0; i < items.size(); i++) {
+            // every other line changes the subject of its item
+            csv[i + 1] = items.get(i).getID() + "," + collection.getHandle() + ",\"Compared Import " + (i + 1)
+                + "\"," + (i % 2 == 0 ? "comparedimport" : "changedimport");
+        }
+        // the lines are compared with their items by several threads, ahead of the import
+        configurationService.setProperty("bulkedit.compare.threads", 4);
+        try {
+            performImportScript(csv);
+        } finally {
+            configurationService.setProperty("bulkedit.compare.threads", 1);
+        }
+
+        for (int i = 0; i < items.size(); i++) {
+            Item item = itemService.find(context, items.get(i).getID());
+            assertEquals("Compared Import " + (i + 1), itemService.getMetadata(item, "dc.title"));
+            assertEquals(i % 2 == 0 ? "comparedimport" : "changedimport",
+                         itemService.getMetadata(item, "dc.subject"));
+        }
+    }
+
     @Test
     public void metadataImportIntoCollectionWithEntityTypeWithTemplateEnabledTest() throws Exception {
         String[] csv = {"id,collection,dc.title,dc.contributor.author",
@@ -0,0 +1,159 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.mediafilter;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.file.PathUtils;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.app.launcher.ScriptLauncher;
+import org.dspace.app.mediafilter.factory.MediaFilterServiceFactory;
+import org.dspace.app.scripts.handler.impl.TestDSpaceRunnableHandler;
+import org.dspace.builder.BitstreamBuilder;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Bundle;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.BitstreamService;
+import org.dspace.content.service.ItemService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration tests of the filter-media script, running the Text Extractor in worker threads.
+ */
+public class MediaFilterIT extends AbstractIntegrationTestWithDatabase {
+
+    private final ItemService itemService = ContentServiceFactory.getInstance().getItemService();
+    private final BitstreamService bitstreamService = ContentServiceFactory.getInstance().getBitstreamService();
+
+    private final List<Item> items = new ArrayList<>();
+    private Path tempDir;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        tempDir = Files.createTempDirectory("mediaFilterTest");
+
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).build();
+        Collection collection = CollectionBuilder.createCollection(context, parentCommunity).build();
+        for (int i = 0; i < 3; i++) {
+            Item item = ItemBuilder.createItem(context, collection).withTitle("Item " + i).build();
+            try (InputStream is = IOUtils.toInputStream("Text of item " + i, StandardCharsets.UTF_8)) {
+                BitstreamBuilder.createBitstream(context, item, is)
+                                .withName("item-" + i + ".txt")
+                                .withMimeType("text/plain")
+                                .build();
+            }
+            items.add(item);
+        }
+        context.restoreAuthSystemState();
+    }
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        PathUtils.deleteDirectory(tempDir);
+        super.destroy();
+    }
+
+    @Test
+    public void filterMediaWithWorkerThreads() throws Exception {
+        TestDSpaceRunnableHandler handler = runFilterMedia("-t", "4");
+
+        assertThat(handler.getErrorMessages(), empty());
+        assertThat(handler.getInfoMessages(), hasItem(startsWith("THROUGHPUT: 3 items filtered")));
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals("Text of item " + i, getExtractedText(context.reloadEntity(items.get(i))).trim());
+        }
+    }
+
+    @Test
+    public void filterMediaResumesFromCheckpoint() throws Exception {
+        File checkpoint = tempDir.resolve("checkpoint").toFile();
+
+        runFilterMedia("-c", checkpoint.getPath(), "-m", "2");
+        assertTrue(checkpoint.exists());
+        assertEquals(2, countFilteredItems());
+
+        TestDSpaceRunnableHandler handler = runFilterMedia("-c", checkpoint.getPath());
+        assertThat(handler.getErrorMessages(), empty());
+        // only the item after the checkpoint is filtered
+        assertThat(handler.getInfoMessages(), hasItem(startsWith("THROUGHPUT: 1 items filtered")));
+        assertFalse(checkpoint.exists());
+        assertEquals(3, countFilteredItems());
+    }
+
+    @Test
+    public void filterMediaAgainDoesNotKeepTheItems() throws Exception {
+        assertThat(runFilterMedia("-t", "4").getErrorMessages(), empty());
+
+        // the service keeps the configuration of the last run: filter the items again, with nothing left to do
+        MediaFilterServiceImpl mediaFilterService =
+            (MediaFilterServiceImpl) MediaFilterServiceFactory.getInstance().getMediaFilterService();
+        mediaFilterService.queueItems(context, List.of(context.reloadEntity(items.get(0))).iterator());
+        long cacheSize = context.getCacheSize();
+        mediaFilterService.queueItems(context, List.of(context.reloadEntity(items.get(1)),
+                                                       context.reloadEntity(items.get(2))).iterator());
+
+        // the items are completed at once, and removed from the session
+        assertTrue(mediaFilterService.pendingItems.isEmpty());
+        assertTrue(context.getCacheSize() <= cacheSize);
+    }
+
+    private TestDSpaceRunnableHandler runFilterMedia(String... options) throws Exception {
+        List<String> args = new ArrayList<>(List.of("filter-media", "-p", "Text Extractor"));
+        args.addAll(List.of(options));
+        TestDSpaceRunnableHandler handler = new TestDSpaceRunnableHandler();
+        ScriptLauncher.handleScript(args.toArray(new String[0]), ScriptLauncher.getConfig(kernelImpl), handler,
+                                    kernelImpl);
+        return handler;
+    }
+
+    private int countFilteredItems() throws Exception {
+        int count = 0;
+        for (Item item : items) {
+            if (!itemService.getBundles(context.reloadEntity(item), "TEXT").isEmpty()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private String getExtractedText(Item item) throws Exception {
+        List<Bundle> bundles = itemService.getBundles(item, "TEXT");
+        assertEquals(1, bundles.size());
+        List<Bitstream> bitstreams = bundles.get(0).getBitstreams();
+        assertEquals(1, bitstreams.size());
+        try (InputStream is = bitstreamService.retrieve(context, bitstreams.get(0))) {
+            return IOUtils.toString(is, StandardCharsets.UTF_8);
+        }
+    }
+}
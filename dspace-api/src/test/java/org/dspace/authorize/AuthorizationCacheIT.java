@@ -0,0 +1,159 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.authorize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.authorize.factory.AuthorizeServiceFactory;
+import org.dspace.authorize.service.AuthorizeService;
+import org.dspace.authorize.service.ResourcePolicyService;
+import org.dspace.builder.BitstreamBuilder;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.EPersonBuilder;
+import org.dspace.builder.GroupBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.core.Constants;
+import org.dspace.eperson.EPerson;
+import org.dspace.eperson.Group;
+import org.dspace.eperson.factory.EPersonServiceFactory;
+import org.dspace.eperson.service.GroupService;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration tests of the {@link AuthorizationCache} invalidation.
+ */
+public class AuthorizationCacheIT extends AbstractIntegrationTestWithDatabase {
+
+    private final AuthorizeService authorizeService = AuthorizeServiceFactory.getInstance().getAuthorizeService();
+    private final ResourcePolicyService resourcePolicyService =
+        AuthorizeServiceFactory.getInstance().getResourcePolicyService();
+    private final AuthorizationCache authorizationCache =
+        AuthorizeServiceFactory.getInstance().getAuthorizationCache();
+    private final GroupService groupService = EPersonServiceFactory.getInstance().getGroupService();
+    private final ConfigurationService configurationService =
+        DSpaceServicesFactory.getInstance().getConfigurationService();
+
+    private Collection collection;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        // the cache is disabled by default, and reads its configuration when initialized
+        configurationService.setProperty("authorize.cache.enabled", true);
+        authorizationCache.destroy();
+        authorizationCache.init();
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).build();
+        collection = CollectionBuilder.createCollection(context, parentCommunity).build();
+        context.restoreAuthSystemState();
+    }
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        try {
+            super.destroy();
+        } finally {
+            authorizationCache.clear();
+            configurationService.setProperty("authorize.cache.enabled", false);
+            authorizationCache.destroy();
+            authorizationCache.init();
+        }
+    }
+
+    @Test
+    public void decisionsAreSharedUntilThePoliciesChange() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Item item = ItemBuilder.createItem(context, collection).withTitle("Public item").build();
+        context.restoreAuthSystemState();
+        context.commit();
+
+        item = context.reloadEntity(item);
+        long hits = authorizationCache.getHitCount();
+        assertTrue(authorizeService.authorizeActionBoolean(context, null, item, Constants.READ, true));
+        assertTrue(authorizeService.authorizeActionBoolean(context, null, item, Constants.READ, true));
+        assertEquals(hits + 1, authorizationCache.getHitCount());
+
+        context.turnOffAuthorisationSystem();
+        resourcePolicyService.removePolicies(context, item, Constants.READ);
+        context.restoreAuthSystemState();
+        // the context does not use the shared decisions until it commits its changes
+        assertFalse(authorizeService.authorizeActionBoolean(context, null, item, Constants.READ, true));
+        context.commit();
+
+        item = context.reloadEntity(item);
+        assertFalse(authorizeService.authorizeActionBoolean(context, null, item, Constants.READ, true));
+    }
+
+    @Test
+    public void decisionsAreInvalidatedByGroupMembershipChanges() throws Exception {
+        context.turnOffAuthorisationSystem();
+        EPerson reader = EPersonBuilder.createEPerson(context).withEmail("reader@example.com").build();
+        Group readers = GroupBuilder.createGroup(context).withName("Readers").addMember(reader).build();
+        Item item = ItemBuilder.createItem(context, collection).withTitle("Restricted item")
+                               .withReaderGroup(readers).build();
+        context.restoreAuthSystemState();
+        context.commit();
+
+        item = context.reloadEntity(item);
+        assertTrue(authorizeService.authorizeActionBoolean(context, reader, item, Constants.READ, false));
+
+        context.turnOffAuthorisationSystem();
+        readers = context.reloadEntity(readers);
+        reader = context.reloadEntity(reader);
+        groupService.removeMember(context, readers, reader);
+        groupService.update(context, readers);
+        context.restoreAuthSystemState();
+        context.commit();
+
+        item = context.reloadEntity(item);
+        assertFalse(authorizeService.authorizeActionBoolean(context, reader, item, Constants.READ, false));
+    }
+
+    @Test
+    public void bitstreamDecisionsAreInvalidatedWithTheirItem() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Item item = ItemBuilder.createItem(context, collection).withTitle("Item with a file").build();
+        Bitstream bitstream;
+        try (InputStream is = IOUtils.toInputStream("content", "UTF-8")) {
+            bitstream = BitstreamBuilder.createBitstream(context, item, is).withName("file.txt").build();
+        }
+        context.restoreAuthSystemState();
+        context.commit();
+
+        bitstream = context.reloadEntity(bitstream);
+        assertTrue(authorizeService.authorizeActionBoolean(context, null, bitstream, Constants.READ, true));
+
+        context.turnOffAuthorisationSystem();
+        item = context.reloadEntity(item);
+        resourcePolicyService.removePolicies(context, item, Constants.READ);
+        context.restoreAuthSystemState();
+        context.commit();
+
+        // the decision about the bitstream was dropped with the decisions about its item
+        long misses = authorizationCache.getMissCount();
+        bitstream = context.reloadEntity(bitstream);
+        assertTrue(authorizeService.authorizeActionBoolean(context, null, bitstream, Constants.READ, true));
+        assertEquals(misses + 1, authorizationCache.getMissCount());
+    }
+}
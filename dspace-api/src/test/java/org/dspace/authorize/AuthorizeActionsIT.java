@@ -0,0 +1,115 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.authorize;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.authorize.factory.AuthorizeServiceFactory;
+import org.dspace.authorize.service.AuthorizeService;
+import org.dspace.authorize.service.ResourcePolicyService;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.EPersonBuilder;
+import org.dspace.builder.GroupBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.core.Constants;
+import org.dspace.eperson.EPerson;
+import org.dspace.eperson.Group;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration tests of {@link AuthorizeService#authorizeActions(org.dspace.core.Context, EPerson, List, List,
+ * boolean)}, which must give the same decisions as the checks of each object and action.
+ */
+public class AuthorizeActionsIT extends AbstractIntegrationTestWithDatabase {
+
+    private final AuthorizeService authorizeService = AuthorizeServiceFactory.getInstance().getAuthorizeService();
+    private final ResourcePolicyService resourcePolicyService =
+        AuthorizeServiceFactory.getInstance().getResourcePolicyService();
+
+    private Collection collection;
+    private EPerson editor;
+    private Item publicItem;
+    private Item restrictedItem;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).build();
+        collection = CollectionBuilder.createCollection(context, parentCommunity).build();
+        editor = EPersonBuilder.createEPerson(context).withEmail("editor@example.com").build();
+        Group editors = GroupBuilder.createGroup(context).withName("Editors").addMember(editor).build();
+        publicItem = ItemBuilder.createItem(context, collection).withTitle("Public item").build();
+        restrictedItem = ItemBuilder.createItem(context, collection).withTitle("Restricted item")
+                                    .withReaderGroup(editors).build();
+        authorizeService.addPolicy(context, restrictedItem, Constants.WRITE, editors);
+        context.restoreAuthSystemState();
+        context.commit();
+        publicItem = context.reloadEntity(publicItem);
+        restrictedItem = context.reloadEntity(restrictedItem);
+        editor = context.reloadEntity(editor);
+    }
+
+    @Test
+    public void anonymousActions() throws Exception {
+        Map<UUID, Set<Integer>> authorized = authorizeService.authorizeActions(context, null,
+            List.of(publicItem, restrictedItem), List.of(Constants.READ, Constants.WRITE), true);
+
+        assertThat(authorized.get(publicItem.getID()), containsInAnyOrder(Constants.READ));
+        assertThat(authorized.get(restrictedItem.getID()), empty());
+    }
+
+    @Test
+    public void actionsOfAGroupMember() throws Exception {
+        context.setCurrentUser(editor);
+        Map<UUID, Set<Integer>> authorized = authorizeService.authorizeActions(context, editor,
+            List.of(publicItem, restrictedItem), List.of(Constants.READ, Constants.WRITE, Constants.ADMIN), true);
+
+        assertThat(authorized.get(publicItem.getID()), containsInAnyOrder(Constants.READ));
+        assertThat(authorized.get(restrictedItem.getID()), containsInAnyOrder(Constants.READ, Constants.WRITE));
+        // the same decisions are given by the context afterwards
+        assertTrue(authorizeService.authorizeActionBoolean(context, editor, restrictedItem, Constants.WRITE, true));
+        assertFalse(authorizeService.authorizeActionBoolean(context, editor, publicItem, Constants.WRITE, true));
+    }
+
+    @Test
+    public void decisionsAreDroppedWhenThePoliciesChange() throws Exception {
+        authorizeService.authorizeActions(context, null, List.of(publicItem), List.of(Constants.READ), true);
+        assertTrue(authorizeService.authorizeActionBoolean(context, null, publicItem, Constants.READ, true));
+
+        context.turnOffAuthorisationSystem();
+        resourcePolicyService.removePolicies(context, publicItem, Constants.READ);
+        context.restoreAuthSystemState();
+
+        assertFalse(authorizeService.authorizeActionBoolean(context, null, publicItem, Constants.READ, true));
+    }
+
+    @Test
+    public void administratorsAreAuthorized() throws Exception {
+        context.setCurrentUser(admin);
+        Map<UUID, Set<Integer>> authorized = authorizeService.authorizeActions(context, admin,
+            List.of(restrictedItem), List.of(Constants.READ, Constants.DELETE), true);
+
+        assertThat(authorized.get(restrictedItem.getID()), containsInAnyOrder(Constants.READ, Constants.DELETE));
+    }
+}
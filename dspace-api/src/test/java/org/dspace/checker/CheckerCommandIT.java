@@ -0,0 +1,112 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.checker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.BitstreamBuilder;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.checker.factory.CheckerServiceFactory;
+import org.dspace.checker.service.MostRecentChecksumService;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.core.Context;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration tests of the {@link CheckerCommand} computing the checksums in worker threads.
+ */
+public class CheckerCommandIT extends AbstractIntegrationTestWithDatabase {
+
+    private final MostRecentChecksumService checksumService =
+        CheckerServiceFactory.getInstance().getMostRecentChecksumService();
+
+    private final List<Bitstream> bitstreams = new ArrayList<>();
+    private final List<MostRecentChecksum> collected = new ArrayList<>();
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).build();
+        Collection collection = CollectionBuilder.createCollection(context, parentCommunity).build();
+        Item item = ItemBuilder.createItem(context, collection).withTitle("Item").build();
+        for (int i = 0; i < 7; i++) {
+            try (InputStream is = IOUtils.toInputStream("Bitstream " + i, StandardCharsets.UTF_8)) {
+                bitstreams.add(BitstreamBuilder.createBitstream(context, item, is).withName("bitstream-" + i).build());
+            }
+        }
+        context.restoreAuthSystemState();
+        context.commit();
+    }
+
+    @Test
+    public void checkBitstreamsConcurrently() throws Exception {
+        // the results are committed every 2 bitstreams, while the following ones are computed
+        CheckerCommand checker = createChecker(context, 4, 2);
+        checker.process();
+
+        for (Bitstream bitstream : bitstreams) {
+            // each bitstream is checked once
+            assertEquals(1, countCollected(bitstream));
+            MostRecentChecksum info = checksumService.findByBitstream(context, context.reloadEntity(bitstream));
+            assertEquals(ChecksumResultCode.CHECKSUM_MATCH, info.getChecksumResult().getResultCode());
+            assertEquals(bitstream.getChecksum(), info.getCurrentChecksum());
+            assertTrue(info.getProcessEndDate().compareTo(checker.getProcessStartDate()) >= 0);
+        }
+    }
+
+    @Test
+    public void checkBitstreamsWithRateLimit() throws Exception {
+        CheckerCommand checker = createChecker(context, 2, 100);
+        checker.setMaxBitstreamsPerSecond(20);
+        long start = System.nanoTime();
+        checker.process();
+
+        for (Bitstream bitstream : bitstreams) {
+            assertEquals(1, countCollected(bitstream));
+        }
+        // the first bitstream is read at once, and the others every 50 ms
+        assertTrue(System.nanoTime() - start >= (bitstreams.size() - 1) * 50_000_000L);
+    }
+
+    private long countCollected(Bitstream bitstream) {
+        return collected.stream().filter(info -> bitstream.getID().equals(info.getBitstream().getID())).count();
+    }
+
+    private CheckerCommand createChecker(Context context, int threads, int batchSize) throws Exception {
+        checksumService.updateMissingBitstreams(context);
+        context.commit();
+        // the bitstreams were last processed before this run
+        Thread.sleep(10);
+        Date processStart = new Date();
+
+        CheckerCommand checker = new CheckerCommand(context);
+        checker.setThreads(threads);
+        checker.setBatchSize(batchSize);
+        checker.setProcessStartDate(processStart);
+        checker.setDispatcher(new SimpleDispatcher(context, processStart, false));
+        checker.setReportVerbose(true);
+        checker.setCollector((c, info) -> collected.add(info));
+        return checker;
+    }
+}
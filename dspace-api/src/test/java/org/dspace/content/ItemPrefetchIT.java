@@ -0,0 +1,82 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.commons.io.IOUtils;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.BitstreamBuilder;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.ItemService;
+import org.dspace.core.Constants;
+import org.dspace.core.SQLStatementCounter;
+import org.junit.Test;
+
+/**
+ * Integration tests of {@link ItemService#prefetch}.
+ */
+public class ItemPrefetchIT extends AbstractIntegrationTestWithDatabase {
+
+    private final ItemService itemService = ContentServiceFactory.getInstance().getItemService();
+
+    @Test
+    public void prefetchedItemsAreIteratedWithoutQueries() throws Exception {
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).build();
+        Collection collection = CollectionBuilder.createCollection(context, parentCommunity)
+                                                 .withName("Collection").build();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Item item = ItemBuilder.createItem(context, collection).withTitle("Item " + i).build();
+            try (InputStream is = IOUtils.toInputStream("content " + i, "UTF-8")) {
+                BitstreamBuilder.createBitstream(context, item, is).withName("file" + i + ".txt").build();
+            }
+            ids.add(item.getID());
+        }
+        context.restoreAuthSystemState();
+        context.commit();
+
+        // start from items whose associations are not loaded
+        List<Item> items = new ArrayList<>();
+        for (UUID id : ids) {
+            context.uncacheEntity(itemService.find(context, id));
+        }
+        context.uncacheEntity(collection);
+        for (UUID id : ids) {
+            items.add(itemService.find(context, id));
+        }
+
+        SQLStatementCounter.reset();
+        itemService.prefetch(context, items, true, true, true);
+        long prefetchStatements = SQLStatementCounter.getCount();
+        assertTrue("The prefetch should not query the items one by one (" + prefetchStatements + " statements)",
+                   prefetchStatements < ids.size() * 2);
+
+        SQLStatementCounter.reset();
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            assertEquals("Item " + i, item.getName());
+            assertEquals("Collection", item.getOwningCollection().getName());
+            List<Bundle> bundles = itemService.getBundles(item, Constants.CONTENT_BUNDLE_NAME);
+            assertEquals(1, bundles.size());
+            assertEquals("file" + i + ".txt", bundles.get(0).getBitstreams().get(0).getName());
+            item.getHandle();
+        }
+        assertEquals("The prefetched data should be read without queries", 0, SQLStatementCounter.getCount());
+    }
+}
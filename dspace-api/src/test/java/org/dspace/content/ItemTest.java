@@ -34,6 +34,7 @@ import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.time.DateUtils;
 import org.apache.logging.log4j.Logger;
@@ -479,6 +480,47 @@ public class ItemTest extends AbstractDSpaceObjectTest {
         assertTrue("testGetMetadata_String 5", dc.size() == 0);
     }
 
+    /**
+     * Test of getMetadata method, of class Item, with qualifier and language wildcards, before and
+     * after the metadata of the item changes.
+     */
+    @Test
+    public void testGetMetadata_afterChanges() throws SQLException {
+        itemService.addMetadata(context, it, "dc", "contributor", "author", null, "author0");
+        itemService.addMetadata(context, it, "dc", "contributor", null, "en", "contributor0");
+        itemService.addMetadata(context, it, "dc", "contributor", "author", "en", "author1");
+        itemService.addMetadata(context, it, "dc", "subject", null, null, "subject0");
+
+        List<MetadataValue> authors = itemService.getMetadata(it, "dc", "contributor", "author", Item.ANY);
+        assertThat("testGetMetadata_afterChanges 0", authors.stream().map(MetadataValue::getValue)
+                                                            .collect(Collectors.toList()),
+                   equalTo(List.of("author0", "author1")));
+        assertThat("testGetMetadata_afterChanges 1",
+                   itemService.getMetadata(it, "dc", "contributor", "author", null).size(), equalTo(1));
+        assertThat("testGetMetadata_afterChanges 2",
+                   itemService.getMetadata(it, "dc", "contributor", null, Item.ANY).get(0).getValue(),
+                   equalTo("contributor0"));
+        assertThat("testGetMetadata_afterChanges 3",
+                   itemService.getMetadata(it, "dc", "contributor", Item.ANY, Item.ANY).size(), equalTo(3));
+        assertThat("testGetMetadata_afterChanges 4",
+                   itemService.getMetadata(it, Item.ANY, "contributor", Item.ANY, "en").size(), equalTo(2));
+        assertThat("testGetMetadata_afterChanges 5",
+                   itemService.getMetadata(it, "dc", "contributor", "editor", Item.ANY).size(), equalTo(0));
+
+        itemService.removeMetadataValues(context, it, List.of(authors.get(0)));
+        itemService.addMetadata(context, it, "dc", "contributor", "author", null, "author2");
+
+        assertThat("testGetMetadata_afterChanges 6",
+                   itemService.getMetadata(it, "dc", "contributor", "author", Item.ANY).stream()
+                              .map(MetadataValue::getValue).collect(Collectors.toList()),
+                   equalTo(List.of("author1", "author2")));
+        assertThat("testGetMetadata_afterChanges 7",
+                   itemService.getMetadata(it, "dc", "contributor", "author", Item.ANY, false).size(), equalTo(2));
+        assertThat("testGetMetadata_afterChanges 8",
+                   itemService.getMetadata(it, "dc", "subject", Item.ANY, Item.ANY).get(0).getValue(),
+                   equalTo("subject0"));
+    }
+
     /**
      * A test for DS-806: Item.match() incorrect logic for schema testing
      */
@@ -20,6 +20,7 @@ import org.dspace.content.dao.RelationshipDAO;
 import org.dspace.content.service.EntityTypeService;
 import org.dspace.content.service.ItemService;
 import org.dspace.content.service.RelationshipTypeService;
+import org.dspace.content.service.VirtualMetadataService;
 import org.dspace.content.virtual.VirtualMetadataPopulator;
 import org.dspace.core.Constants;
 import org.dspace.core.Context;
@@ -73,6 +74,9 @@ public class RelationshipServiceImplTest {
     @Mock
     private ConfigurationService configurationService;
 
+    @Mock
+    private VirtualMetadataService virtualMetadataService;
+
     @Spy
     private RelationshipVersioningUtils relationshipVersioningUtils;
 
@@ -0,0 +1,231 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.EntityTypeBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.builder.RelationshipBuilder;
+import org.dspace.builder.RelationshipTypeBuilder;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.ItemService;
+import org.dspace.content.service.RelationshipService;
+import org.dspace.content.service.VirtualMetadataService;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration tests of the {@link VirtualMetadataService}: the virtual metadata stored by a rebuild, deleted when
+ * the relationships or the related Items change, and stored again once these changes are committed.
+ */
+public class VirtualMetadataServiceIT extends AbstractIntegrationTestWithDatabase {
+
+    private final VirtualMetadataService virtualMetadataService =
+        ContentServiceFactory.getInstance().getVirtualMetadataService();
+    private final RelationshipMetadataService relationshipMetadataService =
+        ContentServiceFactory.getInstance().getRelationshipMetadataService();
+    private final RelationshipService relationshipService =
+        ContentServiceFactory.getInstance().getRelationshipService();
+    private final ItemService itemService = ContentServiceFactory.getInstance().getItemService();
+    private final ConfigurationService configurationService =
+        DSpaceServicesFactory.getInstance().getConfigurationService();
+
+    private Item publication;
+    private Item author;
+    private Relationship relationship;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).build();
+        Collection publications = CollectionBuilder.createCollection(context, parentCommunity)
+                                                   .withEntityType("Publication")
+                                                   .build();
+        Collection authors = CollectionBuilder.createCollection(context, parentCommunity)
+                                              .withEntityType("Person")
+                                              .build();
+        EntityType publicationType = EntityTypeBuilder.createEntityTypeBuilder(context, "Publication").build();
+        EntityType personType = EntityTypeBuilder.createEntityTypeBuilder(context, "Person").build();
+        RelationshipType isAuthorOfPublication =
+            RelationshipTypeBuilder.createRelationshipTypeBuilder(context, publicationType, personType,
+                "isAuthorOfPublication", "isPublicationOfAuthor", null, null, null, null).build();
+        publication = ItemBuilder.createItem(context, publications).withTitle("Publication").build();
+        author = ItemBuilder.createItem(context, authors)
+                            .withPersonIdentifierLastName("Smith")
+                            .withPersonIdentifierFirstName("Maria").build();
+        relationship = RelationshipBuilder.createRelationshipBuilder(context, publication, author,
+                                                                     isAuthorOfPublication).build();
+        context.restoreAuthSystemState();
+        context.commit();
+        // enabled once the Items are created, so that their virtual metadata is not stored in the background
+        configurationService.setProperty("virtual-metadata.store.enabled", true);
+    }
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        configurationService.setProperty("virtual-metadata.store.enabled", false);
+        super.destroy();
+        assertTrue(((VirtualMetadataServiceImpl) virtualMetadataService).awaitUpdates(30000));
+    }
+
+    @Test
+    public void virtualMetadataIsStoredByRebuild() throws Exception {
+        List<RelationshipMetadataValue> computed = relationshipMetadataService.getRelationshipMetadata(publication,
+                                                                                                       true);
+        assertThat(values(computed), equalTo(List.of("dc.contributor.author=Smith, Maria",
+                                                     "relation.isAuthorOfPublication=" + author.getID())));
+        // reading does not store the metadata in the transaction of the caller
+        assertNull(virtualMetadataService.find(context, publication));
+
+        virtualMetadataService.rebuild(context, publication);
+        List<RelationshipMetadataValue> stored = virtualMetadataService.find(context, publication);
+        assertNotNull(stored);
+        assertEquals(computed.size(), stored.size());
+        for (int i = 0; i < computed.size(); i++) {
+            assertEquals(computed.get(i).getMetadataField(), stored.get(i).getMetadataField());
+            assertEquals(computed.get(i).getValue(), stored.get(i).getValue());
+            assertEquals(computed.get(i).getAuthority(), stored.get(i).getAuthority());
+            assertEquals(computed.get(i).getPlace(), stored.get(i).getPlace());
+            assertEquals(computed.get(i).isUseForPlace(), stored.get(i).isUseForPlace());
+            assertEquals(relationship.getID().intValue(), stored.get(i).getRelationshipId());
+        }
+    }
+
+    @Test
+    public void storedVirtualMetadataIsRead() throws Exception {
+        virtualMetadataService.rebuild(context, publication);
+        // the most recently stored metadata is read instead of being computed
+        virtualMetadataService.store(context, publication, List.of(), new Date());
+
+        assertTrue(relationshipMetadataService.getRelationshipMetadata(publication, true).isEmpty());
+        assertEquals(2, values(relationshipMetadataService.computeRelationshipMetadata(context, publication)).size());
+    }
+
+    @Test
+    public void olderVirtualMetadataIsNotStored() throws Exception {
+        Date before = new Date();
+        virtualMetadataService.rebuild(context, publication);
+        // computed before the stored metadata, e.g. by a concurrent rebuild
+        virtualMetadataService.store(context, publication, List.of(), new Date(before.getTime() - 1000));
+
+        assertEquals(2, values(virtualMetadataService.find(context, publication)).size());
+    }
+
+    @Test
+    public void virtualMetadataIsDeletedWhenRelatedItemChanges() throws Exception {
+        virtualMetadataService.rebuild(context, publication);
+        virtualMetadataService.rebuild(context, author);
+
+        context.turnOffAuthorisationSystem();
+        itemService.replaceMetadata(context, author, "person", "familyName", null, null, "Jones", null, -1, 0);
+        itemService.update(context, author);
+        context.restoreAuthSystemState();
+
+        assertNull(virtualMetadataService.find(context, publication));
+        assertNull(virtualMetadataService.find(context, author));
+        assertThat(values(relationshipMetadataService.getRelationshipMetadata(publication, true)),
+                   equalTo(List.of("dc.contributor.author=Jones, Maria",
+                                   "relation.isAuthorOfPublication=" + author.getID())));
+    }
+
+    @Test
+    public void virtualMetadataIsStoredAgainOnceCommitted() throws Exception {
+        virtualMetadataService.rebuild(context, publication);
+        virtualMetadataService.rebuild(context, author);
+        context.commit();
+
+        context.turnOffAuthorisationSystem();
+        author = context.reloadEntity(author);
+        itemService.replaceMetadata(context, author, "person", "familyName", null, null, "Jones", null, -1, 0);
+        itemService.update(context, author);
+        context.restoreAuthSystemState();
+        context.commit();
+
+        assertTrue(((VirtualMetadataServiceImpl) virtualMetadataService).awaitUpdates(30000));
+        publication = context.reloadEntity(publication);
+        author = context.reloadEntity(author);
+        assertThat(values(virtualMetadataService.find(context, publication)),
+                   equalTo(List.of("dc.contributor.author=Jones, Maria",
+                                   "relation.isAuthorOfPublication=" + author.getID())));
+        assertNotNull(virtualMetadataService.find(context, author));
+    }
+
+    @Test
+    public void rebuildReplacesVirtualMetadataItemByItem() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Item unrelated = ItemBuilder.createItem(context, publication.getOwningCollection())
+                                    .withTitle("Unrelated").build();
+        // stored before the rebuild, for an Item which has no relationships anymore, and for a related Item
+        Date before = new Date(System.currentTimeMillis() - 1000);
+        virtualMetadataService.store(context, unrelated, List.of(), before);
+        virtualMetadataService.store(context, publication, List.of(), before);
+
+        assertEquals(2, virtualMetadataService.rebuild(context));
+        context.restoreAuthSystemState();
+
+        publication = context.reloadEntity(publication);
+        unrelated = context.reloadEntity(unrelated);
+        assertEquals(2, values(virtualMetadataService.find(context, publication)).size());
+        assertNull(virtualMetadataService.find(context, unrelated));
+    }
+
+    @Test
+    public void virtualMetadataIsDeletedWhenRelationshipIsDeleted() throws Exception {
+        virtualMetadataService.rebuild(context, publication);
+        virtualMetadataService.rebuild(context, author);
+
+        context.turnOffAuthorisationSystem();
+        relationshipService.delete(context, relationship);
+        context.restoreAuthSystemState();
+
+        assertNull(virtualMetadataService.find(context, publication));
+        assertNull(virtualMetadataService.find(context, author));
+        assertTrue(relationshipMetadataService.getRelationshipMetadata(publication, true).isEmpty());
+    }
+
+    @Test
+    public void rebuildStoresVirtualMetadataOfRelatedItems() throws Exception {
+        context.turnOffAuthorisationSystem();
+        assertEquals(2, virtualMetadataService.rebuild(context));
+        context.restoreAuthSystemState();
+
+        publication = context.reloadEntity(publication);
+        author = context.reloadEntity(author);
+        assertThat(values(virtualMetadataService.find(context, publication)),
+                   equalTo(List.of("dc.contributor.author=Smith, Maria",
+                                   "relation.isAuthorOfPublication=" + author.getID())));
+        assertNotNull(virtualMetadataService.find(context, author));
+    }
+
+    private List<String> values(List<RelationshipMetadataValue> values) {
+        return values.stream()
+                     .filter(value -> !"latestForDiscovery".equals(value.getMetadataField().getQualifier()))
+                     .map(value -> value.getMetadataField().toString('.') + "=" + value.getValue())
+                     .sorted()
+                     .collect(Collectors.toList());
+    }
+}
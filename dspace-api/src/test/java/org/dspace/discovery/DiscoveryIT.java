@@ -18,6 +18,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import javax.servlet.http.HttpServletRequest;
 
@@ -796,6 +797,74 @@ public class DiscoveryIT extends AbstractIntegrationTestWithDatabase {
         }
     }
 
+    @Test
+    public void parallelRebuildIndexTest() throws Exception {
+        int numberItems = 7;
+        context.turnOffAuthorisationSystem();
+        Community community = CommunityBuilder.createCommunity(context).build();
+        Collection collection = CollectionBuilder.createCollection(context, community).build();
+        for (int i = 0; i < numberItems; i++) {
+            ItemBuilder.createItem(context, collection)
+                    .withTitle("item " + i)
+                    .build();
+        }
+        context.restoreAuthSystemState();
+        context.commit();
+
+        indexer.deleteIndex();
+        indexer.commit();
+        assertSearchQuery(IndexableItem.TYPE, 0);
+
+        runDSpaceScript("index-discovery", "-b", "-t", "3");
+
+        assertSearchQuery(IndexableItem.TYPE, numberItems);
+        assertSearchQuery(IndexableCollection.TYPE, 1);
+    }
+
+    @Test
+    public void asyncIndexUpdatesTest() throws Exception {
+        IndexUpdateQueue indexUpdateQueue = DSpaceServicesFactory.getInstance().getServiceManager()
+            .getServiceByName(IndexUpdateQueue.class.getName(), IndexUpdateQueue.class);
+        indexUpdateQueue.setAsync(true);
+        try {
+            context.turnOffAuthorisationSystem();
+            Community community = CommunityBuilder.createCommunity(context).build();
+            Collection collection = CollectionBuilder.createCollection(context, community).build();
+            Item item = ItemBuilder.createItem(context, collection).withTitle("first title").build();
+            ItemBuilder.createItem(context, collection).withTitle("another item").build();
+            // updated again while the previous update may still be queued
+            itemService.replaceMetadata(context, item, "dc", "title", null, null, "second title", null, -1, 0);
+            itemService.update(context, item);
+            context.restoreAuthSystemState();
+            context.commit();
+
+            assertTrue(indexUpdateQueue.flush(10000));
+            assertSearchQuery(IndexableItem.TYPE, 2);
+            DiscoverQuery discoverQuery = new DiscoverQuery();
+            discoverQuery.setQuery("dc.title:\"second title\"");
+            assertEquals(1, searchService.search(context, discoverQuery).getTotalSearchResults());
+        } finally {
+            indexUpdateQueue.flush(10000);
+            indexUpdateQueue.setAsync(false);
+        }
+    }
+
+    @Test
+    public void splitUuidSpaceTest() {
+        List<UUID[]> ranges = IndexClient.splitUuidSpace(5);
+        assertEquals(5, ranges.size());
+        assertEquals(new UUID(0, 0), ranges.get(0)[0]);
+        assertEquals(new UUID(-1, -1), ranges.get(4)[1]);
+        for (int i = 1; i < ranges.size(); i++) {
+            UUID previousEnd = ranges.get(i - 1)[1];
+            UUID start = ranges.get(i)[0];
+            // ranges are contiguous: the next range starts right after the end of the previous one
+            assertEquals(previousEnd.getLeastSignificantBits() + 1, start.getLeastSignificantBits());
+            assertEquals(previousEnd.getLeastSignificantBits() == -1 ? previousEnd.getMostSignificantBits() + 1
+                             : previousEnd.getMostSignificantBits(), start.getMostSignificantBits());
+        }
+    }
+
     private void assertSearchQuery(String resourceType, int size) throws SearchServiceException {
         assertSearchQuery(resourceType, size, size, 0, -1);
     }
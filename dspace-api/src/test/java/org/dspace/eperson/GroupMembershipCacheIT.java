@@ -0,0 +1,135 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.eperson;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.EPersonBuilder;
+import org.dspace.builder.GroupBuilder;
+import org.dspace.eperson.factory.EPersonServiceFactory;
+import org.dspace.eperson.service.GroupService;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration tests of the groups of the EPersons kept in the eperson2groupcache table and in the
+ * {@link GroupMembershipCache}.
+ */
+public class GroupMembershipCacheIT extends AbstractIntegrationTestWithDatabase {
+
+    private final GroupService groupService = EPersonServiceFactory.getInstance().getGroupService();
+    private final GroupMembershipCache groupMembershipCache =
+        EPersonServiceFactory.getInstance().getGroupMembershipCache();
+    private final ConfigurationService configurationService =
+        DSpaceServicesFactory.getInstance().getConfigurationService();
+
+    private EPerson member;
+    private Group parent;
+    private Group child;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        // the cache is disabled by default, and reads its configuration when initialized
+        configurationService.setProperty("eperson.groups.cache.enabled", true);
+        groupMembershipCache.init();
+        context.turnOffAuthorisationSystem();
+        member = EPersonBuilder.createEPerson(context).withEmail("member@example.com").build();
+        parent = GroupBuilder.createGroup(context).withName("Parent").build();
+        child = GroupBuilder.createGroup(context).withName("Child").withParent(parent).build();
+        context.restoreAuthSystemState();
+        context.commit();
+        member = context.reloadEntity(member);
+        parent = context.reloadEntity(parent);
+        child = context.reloadEntity(child);
+    }
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        try {
+            super.destroy();
+        } finally {
+            groupMembershipCache.clear();
+            configurationService.setProperty("eperson.groups.cache.enabled", false);
+            groupMembershipCache.init();
+        }
+    }
+
+    @Test
+    public void membershipsAreSeenBeforeAndAfterCommit() throws Exception {
+        assertFalse(groupService.isMember(context, member, parent));
+
+        context.turnOffAuthorisationSystem();
+        groupService.addMember(context, child, member);
+        context.restoreAuthSystemState();
+        // not updated yet, but seen by this context
+        assertTrue(groupService.isMember(context, member, child));
+        assertTrue(groupService.isMember(context, member, parent));
+        assertTrue(groupService.allMemberGroupsSet(context, member).contains(parent));
+        context.commit();
+
+        member = context.reloadEntity(member);
+        parent = context.reloadEntity(parent);
+        child = context.reloadEntity(child);
+        assertTrue(groupService.isMember(context, member, parent));
+
+        context.turnOffAuthorisationSystem();
+        groupService.removeMember(context, child, member);
+        groupService.update(context, child);
+        context.restoreAuthSystemState();
+        context.commit();
+
+        member = context.reloadEntity(member);
+        parent = context.reloadEntity(parent);
+        assertFalse(groupService.isMember(context, member, parent));
+        assertFalse(groupService.allMemberGroupsSet(context, member).contains(parent));
+    }
+
+    @Test
+    public void membersGainAndLoseTheParentsOfTheirGroup() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Group grandParent = GroupBuilder.createGroup(context).withName("Grand parent").build();
+        groupService.addMember(context, child, member);
+        groupService.update(context, child);
+        context.restoreAuthSystemState();
+        context.commit();
+
+        member = context.reloadEntity(member);
+        grandParent = context.reloadEntity(grandParent);
+        parent = context.reloadEntity(parent);
+        assertFalse(groupService.isMember(context, member, grandParent));
+
+        context.turnOffAuthorisationSystem();
+        groupService.addMember(context, grandParent, parent);
+        groupService.update(context, grandParent);
+        context.restoreAuthSystemState();
+        context.commit();
+
+        member = context.reloadEntity(member);
+        grandParent = context.reloadEntity(grandParent);
+        parent = context.reloadEntity(parent);
+        assertTrue(groupService.isMember(context, member, grandParent));
+
+        context.turnOffAuthorisationSystem();
+        groupService.delete(context, parent);
+        context.restoreAuthSystemState();
+        context.commit();
+
+        member = context.reloadEntity(member);
+        grandParent = context.reloadEntity(grandParent);
+        assertFalse(groupService.isMember(context, member, grandParent));
+        assertTrue(groupService.isMember(context, member, context.reloadEntity(child)));
+    }
+}
@@ -0,0 +1,206 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.event;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Collection;
+import org.dspace.content.Community;
+import org.dspace.content.Item;
+import org.dspace.core.Context;
+import org.dspace.event.factory.EventServiceFactory;
+import org.dspace.event.service.EventOutboxService;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Integration tests of the {@link AsyncDispatcher}, using the dispatchers defined in the test local.cfg.
+ */
+public class AsyncDispatcherIT extends AbstractIntegrationTestWithDatabase {
+
+    private final EventOutboxService eventOutboxService =
+        EventServiceFactory.getInstance().getEventOutboxService();
+
+    private final ConfigurationService configurationService =
+        DSpaceServicesFactory.getInstance().getConfigurationService();
+
+    @After
+    public void resetDispatcher() {
+        context.setDispatcher(null);
+    }
+
+    @Test
+    public void asyncConsumerTest() throws Exception {
+        RecordingConsumer.subjects.clear();
+        context.setDispatcher("async-test");
+        context.turnOffAuthorisationSystem();
+        Community community = CommunityBuilder.createCommunity(context).build();
+        Collection collection = CollectionBuilder.createCollection(context, community).build();
+        Item item = ItemBuilder.createItem(context, collection).withTitle("Async").build();
+        context.restoreAuthSystemState();
+
+        // the events are only processed once they have been committed
+        AsyncConsumerWorker worker = AsyncDispatcher.getWorker("asyncrecording");
+        assertNotNull(worker);
+        assertTrue(RecordingConsumer.subjects.isEmpty());
+        context.commit();
+
+        assertTrue(worker.flush(30000));
+        assertThat(RecordingConsumer.subjects, hasItems(community.getID(), collection.getID(), item.getID()));
+        assertThat(eventOutboxService.countPending(context, "asyncrecording"), is(0L));
+        assertThat(worker.getProcessedCount(), greaterThanOrEqualTo(3L));
+        assertThat(worker.getQueueDepth(), is(0L));
+        assertThat(worker.getLagMillis(), is(0L));
+    }
+
+    @Test
+    public void failingAsyncConsumerTest() throws Exception {
+        configurationService.setProperty("event.outbox.max-attempts", 2);
+        try {
+            context.setDispatcher("async-failing-test");
+            context.turnOffAuthorisationSystem();
+            CommunityBuilder.createCommunity(context).build();
+            context.restoreAuthSystemState();
+            context.commit();
+
+            AsyncConsumerWorker worker = AsyncDispatcher.getWorker("asyncfailing");
+            assertTrue(worker.flush(30000));
+
+            // the failed event is retried once, then left in the outbox
+            assertThat(worker.getFailureCount(), is(2L));
+            assertThat(worker.getFailedEventCount(), is(1L));
+            assertThat(worker.getQueueDepth(), is(0L));
+            assertThat(eventOutboxService.countFailed(context, "asyncfailing"), is(1L));
+        } finally {
+            configurationService.setProperty("event.outbox.max-attempts", null);
+        }
+    }
+
+    @Test
+    public void failedEventIsRetriedBeforeLaterEventsOfTheSameObjectTest() throws Exception {
+        OrderedConsumer.eventTypes.clear();
+        OrderedConsumer.failed.set(false);
+        context.setDispatcher("async-ordered-test");
+        context.turnOffAuthorisationSystem();
+        // the creation of the community fails once, its metadata are modified in the same transaction
+        CommunityBuilder.createCommunity(context).withName("Ordered").build();
+        context.restoreAuthSystemState();
+        context.commit();
+
+        AsyncConsumerWorker worker = AsyncDispatcher.getWorker("asyncordered");
+        assertTrue(worker.flush(30000));
+
+        // the creation is processed once retried, then the modifications of the metadata
+        assertThat(OrderedConsumer.eventTypes.get(0), is(Event.CREATE));
+        assertThat(OrderedConsumer.eventTypes.subList(1, OrderedConsumer.eventTypes.size()),
+                   everyItem(is(Event.MODIFY_METADATA)));
+        assertThat(OrderedConsumer.eventTypes, hasItem(Event.MODIFY_METADATA));
+        assertThat(worker.getFailureCount(), is(1L));
+        assertThat(eventOutboxService.countPending(context, "asyncordered"), is(0L));
+    }
+
+    /**
+     * Consumer recording the subjects of the events, as found in the database.
+     */
+    public static class RecordingConsumer implements Consumer {
+
+        static final Set<UUID> subjects = Collections.synchronizedSet(new HashSet<>());
+
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public void consume(Context ctx, Event event) throws Exception {
+            if (event.getSubject(ctx) != null) {
+                subjects.add(event.getSubjectID());
+            }
+        }
+
+        @Override
+        public void end(Context ctx) {
+        }
+
+        @Override
+        public void finish(Context ctx) {
+        }
+    }
+
+    /**
+     * Consumer recording the types of the events, failing to process the first creation.
+     */
+    public static class OrderedConsumer implements Consumer {
+
+        static final List<Integer> eventTypes = Collections.synchronizedList(new ArrayList<>());
+        static final AtomicBoolean failed = new AtomicBoolean();
+
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public void consume(Context ctx, Event event) {
+            if (event.getEventType() == Event.CREATE && failed.compareAndSet(false, true)) {
+                throw new IllegalStateException("Unable to consume " + event);
+            }
+            eventTypes.add(event.getEventType());
+        }
+
+        @Override
+        public void end(Context ctx) {
+        }
+
+        @Override
+        public void finish(Context ctx) {
+        }
+    }
+
+    /**
+     * Consumer failing to process every event.
+     */
+    public static class FailingConsumer implements Consumer {
+
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public void consume(Context ctx, Event event) {
+            throw new IllegalStateException("Unable to consume " + event);
+        }
+
+        @Override
+        public void end(Context ctx) {
+        }
+
+        @Override
+        public void finish(Context ctx) {
+        }
+    }
+}
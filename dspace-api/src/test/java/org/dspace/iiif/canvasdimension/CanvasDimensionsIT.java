@@ -13,8 +13,12 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Pattern;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.dspace.AbstractIntegrationTestWithDatabase;
 import org.dspace.builder.BitstreamBuilder;
@@ -364,7 +368,7 @@ public class CanvasDimensionsIT extends AbstractIntegrationTestWithDatabase  {
                               .enableIIIF()
                               .build();
 
-        // Add jp2 image to verify image server call for dimensions
+        // Add jp2 image (300 x 200), whose dimensions are read from its header
         InputStream input = this.getClass().getResourceAsStream("cat.jp2");
         bitstream = BitstreamBuilder
             .createBitstream(context, iiifItem, input)
@@ -378,6 +382,39 @@ public class CanvasDimensionsIT extends AbstractIntegrationTestWithDatabase  {
 
         execCanvasScript(id);
 
+        assertTrue(bitstream.getMetadata().stream()
+                            .filter(m -> m.getMetadataField().toString('.').contentEquals(METADATA_IIIF_HEIGHT))
+                            .anyMatch(m -> m.getValue().contentEquals("400")));
+        assertTrue(bitstream.getMetadata().stream()
+                            .filter(m -> m.getMetadataField().toString('.').contentEquals(METADATA_IIIF_WIDTH))
+                            .anyMatch(m -> m.getValue().contentEquals("600")));
+
+    }
+
+    @Test
+    public void processItemWithUnreadableImage() throws Exception {
+        context.turnOffAuthorisationSystem();
+        // Create a new Item
+        iiifItem = ItemBuilder.createItem(context, col1)
+                              .withTitle("Test Item")
+                              .withIssueDate("2017-10-17")
+                              .enableIIIF()
+                              .build();
+
+        // Add an image which cannot be read, to verify image server call for dimensions
+        InputStream input = IOUtils.toInputStream("not an image", StandardCharsets.UTF_8);
+        bitstream = BitstreamBuilder
+            .createBitstream(context, iiifItem, input)
+            .withName("Bitstream2.jp2")
+            .withMimeType("image/jp2")
+            .build();
+
+        context.restoreAuthSystemState();
+
+        String id = iiifItem.getID().toString();
+
+        execCanvasScript(id);
+
         assertTrue(bitstream.getMetadata().stream()
                             .filter(m -> m.getMetadataField().toString('.').contentEquals(METADATA_IIIF_HEIGHT))
                             .anyMatch(m -> m.getValue().contentEquals("64")));
@@ -387,6 +424,77 @@ public class CanvasDimensionsIT extends AbstractIntegrationTestWithDatabase  {
 
     }
 
+    @Test
+    public void processCollectionWithThreads() throws Exception {
+        context.turnOffAuthorisationSystem();
+        List<Bitstream> bitstreams = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Item item = ItemBuilder.createItem(context, col1)
+                                   .withTitle("Test Item " + i)
+                                   .withIssueDate("2017-10-17")
+                                   .enableIIIF()
+                                   .build();
+            // Add jpeg and jp2 images (300 x 200)
+            for (String image : new String[] {"cat.jpg", "cat.jp2"}) {
+                InputStream input = this.getClass().getResourceAsStream(image);
+                bitstreams.add(BitstreamBuilder
+                    .createBitstream(context, item, input)
+                    .withName(image)
+                    .withMimeType(image.endsWith("jpg") ? "image/jpeg" : "image/jp2")
+                    .build());
+            }
+        }
+        context.restoreAuthSystemState();
+
+        runDSpaceScript("iiif-canvas-dimensions", "-e", "admin@email.com", "-i", col1.getID().toString(),
+            "-t", "3");
+
+        for (Bitstream bit : bitstreams) {
+            assertTrue(bit.getMetadata().stream()
+                          .filter(m -> m.getMetadataField().toString('.').contentEquals(METADATA_IIIF_HEIGHT))
+                          .anyMatch(m -> m.getValue().contentEquals("400")));
+            assertTrue(bit.getMetadata().stream()
+                          .filter(m -> m.getMetadataField().toString('.').contentEquals(METADATA_IIIF_WIDTH))
+                          .anyMatch(m -> m.getValue().contentEquals("600")));
+        }
+        Pattern regex = Pattern.compile(".*5 IIIF items were processed", Pattern.DOTALL);
+        assertTrue(regex.matcher(StringUtils.chomp(outContent.toString())).find());
+    }
+
+    @Test
+    public void processItemWithMoreImagesThanOpenStreams() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Item item = ItemBuilder.createItem(context, col1)
+                               .withTitle("Test Item")
+                               .withIssueDate("2017-10-17")
+                               .enableIIIF()
+                               .build();
+        // more images than the 4 streams opened at once by 2 threads
+        List<Bitstream> bitstreams = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            String image = i % 2 == 0 ? "cat.jpg" : "cat.jp2";
+            InputStream input = this.getClass().getResourceAsStream(image);
+            bitstreams.add(BitstreamBuilder
+                .createBitstream(context, item, input)
+                .withName(i + image)
+                .withMimeType(image.endsWith("jpg") ? "image/jpeg" : "image/jp2")
+                .build());
+        }
+        context.restoreAuthSystemState();
+
+        runDSpaceScript("iiif-canvas-dimensions", "-e", "admin@email.com", "-i", item.getID().toString(),
+            "-t", "2");
+
+        for (Bitstream bit : bitstreams) {
+            assertTrue(bit.getMetadata().stream()
+                          .filter(m -> m.getMetadataField().toString('.').contentEquals(METADATA_IIIF_HEIGHT))
+                          .anyMatch(m -> m.getValue().contentEquals("400")));
+            assertTrue(bit.getMetadata().stream()
+                          .filter(m -> m.getMetadataField().toString('.').contentEquals(METADATA_IIIF_WIDTH))
+                          .anyMatch(m -> m.getValue().contentEquals("600")));
+        }
+    }
+
     @Test
     public void processParentCommunityWithMaximum() throws Exception {
         context.turnOffAuthorisationSystem();
@@ -0,0 +1,99 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.iiif.canvasdimension;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import javax.imageio.ImageIO;
+
+import org.dspace.iiif.canvasdimension.ImageDimensionReader.HeaderInput;
+import org.junit.Test;
+
+/**
+ * Tests of the header-only image dimension reading of {@link ImageDimensionReader}.
+ */
+public class ImageDimensionReaderTest {
+
+    @Test
+    public void testJpegHeader() throws IOException {
+        try (InputStream image = getClass().getResourceAsStream("cat.jpg")) {
+            assertArrayEquals(new int[] {300, 200}, readHeader(image.readAllBytes()));
+        }
+    }
+
+    @Test
+    public void testJp2Header() throws IOException {
+        try (InputStream image = getClass().getResourceAsStream("cat.jp2")) {
+            assertArrayEquals(new int[] {300, 200}, readHeader(image.readAllBytes()));
+        }
+    }
+
+    @Test
+    public void testPngHeader() throws IOException {
+        assertArrayEquals(new int[] {1500, 1300}, readHeader(writeImage("png", 1500, 1300)));
+    }
+
+    @Test
+    public void testTiffHeader() throws IOException {
+        assertArrayEquals(new int[] {1500, 1300}, readHeader(writeImage("tiff", 1500, 1300)));
+    }
+
+    @Test
+    public void testJ2kCodestreamHeader() throws IOException {
+        ByteBuffer codestream = ByteBuffer.allocate(64)
+                                          .putShort((short) 0xFF4F) // start of codestream
+                                          .putShort((short) 0xFF51) // image and tile size
+                                          .putShort((short) 41).putShort((short) 0)
+                                          .putInt(1610).putInt(1320) // size of the reference grid
+                                          .putInt(10).putInt(20); // image offset
+        assertArrayEquals(new int[] {1600, 1300}, readHeader(codestream.array()));
+    }
+
+    @Test
+    public void testTruncatedHeader() throws IOException {
+        byte[] png = writeImage("png", 1500, 1300);
+        assertNull(readHeader(Arrays.copyOf(png, 20)));
+        assertNull(readHeader("not an image".getBytes()));
+    }
+
+    @Test
+    public void testImageReaderFallback() throws IOException {
+        // no header parser for GIF images, which are probed by the ImageIO reader
+        byte[] gif = writeImage("gif", 1500, 1300);
+        assertNull(readHeader(gif));
+        assertArrayEquals(new int[] {1500, 1300},
+                          ImageDimensionReader.getImageDimensions(new ByteArrayInputStream(gif)));
+    }
+
+    @Test
+    public void testSmallImageDimensionsAreDoubled() throws IOException {
+        try (InputStream image = getClass().getResourceAsStream("cat.jpg")) {
+            assertArrayEquals(new int[] {600, 400}, ImageDimensionReader.getImageDimensions(image));
+        }
+        assertNull(ImageDimensionReader.getImageDimensions(new ByteArrayInputStream("not an image".getBytes())));
+    }
+
+    private int[] readHeader(byte[] image) throws IOException {
+        return ImageDimensionReader.readHeaderDimensions(
+            new HeaderInput(new ByteArrayInputStream(image), ImageDimensionReader.MAX_HEADER_LENGTH));
+    }
+
+    private byte[] writeImage(String format, int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY), format, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.scripts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests of the {@link ProcessLogWriter}.
+ */
+public class ProcessLogWriterTest {
+
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
+    @Test
+    public void idleLinesAreWrittenAfterTheFlushInterval() throws Exception {
+        File file = tempDir.newFile("process.log");
+        try (ProcessLogWriter writer = new ProcessLogWriter(file, 65536, 100)) {
+            writer.flush();
+            writer.append("first line");
+            writer.flushIfIdle();
+            assertEquals("", FileUtils.readFileToString(file, StandardCharsets.UTF_8));
+
+            Thread.sleep(150);
+            writer.flushIfIdle();
+            assertEquals("first line" + System.lineSeparator(),
+                         FileUtils.readFileToString(file, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void linesAreRejectedOnceClosed() throws Exception {
+        File file = tempDir.newFile("process.log");
+        ProcessLogWriter writer = new ProcessLogWriter(file, 65536, 1000);
+        writer.append("last line");
+        writer.close();
+
+        assertThrows(IOException.class, () -> writer.append("late line"));
+        writer.flushIfIdle();
+        assertEquals("last line" + System.lineSeparator(), FileUtils.readFileToString(file, StandardCharsets.UTF_8));
+    }
+}
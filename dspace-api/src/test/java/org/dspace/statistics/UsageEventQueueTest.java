@@ -0,0 +1,162 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.apache.solr.common.SolrInputDocument;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests of the {@link UsageEventQueue}.
+ */
+public class UsageEventQueueTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Set<String> sent = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger batches = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private File journal;
+    private UsageEventQueue queue;
+
+    @Before
+    public void setUp() throws Exception {
+        journal = new File(folder.getRoot(), "statistics/usage-events.journal");
+        queue = new UsageEventQueue(docs -> {
+            if (failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("statistics core unavailable");
+            }
+            batches.incrementAndGet();
+            for (SolrInputDocument doc : docs) {
+                sent.add(String.valueOf(doc.getFieldValue("id")));
+            }
+        }, journal);
+        queue.setLinger(0);
+        queue.setRetryDelay(50);
+    }
+
+    @After
+    public void tearDown() {
+        queue.stop();
+    }
+
+    @Test
+    public void documentsAreSentInBatches() throws Exception {
+        queue.setBatchSize(10);
+        queue.start();
+        for (int i = 0; i < 25; i++) {
+            queue.submit(view(i));
+        }
+        assertTrue(queue.flush(10000));
+
+        assertEquals(25, sent.size());
+        assertTrue(batches.get() >= 3);
+        assertEquals(25, queue.getSentCount());
+        assertEquals(0, queue.getSpilledCount());
+    }
+
+    @Test
+    public void overflowIsSpilledAndSentOnceTheQueueIsEmpty() throws Exception {
+        queue.setCapacity(2);
+        for (int i = 0; i < 5; i++) {
+            queue.submit(view(i));
+        }
+        assertEquals(2, queue.getQueueSize());
+        assertEquals(3, queue.getJournalSize());
+        assertEquals(3, Files.readAllLines(journal.toPath(), StandardCharsets.UTF_8).size());
+
+        queue.start();
+        waitForSent(5);
+        long deadline = System.currentTimeMillis() + 10000;
+        while (queue.getJournalSize() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, queue.getJournalSize());
+        assertFalse(journal.exists());
+        assertEquals(List.of("0", "1", "2", "3", "4"), sent.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void overflowIsDropped() throws Exception {
+        queue.setCapacity(1);
+        queue.setOverflowPolicy(UsageEventQueue.OverflowPolicy.DROP);
+        for (int i = 0; i < 3; i++) {
+            queue.submit(view(i));
+        }
+        assertEquals(2, queue.getDroppedCount());
+        assertEquals(0, queue.getJournalSize());
+
+        queue.start();
+        assertTrue(queue.flush(10000));
+        assertEquals(Set.of("0"), sent);
+    }
+
+    @Test
+    public void failedBatchesAreSentAgain() throws Exception {
+        failures.set(1);
+        queue.start();
+        queue.submit(view(1));
+        queue.submit(view(2));
+
+        waitForSent(2);
+        assertTrue(queue.getFailureCount() > 0);
+        assertEquals(0, queue.getDroppedCount());
+    }
+
+    @Test
+    public void queuedDocumentsAreSpilledOnShutdownAndSentOnRestart() throws Exception {
+        queue.submit(view(1));
+        queue.submit(view(2));
+        queue.stop();
+        assertEquals(2, Files.readAllLines(journal.toPath(), StandardCharsets.UTF_8).size());
+        assertTrue(sent.isEmpty());
+
+        UsageEventQueue restarted = new UsageEventQueue(docs -> docs.forEach(
+            doc -> sent.add(String.valueOf(doc.getFieldValue("id")))), journal);
+        restarted.start();
+        try {
+            waitForSent(2);
+        } finally {
+            restarted.stop();
+        }
+    }
+
+    private void waitForSent(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (sent.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(count, sent.size());
+    }
+
+    private SolrInputDocument view(int id) {
+        SolrInputDocument doc = new SolrInputDocument();
+        doc.addField("id", String.valueOf(id));
+        doc.addField("type", 2);
+        doc.addField("ip", "127.0.0.1");
+        doc.addField("statistics_type", SolrLoggerServiceImpl.StatisticsType.VIEW.text());
+        return doc;
+    }
+}
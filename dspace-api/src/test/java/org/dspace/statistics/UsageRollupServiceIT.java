@@ -0,0 +1,158 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics;
+
+import static org.apache.commons.lang3.time.DateFormatUtils.format;
+import static org.dspace.statistics.SolrLoggerServiceImpl.DATE_FORMAT_8601;
+import static org.junit.Assert.assertEquals;
+
+import java.time.YearMonth;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.apache.solr.common.SolrInputDocument;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.core.Constants;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.dspace.statistics.factory.StatisticsServiceFactory;
+import org.dspace.statistics.service.UsageRollupService;
+import org.dspace.utils.DSpace;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration tests of the {@link UsageRollupService} and of the usage-rollup script.
+ */
+public class UsageRollupServiceIT extends AbstractIntegrationTestWithDatabase {
+
+    private final UsageRollupService usageRollupService =
+        StatisticsServiceFactory.getInstance().getUsageRollupService();
+    private final ConfigurationService configurationService =
+        DSpaceServicesFactory.getInstance().getConfigurationService();
+    private final SolrStatisticsCore solrStatisticsCore = new DSpace().getSingletonService(SolrStatisticsCore.class);
+
+    private Item item;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        configurationService.setProperty("usage-statistics.rollup.enabled", true);
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).build();
+        Collection collection = CollectionBuilder.createCollection(context, parentCommunity).build();
+        item = ItemBuilder.createItem(context, collection).withTitle("Viewed item").build();
+        context.restoreAuthSystemState();
+        context.commit();
+    }
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        configurationService.setProperty("usage-statistics.rollup.enabled", false);
+        super.destroy();
+    }
+
+    @Test
+    public void viewsAreCountedByDayCountryAndCity() throws Exception {
+        usageRollupService.record(view(item.getID(), Constants.ITEM, 0, "US", "New York"));
+        usageRollupService.record(view(item.getID(), Constants.ITEM, 0, "US", "New York"));
+        usageRollupService.record(view(item.getID(), Constants.ITEM, 0, "BE", "Brussels"));
+        usageRollupService.record(view(item.getID(), Constants.ITEM, 62, "FR", "Paris"));
+        usageRollupService.record(view(item.getID(), Constants.ITEM, 0, null, null));
+        SolrInputDocument robot = view(item.getID(), Constants.ITEM, 0, "US", "New York");
+        robot.setField("isBot", true);
+        usageRollupService.record(robot);
+        usageRollupService.flush();
+
+        assertEquals(5, usageRollupService.getTotalViews(context, item));
+
+        YearMonth now = YearMonth.now();
+        Map<YearMonth, Long> perMonth = usageRollupService.getViewsPerMonth(context, item, now.minusMonths(6), now);
+        assertEquals(7, perMonth.size());
+        assertEquals(Long.valueOf(4), perMonth.get(now));
+        assertEquals(Long.valueOf(0), perMonth.get(now.minusMonths(6)));
+
+        List<ObjectCount> countries = usageRollupService.getTopCountries(context, item, 100);
+        assertEquals(List.of("US", "BE", "FR"),
+                     countries.stream().map(ObjectCount::getValue).collect(Collectors.toList()));
+        assertEquals(2, countries.get(0).getCount());
+        List<ObjectCount> cities = usageRollupService.getTopCities(context, item, 1);
+        assertEquals(1, cities.size());
+        assertEquals("New York", cities.get(0).getValue());
+        assertEquals(2, cities.get(0).getCount());
+    }
+
+    @Test
+    public void downloadsOutsideTheReportedBundlesAreNotCounted() throws Exception {
+        UUID file = UUID.randomUUID();
+        UUID thumbnail = UUID.randomUUID();
+        SolrInputDocument download = view(file, Constants.BITSTREAM, 0, "US", "New York");
+        download.addField("owningItem", item.getID().toString());
+        download.addField("bundleName", "ORIGINAL");
+        usageRollupService.record(download);
+        SolrInputDocument thumbnailView = view(thumbnail, Constants.BITSTREAM, 0, "US", "New York");
+        thumbnailView.addField("owningItem", item.getID().toString());
+        thumbnailView.addField("bundleName", "THUMBNAIL");
+        usageRollupService.record(thumbnailView);
+        usageRollupService.flush();
+
+        List<ObjectCount> bitstreams = usageRollupService.getTopBitstreams(context, item, 10);
+        assertEquals(1, bitstreams.size());
+        assertEquals(file.toString(), bitstreams.get(0).getValue());
+        assertEquals(1, bitstreams.get(0).getCount());
+    }
+
+    @Test
+    public void rebuildCountsTheViewsOfTheStatisticsCore() throws Exception {
+        solrStatisticsCore.getSolr().add(view(item.getID(), Constants.ITEM, 3, "US", "New York"));
+        solrStatisticsCore.getSolr().add(view(item.getID(), Constants.ITEM, 3, "US", "New York"));
+        solrStatisticsCore.getSolr().add(view(item.getID(), Constants.ITEM, 40, "BE", "Brussels"));
+        SolrInputDocument search = view(item.getID(), Constants.ITEM, 3, "US", "New York");
+        search.setField("statistics_type", SolrLoggerServiceImpl.StatisticsType.SEARCH.text());
+        solrStatisticsCore.getSolr().add(search);
+        // the views of the current day are left to the logged views
+        solrStatisticsCore.getSolr().add(view(item.getID(), Constants.ITEM, 0, "US", "New York"));
+        solrStatisticsCore.getSolr().commit();
+
+        runDSpaceScript("usage-rollup");
+        assertEquals(3, usageRollupService.getTotalViews(context, item));
+
+        // the rollups are replaced
+        runDSpaceScript("usage-rollup");
+        assertEquals(3, usageRollupService.getTotalViews(context, item));
+        assertEquals("US", usageRollupService.getTopCountries(context, item, 1).get(0).getValue());
+    }
+
+    private SolrInputDocument view(UUID id, int type, int daysAgo, String countryCode, String city) {
+        SolrInputDocument doc = new SolrInputDocument();
+        doc.addField("id", id.toString());
+        doc.addField("type", type);
+        Calendar calendar = Calendar.getInstance();
+        calendar.add(Calendar.DAY_OF_YEAR, -daysAgo);
+        doc.addField("time", format(calendar, DATE_FORMAT_8601));
+        doc.addField("ip", "127.0.0.1");
+        doc.addField("isBot", false);
+        if (countryCode != null) {
+            doc.addField("countryCode", countryCode);
+            doc.addField("city", city);
+        }
+        doc.addField("statistics_type", SolrLoggerServiceImpl.StatisticsType.VIEW.text());
+        return doc;
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import org.dspace.AbstractDSpaceTest;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of the {@link CombinedPatternMatcher}.
+ */
+public class CombinedPatternMatcherTest extends AbstractDSpaceTest {
+
+    private static final List<String> AGENTS = List.of(
+        "Mozilla/5.0 (X11; Linux x86_64; rv:91.0) Gecko/20100101 Firefox/91.0",
+        "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/118.0 Safari/537.36",
+        "Mozilla/5.0 (iPhone; CPU iPhone OS 17_0 like Mac OS X) AppleWebKit/605.1.15 Mobile/15E148",
+        "Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)",
+        "Mozilla/5.0 (compatible; bingbot/2.0; +http://www.bing.com/bingbot.htm)",
+        "msnbot is watching you",
+        "Buck/2.2; (+https://app.hypefactors.com/media-monitoring/about.html)",
+        "Java/1.8.0_292",
+        "python-requests/2.31.0",
+        "curl/8.1.2",
+        "Wget/1.21",
+        "ruby",
+        "x",
+        "",
+        "AddThis.com robot tech.support@clearspring.com",
+        "Alexandria prototype project",
+        "Apache-HttpClient/4.5.13 (Java/17.0.8)",
+        "facebookexternalhit/1.1",
+        "Mozilla/5.0 (compatible; SemrushBot/7~bl; +http://www.semrush.com/bot.html)",
+        "Zotero/6.0",
+        "catfish",
+        "afish");
+
+    private final ConfigurationService configurationService =
+        DSpaceServicesFactory.getInstance().getConfigurationService();
+    private final List<String> regexes = new ArrayList<>();
+
+    @Before
+    public void init() throws Exception {
+        File agentsDir = new File(configurationService.getProperty("dspace.dir"), "config/spiders/agents");
+        SpiderDetectorServiceImpl reader = new SpiderDetectorServiceImpl(configurationService, null);
+        for (File file : agentsDir.listFiles()) {
+            regexes.addAll(reader.readPatterns(file));
+        }
+        assertFalse("The agent patterns should be installed", regexes.isEmpty());
+    }
+
+    @Test
+    public void findsTheSameAgentsAsTheIndividualPatterns() {
+        CombinedPatternMatcher matcher = new CombinedPatternMatcher(regexes);
+        assertTrue("Most patterns should be merged into automata",
+                   matcher.getPatternCount() < regexes.size() / 10);
+
+        for (String agent : agents()) {
+            assertEquals(agent, findSequentially(regexes, agent), matcher.find(agent));
+        }
+    }
+
+    @Test
+    public void findsTheSameAgentsAsTheIndividualLowercasePatterns() {
+        List<String> lowercase = new ArrayList<>();
+        for (String regex : regexes) {
+            lowercase.add(regex.toLowerCase(Locale.ROOT));
+        }
+        CombinedPatternMatcher matcher = new CombinedPatternMatcher(lowercase);
+
+        for (String agent : agents()) {
+            agent = agent.toLowerCase(Locale.ROOT);
+            assertEquals(agent, findSequentially(lowercase, agent), matcher.find(agent));
+        }
+    }
+
+    @Test
+    public void eachPatternMatchesWhatItMatchesAlone() {
+        List<String> cases = List.of(
+            "^Buck\\/[0-9]", "[^a]fish", "^IDA$", "^.?$", "Alexandria(\\s|\\+)prototype(\\s|\\+)project",
+            "a{2,3}b", "x.*?y", "(?:foo|bar)baz", "[a-c-]z", "[\\d.]+q", "\\W@\\w", "^(a|b)c$", "a|^b",
+            "\\bbot\\b", "(?i)crawler", "(a)\\1", "a++b", "<>", "\"quoted\"", "#~&@", "[^-a]x");
+        List<String> inputs = List.of(
+            "Buck/1", "xBuck/1", "catfish", "afish", "fish", "IDA", "IDAx", "", "z", "zz",
+            "Alexandria prototype project", "Alexandria+prototype+project", "aab", "ab", "aaab", "xay", "yx",
+            "foobaz", "barbaz", "baz", "-z", "dz", "1.2q", "q", " @a", "a@a", "ac", "bc", "abc", "a", "b",
+            "a bot b", "robots", "CRAWLER", "aa", "ab", "<>", "\"quoted\"", "#~&@", "bx", "-x", "ax");
+        for (String regex : cases) {
+            CombinedPatternMatcher matcher = new CombinedPatternMatcher(List.of(regex));
+            for (String input : inputs) {
+                assertEquals(regex + " on " + input, Pattern.compile(regex).matcher(input).find(),
+                             matcher.find(input));
+            }
+        }
+    }
+
+    @Test
+    public void unsupportedConstructsAreNotTranslated() {
+        assertNotNull(CombinedPatternMatcher.translate("^Buck\\/[0-9]"));
+        assertNotNull(CombinedPatternMatcher.translate("(?:a|b)+?c"));
+        assertNull(CombinedPatternMatcher.translate("\\bbot\\b"));
+        assertNull(CombinedPatternMatcher.translate("(?i)bot"));
+        assertNull(CombinedPatternMatcher.translate("(?!x)bot"));
+        assertNull(CombinedPatternMatcher.translate("(a)\\1"));
+        assertNull(CombinedPatternMatcher.translate("a++"));
+        assertNull(CombinedPatternMatcher.translate("a^b"));
+        assertNull(CombinedPatternMatcher.translate("a|^b"));
+        assertNull(CombinedPatternMatcher.translate("[a[b]]"));
+
+        CombinedPatternMatcher matcher = new CombinedPatternMatcher(List.of("\\bbot\\b", "crawl"));
+        assertEquals(1, matcher.getAutomatonCount());
+        assertEquals(1, matcher.getPatternCount());
+        assertTrue(matcher.find("a bot"));
+        assertTrue(matcher.find("webcrawler"));
+        assertFalse(matcher.find("robots"));
+    }
+
+    @Test
+    public void noPatternsMatchNothing() {
+        CombinedPatternMatcher matcher = new CombinedPatternMatcher(List.of());
+        assertTrue(matcher.isEmpty());
+        assertFalse(matcher.find("anything"));
+    }
+
+    private List<String> agents() {
+        List<String> agents = new ArrayList<>(AGENTS);
+        // the patterns themselves, as far as they are literal, and some variations around them
+        for (String regex : regexes) {
+            String literal = regex.replaceAll("[\\\\^$\\[\\](){}*+?|.]", "");
+            agents.add(literal);
+            agents.add("Mozilla/5.0 (compatible; " + literal + "/1.0)");
+            if (literal.length() > 2) {
+                agents.add(literal.substring(1, literal.length() - 1));
+            }
+        }
+        return agents;
+    }
+
+    private boolean findSequentially(List<String> regexes, String input) {
+        for (String regex : regexes) {
+            if (Pattern.compile(regex).matcher(input).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
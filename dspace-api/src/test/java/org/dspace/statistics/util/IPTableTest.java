@@ -163,6 +163,58 @@ public class IPTableTest {
         assertFalse("Range should not contain value above upper limit", instance.contains("192.168.2.0"));
     }
 
+    @Test
+    public void testOverlappingRangesContain() throws Exception {
+        IPTable instance = new IPTable();
+        instance.add("10.0.0.0/8");
+        instance.add("10.1.2.3");
+        instance.add("10.255.255.255-11.0.0.5");
+        instance.add("11.0.0.6");
+        instance.add("192.168.0.10-192.168.0.20");
+        instance.add("192.168.0.15-192.168.0.30");
+
+        assertTrue(instance.contains("10.1.2.3"));
+        assertTrue(instance.contains("11.0.0.5"));
+        assertTrue(instance.contains("11.0.0.6"));
+        assertFalse(instance.contains("11.0.0.7"));
+        assertFalse(instance.contains("9.255.255.255"));
+        assertTrue(instance.contains("192.168.0.10"));
+        assertTrue(instance.contains("192.168.0.25"));
+        assertTrue(instance.contains("192.168.0.30"));
+        assertFalse(instance.contains("192.168.0.31"));
+
+        // ranges added after a lookup are found as well
+        instance.add("192.168.0.31");
+        assertTrue(instance.contains("192.168.0.31"));
+    }
+
+    @Test
+    public void testIPv6Contains() throws Exception {
+        IPTable instance = new IPTable();
+        instance.add("2001:db8::/32");
+        instance.add("fec0:0:0:1::2");
+        instance.add("2a03:2880::1-2a03:2880::ff");
+        instance.add(LOCALHOST);
+
+        assertTrue(instance.contains("2001:db8::"));
+        assertTrue(instance.contains("2001:db8:ffff:ffff:ffff:ffff:ffff:ffff"));
+        assertFalse(instance.contains("2001:db9::"));
+        assertTrue(instance.contains("fec0:0:0:1::2"));
+        assertFalse(instance.contains("fec0:0:0:1::3"));
+        assertTrue(instance.contains("2a03:2880::80"));
+        assertFalse(instance.contains("2a03:2880::100"));
+        assertTrue("IPv4 address mapped to IPv6 should match", instance.contains("::ffff:127.0.0.1"));
+        assertFalse("IPv4 range should not match IPv6 addresses", instance.contains("::1"));
+
+        assertFalse(instance.isEmpty());
+        assertEquals("IPv6 ranges are not expanded", 1, instance.toSet().size());
+    }
+
+    @Test(expected = IPFormatException.class)
+    public void testIPv6BadPrefix() throws Exception {
+        new IPTable().add("2001:db8::/129");
+    }
+
     /**
      * Test of isEmpty method, of class IPTable.
      * @throws java.lang.Exception passed through.
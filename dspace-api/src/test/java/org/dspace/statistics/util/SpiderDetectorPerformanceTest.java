@@ -0,0 +1,163 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics.util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.AbstractDSpaceTest;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Timings of the spider detection, only logged: they depend on the machine and its load, so nothing is asserted.
+ * The correctness of the detection is tested by {@link CombinedPatternMatcherTest} and
+ * {@link SpiderDetectorServiceImplTest}.
+ */
+public class SpiderDetectorPerformanceTest extends AbstractDSpaceTest {
+
+    private static final Logger log = LogManager.getLogger();
+
+    private static final int THREADS = 8;
+    private static final int LOOKUPS = 200000;
+
+    private final ConfigurationService configurationService =
+        DSpaceServicesFactory.getInstance().getConfigurationService();
+    private final List<String> regexes = new ArrayList<>();
+    private final List<String> agents = new ArrayList<>();
+
+    @Before
+    public void init() throws Exception {
+        File agentsDir = new File(configurationService.getProperty("dspace.dir"), "config/spiders/agents");
+        SpiderDetectorServiceImpl reader = new SpiderDetectorServiceImpl(configurationService, null);
+        for (File file : agentsDir.listFiles()) {
+            regexes.addAll(reader.readPatterns(file));
+        }
+        // a few browsers and the patterns themselves, as far as they are literal
+        agents.add("Mozilla/5.0 (X11; Linux x86_64; rv:91.0) Gecko/20100101 Firefox/91.0");
+        agents.add("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/118.0");
+        agents.add("Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)");
+        for (int i = 0; i < regexes.size(); i += 10) {
+            agents.add(regexes.get(i).replaceAll("[\\\\^$\\[\\](){}*+?|.]", ""));
+        }
+    }
+
+    @Test
+    public void combinedPatternsAgainstIndividualPatterns() {
+        List<Pattern> patterns = new ArrayList<>();
+        for (String regex : regexes) {
+            patterns.add(Pattern.compile(regex));
+        }
+        CombinedPatternMatcher matcher = new CombinedPatternMatcher(regexes);
+
+        long start = System.nanoTime();
+        int found = 0;
+        for (String agent : agents) {
+            for (Pattern pattern : patterns) {
+                if (pattern.matcher(agent).find()) {
+                    found++;
+                    break;
+                }
+            }
+        }
+        long individual = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        int combinedFound = 0;
+        for (String agent : agents) {
+            if (matcher.find(agent)) {
+                combinedFound++;
+            }
+        }
+        long combined = System.nanoTime() - start;
+
+        log.info("{} agents matched against {} patterns: {} microseconds with the individual patterns " +
+                     "({} found), {} microseconds with the combined patterns ({} found)", agents.size(),
+                 regexes.size(), individual / 1000, found, combined / 1000, combinedFound);
+    }
+
+    @Test
+    public void agentCacheAgainstSynchronizedMap() throws Exception {
+        CombinedPatternMatcher matcher = new CombinedPatternMatcher(regexes);
+        int maxSize = agents.size() / 2;
+
+        // the cache formerly used by SpiderDetectorServiceImpl, smaller than the agents
+        Map<String, Boolean> map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > maxSize;
+            }
+        };
+        long synchronizedMap = time(agent -> {
+            synchronized (map) {
+                Boolean verdict = map.get(agent);
+                if (verdict != null) {
+                    return verdict;
+                }
+            }
+            boolean verdict = matcher.find(agent);
+            synchronized (map) {
+                map.put(agent, verdict);
+            }
+            return verdict;
+        });
+
+        Cache<String, Boolean> cache = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+        long concurrentCache = time(agent -> {
+            Boolean verdict = cache.getIfPresent(agent);
+            if (verdict == null) {
+                verdict = matcher.find(agent);
+                cache.put(agent, verdict);
+            }
+            return verdict;
+        });
+
+        log.info("{} agent lookups by each of {} threads: {} ms with the synchronized map, {} ms with the " +
+                     "concurrent cache", LOOKUPS, THREADS, synchronizedMap / 1000000, concurrentCache / 1000000);
+    }
+
+    /**
+     * @return the nanoseconds taken by the threads to look up the agents, most often the first ones
+     */
+    private long time(Function<String, Boolean> lookup) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < THREADS; t++) {
+                int seed = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < LOOKUPS; i++) {
+                        int index = (seed + i) % (i % 10 == 0 ? agents.size() : 3);
+                        lookup.apply(agents.get(index));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - start;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -10,6 +10,10 @@ package org.dspace.statistics.util;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
 import org.dspace.AbstractDSpaceTest;
 import org.dspace.core.factory.CoreServiceFactory;
 import org.dspace.service.ClientInfoService;
@@ -17,7 +21,9 @@ import org.dspace.services.ConfigurationService;
 import org.dspace.services.factory.DSpaceServicesFactory;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 /**
  * @author mwood
@@ -32,6 +38,9 @@ public class SpiderDetectorServiceImplTest extends AbstractDSpaceTest {
 
     private SpiderDetectorService spiderDetectorService;
 
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
     @Before
     public void init() {
         configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
@@ -323,6 +332,33 @@ public class SpiderDetectorServiceImplTest extends AbstractDSpaceTest {
     }
 
 
+    /**
+     * Test that an invalid agent pattern is skipped, and the other patterns are still used
+     */
+    @Test
+    public void testInvalidAgentPatternIsSkipped() throws Exception {
+        File agentsDir = new File(tempDir.getRoot(), "config/spiders/agents");
+        agentsDir.mkdirs();
+        FileUtils.writeStringToFile(new File(agentsDir, "test"), "[invalid\nexamplebot\n", StandardCharsets.UTF_8);
+        String dspaceDir = configurationService.getProperty("dspace.dir");
+        configurationService.setProperty("dspace.dir", tempDir.getRoot().getAbsolutePath());
+        try {
+            spiderDetectorService = new SpiderDetectorServiceImpl(configurationService, clientInfoService);
+
+            DummyHttpServletRequest req = new DummyHttpServletRequest();
+            req.setAddress(NOT_A_BOT_ADDRESS); // avoid surprises
+            req.setRemoteHost("notabot.example.com"); // avoid surprises
+
+            req.setAgent("examplebot/1.0");
+            assertTrue("'examplebot' didn't match pattern", spiderDetectorService.isSpider(req));
+
+            req.setAgent("Firefox");
+            assertFalse("'Firefox' matched pattern", spiderDetectorService.isSpider(req));
+        } finally {
+            configurationService.setProperty("dspace.dir", dspaceDir);
+        }
+    }
+
     /**
      * Method to make sure the SpiderDetector is using CaseSensitive matching again after each test
      *
@@ -0,0 +1,169 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.storage.bitstore;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.BitstreamBuilder;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.BitstreamService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.dspace.storage.bitstore.dao.BitstreamMigrationDAO;
+import org.dspace.storage.bitstore.factory.StorageServiceFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration tests for the {@link BitStoreMigrate} script.
+ */
+public class BitStoreMigrateIT extends AbstractIntegrationTestWithDatabase {
+
+    private static final int DESTINATION_STORE = 99;
+
+    private final BitstreamStorageServiceImpl bitstreamStorageService = (BitstreamStorageServiceImpl)
+        StorageServiceFactory.getInstance().getBitstreamStorageService();
+
+    private final BitstreamService bitstreamService = ContentServiceFactory.getInstance().getBitstreamService();
+
+    private final BitstreamMigrationDAO bitstreamMigrationDAO = DSpaceServicesFactory.getInstance()
+        .getServiceManager().getServicesByType(BitstreamMigrationDAO.class).get(0);
+
+    private File destinationDir;
+
+    private Item item;
+
+    @Before
+    public void setupDestinationStore() throws Exception {
+        destinationDir = Files.createTempDirectory("bitstore-migrate").toFile();
+        DSBitStoreService destinationStore = new DSBitStoreService();
+        destinationStore.setBaseDir(destinationDir);
+        destinationStore.init();
+        bitstreamStorageService.getStores().put(DESTINATION_STORE, destinationStore);
+
+        context.turnOffAuthorisationSystem();
+        Collection collection = CollectionBuilder.createCollection(context,
+            CommunityBuilder.createCommunity(context).build()).build();
+        item = ItemBuilder.createItem(context, collection).withTitle("Test item").build();
+        context.restoreAuthSystemState();
+    }
+
+    @Override
+    @After
+    public void destroy() throws Exception {
+        bitstreamStorageService.getStores().remove(DESTINATION_STORE);
+        FileUtils.deleteDirectory(destinationDir);
+        super.destroy();
+    }
+
+    @Test
+    public void testMigrateWithMultipleThreads() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Bitstream first = createBitstream("first bitstream content");
+        Bitstream second = createBitstream("second bitstream content");
+        Bitstream third = createBitstream("third bitstream content");
+        context.restoreAuthSystemState();
+        context.commit();
+
+        runDSpaceScript("bitstore-migrate", "-a", "0", "-b", String.valueOf(DESTINATION_STORE), "-t", "2", "-d");
+
+        for (Bitstream bitstream : new Bitstream[] {first, second, third}) {
+            context.uncacheEntity(bitstream);
+            Bitstream migrated = bitstreamService.find(context, bitstream.getID());
+            assertThat(migrated.getStoreNumber(), is(DESTINATION_STORE));
+            assertThat(getMigrationStatus(migrated), is(BitstreamMigrationStatus.COMPLETED));
+            assertNull(bitstreamStorageService.getStores().get(0).about(migrated, List.of("size_bytes")));
+            try (InputStream in = bitstreamStorageService.retrieve(context, migrated)) {
+                assertTrue(IOUtils.toString(in, UTF_8).endsWith("bitstream content"));
+            }
+        }
+    }
+
+    @Test
+    public void testMigrateSkipsBitstreamWithWrongChecksum() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Bitstream bitstream = createBitstream("corrupted bitstream content");
+        bitstream.setChecksum("0123456789abcdef0123456789abcdef");
+        bitstreamService.update(context, bitstream);
+        context.restoreAuthSystemState();
+        context.commit();
+
+        runDSpaceScript("bitstore-migrate", "-a", "0", "-b", String.valueOf(DESTINATION_STORE), "-t", "2");
+
+        context.uncacheEntity(bitstream);
+        Bitstream notMigrated = bitstreamService.find(context, bitstream.getID());
+        assertThat(notMigrated.getStoreNumber(), is(0));
+        assertThat(notMigrated.getChecksum(), is("0123456789abcdef0123456789abcdef"));
+        assertThat(getMigrationStatus(notMigrated), is(BitstreamMigrationStatus.FAILED));
+    }
+
+    @Test
+    public void testMigrateSkipsTruncatedCopy() throws Exception {
+        // a destination store which reports the checksum of the bits it received, but stores them truncated
+        DSBitStoreService truncatingStore = new DSBitStoreService() {
+            @Override
+            public void put(Bitstream bitstream, InputStream in) throws IOException {
+                super.put(bitstream, in);
+                try (RandomAccessFile file = new RandomAccessFile(getFile(bitstream), "rw")) {
+                    file.setLength(file.length() / 2);
+                }
+            }
+        };
+        truncatingStore.setBaseDir(destinationDir);
+        truncatingStore.init();
+        bitstreamStorageService.getStores().put(DESTINATION_STORE, truncatingStore);
+
+        context.turnOffAuthorisationSystem();
+        Bitstream bitstream = createBitstream("truncated bitstream content");
+        context.restoreAuthSystemState();
+        context.commit();
+
+        runDSpaceScript("bitstore-migrate", "-a", "0", "-b", String.valueOf(DESTINATION_STORE), "-d");
+
+        context.uncacheEntity(bitstream);
+        Bitstream notMigrated = bitstreamService.find(context, bitstream.getID());
+        assertThat(notMigrated.getStoreNumber(), is(0));
+        assertThat(getMigrationStatus(notMigrated), is(BitstreamMigrationStatus.FAILED));
+        try (InputStream in = bitstreamStorageService.retrieve(context, notMigrated)) {
+            assertThat(IOUtils.toString(in, UTF_8), is("truncated bitstream content"));
+        }
+    }
+
+    private Bitstream createBitstream(String content) throws Exception {
+        try (InputStream is = IOUtils.toInputStream(content, UTF_8)) {
+            return BitstreamBuilder.createBitstream(context, item, is).build();
+        }
+    }
+
+    private BitstreamMigrationStatus getMigrationStatus(Bitstream bitstream) throws Exception {
+        BitstreamMigration migration = bitstreamMigrationDAO.findByBitstream(context, bitstream);
+        assertThat(migration, notNullValue());
+        return migration.getStatus();
+    }
+}
@@ -9,6 +9,7 @@ package org.dspace.storage.bitstore;
 
 import static com.amazonaws.regions.Regions.DEFAULT_REGION;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.dspace.storage.bitstore.S3BitStoreService.CHECKSUM_METADATA;
 import static org.dspace.storage.bitstore.S3BitStoreService.CSA;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
@@ -195,6 +196,66 @@ public class S3BitStoreServiceIT extends AbstractIntegrationTestWithDatabase {
 
     }
 
+    @Test
+    public void testBitstreamStreamingGet() throws IOException {
+
+        s3BitStoreService.setStreamingGet(true);
+        s3BitStoreService.init();
+
+        context.turnOffAuthorisationSystem();
+        String content = "Test bitstream content";
+        Bitstream bitstream = createBitstream(content);
+        context.restoreAuthSystemState();
+
+        s3BitStoreService.put(bitstream, toInputStream(content));
+
+        InputStream inputStream = s3BitStoreService.get(bitstream);
+        assertThat(inputStream, instanceOf(S3RangeInputStream.class));
+        assertThat(IOUtils.toString(inputStream, UTF_8), is(content));
+
+        try (InputStream rangeStream = s3BitStoreService.get(bitstream)) {
+            assertThat(rangeStream.skip(5), is(5L));
+            assertThat(IOUtils.toString(rangeStream, UTF_8), is("bitstream content"));
+        }
+
+        try (InputStream rangeStream = s3BitStoreService.get(bitstream)) {
+            assertThat(rangeStream.skip(100), is((long) content.length()));
+            assertThat(rangeStream.read(), is(-1));
+        }
+
+    }
+
+    @Test
+    public void testBitstreamStreamingPut() throws IOException {
+
+        s3BitStoreService.setStreamingPut(true);
+        s3BitStoreService.setStreamingPutPartSize(S3MultipartUploader.MIN_PART_SIZE);
+        s3BitStoreService.setStreamingPutThreads(2);
+        s3BitStoreService.init();
+
+        context.turnOffAuthorisationSystem();
+        String content = "Test bitstream content";
+        Bitstream bitstream = createBitstream(content);
+        String largeContent = "0123456789abcdef".repeat(S3MultipartUploader.MIN_PART_SIZE / 16 * 2 + 100);
+        Bitstream largeBitstream = createBitstream(largeContent);
+        context.restoreAuthSystemState();
+
+        s3BitStoreService.put(bitstream, toInputStream(content));
+
+        assertThat(bitstream.getSizeBytes(), is((long) content.length()));
+        assertThat(bitstream.getChecksum(), is(Utils.toHex(generateChecksum(content))));
+        assertThat(bitstream.getChecksumAlgorithm(), is(CSA));
+        assertThat(IOUtils.toString(s3BitStoreService.get(bitstream), UTF_8), is(content));
+
+        s3BitStoreService.put(largeBitstream, toInputStream(largeContent));
+
+        assertThat(largeBitstream.getSizeBytes(), is((long) largeContent.length()));
+        assertThat(largeBitstream.getChecksum(), is(Utils.toHex(generateChecksum(largeContent))));
+        assertThat(largeBitstream.getChecksumAlgorithm(), is(CSA));
+        assertThat(IOUtils.toString(s3BitStoreService.get(largeBitstream), UTF_8), is(largeContent));
+
+    }
+
     @Test
     public void testBitstreamDeletion() throws IOException {
 
@@ -258,6 +319,69 @@ public class S3BitStoreServiceIT extends AbstractIntegrationTestWithDatabase {
 
     }
 
+    @Test
+    public void testAboutWithChecksumMetadata() throws IOException {
+
+        s3BitStoreService.setChecksumMetadata(true);
+        s3BitStoreService.init();
+
+        context.turnOffAuthorisationSystem();
+        String content = "Test bitstream content";
+        Bitstream bitstream = createBitstream(content);
+        context.restoreAuthSystemState();
+
+        s3BitStoreService.put(bitstream, toInputStream(content));
+
+        String expectedChecksum = Utils.toHex(generateChecksum(content));
+        String key = s3BitStoreService.getFullKey(bitstream.getInternalId());
+        ObjectMetadata objectMetadata = amazonS3Client.getObjectMetadata(DEFAULT_BUCKET_NAME, key);
+        assertThat(objectMetadata.getUserMetaDataOf(CHECKSUM_METADATA), is(expectedChecksum));
+
+        Map<String, Object> about = s3BitStoreService.about(bitstream, List.of("checksum", "checksum_algorithm"));
+        assertThat(about, hasEntry("checksum", expectedChecksum));
+        assertThat(about, hasEntry("checksum_algorithm", CSA));
+
+        // replace the content keeping the stored checksum: only a deep verification detects it
+        String corruptedContent = "Test bitstream CONTENT";
+        ObjectMetadata corruptedMetadata = new ObjectMetadata();
+        corruptedMetadata.setContentLength(corruptedContent.length());
+        corruptedMetadata.addUserMetadata(CHECKSUM_METADATA, expectedChecksum);
+        amazonS3Client.putObject(DEFAULT_BUCKET_NAME, key, toInputStream(corruptedContent), corruptedMetadata);
+
+        about = s3BitStoreService.about(bitstream, List.of("checksum"));
+        assertThat(about, hasEntry("checksum", expectedChecksum));
+
+        s3BitStoreService.setChecksumDeepVerify(true);
+        about = s3BitStoreService.about(bitstream, List.of("checksum"));
+        assertThat(about, hasEntry("checksum", Utils.toHex(generateChecksum(corruptedContent))));
+
+    }
+
+    @Test
+    public void testStreamingPutWithChecksumMetadata() throws IOException {
+
+        s3BitStoreService.setStreamingPut(true);
+        s3BitStoreService.setStreamingPutPartSize(S3MultipartUploader.MIN_PART_SIZE);
+        s3BitStoreService.setChecksumMetadata(true);
+        s3BitStoreService.init();
+
+        context.turnOffAuthorisationSystem();
+        String content = "0123456789abcdef".repeat(S3MultipartUploader.MIN_PART_SIZE / 16 + 100);
+        Bitstream bitstream = createBitstream(content);
+        context.restoreAuthSystemState();
+
+        s3BitStoreService.put(bitstream, toInputStream(content));
+
+        String expectedChecksum = Utils.toHex(generateChecksum(content));
+        assertThat(bitstream.getChecksum(), is(expectedChecksum));
+
+        String key = s3BitStoreService.getFullKey(bitstream.getInternalId());
+        ObjectMetadata objectMetadata = amazonS3Client.getObjectMetadata(DEFAULT_BUCKET_NAME, key);
+        assertThat(objectMetadata.getUserMetaDataOf(CHECKSUM_METADATA), is(expectedChecksum));
+        assertThat(IOUtils.toString(s3BitStoreService.get(bitstream), UTF_8), is(content));
+
+    }
+
     @Test
     public void handleRegisteredIdentifierPrefixInS3() {
         String trueBitStreamId = "012345";
@@ -0,0 +1,204 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.app;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Bundle;
+import org.dspace.content.DSpaceObject;
+import org.dspace.content.Item;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.ItemService;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.event.Consumer;
+import org.dspace.event.Event;
+import org.dspace.event.factory.EventServiceFactory;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.dspace.xoai.services.api.cache.XOAICacheService;
+import org.dspace.xoai.services.api.cache.XOAIItemCacheService;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Consumer keeping the OAI index up to date as items are installed, modified, withdrawn, reinstated or
+ * deleted, so that running {@code oai import} regularly is only needed to repair the index and to publish
+ * the items whose embargo ended.
+ * <p>
+ * Changes to the bundles and bitstreams of an item, including their policies, update the item. Changes to
+ * the policies of an item fire a modify event on the item, and so update its visibility in the index. The
+ * changed items are indexed in a single batch once the transaction of the event dispatch is committed, by a
+ * background thread in a read-only anonymous context of its own, after which the cached OAI responses are purged.
+ */
+public class OAIIndexEventConsumer implements Consumer {
+
+    private static final Logger log = LogManager.getLogger(OAIIndexEventConsumer.class);
+
+    private static AnnotationConfigApplicationContext applicationContext;
+
+    private static final ExecutorService updater = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "oai-index-updater");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Items to update in the OAI index at the end of the dispatch
+    private final Set<UUID> itemsToUpdate = new HashSet<>();
+
+    // Handles of the deleted items, whose compiled metadata is cached by handle
+    private final Map<UUID, String> deletedHandles = new HashMap<>();
+
+    @Override
+    public void initialize() throws Exception {
+        // The OAI services are loaded on first use
+    }
+
+    @Override
+    public void consume(Context ctx, Event event) throws Exception {
+        switch (event.getSubjectType()) {
+            case Constants.ITEM:
+                if (event.getEventType() != Event.DELETE) {
+                    // skip the changes to workspace and workflow items
+                    Item item = (Item) event.getSubject(ctx);
+                    if (item != null && !item.isArchived() && !item.isWithdrawn()) {
+                        break;
+                    }
+                }
+                // deleted items are flagged as deleted in the index, if they were indexed
+                itemsToUpdate.add(event.getSubjectID());
+                if (event.getEventType() == Event.DELETE && event.getDetail() != null) {
+                    deletedHandles.put(event.getSubjectID(), event.getDetail());
+                }
+                break;
+            case Constants.BUNDLE:
+                DSpaceObject bundle = event.getSubject(ctx);
+                if (bundle != null) {
+                    addItemsOf((Bundle) bundle);
+                }
+                break;
+            case Constants.BITSTREAM:
+                DSpaceObject bitstream = event.getSubject(ctx);
+                if (bitstream != null) {
+                    for (Bundle parent : ((Bitstream) bitstream).getBundles()) {
+                        addItemsOf(parent);
+                    }
+                }
+                break;
+            default:
+                log.warn("OAIIndexEventConsumer should not have been given this kind of subject in an event, "
+                             + "skipping: " + event.toString());
+        }
+    }
+
+    /**
+     * @return the identifiers of the items to update at the end of the current dispatch
+     */
+    Set<UUID> getItemsToUpdate() {
+        return itemsToUpdate;
+    }
+
+    /**
+     * @return the handles of the items deleted in the current dispatch, by item identifier
+     */
+    Map<UUID, String> getDeletedHandles() {
+        return deletedHandles;
+    }
+
+    private void addItemsOf(Bundle bundle) {
+        for (Item item : bundle.getItems()) {
+            itemsToUpdate.add(item.getID());
+        }
+    }
+
+    @Override
+    public void end(Context ctx) throws Exception {
+        if (itemsToUpdate.isEmpty()) {
+            return;
+        }
+        Set<UUID> items = new HashSet<>(itemsToUpdate);
+        Map<UUID, String> handles = new HashMap<>(deletedHandles);
+        itemsToUpdate.clear();
+        deletedHandles.clear();
+
+        // the changes are only visible to another context once committed
+        EventServiceFactory.getInstance().getEventOutboxService()
+                           .afterCommit(ctx, () -> updater.execute(() -> update(items, handles)));
+    }
+
+    /**
+     * Update the given items in the OAI index, as seen by anonymous users, then purge the cached OAI responses.
+     *
+     * @param items   identifiers of the items to update
+     * @param handles handles of the deleted items, by item identifier
+     */
+    private static void update(Set<UUID> items, Map<UUID, String> handles) {
+        AnnotationConfigApplicationContext oaiContext = getApplicationContext();
+        ConfigurationService configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
+        boolean solr = !"database".equals(configurationService.getProperty("oai.storage", "solr"));
+        Context context = new Context(Context.Mode.READ_ONLY);
+        try {
+            int updated;
+            if (solr) {
+                XOAI indexer = new XOAI(context, false, false, false);
+                oaiContext.getAutowireCapableBeanFactory().autowireBean(indexer);
+                updated = indexer.update(items);
+            } else {
+                // the items are compiled again on their next request
+                ItemService itemService = ContentServiceFactory.getInstance().getItemService();
+                XOAIItemCacheService itemCacheService = oaiContext.getBean(XOAIItemCacheService.class);
+                updated = 0;
+                for (UUID id : items) {
+                    Item item = itemService.find(context, id);
+                    if (item != null) {
+                        itemCacheService.delete(item);
+                    } else if (handles.containsKey(id)) {
+                        itemCacheService.delete(handles.get(id));
+                    }
+                    updated++;
+                }
+            }
+
+            if (updated > 0) {
+                oaiContext.getBean(XOAICacheService.class).deleteAll();
+            }
+            context.complete();
+            log.debug("Updated " + updated + " item(s) in the OAI index");
+        } catch (Exception e) {
+            // the items are updated by the next "oai import"
+            log.error("Unable to update " + items.size() + " item(s) in the OAI index", e);
+        } finally {
+            if (context.isValid()) {
+                context.abort();
+            }
+        }
+    }
+
+    @Override
+    public void finish(Context ctx) throws Exception {
+        // nothing to do
+    }
+
+    /**
+     * @return the Spring context of the OAI services, as loaded by the {@code oai} command line tool
+     */
+    private static synchronized AnnotationConfigApplicationContext getApplicationContext() {
+        if (applicationContext == null) {
+            applicationContext = new AnnotationConfigApplicationContext(BasicConfiguration.class);
+        }
+        return applicationContext;
+    }
+}
@@ -22,10 +22,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import javax.xml.stream.XMLStreamException;
 
 import com.lyncode.xoai.dataprovider.exceptions.ConfigurationException;
@@ -49,6 +53,7 @@ import org.apache.solr.common.SolrInputDocument;
 import org.dspace.authorize.ResourcePolicy;
 import org.dspace.authorize.factory.AuthorizeServiceFactory;
 import org.dspace.authorize.service.AuthorizeService;
+import org.dspace.authorize.service.ResourcePolicyService;
 import org.dspace.content.Bitstream;
 import org.dspace.content.Bundle;
 import org.dspace.content.Collection;
@@ -99,6 +104,7 @@ public class XOAI {
     private CollectionsService collectionsService;
 
     private final AuthorizeService authorizeService;
+    private final ResourcePolicyService resourcePolicyService;
     private final ItemService itemService;
 
     private final static ConfigurationService configurationService = DSpaceServicesFactory.getInstance()
@@ -130,6 +136,7 @@ public class XOAI {
 
         // Load necessary DSpace services
         this.authorizeService = AuthorizeServiceFactory.getInstance().getAuthorizeService();
+        this.resourcePolicyService = AuthorizeServiceFactory.getInstance().getResourcePolicyService();
         this.itemService = ContentServiceFactory.getInstance().getItemService();
         this.extensionPlugins = new DSpace().getServiceManager()
                 .getServicesByType(XOAIExtensionItemCompilePlugin.class);
@@ -141,6 +148,7 @@ public class XOAI {
 
         // Load necessary DSpace services
         this.authorizeService = AuthorizeServiceFactory.getInstance().getAuthorizeService();
+        this.resourcePolicyService = AuthorizeServiceFactory.getInstance().getResourcePolicyService();
         this.itemService = ContentServiceFactory.getInstance().getItemService();
         this.extensionPlugins = new DSpace().getServiceManager()
                 .getServicesByType(XOAIExtensionItemCompilePlugin.class);
@@ -206,6 +214,101 @@ public class XOAI {
         }
     }
 
+    /**
+     * Update the index for the given items only, e.g. once they have been changed. Items in the archive or
+     * withdrawn are (re)indexed, in batches of {@code oai.import.batch.size} items. Indexed items which were
+     * deleted, or are not in the archive anymore, are flagged as deleted so that harvesters are notified.
+     * <p>
+     * Unlike {@link #index()}, the items are not uncached from the context, which may hold pending changes.
+     *
+     * @param itemIds identifiers of the items to update
+     * @return number of documents added or updated in the index
+     * @throws DSpaceSolrIndexerException if the index cannot be updated
+     */
+    public int update(Set<UUID> itemIds) throws DSpaceSolrIndexerException {
+        try {
+            int batchSize = configurationService.getIntProperty("oai.import.batch.size", 1000);
+            SolrClient server = solrServerResolver.getServer();
+            List<UUID> ids = new ArrayList<>(itemIds);
+            int updated = 0;
+            for (int start = 0; start < ids.size(); start += batchSize) {
+                List<UUID> batch = ids.subList(start, Math.min(start + batchSize, ids.size()));
+                Map<UUID, SolrDocument> indexed = findIndexed(batch);
+                List<SolrInputDocument> list = new ArrayList<>();
+                for (UUID id : batch) {
+                    SolrDocument current = indexed.get(id);
+                    try {
+                        Item item = itemService.find(context, id);
+                        if (item != null && (item.isArchived() || item.isWithdrawn())) {
+                            if (item.getHandle() == null) {
+                                log.warn("Skipped item without handle: " + item.getID());
+                            } else {
+                                boolean isCurrentlyVisible = current != null
+                                        && Boolean.TRUE.equals(current.getFieldValue("item.public"));
+                                list.add(this.index(item, current != null, isCurrentlyVisible));
+                            }
+                        } else if (current != null) {
+                            list.add(deleted(current));
+                        }
+                    } catch (SQLException | IOException | XMLStreamException | WritingXmlException ex) {
+                        log.error(ex.getMessage(), ex);
+                    }
+                }
+                if (!list.isEmpty()) {
+                    server.add(list);
+                    updated += list.size();
+                }
+            }
+            if (updated > 0) {
+                server.commit();
+            }
+            return updated;
+        } catch (SolrServerException | IOException ex) {
+            throw new DSpaceSolrIndexerException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Find the documents of the given items in the index with a single query.
+     *
+     * @param itemIds identifiers of the items
+     * @return the id, handle and visibility of the indexed items, by item id
+     */
+    private Map<UUID, SolrDocument> findIndexed(List<UUID> itemIds) throws SolrServerException, IOException {
+        String ids = itemIds.stream().map(UUID::toString).collect(Collectors.joining(","));
+        SolrQuery params = new SolrQuery("{!terms f=item.id}" + ids)
+                .setFields("item.id", "item.handle", "item.public").setRows(itemIds.size());
+        Map<UUID, SolrDocument> indexed = new HashMap<>();
+        for (SolrDocument document : solrServerResolver.getServer().query(params).getResults()) {
+            indexed.put(UUID.fromString(String.valueOf(document.getFieldValue("item.id"))), document);
+        }
+        return indexed;
+    }
+
+    /**
+     * Copy the indexed document of an item, flagged as deleted. All the fields of the OAI core are stored,
+     * and the core has no update log for atomic updates.
+     *
+     * @param current the id and handle of the indexed item
+     * @return the document
+     */
+    private SolrInputDocument deleted(SolrDocument current) throws SolrServerException, IOException {
+        SolrQuery params = new SolrQuery("item.id:" + current.getFieldValue("item.id")).setRows(1);
+        SolrInputDocument doc = new SolrInputDocument();
+        for (SolrDocument document : solrServerResolver.getServer().query(params).getResults()) {
+            for (String name : document.getFieldNames()) {
+                if (!"_version_".equals(name)) {
+                    doc.setField(name, document.getFieldValue(name));
+                }
+            }
+        }
+        doc.setField("item.handle", current.getFieldValue("item.handle"));
+        doc.setField("item.deleted", true);
+        doc.setField("item.willChangeStatus", false);
+        doc.setField("item.lastmodified", SolrUtils.getDateFormatter().format(new Date()));
+        return doc;
+    }
+
     /**
      * Get all items already in the index which are viable to change visibility due
      * to an embargo. Only consider those which haven't been modified anyways since
@@ -395,6 +498,19 @@ public class XOAI {
 
     private SolrInputDocument index(Item item)
             throws SQLException, IOException, XMLStreamException, WritingXmlException {
+        return this.index(item, this.checkIfIndexed(item), this.checkIfVisibleInOAI(item));
+    }
+
+    /**
+     * Build the document of an item.
+     *
+     * @param item               the item
+     * @param isIndexed          whether the item is already in the index
+     * @param isCurrentlyVisible whether the item is flagged visible in the index
+     * @return the document
+     */
+    private SolrInputDocument index(Item item, boolean isIndexed, boolean isCurrentlyVisible)
+            throws SQLException, IOException, XMLStreamException, WritingXmlException {
         SolrInputDocument doc = new SolrInputDocument();
         doc.addField("item.id", item.getID().toString());
 
@@ -402,8 +518,6 @@ public class XOAI {
         doc.addField("item.handle", handle);
 
         boolean isEmbargoed = !this.isPublic(item);
-        boolean isCurrentlyVisible = this.checkIfVisibleInOAI(item);
-        boolean isIndexed = this.checkIfIndexed(item);
 
         /*
          * If the item is not under embargo, it should be visible. If it is, make it
@@ -521,8 +635,20 @@ public class XOAI {
     private boolean isPublic(Item item) {
         boolean pub = false;
         try {
-            // Check if READ access allowed on this Item
-            pub = authorizeService.authorizeActionBoolean(context, item, Constants.READ);
+            if (context.ignoreAuthorization() || context.getCurrentUser() != null) {
+                // The context does not tell what anonymous users can read, e.g. when called by an event
+                // consumer: look for a valid anonymous READ policy instead
+                for (ResourcePolicy policy : authorizeService.getPoliciesActionFilter(context, item,
+                        Constants.READ)) {
+                    if ((policy.getGroup() != null) && (policy.getGroup().getName().equals("Anonymous"))
+                            && resourcePolicyService.isDateValid(policy)) {
+                        pub = true;
+                    }
+                }
+            } else {
+                // Check if READ access allowed on this Item
+                pub = authorizeService.authorizeActionBoolean(context, item, Constants.READ);
+            }
         } catch (SQLException ex) {
             log.error(ex.getMessage());
         }
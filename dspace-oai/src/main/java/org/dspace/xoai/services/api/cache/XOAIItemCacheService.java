@@ -22,5 +22,12 @@ public interface XOAIItemCacheService {
 
     void delete(Item item);
 
+    /**
+     * Delete the compiled metadata of an item which may not exist anymore.
+     *
+     * @param handle the handle of the item
+     */
+    void delete(String handle);
+
     void deleteAll() throws IOException;
 }
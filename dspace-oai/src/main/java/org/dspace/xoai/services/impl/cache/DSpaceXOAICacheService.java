@@ -8,15 +8,12 @@
 package org.dspace.xoai.services.impl.cache;
 
 import static com.lyncode.xoai.dataprovider.core.Granularity.Second;
-import static org.apache.commons.io.FileUtils.deleteDirectory;
-import static org.apache.commons.io.IOUtils.copy;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apache.commons.io.IOUtils.write;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Date;
 import javax.xml.stream.XMLStreamException;
@@ -25,14 +22,17 @@ import com.lyncode.xoai.dataprovider.core.XOAIManager;
 import com.lyncode.xoai.dataprovider.exceptions.WritingXmlException;
 import com.lyncode.xoai.dataprovider.xml.XmlOutputContext;
 import com.lyncode.xoai.dataprovider.xml.oaipmh.OAIPMH;
-import com.lyncode.xoai.util.Base64Utils;
-import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.dspace.xoai.services.api.cache.XOAICacheService;
 import org.dspace.xoai.services.api.config.ConfigurationService;
 import org.dspace.xoai.util.DateUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 
 
+/**
+ * Cache of the OAI responses, stored compressed in a {@link SegmentedFileCache} of at most
+ * {@code oai.cache.max-size} megabytes.
+ */
 public class DSpaceXOAICacheService implements XOAICacheService {
     private static final String REQUEST_DIR = File.separator + "requests";
     private static String baseDir;
@@ -69,14 +69,10 @@ public class DSpaceXOAICacheService implements XOAICacheService {
         this.manager = manager;
     }
 
-    private File getCacheFile(String id) {
-        File dir = new File(getBaseDir());
-        if (!dir.exists()) {
-            dir.mkdirs();
-        }
-
-        String name = File.separator + Base64Utils.encode(id);
-        return new File(getBaseDir() + name);
+    private SegmentedFileCache getCache() {
+        long maxSize = NumberUtils.toLong(configurationService.getProperty("oai.cache.max-size"), 512);
+        int segments = NumberUtils.toInt(configurationService.getProperty("oai.cache.segments"), 8);
+        return SegmentedFileCache.open("requests", new File(getBaseDir()), maxSize * 1024 * 1024, segments);
     }
 
     @Override
@@ -86,15 +82,17 @@ public class DSpaceXOAICacheService implements XOAICacheService {
 
     @Override
     public boolean hasCache(String requestID) {
-        return this.getCacheFile(requestID).exists();
+        return this.getCache().contains(requestID);
     }
 
     @Override
     public void handle(String requestID, OutputStream out) throws IOException {
-        InputStream in = new FileInputStream(this.getCacheFile(requestID));
-        write(getStaticHead(manager, new Date()), out);
-        copy(in, out);
-        in.close();
+        byte[] response = this.getCache().get(requestID);
+        if (response == null) {
+            throw new IOException("No cached response for " + requestID);
+        }
+        write(getStaticHead(manager, new Date()), out, UTF_8);
+        out.write(response);
     }
 
     @Override
@@ -106,7 +104,7 @@ public class DSpaceXOAICacheService implements XOAICacheService {
             context.getWriter().flush();
             context.getWriter().close();
 
-            String xoaiResponse = output.toString();
+            String xoaiResponse = output.toString(UTF_8);
 
             // Cutting the header (to allow one to change the response time)
             String end = "</responseDate>";
@@ -115,7 +113,7 @@ public class DSpaceXOAICacheService implements XOAICacheService {
                 xoaiResponse = xoaiResponse.substring(pos + (end.length()));
             }
 
-            FileUtils.write(this.getCacheFile(requestID), xoaiResponse);
+            this.getCache().put(requestID, xoaiResponse.getBytes(UTF_8));
         } catch (XMLStreamException e) {
             throw new IOException(e);
         } catch (WritingXmlException e) {
@@ -125,12 +123,12 @@ public class DSpaceXOAICacheService implements XOAICacheService {
 
     @Override
     public void delete(String requestID) {
-        this.getCacheFile(requestID).delete();
+        this.getCache().delete(requestID);
     }
 
     @Override
     public void deleteAll() throws IOException {
-        deleteDirectory(new File(getBaseDir()));
+        this.getCache().clear();
     }
 
 }
@@ -8,11 +8,10 @@
 package org.dspace.xoai.services.impl.cache;
 
 import static com.lyncode.xoai.dataprovider.core.Granularity.Second;
-import static org.apache.commons.io.FileUtils.deleteDirectory;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import javax.xml.stream.XMLStreamException;
 
@@ -20,13 +19,17 @@ import com.lyncode.xoai.dataprovider.exceptions.WritingXmlException;
 import com.lyncode.xoai.dataprovider.xml.XmlOutputContext;
 import com.lyncode.xoai.dataprovider.xml.xoai.Metadata;
 import com.lyncode.xoai.dataprovider.xml.xoai.XOAIParser;
-import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.dspace.content.Item;
 import org.dspace.xoai.services.api.cache.XOAIItemCacheService;
 import org.dspace.xoai.services.api.config.ConfigurationService;
 import org.springframework.beans.factory.annotation.Autowired;
 
 
+/**
+ * Cache of the compiled items, stored compressed in a {@link SegmentedFileCache} of at most
+ * {@code oai.cache.items.max-size} megabytes.
+ */
 public class DSpaceXOAIItemCacheService implements XOAIItemCacheService {
     private static final String ITEMDIR = File.separator + "items";
 
@@ -43,49 +46,51 @@ public class DSpaceXOAIItemCacheService implements XOAIItemCacheService {
     }
 
 
-    private File getMetadataCache(Item item) {
-        File dir = new File(getBaseDir());
-        if (!dir.exists()) {
-            dir.mkdirs();
-        }
+    private SegmentedFileCache getCache() {
+        long maxSize = NumberUtils.toLong(configurationService.getProperty("oai.cache.items.max-size"), 512);
+        int segments = NumberUtils.toInt(configurationService.getProperty("oai.cache.segments"), 8);
+        return SegmentedFileCache.open("items", new File(getBaseDir()), maxSize * 1024 * 1024, segments);
+    }
+
+    private String getKey(Item item) {
+        return getKey(item.getHandle());
+    }
 
-        String name = File.separator + item.getHandle().replace('/', '_');
-        return new File(getBaseDir() + name);
+    private String getKey(String handle) {
+        return handle.replace('/', '_');
     }
 
 
     @Override
     public boolean hasCache(Item item) {
-        return getMetadataCache(item).exists();
+        return getCache().contains(getKey(item));
     }
 
 
     @Override
     public Metadata get(Item item) throws IOException {
-        System.out.println(FileUtils.readFileToString(getMetadataCache(item)));
-        Metadata metadata;
-        FileInputStream input = new FileInputStream(getMetadataCache(item));
+        byte[] compiled = getCache().get(getKey(item));
+        if (compiled == null) {
+            throw new IOException("No compiled metadata for item " + item.getHandle());
+        }
         try {
-            metadata = XOAIParser.parse(input);
+            return XOAIParser.parse(new ByteArrayInputStream(compiled));
         } catch (XMLStreamException e) {
             throw new IOException(e);
         }
-        input.close();
-
-        return metadata;
     }
 
 
     @Override
     public void put(Item item, Metadata metadata) throws IOException {
-        FileOutputStream output = new FileOutputStream(getMetadataCache(item));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
         try {
             XmlOutputContext context = XmlOutputContext.emptyContext(output, Second);
             metadata.write(context);
             context.getWriter().flush();
             context.getWriter().close();
 
-            output.close();
+            getCache().put(getKey(item), output.toByteArray());
         } catch (XMLStreamException e) {
             throw new IOException(e);
         } catch (WritingXmlException e) {
@@ -96,13 +101,19 @@ public class DSpaceXOAIItemCacheService implements XOAIItemCacheService {
 
     @Override
     public void delete(Item item) {
-        this.getMetadataCache(item).delete();
+        getCache().delete(getKey(item));
+    }
+
+
+    @Override
+    public void delete(String handle) {
+        getCache().delete(getKey(handle));
     }
 
 
     @Override
     public void deleteAll() throws IOException {
-        deleteDirectory(new File(getBaseDir()));
+        getCache().clear();
     }
 
 }
@@ -0,0 +1,621 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.services.impl.cache;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.management.ObjectName;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Size-bounded cache of compressed entries, stored in a few append-only segment files instead of one file
+ * per entry.
+ * <p>
+ * Entries are appended to the newest segment. Once it reaches its share of the maximum size, a new segment is
+ * started and, beyond the maximum number of segments, the oldest segment is deleted with the entries it holds.
+ * Entries read from the older half of the segments are copied to the newest one, so that the eviction
+ * approximates a least recently used policy. The location of the entries is kept in memory, and rebuilt from
+ * the segments when the cache is opened.
+ * <p>
+ * A single instance is shared by all the users of a directory in a JVM, see {@link #open}. Each process appends
+ * to segments of its own, and the instances check the directory every second: they index the entries appended to
+ * the segments of the other processes since the last check, including the deletions, and forget the segments
+ * evicted by the other processes. {@link #clear()} changes the generation file of the directory, so that the
+ * instances of the other processes drop all their entries.
+ */
+public class SegmentedFileCache implements SegmentedFileCacheMXBean {
+
+    private static final Logger log = LogManager.getLogger(SegmentedFileCache.class);
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String GENERATION_FILE = "generation";
+    private static final long GENERATION_CHECK_INTERVAL = 1000;
+
+    /**
+     * Open caches, by directory
+     */
+    private static final Map<String, SegmentedFileCache> caches = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final File dir;
+    private final long segmentSize;
+    private final int maxSegments;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    /**
+     * Segments from the oldest to the newest
+     */
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    /**
+     * Segment to which this instance appends, if any
+     */
+    private Segment current;
+    private long nextSequence = 0;
+    private String generation;
+    private long lastGenerationCheck;
+    private ObjectName mBeanName;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    private SegmentedFileCache(String name, File dir, long maxSize, int maxSegments) {
+        this.name = name;
+        this.dir = dir;
+        this.maxSegments = Math.max(maxSegments, 2);
+        this.segmentSize = Math.max(maxSize / this.maxSegments, 1);
+    }
+
+    /**
+     * Get the cache stored in a directory, opening it if needed. The size settings are those of the first call
+     * for the directory.
+     *
+     * @param name        name of the cache, for monitoring
+     * @param dir         directory of the segment files
+     * @param maxSize     maximum size in bytes of the segment files
+     * @param maxSegments maximum number of segment files
+     * @return the cache
+     */
+    public static SegmentedFileCache open(String name, File dir, long maxSize, int maxSegments) {
+        return caches.computeIfAbsent(dir.getAbsolutePath(), path -> create(name, dir, maxSize, maxSegments));
+    }
+
+    private static SegmentedFileCache create(String name, File dir, long maxSize, int maxSegments) {
+        SegmentedFileCache cache = new SegmentedFileCache(name, dir, maxSize, maxSegments);
+        cache.load();
+        cache.registerMBean();
+        return cache;
+    }
+
+    /**
+     * @param key the key of the entry
+     * @return true if the cache has an entry for the key
+     */
+    public boolean contains(String key) {
+        boolean found;
+        synchronized (this) {
+            checkGeneration();
+            found = entries.containsKey(key);
+        }
+        (found ? hitCount : missCount).incrementAndGet();
+        return found;
+    }
+
+    /**
+     * @param key the key of the entry
+     * @return the value of the entry, or null if there is none
+     * @throws IOException if the entry cannot be read
+     */
+    public byte[] get(String key) throws IOException {
+        Entry entry;
+        synchronized (this) {
+            checkGeneration();
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            return null;
+        }
+
+        byte[] compressed;
+        try {
+            compressed = read(entry.segment.channel, entry.offset, entry.length);
+        } catch (IOException e) {
+            // the segment may have been evicted since the entry was found
+            synchronized (this) {
+                if (entries.get(key) != entry) {
+                    return get(key);
+                }
+            }
+            throw e;
+        }
+        promote(key, entry, compressed);
+
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
+    /**
+     * Store an entry, replacing the existing one for the key.
+     *
+     * @param key   the key of the entry
+     * @param value the value of the entry
+     * @throws IOException if the entry cannot be written
+     */
+    public void put(String key, byte[] value) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(value);
+        }
+        synchronized (this) {
+            checkGeneration();
+            entries.put(key, append(key, compressed.toByteArray()));
+        }
+    }
+
+    /**
+     * Delete the entry of a key, if any.
+     *
+     * @param key the key of the entry
+     */
+    public synchronized void delete(String key) {
+        checkGeneration();
+        if (entries.remove(key) != null) {
+            try {
+                // so that the entry is not found again when the segments are reloaded
+                append(key, null);
+            } catch (IOException e) {
+                log.warn("Unable to record the deletion of " + key + " in cache " + name, e);
+            }
+        }
+    }
+
+    /**
+     * Delete all the entries of the cache, in all the processes using its directory.
+     *
+     * @throws IOException if the directory cannot be emptied
+     */
+    public synchronized void clear() throws IOException {
+        reset();
+        // also removes the files left by the previous cache implementation, which used a file per entry
+        FileUtils.deleteDirectory(dir);
+        dir.mkdirs();
+        generation = writeGeneration();
+    }
+
+    /**
+     * Close the segment files and forget the cache, so that the next {@link #open} for its directory loads
+     * it again.
+     */
+    public synchronized void close() {
+        caches.remove(dir.getAbsolutePath(), this);
+        unregisterMBean();
+        reset();
+    }
+
+    private synchronized void load() {
+        dir.mkdirs();
+        generation = readGeneration();
+        if (generation == null) {
+            generation = writeGeneration();
+        }
+        lastGenerationCheck = System.currentTimeMillis();
+
+        File[] files = dir.listFiles((parent, fileName) -> fileName.endsWith(SEGMENT_SUFFIX));
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(SegmentedFileCache::sequenceOf));
+        for (File file : files) {
+            long sequence = sequenceOf(file);
+            if (sequence < 0) {
+                continue;
+            }
+            Segment segment = new Segment(file, false);
+            try {
+                segment.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+                scan(segment, true);
+                segments.addLast(segment);
+                nextSequence = sequence + 1;
+            } catch (IOException e) {
+                log.warn("Unable to load segment " + file + " of cache " + name + ", deleting it", e);
+                segment.close();
+                file.delete();
+            }
+        }
+        evictSegments();
+        log.info("Loaded " + entries.size() + " entries from " + segments.size() + " segments of cache " + name);
+    }
+
+    /**
+     * Index the entries of a segment appended after its known size.
+     *
+     * @param segment  the segment
+     * @param truncate whether to truncate the segment after its last complete entry, when it is loaded. Otherwise
+     *                 the incomplete entry may still be written by another process, and is scanned at the next check
+     */
+    private void scan(Segment segment, boolean truncate) throws IOException {
+        long length = segment.channel.size();
+        long position = segment.size;
+        while (position + 8 <= length) {
+            int keyLength = ByteBuffer.wrap(read(segment.channel, position, 4)).getInt();
+            if (keyLength < 0 || position + 8 + keyLength > length) {
+                break;
+            }
+            String key = new String(read(segment.channel, position + 4, keyLength), UTF_8);
+            int valueLength = ByteBuffer.wrap(read(segment.channel, position + 4 + keyLength, 4)).getInt();
+            long valueOffset = position + 8 + keyLength;
+            if (valueLength > 0 && valueOffset + valueLength > length) {
+                break;
+            }
+            if (valueLength < 0) {
+                entries.remove(key);
+            } else {
+                entries.put(key, new Entry(segment, valueOffset, valueLength));
+            }
+            position = valueOffset + Math.max(valueLength, 0);
+        }
+        if (truncate && position < length) {
+            log.warn("Truncating incomplete entry at the end of segment " + segment.file + " of cache " + name);
+            segment.channel.truncate(position);
+        }
+        segment.size = position;
+    }
+
+    /**
+     * Append an entry to the newest segment.
+     *
+     * @param key   the key of the entry
+     * @param value the compressed value, or null to record the deletion of the key
+     * @return the location of the entry, or null for a deletion
+     */
+    private Entry append(String key, byte[] value) throws IOException {
+        Segment segment = current;
+        if (segment == null || segment.size >= segmentSize) {
+            segment = startSegment();
+        }
+        byte[] keyBytes = key.getBytes(UTF_8);
+        int valueLength = value == null ? -1 : value.length;
+        ByteBuffer buffer = ByteBuffer.allocate(8 + keyBytes.length + Math.max(valueLength, 0));
+        buffer.putInt(keyBytes.length).put(keyBytes).putInt(valueLength);
+        if (value != null) {
+            buffer.put(value);
+        }
+        buffer.flip();
+
+        long start = segment.size;
+        long position = start;
+        while (buffer.hasRemaining()) {
+            position += segment.channel.write(buffer, position);
+        }
+        segment.size = position;
+        return value == null ? null : new Entry(segment, start + 8 + keyBytes.length, value.length);
+    }
+
+    private Segment startSegment() throws IOException {
+        String fileName = String.format("%019d-%s%s", nextSequence,
+                                        UUID.randomUUID().toString().substring(0, 8), SEGMENT_SUFFIX);
+        nextSequence++;
+        Segment segment = new Segment(new File(dir, fileName), true);
+        dir.mkdirs();
+        segment.channel = FileChannel.open(segment.file.toPath(), StandardOpenOption.CREATE_NEW,
+                                           StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segments.addLast(segment);
+        current = segment;
+        evictSegments();
+        return segment;
+    }
+
+    private void evictSegments() {
+        while (segments.size() > maxSegments) {
+            Segment oldest = segments.removeFirst();
+            forget(oldest);
+            if (oldest.file.exists() && !oldest.file.delete()) {
+                log.warn("Unable to delete segment " + oldest.file + " of cache " + name);
+            }
+        }
+    }
+
+    /**
+     * Drop the entries of a segment which was removed from the segments, and close it.
+     */
+    private void forget(Segment segment) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().segment == segment) {
+                iterator.remove();
+                evictionCount.incrementAndGet();
+            }
+        }
+        segment.close();
+        if (segment == current) {
+            current = null;
+        }
+    }
+
+    /**
+     * Copy an entry read from the older half of the segments to the newest segment, so that it is not
+     * evicted with the entries which were not used lately.
+     */
+    private synchronized void promote(String key, Entry entry, byte[] compressed) {
+        if (entries.get(key) != entry) {
+            return;
+        }
+        int age = 0;
+        Iterator<Segment> newestFirst = segments.descendingIterator();
+        while (newestFirst.hasNext() && newestFirst.next() != entry.segment) {
+            age++;
+        }
+        if (age < maxSegments / 2) {
+            return;
+        }
+        try {
+            entries.put(key, append(key, compressed));
+        } catch (IOException e) {
+            log.warn("Unable to move " + key + " to the newest segment of cache " + name, e);
+        }
+    }
+
+    /**
+     * Drop the entries if another process cleared the cache, otherwise index the changes of the other processes.
+     */
+    private void checkGeneration() {
+        long now = System.currentTimeMillis();
+        if (now - lastGenerationCheck < GENERATION_CHECK_INTERVAL) {
+            return;
+        }
+        lastGenerationCheck = now;
+        String current = readGeneration();
+        if (!generation.equals(current)) {
+            log.info("Cache " + name + " was cleared by another process");
+            reset();
+            if (current == null) {
+                dir.mkdirs();
+                current = writeGeneration();
+            }
+            generation = current;
+        } else {
+            refresh();
+        }
+    }
+
+    /**
+     * Index the entries appended by the other processes since the last check, in their known segments and in
+     * their new segments, and forget the segments which they evicted.
+     */
+    private void refresh() {
+        File[] files = dir.listFiles((parent, fileName) -> fileName.endsWith(SEGMENT_SUFFIX));
+        if (files == null) {
+            return;
+        }
+        Set<File> present = new HashSet<>(Arrays.asList(files));
+        Map<File, Segment> known = new HashMap<>();
+        Iterator<Segment> iterator = segments.iterator();
+        while (iterator.hasNext()) {
+            Segment segment = iterator.next();
+            if (present.contains(segment.file)) {
+                known.put(segment.file, segment);
+            } else {
+                iterator.remove();
+                forget(segment);
+            }
+        }
+
+        Arrays.sort(files, Comparator.comparingLong(SegmentedFileCache::sequenceOf));
+        boolean added = false;
+        for (File file : files) {
+            long sequence = sequenceOf(file);
+            Segment segment = known.get(file);
+            if (sequence < 0 || (segment != null && segment.writable)) {
+                continue;
+            }
+            try {
+                if (segment == null) {
+                    segment = new Segment(file, false);
+                    segment.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+                    segments.addLast(segment);
+                    nextSequence = Math.max(nextSequence, sequence + 1);
+                    added = true;
+                }
+                scan(segment, false);
+            } catch (IOException e) {
+                // e.g. evicted meanwhile by another process
+                log.debug("Unable to scan segment " + file + " of cache " + name, e);
+            }
+        }
+        if (added) {
+            List<Segment> sorted = new ArrayList<>(segments);
+            sorted.sort(Comparator.comparingLong(segment -> sequenceOf(segment.file)));
+            segments.clear();
+            segments.addAll(sorted);
+            evictSegments();
+        }
+    }
+
+    private void reset() {
+        for (Segment segment : segments) {
+            segment.close();
+        }
+        segments.clear();
+        entries.clear();
+        current = null;
+    }
+
+    private String readGeneration() {
+        File file = new File(dir, GENERATION_FILE);
+        try {
+            return file.exists() ? new String(Files.readAllBytes(file.toPath()), UTF_8).trim() : null;
+        } catch (IOException e) {
+            log.warn("Unable to read the generation of cache " + name, e);
+            return generation;
+        }
+    }
+
+    private String writeGeneration() {
+        String value = UUID.randomUUID().toString();
+        try {
+            Files.write(new File(dir, GENERATION_FILE).toPath(), value.getBytes(UTF_8));
+        } catch (IOException e) {
+            log.warn("Unable to write the generation of cache " + name, e);
+        }
+        return value;
+    }
+
+    private static long sequenceOf(File file) {
+        String fileName = file.getName();
+        int separator = fileName.indexOf('-');
+        return separator > 0 ? NumberUtils.toLong(fileName.substring(0, separator), -1) : -1;
+    }
+
+    private static byte[] read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of segment");
+            }
+        }
+        return buffer.array();
+    }
+
+    private void registerMBean() {
+        try {
+            mBeanName = new ObjectName("org.dspace:type=OAICache,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, mBeanName);
+        } catch (Exception e) {
+            // e.g. another webapp of the same JVM already registered it
+            log.warn("Unable to register the MBean of cache " + name + ": " + e.getMessage());
+            mBeanName = null;
+        }
+    }
+
+    private void unregisterMBean() {
+        if (mBeanName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(mBeanName);
+            } catch (Exception e) {
+                log.warn("Unable to unregister the MBean of cache " + name + ": " + e.getMessage());
+            }
+            mBeanName = null;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    @Override
+    public double getHitRatio() {
+        long hits = hitCount.get();
+        long lookups = hits + missCount.get();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    @Override
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized long getSize() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    @Override
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    private static class Segment {
+        private final File file;
+        /**
+         * Whether entries can be appended, only for the segments created by this instance
+         */
+        private final boolean writable;
+        private FileChannel channel;
+        private long size = 0;
+
+        private Segment(File file, boolean writable) {
+            this.file = file;
+            this.writable = writable;
+        }
+
+        private void close() {
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+            } catch (IOException e) {
+                log.warn("Unable to close segment " + file, e);
+            }
+        }
+    }
+
+    private static class Entry {
+        private final Segment segment;
+        private final long offset;
+        private final int length;
+
+        private Entry(Segment segment, long offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.services.impl.cache;
+
+/**
+ * MBean type for monitoring a {@link SegmentedFileCache}. Hits and misses are counted by
+ * {@link SegmentedFileCache#contains(String)}, as the OAI cache services check for an entry before reading it.
+ */
+public interface SegmentedFileCacheMXBean {
+    /**
+     * @return name of the cache
+     */
+    public String getName();
+
+    /**
+     * @return number of lookups which found an entry since the cache was opened
+     */
+    public long getHitCount();
+
+    /**
+     * @return number of lookups which found no entry since the cache was opened
+     */
+    public long getMissCount();
+
+    /**
+     * @return ratio of the lookups which found an entry, or 0 if there was none
+     */
+    public double getHitRatio();
+
+    /**
+     * @return number of entries evicted to keep the cache under its maximum size since it was opened
+     */
+    public long getEvictionCount();
+
+    /**
+     * @return number of entries in the cache
+     */
+    public int getEntryCount();
+
+    /**
+     * @return size in bytes of the segment files, including the space of replaced or deleted entries
+     */
+    public long getSize();
+
+    /**
+     * @return number of segment files
+     */
+    public int getSegmentCount();
+}
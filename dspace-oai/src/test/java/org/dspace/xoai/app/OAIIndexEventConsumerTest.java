@@ -0,0 +1,103 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.app;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+
+import org.dspace.content.Bitstream;
+import org.dspace.content.Bundle;
+import org.dspace.content.DSpaceObject;
+import org.dspace.content.Item;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.event.Event;
+import org.junit.Test;
+
+public class OAIIndexEventConsumerTest {
+    private final Context context = mock(Context.class);
+    private final OAIIndexEventConsumer underTest = new OAIIndexEventConsumer();
+
+    @Test
+    public void archivedItemChangesAreCollected() throws Exception {
+        Item item = item(true, false);
+        underTest.consume(context, event(Event.MODIFY_METADATA, Constants.ITEM, item));
+        underTest.consume(context, event(Event.MODIFY, Constants.ITEM, item));
+
+        assertThat(underTest.getItemsToUpdate(), is(Collections.singleton(item.getID())));
+    }
+
+    @Test
+    public void withdrawnItemChangesAreCollected() throws Exception {
+        Item item = item(false, true);
+        underTest.consume(context, event(Event.MODIFY, Constants.ITEM, item));
+
+        assertThat(underTest.getItemsToUpdate(), is(Collections.singleton(item.getID())));
+    }
+
+    @Test
+    public void workspaceItemChangesAreSkipped() throws Exception {
+        Item item = item(false, false);
+        underTest.consume(context, event(Event.MODIFY_METADATA, Constants.ITEM, item));
+
+        assertThat(underTest.getItemsToUpdate().isEmpty(), is(true));
+    }
+
+    @Test
+    public void deletedItemsAreCollected() throws Exception {
+        UUID id = UUID.randomUUID();
+        Event event = mock(Event.class);
+        when(event.getEventType()).thenReturn(Event.DELETE);
+        when(event.getSubjectType()).thenReturn(Constants.ITEM);
+        when(event.getSubjectID()).thenReturn(id);
+        when(event.getDetail()).thenReturn("123456789/1");
+        underTest.consume(context, event);
+
+        assertThat(underTest.getItemsToUpdate(), is(Collections.singleton(id)));
+        assertThat(underTest.getDeletedHandles(), is(Collections.singletonMap(id, "123456789/1")));
+    }
+
+    @Test
+    public void bitstreamChangesUpdateTheirItems() throws Exception {
+        Item item = item(true, false);
+        Bundle bundle = mock(Bundle.class);
+        when(bundle.getItems()).thenReturn(Collections.singletonList(item));
+        Bitstream bitstream = mock(Bitstream.class);
+        when(bitstream.getBundles()).thenReturn(Collections.singletonList(bundle));
+
+        underTest.consume(context, event(Event.MODIFY, Constants.BITSTREAM, bitstream));
+        underTest.consume(context, event(Event.ADD, Constants.BUNDLE, bundle));
+
+        Set<UUID> expected = Collections.singleton(item.getID());
+        assertThat(underTest.getItemsToUpdate(), is(expected));
+    }
+
+    private Item item(boolean archived, boolean withdrawn) {
+        Item item = mock(Item.class);
+        when(item.getID()).thenReturn(UUID.randomUUID());
+        when(item.isArchived()).thenReturn(archived);
+        when(item.isWithdrawn()).thenReturn(withdrawn);
+        return item;
+    }
+
+    private Event event(int eventType, int subjectType, DSpaceObject subject) throws Exception {
+        Event event = mock(Event.class);
+        when(event.getEventType()).thenReturn(eventType);
+        when(event.getSubjectType()).thenReturn(subjectType);
+        UUID id = subject.getID();
+        when(event.getSubjectID()).thenReturn(id);
+        when(event.getSubject(context)).thenReturn(subject);
+        return event;
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.tests.unit.services.impl.cache;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.io.File;
+import java.util.Random;
+
+import org.dspace.xoai.services.impl.cache.SegmentedFileCache;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SegmentedFileCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File dir;
+    private SegmentedFileCache underTest;
+
+    @Before
+    public void setUp() {
+        dir = new File(folder.getRoot(), "requests");
+        underTest = SegmentedFileCache.open("test", dir, 8000, 4);
+    }
+
+    @After
+    public void tearDown() {
+        underTest.close();
+    }
+
+    @Test
+    public void storedEntriesAreFound() throws Exception {
+        underTest.put("verb=Identify", "<Identify/>".getBytes(UTF_8));
+
+        assertThat(underTest.contains("verb=Identify"), is(true));
+        assertThat(new String(underTest.get("verb=Identify"), UTF_8), is("<Identify/>"));
+        assertThat(underTest.contains("verb=ListSets"), is(false));
+        assertThat(underTest.get("verb=ListSets"), nullValue());
+        assertThat(underTest.getHitCount(), is(1L));
+        assertThat(underTest.getMissCount(), is(1L));
+
+        underTest.delete("verb=Identify");
+        assertThat(underTest.contains("verb=Identify"), is(false));
+    }
+
+    @Test
+    public void leastRecentlyUsedEntriesAreEvicted() throws Exception {
+        Random random = new Random(0);
+        for (int i = 0; i < 20; i++) {
+            byte[] value = new byte[1000];
+            random.nextBytes(value);
+            underTest.put("key" + i, value);
+            underTest.get("key0");
+        }
+
+        assertThat(underTest.contains("key0"), is(true));
+        assertThat(underTest.contains("key1"), is(false));
+        assertThat(underTest.contains("key19"), is(true));
+        assertThat(underTest.getEvictionCount(), greaterThan(0L));
+        assertThat(underTest.getSegmentCount(), lessThanOrEqualTo(4));
+        // each segment may exceed its share by one entry
+        assertThat(underTest.getSize(), lessThanOrEqualTo(8000L + 4 * 1100L));
+    }
+
+    @Test
+    public void entriesAreReloadedFromTheSegments() throws Exception {
+        underTest.put("a", "first".getBytes(UTF_8));
+        underTest.put("b", "second".getBytes(UTF_8));
+        underTest.put("b", "third".getBytes(UTF_8));
+        underTest.delete("a");
+        underTest.close();
+
+        underTest = SegmentedFileCache.open("test", dir, 8000, 4);
+        assertThat(underTest.contains("a"), is(false));
+        assertThat(new String(underTest.get("b"), UTF_8), is("third"));
+        assertThat(underTest.getEntryCount(), is(1));
+    }
+
+    @Test
+    public void changesOfAnotherProcessAreSeen() throws Exception {
+        // another path to the same directory, so that a second instance is opened, as in another process
+        File otherPath = new File(folder.newFolder("other"), "../requests");
+        SegmentedFileCache other = SegmentedFileCache.open("other", otherPath, 8000, 4);
+        try {
+            underTest.put("a", "first".getBytes(UTF_8));
+            underTest.put("b", "second".getBytes(UTF_8));
+            // the instances check the directory every second
+            Thread.sleep(1100);
+            assertThat(new String(other.get("a"), UTF_8), is("first"));
+
+            other.delete("a");
+            other.put("c", "third".getBytes(UTF_8));
+            Thread.sleep(1100);
+            assertThat(underTest.contains("a"), is(false));
+            assertThat(new String(underTest.get("b"), UTF_8), is("second"));
+            assertThat(new String(underTest.get("c"), UTF_8), is("third"));
+        } finally {
+            other.close();
+        }
+    }
+
+    @Test
+    public void clearRemovesAllTheFiles() throws Exception {
+        underTest.put("a", "first".getBytes(UTF_8));
+        File legacy = new File(dir, "dmVyYj1JZGVudGlmeQ==");
+        legacy.createNewFile();
+
+        underTest.clear();
+
+        assertThat(underTest.contains("a"), is(false));
+        assertThat(legacy.exists(), is(false));
+        assertThat(underTest.getSegmentCount(), is(0));
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.rest;
+
+import static org.dspace.app.rest.utils.RegexUtils.REGEX_REQUESTMAPPING_IDENTIFIER_AS_DIGIT;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.dspace.app.rest.exception.UnprocessableEntityException;
+import org.dspace.app.rest.model.ProcessRest;
+import org.dspace.app.rest.scripts.ScriptScheduler;
+import org.dspace.app.rest.scripts.ScriptScheduler.Cancellation;
+import org.dspace.app.rest.utils.ContextUtil;
+import org.dspace.authorize.AuthorizeException;
+import org.dspace.core.Context;
+import org.dspace.scripts.Process;
+import org.dspace.scripts.ProcessLogLevel;
+import org.dspace.scripts.service.ProcessService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.rest.webmvc.ResourceNotFoundException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * This controller allows cancelling a {@link Process} queued or running in the {@link ScriptScheduler}.
+ * <p>
+ * {@code POST /api/system/processes/<:id>/cancel} removes a queued process from the queue and marks it as failed,
+ * or interrupts a running process, which ends it if its script checks for interruption. The response is
+ * {@code 204 No Content}, or {@code 422 Unprocessable Entity} if the process is neither queued nor running.
+ */
+@RestController
+@RequestMapping("/api/" + ProcessRest.CATEGORY + "/" + ProcessRest.PLURAL_NAME
+    + REGEX_REQUESTMAPPING_IDENTIFIER_AS_DIGIT + "/cancel")
+public class ProcessCancelRestController {
+
+    @Autowired
+    private ProcessService processService;
+
+    @RequestMapping(method = RequestMethod.POST)
+    @PreAuthorize("hasPermission(#id, 'PROCESS', 'WRITE')")
+    public void cancel(@PathVariable Integer id, HttpServletRequest request, HttpServletResponse response)
+        throws SQLException, IOException, AuthorizeException {
+        Context context = ContextUtil.obtainContext(request);
+        Process process = processService.find(context, id);
+        if (process == null) {
+            throw new ResourceNotFoundException("Process with id " + id + " was not found");
+        }
+        ScriptScheduler scheduler = ScriptScheduler.getInstance();
+        Cancellation cancellation = scheduler != null ? scheduler.cancel(id) : Cancellation.NOT_FOUND;
+        if (cancellation == Cancellation.NOT_FOUND) {
+            throw new UnprocessableEntityException("Process with id " + id + " is neither queued nor running");
+        }
+        if (cancellation == Cancellation.INTERRUPTED) {
+            processService.appendLog(id, process.getName(), "The script has been asked to stop",
+                                     ProcessLogLevel.INFO);
+        } else {
+            processService.appendLog(id, process.getName(), "The script has been cancelled before it started",
+                                     ProcessLogLevel.INFO);
+            context.turnOffAuthorisationSystem();
+            processService.fail(context, process);
+            processService.createLogBitstream(context, process);
+            context.restoreAuthSystemState();
+            context.commit();
+        }
+        response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.rest;
+
+import static org.dspace.app.rest.utils.RegexUtils.REGEX_REQUESTMAPPING_IDENTIFIER_AS_DIGIT;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.io.IOUtils;
+import org.dspace.app.rest.model.ProcessRest;
+import org.dspace.app.rest.utils.ContextUtil;
+import org.dspace.core.Context;
+import org.dspace.scripts.Process;
+import org.dspace.scripts.service.ProcessService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.rest.webmvc.ResourceNotFoundException;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * This controller allows following the logs of a running {@link Process}, before they are stored as its output.
+ * <p>
+ * {@code GET /api/system/processes/<:id>/log?offset=<:bytes>} returns, as plain text, the logs written by the
+ * process from the given offset. A client follows the logs by requesting them again with the offset increased by
+ * the length of the previous response. Once the process has ended, the response is {@code 204 No Content}, and
+ * the logs are found in the output bitstream of the process.
+ */
+@RestController
+@RequestMapping("/api/" + ProcessRest.CATEGORY + "/" + ProcessRest.PLURAL_NAME
+    + REGEX_REQUESTMAPPING_IDENTIFIER_AS_DIGIT + "/log")
+public class ProcessLogRestController {
+
+    @Autowired
+    private ProcessService processService;
+
+    @RequestMapping(method = RequestMethod.GET)
+    @PreAuthorize("hasPermission(#id, 'PROCESS', 'READ')")
+    public void getLiveLog(@PathVariable Integer id, @RequestParam(required = false, defaultValue = "0") long offset,
+                           HttpServletRequest request, HttpServletResponse response)
+        throws SQLException, IOException {
+        Context context = ContextUtil.obtainContext(request);
+        Process process = processService.find(context, id);
+        if (process == null) {
+            throw new ResourceNotFoundException("Process with id " + id + " was not found");
+        }
+        // the log file is not tied to the database, which is not needed while streaming it
+        context.complete();
+        try (InputStream log = processService.getLiveLog(process, Math.max(offset, 0))) {
+            if (log == null) {
+                response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+                return;
+            }
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            IOUtils.copy(log, response.getOutputStream());
+        }
+    }
+}
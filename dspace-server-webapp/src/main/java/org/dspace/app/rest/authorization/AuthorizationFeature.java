@@ -8,6 +8,7 @@
 package org.dspace.app.rest.authorization;
 
 import java.sql.SQLException;
+import java.util.List;
 
 import org.dspace.app.rest.model.BaseObjectRest;
 import org.dspace.app.rest.model.RestAddressableModel;
@@ -70,4 +71,15 @@ public interface AuthorizationFeature {
      * @return the supported object type, required to be not null
      */
     String[] getSupportedTypes();
+
+    /**
+     * Return the actions this feature checks on the object it is evaluated for, so that they can be evaluated in bulk
+     * for several objects before the feature is (see
+     * {@link AuthorizationFeatureService#preloadAuthorizations(Context, List, List)})
+     *
+     * @return the actions, from {@link org.dspace.core.Constants}, empty by default
+     */
+    default List<Integer> getCheckedActions() {
+        return List.of();
+    }
 }
@@ -38,6 +38,21 @@ public interface AuthorizationFeatureService {
     boolean isAuthorized(Context context, AuthorizationFeature feature, BaseObjectRest object)
         throws SQLException, SearchServiceException;
 
+    /**
+     * Evaluate in bulk the actions checked by the features on the objects (see
+     * {@link AuthorizationFeature#getCheckedActions()}), so that checking the features on each object afterwards does
+     * not query the policies of the objects one action at a time
+     *
+     * @param context
+     *            the DSpace Context
+     * @param features
+     *            the features about to be checked
+     * @param objects
+     *            the objects the features are about to be checked on
+     */
+    void preloadAuthorizations(Context context, List<AuthorizationFeature> features, List<BaseObjectRest> objects)
+        throws SQLException;
+
     /**
      * Get all the authorization features defined in the system
      *
@@ -8,7 +8,10 @@
 package org.dspace.app.rest.authorization.impl;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.ArrayUtils;
@@ -17,6 +20,8 @@ import org.dspace.app.rest.authorization.AuthorizationFeature;
 import org.dspace.app.rest.authorization.AuthorizationFeatureService;
 import org.dspace.app.rest.model.BaseObjectRest;
 import org.dspace.app.rest.utils.Utils;
+import org.dspace.authorize.service.AuthorizeService;
+import org.dspace.content.DSpaceObject;
 import org.dspace.core.Context;
 import org.dspace.discovery.SearchServiceException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,6 +42,9 @@ public class AuthorizationFeatureServiceImpl implements AuthorizationFeatureServ
     @Autowired
     private Utils utils;
 
+    @Autowired
+    private AuthorizeService authorizeService;
+
     @Override
     public boolean isAuthorized(Context context, AuthorizationFeature feature, BaseObjectRest object)
         throws SQLException, SearchServiceException {
@@ -53,6 +61,31 @@ public class AuthorizationFeatureServiceImpl implements AuthorizationFeatureServ
         return feature.isAuthorized(context, object);
     }
 
+    @Override
+    public void preloadAuthorizations(Context context, List<AuthorizationFeature> features,
+                                      List<BaseObjectRest> objects) throws SQLException {
+        Set<Integer> actions = new HashSet<>();
+        List<DSpaceObject> dSpaceObjects = new ArrayList<>();
+        for (BaseObjectRest object : objects) {
+            if (object == null) {
+                continue;
+            }
+            for (AuthorizationFeature feature : features) {
+                if (feature != null && ArrayUtils.contains(feature.getSupportedTypes(), object.getUniqueType())) {
+                    actions.addAll(feature.getCheckedActions());
+                }
+            }
+            Object dSpaceObject = utils.getDSpaceAPIObjectFromRest(context, object);
+            if (dSpaceObject instanceof DSpaceObject) {
+                dSpaceObjects.add((DSpaceObject) dSpaceObject);
+            }
+        }
+        if (!actions.isEmpty()) {
+            authorizeService.authorizeActions(context, context.getCurrentUser(), dSpaceObjects,
+                                              new ArrayList<>(actions), true);
+        }
+    }
+
     @Override
     public List<AuthorizationFeature> findAll() {
         return features;
@@ -7,6 +7,7 @@
  */
 package org.dspace.app.rest.authorization.impl;
 import java.sql.SQLException;
+import java.util.List;
 
 import org.dspace.app.rest.authorization.AuthorizationFeature;
 import org.dspace.app.rest.authorization.AuthorizationFeatureDocumentation;
@@ -52,6 +53,11 @@ public class CanManageBitstreamBundlesFeature implements AuthorizationFeature {
         return false;
     }
 
+    @Override
+    public List<Integer> getCheckedActions() {
+        return List.of(Constants.ADD, Constants.REMOVE);
+    }
+
     @Override
     public String[] getSupportedTypes() {
         return new String[]{
@@ -7,6 +7,7 @@
  */
 package org.dspace.app.rest.authorization.impl;
 import java.sql.SQLException;
+import java.util.List;
 
 import org.dspace.app.rest.authorization.AuthorizationFeature;
 import org.dspace.app.rest.authorization.AuthorizationFeatureDocumentation;
@@ -49,6 +50,11 @@ public class CanManageRelationshipsFeature implements AuthorizationFeature {
         return false;
     }
 
+    @Override
+    public List<Integer> getCheckedActions() {
+        return List.of(Constants.WRITE);
+    }
+
     @Override
     public String[] getSupportedTypes() {
         return new String[]{
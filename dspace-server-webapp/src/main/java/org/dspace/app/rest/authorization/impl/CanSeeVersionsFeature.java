@@ -8,6 +8,7 @@
 package org.dspace.app.rest.authorization.impl;
 
 import java.sql.SQLException;
+import java.util.List;
 
 import org.dspace.app.rest.authorization.AuthorizationFeature;
 import org.dspace.app.rest.authorization.AuthorizationFeatureDocumentation;
@@ -15,6 +16,7 @@ import org.dspace.app.rest.authorization.AuthorizeServiceRestUtil;
 import org.dspace.app.rest.model.BaseObjectRest;
 import org.dspace.app.rest.model.ItemRest;
 import org.dspace.app.rest.security.DSpaceRestPermission;
+import org.dspace.core.Constants;
 import org.dspace.core.Context;
 import org.dspace.services.ConfigurationService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -53,6 +55,11 @@ public class CanSeeVersionsFeature implements AuthorizationFeature {
         return false;
     }
 
+    @Override
+    public List<Integer> getCheckedActions() {
+        return List.of(Constants.READ, Constants.ADMIN);
+    }
+
     @Override
     public String[] getSupportedTypes() {
         return new String[]{
@@ -10,6 +10,7 @@ package org.dspace.app.rest.authorization.impl;
 import static org.dspace.core.Constants.READ;
 
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Objects;
 
 import org.dspace.app.rest.authorization.AuthorizationFeature;
@@ -51,6 +52,11 @@ public class CanSubscribeFeature implements AuthorizationFeature {
         return authorizeService.authorizeActionBoolean(context, context.getCurrentUser(), dSpaceObject, READ, true);
     }
 
+    @Override
+    public List<Integer> getCheckedActions() {
+        return List.of(READ);
+    }
+
     @Override
     public String[] getSupportedTypes() {
         return new String[]{
@@ -8,6 +8,7 @@
 package org.dspace.app.rest.authorization.impl;
 
 import java.sql.SQLException;
+import java.util.List;
 
 import org.dspace.app.rest.authorization.AuthorizationFeature;
 import org.dspace.app.rest.authorization.AuthorizationFeatureDocumentation;
@@ -65,6 +66,11 @@ public class CanViewUsageStatisticsFeature implements AuthorizationFeature {
         return false;
     }
 
+    @Override
+    public List<Integer> getCheckedActions() {
+        return List.of(org.dspace.core.Constants.READ);
+    }
+
     @Override
     public String[] getSupportedTypes() {
         return new String[]{
@@ -8,6 +8,7 @@
 package org.dspace.app.rest.authorization.impl;
 
 import java.sql.SQLException;
+import java.util.List;
 
 import org.dspace.app.rest.authorization.AuthorizationFeature;
 import org.dspace.app.rest.authorization.AuthorizationFeatureDocumentation;
@@ -122,6 +123,11 @@ public class DeleteFeature implements AuthorizationFeature {
         return parentObject;
     }
 
+    @Override
+    public List<Integer> getCheckedActions() {
+        return List.of(Constants.REMOVE, Constants.DELETE);
+    }
+
     @Override
     public String[] getSupportedTypes() {
         return new String[]{
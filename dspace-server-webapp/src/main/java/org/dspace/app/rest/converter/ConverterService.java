@@ -11,6 +11,8 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -25,6 +27,8 @@ import org.apache.logging.log4j.Logger;
 import org.dspace.app.rest.link.HalLinkFactory;
 import org.dspace.app.rest.link.HalLinkService;
 import org.dspace.app.rest.model.BaseObjectRest;
+import org.dspace.app.rest.model.BundleRest;
+import org.dspace.app.rest.model.ItemRest;
 import org.dspace.app.rest.model.RestAddressableModel;
 import org.dspace.app.rest.model.RestModel;
 import org.dspace.app.rest.model.hateoas.HALResource;
@@ -32,7 +36,11 @@ import org.dspace.app.rest.projection.DefaultProjection;
 import org.dspace.app.rest.projection.Projection;
 import org.dspace.app.rest.repository.DSpaceRestRepository;
 import org.dspace.app.rest.security.WebSecurityExpressionEvaluator;
+import org.dspace.app.rest.utils.ContextUtil;
 import org.dspace.app.rest.utils.Utils;
+import org.dspace.content.Item;
+import org.dspace.content.service.ItemService;
+import org.dspace.core.Context;
 import org.dspace.services.RequestService;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -88,6 +96,9 @@ public class ConverterService {
     @Autowired
     private RequestService requestService;
 
+    @Autowired
+    private ItemService itemService;
+
     /**
      * Converts the given model object to a rest object, using the appropriate {@link DSpaceConverter} and
      * the given projection.
@@ -206,6 +217,7 @@ public class ConverterService {
             pageable = utils.getPageable(pageable);
         }
         List<M> pageableObjects = utils.getPageObjectList(modelObjects, pageable);
+        prefetch(pageableObjects, projection);
         List<R> transformedList = new LinkedList<>();
         for (M modelObject : pageableObjects) {
             R transformedObject = toRest(modelObject, projection);
@@ -230,6 +242,7 @@ public class ConverterService {
      * @return the page.
      */
     public <M, R> Page<R> toRestPage(List<M> modelObjects, Pageable pageable, long total, Projection projection) {
+        prefetch(modelObjects, projection);
         List<R> transformedList = new LinkedList<>();
         for (M modelObject : modelObjects) {
             R transformedObject = toRest(modelObject, projection);
@@ -243,6 +256,40 @@ public class ConverterService {
         return new PageImpl(transformedList, pageable, total);
     }
 
+    /**
+     * Loads in bulk the data which the conversion of the given model objects, and the embeds of the given
+     * projection, would otherwise lazily load one object at a time: the metadata of the items and, when the
+     * projection may embed them, their owning collections, bundles, bitstreams and thumbnails.
+     * <p>
+     * The data is kept by the Hibernate session of the request, from which the converters and link repositories
+     * then read it. Objects other than items are left as they are.
+     * </p>
+     *
+     * @param modelObjects the model objects about to be converted.
+     * @param projection the projection they will be converted with.
+     */
+    public void prefetch(List<?> modelObjects, Projection projection) {
+        List<Item> items = new ArrayList<>();
+        for (Object modelObject : modelObjects) {
+            if (modelObject instanceof Item) {
+                items.add((Item) modelObject);
+            }
+        }
+        Context context = ContextUtil.obtainCurrentRequestContext();
+        if (items.isEmpty() || context == null) {
+            return;
+        }
+        try {
+            itemService.prefetch(context, items,
+                                 projection.mayEmbed(ItemRest.OWNING_COLLECTION),
+                                 projection.mayEmbed(ItemRest.BUNDLES),
+                                 projection.mayEmbed(ItemRest.THUMBNAIL)
+                                     || projection.mayEmbed(ItemRest.BUNDLES + "/" + BundleRest.BITSTREAMS));
+        } catch (SQLException e) {
+            // only an optimization: the data will be loaded during the conversion instead
+            log.warn("Unable to prefetch the data of {} items", items.size(), e);
+        }
+    }
 
     /**
      * Gets the converter supporting the given class as input.
@@ -7,6 +7,7 @@
  */
 package org.dspace.app.rest.converter;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -75,6 +76,11 @@ public class DiscoverResultConverter {
 
     private void addSearchResults(final DiscoverResult searchResult, final SearchResultsRest resultsRest,
                                   final Projection projection) {
+        List<Object> indexedObjects = new ArrayList<>();
+        for (IndexableObject dspaceObject : CollectionUtils.emptyIfNull(searchResult.getIndexableObjects())) {
+            indexedObjects.add(dspaceObject.getIndexedObject());
+        }
+        converter.prefetch(indexedObjects, projection);
         for (IndexableObject dspaceObject : CollectionUtils.emptyIfNull(searchResult.getIndexableObjects())) {
             SearchResultEntryRest resultEntry = new SearchResultEntryRest();
             resultEntry.setProjection(projection);
@@ -12,6 +12,8 @@ import java.util.stream.Collectors;
 import org.dspace.app.rest.model.ParameterValueRest;
 import org.dspace.app.rest.model.ProcessRest;
 import org.dspace.app.rest.projection.Projection;
+import org.dspace.app.rest.scripts.ScriptScheduler;
+import org.dspace.content.ProcessStatus;
 import org.dspace.scripts.Process;
 import org.dspace.scripts.service.ProcessService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -41,6 +43,10 @@ public class ProcessConverter implements DSpaceConverter<Process, ProcessRest> {
         processRest.setProcessId(process.getID());
         processRest.setUserId(process.getEPerson().getID());
         processRest.setProcessStatus(process.getProcessStatus());
+        ScriptScheduler scheduler = ScriptScheduler.getInstance();
+        if (scheduler != null && process.getProcessStatus() == ProcessStatus.SCHEDULED) {
+            processRest.setQueuePosition(scheduler.getQueuePosition(process.getID()));
+        }
         processRest.setStartTime(process.getStartTime());
         processRest.setEndTime(process.getFinishedTime());
         processRest.setParameterRestList(processService.getParameters(process).stream()
@@ -61,6 +61,7 @@ public class ProcessRest extends BaseObjectRest<Integer> {
     private Date startTime;
     private Date endTime;
     private ProcessStatus processStatus;
+    private Integer queuePosition;
     @JsonProperty(value = "parameters")
     private List<ParameterValueRest> parameterRestList;
 
@@ -88,6 +89,18 @@ public class ProcessRest extends BaseObjectRest<Integer> {
         this.processStatus = processStatus;
     }
 
+    /**
+     * @return the position, starting from 1, of the process in the queue of the scripts waiting to be started, or
+     *         null if the process is not queued
+     */
+    public Integer getQueuePosition() {
+        return queuePosition;
+    }
+
+    public void setQueuePosition(Integer queuePosition) {
+        this.queuePosition = queuePosition;
+    }
+
     public List<ParameterValueRest> getParameterRestList() {
         return parameterRestList;
     }
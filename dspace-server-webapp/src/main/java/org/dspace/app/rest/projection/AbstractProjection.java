@@ -47,6 +47,11 @@ public abstract class AbstractProjection implements Projection {
         return true;
     }
 
+    @Override
+    public boolean mayEmbed(String relPath) {
+        return false;
+    }
+
     @Override
     public PageRequest getPagingOptions(String rel, HALResource<? extends RestAddressableModel> resource,
                                         Link... oldLinks) {
@@ -81,4 +81,14 @@ public class CompositeProjection extends AbstractProjection {
         }
         return true;
     }
+
+    @Override
+    public boolean mayEmbed(String relPath) {
+        for (Projection projection : projections) {
+            if (projection.mayEmbed(relPath)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -92,6 +92,16 @@ public class EmbedRelsProjection extends AbstractProjection {
         return false;
     }
 
+    @Override
+    public boolean mayEmbed(String relPath) {
+        for (String embedRel : embedRels) {
+            if (embedRel.equals(relPath) || embedRel.startsWith(relPath + "/")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public PageRequest getPagingOptions(String rel, HALResource<? extends RestAddressableModel> resource,
                                         Link... oldLinks) {
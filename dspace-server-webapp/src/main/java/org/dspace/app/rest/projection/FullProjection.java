@@ -7,6 +7,7 @@
  */
 package org.dspace.app.rest.projection;
 
+import org.apache.commons.lang3.StringUtils;
 import org.dspace.app.rest.model.LinkRest;
 import org.dspace.app.rest.model.RestAddressableModel;
 import org.dspace.app.rest.model.hateoas.HALResource;
@@ -34,6 +35,11 @@ public class FullProjection extends AbstractProjection {
         return halResource.getContent().getEmbedLevel() < maxEmbed;
     }
 
+    @Override
+    public boolean mayEmbed(String relPath) {
+        return StringUtils.countMatches(relPath, '/') < maxEmbed;
+    }
+
     @Override
     public boolean allowLinking(HALResource halResource, LinkRest linkRest) {
         return true;
@@ -138,6 +138,19 @@ public interface Projection {
      */
     boolean allowLinking(HALResource halResource, LinkRest linkRest);
 
+    /**
+     * Tells whether this projection may embed the subresources reached through the given path of rels from the
+     * resources about to be converted, e.g. {@code "bundles/bitstreams"}.
+     *
+     * This is a hint, used to load the data needed by the embeds in bulk before conversion. Returning {@code true}
+     * for a path which is not embedded only costs a few queries, returning {@code false} for a path which is
+     * embedded leaves its data to be loaded one resource at a time.
+     *
+     * @param relPath the rels leading to the subresources, separated by slashes.
+     * @return true if the subresources may be embedded, false otherwise.
+     */
+    boolean mayEmbed(String relPath);
+
     /**
      * This method will return the {@link PageRequest} object for a specific given rel
      * @param rel   The rel for which the {@link PageRequest} object will be made
@@ -8,11 +8,13 @@
 package org.dspace.app.rest.projection;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.dspace.app.rest.exception.MissingParameterException;
 import org.dspace.app.rest.model.LinkRest;
 import org.dspace.app.rest.model.RestAddressableModel;
 import org.dspace.app.rest.model.hateoas.HALResource;
 import org.dspace.services.RequestService;
+import org.dspace.services.model.Request;
 import org.dspace.services.factory.DSpaceServicesFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.Link;
@@ -62,6 +64,18 @@ public class SpecificLevelProjection extends AbstractProjection {
         return halResource.getContent().getEmbedLevel() < embedLevelDepth;
     }
 
+    @Override
+    public boolean mayEmbed(String relPath) {
+        // unlike allowEmbedding, a missing or invalid embedLevelDepth is left to be reported there
+        Request currentRequest = requestService.getCurrentRequest();
+        if (currentRequest == null) {
+            return false;
+        }
+        int embedLevelDepth = NumberUtils.toInt(currentRequest.getHttpServletRequest()
+                                                              .getParameter("embedLevelDepth"), 0);
+        return StringUtils.countMatches(relPath, '/') < Math.min(embedLevelDepth, maxEmbed);
+    }
+
     @Override
     public boolean allowLinking(HALResource halResource, LinkRest linkRest) {
         return true;
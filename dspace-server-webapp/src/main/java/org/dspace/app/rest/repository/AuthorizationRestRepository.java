@@ -207,7 +207,7 @@ public class AuthorizationRestRepository extends DSpaceRestRepository<Authorizat
     private List<Authorization> findAuthorizationsByUUIDList(
         Context context,
         String type, List<String> uuidList, EPerson user,
-        List<String> featureNames) {
+        List<String> featureNames) throws SQLException {
 
         if (featureNames.isEmpty()) {
             return new ArrayList<>();
@@ -219,6 +219,12 @@ public class AuthorizationRestRepository extends DSpaceRestRepository<Authorizat
             .map(uuid -> utils.getBaseObjectRestFromTypeAndUUID(context, type, uuid))
             .collect(Collectors.toList());
 
+        // evaluate the actions checked by the features on all the objects at once
+        List<AuthorizationFeature> features = featureNames.stream()
+            .map(authorizationFeatureService::find)
+            .collect(Collectors.toList());
+        authorizationFeatureService.preloadAuthorizations(context, features, objects);
+
         objects.forEach(object ->
             featureNames.forEach(featureName -> {
                 try {
@@ -257,6 +263,7 @@ public class AuthorizationRestRepository extends DSpaceRestRepository<Authorizat
         } else {
             List<AuthorizationFeature> features =
                     authorizationFeatureService.findByResourceType(obj.getUniqueType());
+            authorizationFeatureService.preloadAuthorizations(context, features, singletonList(obj));
             authorizations = new ArrayList<>();
             for (AuthorizationFeature f : features) {
                 if (authorizationFeatureService.isAuthorized(context, f, obj)) {
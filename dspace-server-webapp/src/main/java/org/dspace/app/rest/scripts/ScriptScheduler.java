@@ -0,0 +1,267 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.rest.scripts;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.apache.commons.lang3.EnumUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.services.ConfigurationService;
+import org.dspace.utils.DSpace;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+/**
+ * Scheduler of the scripts started from the REST api, which queues them before handing them to the
+ * {@link TaskExecutor} running them.
+ * <p>
+ * The queued scripts are started by priority class, then in the order in which they were scheduled, as long as:
+ * <ul>
+ *     <li>fewer than {@code scripts.scheduler.max-concurrent} scripts are running;</li>
+ *     <li>fewer than {@code scripts.scheduler.max-concurrent.<script>} scripts of the same name are running, a
+ *     capped script not holding back the scripts queued behind it;</li>
+ *     <li>the heap usage is below {@code scripts.scheduler.max-heap-usage} percent of the maximum heap, and the
+ *     system load average below {@code scripts.scheduler.max-cpu-load} percent of the processors. These
+ *     thresholds are ignored when no script is running, so that the queue always progresses.</li>
+ * </ul>
+ * The priority class of a script is configured by {@code scripts.scheduler.priority.<script>}. The queue is
+ * checked again whenever a script ends.
+ */
+public class ScriptScheduler {
+
+    private static final Logger log = LogManager.getLogger(ScriptScheduler.class);
+
+    /**
+     * The priority classes of the scripts, from the first to the last to be started.
+     */
+    public enum Priority {
+        HIGH,
+        NORMAL,
+        LOW
+    }
+
+    /**
+     * The outcomes of {@link #cancel(int)}.
+     */
+    public enum Cancellation {
+        /**
+         * The process was queued, and will not be started.
+         */
+        DEQUEUED,
+        /**
+         * The thread running the process was interrupted.
+         */
+        INTERRUPTED,
+        /**
+         * The process is neither queued nor running.
+         */
+        NOT_FOUND
+    }
+
+    private static final Comparator<QueuedScript> QUEUE_ORDER = Comparator
+        .comparing((QueuedScript queued) -> queued.priority)
+        .thenComparingLong(queued -> queued.sequence);
+
+    @Autowired
+    private ConfigurationService configurationService;
+
+    private TaskExecutor taskExecutor;
+
+    private final TreeSet<QueuedScript> queue = new TreeSet<>(QUEUE_ORDER);
+
+    private final Map<Integer, Thread> runningThreads = new HashMap<>();
+
+    private final Map<Integer, String> runningScripts = new HashMap<>();
+
+    private final Map<String, Integer> runningCounts = new HashMap<>();
+
+    private long sequence;
+
+    /**
+     * @return the scheduler configured as the {@code dspaceScriptScheduler} bean, or null if there is none
+     */
+    public static ScriptScheduler getInstance() {
+        return new DSpace().getServiceManager().getServiceByName("dspaceScriptScheduler", ScriptScheduler.class);
+    }
+
+    /**
+     * Queue a script, and start it right away if the limits allow it.
+     *
+     * @param processId  the id of the process representing the execution of the script
+     * @param scriptName the name of the script
+     * @param script     the script to run
+     */
+    public void schedule(int processId, String scriptName, Runnable script) {
+        synchronized (this) {
+            queue.add(new QueuedScript(processId, scriptName, getPriority(scriptName), sequence++, script));
+        }
+        dispatch();
+    }
+
+    /**
+     * Cancel a queued or running process. A queued process is removed from the queue, while the thread of a running
+     * process is interrupted, which stops the scripts checking for interruption.
+     *
+     * @param processId the id of the process
+     * @return what was done to cancel the process
+     */
+    public synchronized Cancellation cancel(int processId) {
+        Iterator<QueuedScript> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().processId == processId) {
+                iterator.remove();
+                return Cancellation.DEQUEUED;
+            }
+        }
+        Thread thread = runningThreads.get(processId);
+        if (thread != null) {
+            thread.interrupt();
+            return Cancellation.INTERRUPTED;
+        }
+        return Cancellation.NOT_FOUND;
+    }
+
+    /**
+     * @param processId the id of a process
+     * @return the position, starting from 1, of the process in the queue, or null if it is not queued
+     */
+    public synchronized Integer getQueuePosition(int processId) {
+        int position = 1;
+        for (QueuedScript queued : queue) {
+            if (queued.processId == processId) {
+                return position;
+            }
+            position++;
+        }
+        return null;
+    }
+
+    /**
+     * Start the queued scripts allowed by the limits. The scripts are handed to the executor once the lock of the
+     * scheduler is released, since a synchronous executor runs them in the current thread.
+     */
+    private void dispatch() {
+        List<QueuedScript> started = new ArrayList<>();
+        synchronized (this) {
+            int maxConcurrent = configurationService.getIntProperty("scripts.scheduler.max-concurrent", 5);
+            boolean overloaded = !runningScripts.isEmpty() && isOverloaded();
+            Iterator<QueuedScript> iterator = queue.iterator();
+            while (iterator.hasNext() && runningScripts.size() < maxConcurrent && !overloaded) {
+                QueuedScript queued = iterator.next();
+                int running = runningCounts.getOrDefault(queued.scriptName, 0);
+                if (running >= configurationService.getIntProperty(
+                        "scripts.scheduler.max-concurrent." + queued.scriptName, maxConcurrent)) {
+                    continue;
+                }
+                iterator.remove();
+                runningCounts.put(queued.scriptName, running + 1);
+                runningScripts.put(queued.processId, queued.scriptName);
+                started.add(queued);
+                // a script is running from now on, so the thresholds apply to the next ones
+                overloaded = isOverloaded();
+            }
+        }
+        for (QueuedScript queued : started) {
+            try {
+                taskExecutor.execute(() -> run(queued));
+            } catch (TaskRejectedException e) {
+                log.error("The script of process " + queued.processId + " could not be started", e);
+                release(queued);
+            }
+        }
+    }
+
+    private void run(QueuedScript queued) {
+        synchronized (this) {
+            runningThreads.put(queued.processId, Thread.currentThread());
+        }
+        try {
+            queued.script.run();
+        } finally {
+            synchronized (this) {
+                runningThreads.remove(queued.processId);
+            }
+            // do not leave a cancellation to the next script run by the same thread
+            Thread.interrupted();
+            release(queued);
+        }
+    }
+
+    private void release(QueuedScript queued) {
+        synchronized (this) {
+            runningScripts.remove(queued.processId);
+            runningCounts.merge(queued.scriptName, -1, Integer::sum);
+        }
+        dispatch();
+    }
+
+    private Priority getPriority(String scriptName) {
+        String priority = configurationService.getProperty("scripts.scheduler.priority." + scriptName);
+        return EnumUtils.getEnumIgnoreCase(Priority.class, priority, Priority.NORMAL);
+    }
+
+    /**
+     * @return true if the heap usage or the system load exceed the configured thresholds
+     */
+    protected boolean isOverloaded() {
+        int maxHeapUsage = configurationService.getIntProperty("scripts.scheduler.max-heap-usage", 85);
+        Runtime runtime = Runtime.getRuntime();
+        long heapUsage = 100 * (runtime.totalMemory() - runtime.freeMemory()) / runtime.maxMemory();
+        if (maxHeapUsage > 0 && heapUsage > maxHeapUsage) {
+            log.debug("Delaying the queued scripts, as the heap usage is {}%", heapUsage);
+            return true;
+        }
+        int maxCpuLoad = configurationService.getIntProperty("scripts.scheduler.max-cpu-load", 90);
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        // negative when the load average is not available on this platform
+        double cpuLoad = 100 * os.getSystemLoadAverage() / os.getAvailableProcessors();
+        if (maxCpuLoad > 0 && cpuLoad > maxCpuLoad) {
+            log.debug("Delaying the queued scripts, as the system load is {}% of the processors", cpuLoad);
+            return true;
+        }
+        return false;
+    }
+
+    public TaskExecutor getTaskExecutor() {
+        return taskExecutor;
+    }
+
+    public void setTaskExecutor(TaskExecutor taskExecutor) {
+        this.taskExecutor = taskExecutor;
+    }
+
+    public void setConfigurationService(ConfigurationService configurationService) {
+        this.configurationService = configurationService;
+    }
+
+    private static class QueuedScript {
+        private final int processId;
+        private final String scriptName;
+        private final Priority priority;
+        private final long sequence;
+        private final Runnable script;
+
+        QueuedScript(int processId, String scriptName, Priority priority, long sequence, Runnable script) {
+            this.processId = processId;
+            this.scriptName = scriptName;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.script = script;
+        }
+    }
+}
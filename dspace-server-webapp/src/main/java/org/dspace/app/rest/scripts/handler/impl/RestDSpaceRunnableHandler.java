@@ -22,6 +22,7 @@ import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.Options;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.logging.log4j.Logger;
+import org.dspace.app.rest.scripts.ScriptScheduler;
 import org.dspace.authorize.AuthorizeException;
 import org.dspace.content.Bitstream;
 import org.dspace.content.ProcessStatus;
@@ -270,11 +271,11 @@ public class RestDSpaceRunnableHandler implements DSpaceRunnableHandler {
     /**
      * This method will schedule a process to be run, it will trigger the run method for the Script passed along
      * to this method as well as updating the database logic for the Process representing the execution of this script
+     * The script is queued by the {@link ScriptScheduler} if one is configured, and otherwise handed directly to the
+     * "dspaceRunnableThreadExecutor"
      * @param script    The script to be ran
      */
     public void schedule(DSpaceRunnable script) {
-        TaskExecutor taskExecutor = new DSpace().getServiceManager()
-                                                .getServiceByName("dspaceRunnableThreadExecutor", TaskExecutor.class);
         Context context = new Context();
         try {
             Process process = processService.find(context, processId);
@@ -288,7 +289,13 @@ public class RestDSpaceRunnableHandler implements DSpaceRunnableHandler {
                 context.abort();
             }
         }
-        taskExecutor.execute(script);
+        ScriptScheduler scheduler = ScriptScheduler.getInstance();
+        if (scheduler != null) {
+            scheduler.schedule(processId, scriptName, script);
+        } else {
+            new DSpace().getServiceManager().getServiceByName("dspaceRunnableThreadExecutor", TaskExecutor.class)
+                        .execute(script);
+        }
     }
 
     private void appendLogToProcess(String message, ProcessLogLevel error) {
@@ -12,6 +12,7 @@ import javax.servlet.http.HttpServletRequest;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.ThreadContext;
+import org.dspace.core.SQLStatementCounter;
 import org.dspace.services.ConfigurationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.filter.AbstractRequestLoggingFilter;
@@ -30,6 +31,9 @@ import org.springframework.web.filter.AbstractRequestLoggingFilter;
  * friendly client applications (such as our angular UI), if specified as
  * X-Correlation-ID (correlationID)
  *
+ * The number of SQL statements issued while serving the request can be added
+ * to the after request log entry with logging.server.include-sql-statement-count
+ *
  * @author Andrea Bollini (andrea.bollini at 4science.it)
  */
 public class DSpaceAPIRequestLoggingFilter extends AbstractRequestLoggingFilter {
@@ -68,6 +72,7 @@ public class DSpaceAPIRequestLoggingFilter extends AbstractRequestLoggingFilter
 
     @Override
     protected void beforeRequest(HttpServletRequest request, String message) {
+        SQLStatementCounter.reset();
         ThreadContext.put("requestID", UUID.randomUUID().toString()); // Add the fishtag;
         String clientID = request.getHeader("x-correlation-id");
         if (StringUtils.isBlank(clientID)) {
@@ -87,6 +92,9 @@ public class DSpaceAPIRequestLoggingFilter extends AbstractRequestLoggingFilter
     @Override
     protected void afterRequest(HttpServletRequest request, String message) {
         if (isAfterRequestLoggingEnabled()) {
+            if (configurationService.getBooleanProperty("logging.server.include-sql-statement-count", false)) {
+                message += " [" + SQLStatementCounter.getCount() + " SQL statements]";
+            }
             logger.info(message);
         }
         ThreadContext.clearAll();
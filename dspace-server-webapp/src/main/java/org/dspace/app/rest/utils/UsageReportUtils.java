@@ -10,8 +10,12 @@ package org.dspace.app.rest.utils;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.text.ParseException;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.solr.client.solrj.SolrServerException;
@@ -24,16 +28,21 @@ import org.dspace.content.Bitstream;
 import org.dspace.content.DSpaceObject;
 import org.dspace.content.Item;
 import org.dspace.content.Site;
+import org.dspace.content.service.BitstreamService;
+import org.dspace.content.service.ItemService;
 import org.dspace.core.Constants;
 import org.dspace.core.Context;
 import org.dspace.handle.service.HandleService;
 import org.dspace.statistics.Dataset;
+import org.dspace.statistics.ObjectCount;
 import org.dspace.statistics.content.DatasetDSpaceObjectGenerator;
 import org.dspace.statistics.content.DatasetTimeGenerator;
 import org.dspace.statistics.content.DatasetTypeGenerator;
 import org.dspace.statistics.content.StatisticsDataVisits;
 import org.dspace.statistics.content.StatisticsListing;
 import org.dspace.statistics.content.StatisticsTable;
+import org.dspace.statistics.service.UsageRollupService;
+import org.dspace.statistics.util.LocationUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.rest.webmvc.ResourceNotFoundException;
 import org.springframework.stereotype.Component;
@@ -49,6 +58,15 @@ public class UsageReportUtils {
     @Autowired
     private HandleService handleService;
 
+    @Autowired
+    private UsageRollupService usageRollupService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BitstreamService bitstreamService;
+
     public static final String TOTAL_VISITS_REPORT_ID = "TotalVisits";
     public static final String TOTAL_VISITS_PER_MONTH_REPORT_ID = "TotalVisitsPerMonth";
     public static final String TOTAL_DOWNLOADS_REPORT_ID = "TotalDownloads";
@@ -135,6 +153,23 @@ public class UsageReportUtils {
      */
     private UsageReportRest resolveGlobalUsageReport(Context context)
         throws SQLException, IOException, ParseException, SolrServerException {
+        if (usageRollupService.isReportingEnabled()) {
+            UsageReportRest usageReportRest = new UsageReportRest();
+            for (ObjectCount count : usageRollupService.getTopObjects(context, Constants.ITEM, 10)) {
+                Item item = itemService.find(context, UUID.fromString(count.getValue()));
+                // as in the report of the statistics core, only the items with a handle are listed
+                if (item != null && item.getHandle() != null) {
+                    UsageReportPointDsoTotalVisitsRest totalVisitPoint = new UsageReportPointDsoTotalVisitsRest();
+                    totalVisitPoint.setType("item");
+                    totalVisitPoint.setId(item.getID().toString());
+                    totalVisitPoint.setLabel(item.getName());
+                    totalVisitPoint.addValue("views", (int) count.getCount());
+                    usageReportRest.addPoint(totalVisitPoint);
+                }
+            }
+            usageReportRest.setReportType(TOTAL_VISITS_REPORT_ID);
+            return usageReportRest;
+        }
         StatisticsListing statListing = new StatisticsListing(
             new StatisticsDataVisits());
 
@@ -176,12 +211,18 @@ public class UsageReportUtils {
      */
     private UsageReportRest resolveTotalVisits(Context context, DSpaceObject dso)
         throws SQLException, IOException, ParseException, SolrServerException {
-        Dataset dataset = this.getDSOStatsDataset(context, dso, 1, dso.getType());
-
         UsageReportRest usageReportRest = new UsageReportRest();
         UsageReportPointDsoTotalVisitsRest totalVisitPoint = new UsageReportPointDsoTotalVisitsRest();
         totalVisitPoint.setType(StringUtils.substringAfterLast(dso.getClass().getName().toLowerCase(), "."));
         totalVisitPoint.setId(dso.getID().toString());
+        if (usageRollupService.isReportingEnabled()) {
+            totalVisitPoint.setLabel(dso.getName());
+            totalVisitPoint.addValue("views", (int) usageRollupService.getTotalViews(context, dso));
+            usageReportRest.addPoint(totalVisitPoint);
+            return usageReportRest;
+        }
+
+        Dataset dataset = this.getDSOStatsDataset(context, dso, 1, dso.getType());
         if (dataset.getColLabels().size() > 0) {
             totalVisitPoint.setLabel(dso.getName());
             totalVisitPoint.addValue("views", Integer.valueOf(dataset.getMatrix()[0][0]));
@@ -205,6 +246,20 @@ public class UsageReportUtils {
      */
     private UsageReportRest resolveTotalVisitsPerMonth(Context context, DSpaceObject dso)
         throws SQLException, IOException, ParseException, SolrServerException {
+        if (usageRollupService.isReportingEnabled()) {
+            UsageReportRest usageReportRest = new UsageReportRest();
+            YearMonth now = YearMonth.now();
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMMM yyyy", context.getCurrentLocale());
+            for (Map.Entry<YearMonth, Long> month
+                : usageRollupService.getViewsPerMonth(context, dso, now.minusMonths(6), now).entrySet()) {
+                UsageReportPointDateRest monthPoint = new UsageReportPointDateRest();
+                monthPoint.setId(month.getKey().format(formatter));
+                monthPoint.addValue("views", month.getValue().intValue());
+                usageReportRest.addPoint(monthPoint);
+            }
+            return usageReportRest;
+        }
+
         StatisticsTable statisticsTable = new StatisticsTable(new StatisticsDataVisits(dso));
         DatasetTimeGenerator timeAxis = new DatasetTimeGenerator();
         // TODO month start and end as request para?
@@ -244,6 +299,21 @@ public class UsageReportUtils {
             return this.resolveTotalVisits(context, dso);
         }
 
+        if (dso instanceof org.dspace.content.Item && usageRollupService.isReportingEnabled()) {
+            UsageReportRest usageReportRest = new UsageReportRest();
+            for (ObjectCount count : usageRollupService.getTopBitstreams(context, (Item) dso, 10)) {
+                UsageReportPointDsoTotalVisitsRest totalDownloadsPoint = new UsageReportPointDsoTotalVisitsRest();
+                totalDownloadsPoint.setType("bitstream");
+                totalDownloadsPoint.setId(count.getValue());
+                // as in the report of the statistics core, deleted bitstreams are labelled with their ID
+                Bitstream bitstream = bitstreamService.find(context, UUID.fromString(count.getValue()));
+                totalDownloadsPoint.setLabel(bitstream != null ? bitstream.getName() : count.getValue());
+                totalDownloadsPoint.addValue("views", (int) count.getCount());
+                usageReportRest.addPoint(totalDownloadsPoint);
+            }
+            return usageReportRest;
+        }
+
         if (dso instanceof org.dspace.content.Item) {
             Dataset dataset = this.getDSOStatsDataset(context, dso, 1, Constants.BITSTREAM);
 
@@ -275,9 +345,18 @@ public class UsageReportUtils {
      */
     private UsageReportRest resolveTopCountries(Context context, DSpaceObject dso)
         throws SQLException, IOException, ParseException, SolrServerException {
-        Dataset dataset = this.getTypeStatsDataset(context, dso, "countryCode", 1);
-
         UsageReportRest usageReportRest = new UsageReportRest();
+        if (usageRollupService.isReportingEnabled()) {
+            for (ObjectCount count : usageRollupService.getTopCountries(context, dso, 100)) {
+                UsageReportPointCountryRest countryPoint = new UsageReportPointCountryRest();
+                countryPoint.setLabel(LocationUtils.getCountryName(count.getValue(), context.getCurrentLocale()));
+                countryPoint.addValue("views", (int) count.getCount());
+                usageReportRest.addPoint(countryPoint);
+            }
+            return usageReportRest;
+        }
+
+        Dataset dataset = this.getTypeStatsDataset(context, dso, "countryCode", 1);
         for (int i = 0; i < dataset.getColLabels().size(); i++) {
             UsageReportPointCountryRest countryPoint = new UsageReportPointCountryRest();
             countryPoint.setLabel(dataset.getColLabels().get(i));
@@ -299,9 +378,18 @@ public class UsageReportUtils {
      */
     private UsageReportRest resolveTopCities(Context context, DSpaceObject dso)
         throws SQLException, IOException, ParseException, SolrServerException {
-        Dataset dataset = this.getTypeStatsDataset(context, dso, "city", 1);
-
         UsageReportRest usageReportRest = new UsageReportRest();
+        if (usageRollupService.isReportingEnabled()) {
+            for (ObjectCount count : usageRollupService.getTopCities(context, dso, 100)) {
+                UsageReportPointCityRest cityPoint = new UsageReportPointCityRest();
+                cityPoint.setId(count.getValue());
+                cityPoint.addValue("views", (int) count.getCount());
+                usageReportRest.addPoint(cityPoint);
+            }
+            return usageReportRest;
+        }
+
+        Dataset dataset = this.getTypeStatsDataset(context, dso, "city", 1);
         for (int i = 0; i < dataset.getColLabels().size(); i++) {
             UsageReportPointCityRest cityPoint = new UsageReportPointCityRest();
             cityPoint.setId(dataset.getColLabels().get(i));
@@ -11,8 +11,15 @@ import static org.dspace.app.rest.matcher.ProcessMatcher.matchProcess;
 import static org.dspace.content.ProcessStatus.SCHEDULED;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.emptyString;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -29,6 +36,7 @@ import org.apache.commons.io.IOUtils;
 import org.dspace.app.rest.matcher.PageMatcher;
 import org.dspace.app.rest.matcher.ProcessFileTypesMatcher;
 import org.dspace.app.rest.matcher.ProcessMatcher;
+import org.dspace.app.rest.scripts.ScriptScheduler;
 import org.dspace.app.rest.test.AbstractControllerIntegrationTest;
 import org.dspace.builder.ProcessBuilder;
 import org.dspace.content.Bitstream;
@@ -37,6 +45,7 @@ import org.dspace.scripts.DSpaceCommandLineParameter;
 import org.dspace.scripts.Process;
 import org.dspace.scripts.ProcessLogLevel;
 import org.dspace.scripts.service.ProcessService;
+import org.dspace.services.ConfigurationService;
 import org.hamcrest.Matchers;
 import org.junit.Before;
 import org.junit.Test;
@@ -47,6 +56,9 @@ public class ProcessRestRepositoryIT extends AbstractControllerIntegrationTest {
     @Autowired
     private ProcessService processService;
 
+    @Autowired
+    private ConfigurationService configurationService;
+
     Process process;
 
     LinkedList<DSpaceCommandLineParameter> parameters = new LinkedList<>();
@@ -877,4 +889,80 @@ public class ProcessRestRepositoryIT extends AbstractControllerIntegrationTest {
                                             is("script_output")));
 
     }
+
+    @Test
+    public void getProcessLiveLog() throws Exception {
+        Process process1 = ProcessBuilder.createProcess(context, eperson, "mock-script", parameters).build();
+
+        processService.appendLog(process1.getID(), process1.getName(), "first line", ProcessLogLevel.INFO);
+        processService.appendLog(process1.getID(), process1.getName(), "second line", ProcessLogLevel.WARNING);
+
+        String token = getAuthToken(admin.getEmail(), password);
+        String log = getClient(token).perform(get("/api/system/processes/" + process1.getID() + "/log"))
+                                     .andExpect(status().isOk())
+                                     .andExpect(content().string(containsString("INFO mock-script - "
+                                                                                    + process1.getID()
+                                                                                    + " @ first line")))
+                                     .andReturn().getResponse().getContentAsString();
+
+        processService.appendLog(process1.getID(), process1.getName(), "third line", ProcessLogLevel.INFO);
+
+        // only the lines written since the given offset are returned
+        getClient(token).perform(get("/api/system/processes/" + process1.getID() + "/log")
+                                     .param("offset", String.valueOf(log.getBytes("UTF-8").length)))
+                        .andExpect(status().isOk())
+                        .andExpect(content().string(endsWith("@ third line" + System.lineSeparator())));
+
+        getClient().perform(get("/api/system/processes/" + process1.getID() + "/log"))
+                   .andExpect(status().isUnauthorized());
+
+        processService.createLogBitstream(context, process1);
+
+        // once stored in the output bitstream, the logs are no longer followed
+        getClient(token).perform(get("/api/system/processes/" + process1.getID() + "/log"))
+                        .andExpect(status().isNoContent())
+                        .andExpect(content().string(emptyString()));
+    }
+
+    @Test
+    public void cancelQueuedProcess() throws Exception {
+        Process process1 = ProcessBuilder.createProcess(context, eperson, "mock-script", parameters).build();
+        Process process2 = ProcessBuilder.createProcess(context, eperson, "mock-script", parameters).build();
+        ScriptScheduler scheduler = ScriptScheduler.getInstance();
+        List<Integer> ranProcesses = new LinkedList<>();
+
+        // no script may start, so that both processes stay queued
+        configurationService.setProperty("scripts.scheduler.max-concurrent", 0);
+        try {
+            scheduler.schedule(process1.getID(), "mock-script", () -> ranProcesses.add(process1.getID()));
+            scheduler.schedule(process2.getID(), "mock-script", () -> ranProcesses.add(process2.getID()));
+
+            String token = getAuthToken(admin.getEmail(), password);
+            getClient(token).perform(get("/api/system/processes/" + process2.getID()))
+                            .andExpect(status().isOk())
+                            .andExpect(jsonPath("$.processStatus", is("SCHEDULED")))
+                            .andExpect(jsonPath("$.queuePosition", is(2)));
+
+            getClient().perform(post("/api/system/processes/" + process1.getID() + "/cancel"))
+                       .andExpect(status().isUnauthorized());
+
+            getClient(token).perform(post("/api/system/processes/" + process1.getID() + "/cancel"))
+                            .andExpect(status().isNoContent());
+
+            getClient(token).perform(get("/api/system/processes/" + process1.getID()))
+                            .andExpect(status().isOk())
+                            .andExpect(jsonPath("$.processStatus", is("FAILED")))
+                            .andExpect(jsonPath("$.queuePosition", nullValue()));
+            getClient(token).perform(get("/api/system/processes/" + process2.getID()))
+                            .andExpect(jsonPath("$.queuePosition", is(1)));
+
+            // a cancelled process is no longer known to the scheduler
+            getClient(token).perform(post("/api/system/processes/" + process1.getID() + "/cancel"))
+                            .andExpect(status().isUnprocessableEntity());
+        } finally {
+            configurationService.setProperty("scripts.scheduler.max-concurrent", null);
+            scheduler.cancel(process2.getID());
+        }
+        assertTrue(ranProcesses.isEmpty());
+    }
 }
@@ -1473,6 +1473,107 @@ public class StatisticsRestRepositoryIT extends AbstractControllerIntegrationTes
             )));
     }
 
+    @Test
+    public void usageReportsSearch_ItemVisited_FilesVisited_FromRollups() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Bitstream bitstream1 =
+            BitstreamBuilder.createBitstream(context, itemVisited, toInputStream("test", UTF_8)).withName("bitstream1")
+                            .build();
+        Bitstream bitstream2 =
+            BitstreamBuilder.createBitstream(context, itemVisited, toInputStream("test", UTF_8)).withName("bitstream2")
+                            .build();
+        context.restoreAuthSystemState();
+        configurationService.setProperty("usage-statistics.rollup.enabled", true);
+        configurationService.setProperty("usage-statistics.rollup.reports", true);
+
+        // ** WHEN **
+        // We visit an item
+        ViewEventRest viewEventRest = new ViewEventRest();
+        viewEventRest.setTargetType("item");
+        viewEventRest.setTargetId(itemVisited.getID());
+
+        ObjectMapper mapper = new ObjectMapper();
+
+        getClient().perform(post("/api/statistics/viewevents")
+            .content(mapper.writeValueAsBytes(viewEventRest))
+            .contentType(contentType))
+                   .andExpect(status().isCreated());
+
+        // And its two files, second one twice
+        ViewEventRest viewEventRestBit1 = new ViewEventRest();
+        viewEventRestBit1.setTargetType("bitstream");
+        viewEventRestBit1.setTargetId(bitstream1.getID());
+        ViewEventRest viewEventRestBit2 = new ViewEventRest();
+        viewEventRestBit2.setTargetType("bitstream");
+        viewEventRestBit2.setTargetId(bitstream2.getID());
+
+        getClient().perform(post("/api/statistics/viewevents")
+            .content(mapper.writeValueAsBytes(viewEventRestBit1))
+            .contentType(contentType))
+                   .andExpect(status().isCreated());
+        getClient().perform(post("/api/statistics/viewevents")
+            .content(mapper.writeValueAsBytes(viewEventRestBit2))
+            .contentType(contentType))
+                   .andExpect(status().isCreated());
+        getClient().perform(post("/api/statistics/viewevents")
+            .content(mapper.writeValueAsBytes(viewEventRestBit2))
+            .contentType(contentType))
+                   .andExpect(status().isCreated());
+
+        // the views are only found in the rollups
+        StatisticsServiceFactory.getInstance().getSolrLoggerService().removeIndex("*:*");
+        StatisticsServiceFactory.getInstance().getUsageRollupService().flush();
+
+        // And request the item usage reports, answered from the rollups
+        try {
+            getClient(adminToken)
+                .perform(get("/api/statistics/usagereports/search/object?uri=http://localhost:8080/server/api/core" +
+                             "/items/" + itemVisited.getID()))
+                // ** THEN **
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.usagereports", not(empty())))
+                .andExpect(jsonPath("$._embedded.usagereports", Matchers.containsInAnyOrder(
+                    UsageReportMatcher.matchUsageReport(
+                        itemVisited.getID() + "_" + TOTAL_VISITS_REPORT_ID,
+                        TOTAL_VISITS_REPORT_ID,
+                        List.of(
+                            getExpectedDsoViews(itemVisited, 1)
+                        )
+                    ),
+                    UsageReportMatcher.matchUsageReport(
+                        itemVisited.getID() + "_" + TOTAL_VISITS_PER_MONTH_REPORT_ID,
+                        TOTAL_VISITS_PER_MONTH_REPORT_ID,
+                        getListOfVisitsPerMonthsPoints(1)
+                    ),
+                    UsageReportMatcher.matchUsageReport(
+                        itemVisited.getID() + "_" + TOP_CITIES_REPORT_ID,
+                        TOP_CITIES_REPORT_ID,
+                        List.of(
+                            getExpectedCityViews("New York", 1)
+                        )
+                    ),
+                    UsageReportMatcher.matchUsageReport(
+                        itemVisited.getID() + "_" + TOP_COUNTRIES_REPORT_ID,
+                        TOP_COUNTRIES_REPORT_ID,
+                        List.of(
+                            getExpectedCountryViews("US", "United States", 1)
+                        )
+                    ),
+                    UsageReportMatcher.matchUsageReport(
+                        itemVisited.getID() + "_" + TOTAL_DOWNLOADS_REPORT_ID,
+                        TOTAL_DOWNLOADS_REPORT_ID,
+                        List.of(
+                            getExpectedDsoViews(bitstream1, 1),
+                            getExpectedDsoViews(bitstream2, 2)
+                        )
+                    )
+                )));
+        } finally {
+            configurationService.setProperty("usage-statistics.rollup.enabled", false);
+            configurationService.setProperty("usage-statistics.rollup.reports", false);
+        }
+    }
+
     @Test
     public void usageReportsSearch_Bitstream_Visited() throws Exception {
         // ** WHEN **
@@ -0,0 +1,165 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.rest.scripts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.dspace.app.rest.scripts.ScriptScheduler.Cancellation;
+import org.dspace.services.ConfigurationService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * This class' purpose is to test the queueing of the {@link ScriptScheduler}, using an executor which only
+ * records the started scripts.
+ */
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ScriptSchedulerTest {
+
+    @Mock
+    private ConfigurationService configurationService;
+
+    private final Map<String, String> properties = new HashMap<>();
+
+    private final List<Runnable> startedTasks = new ArrayList<>();
+
+    private final List<Integer> ranProcesses = new ArrayList<>();
+
+    private boolean overloaded;
+
+    private ScriptScheduler scheduler;
+
+    @Before
+    public void setUp() throws Exception {
+        when(configurationService.getIntProperty(anyString(), anyInt())).thenAnswer(invocation -> {
+            String value = properties.get(invocation.getArgument(0, String.class));
+            return value != null ? Integer.parseInt(value) : invocation.getArgument(1, Integer.class);
+        });
+        when(configurationService.getProperty(anyString()))
+            .thenAnswer(invocation -> properties.get(invocation.getArgument(0, String.class)));
+        scheduler = new ScriptScheduler() {
+            @Override
+            protected boolean isOverloaded() {
+                return overloaded;
+            }
+        };
+        scheduler.setConfigurationService(configurationService);
+        scheduler.setTaskExecutor(startedTasks::add);
+    }
+
+    @Test
+    public void testConcurrencyCaps() {
+        properties.put("scripts.scheduler.max-concurrent", "2");
+        properties.put("scripts.scheduler.max-concurrent.a", "1");
+
+        schedule(1, "a");
+        schedule(2, "a");
+        schedule(3, "b");
+        schedule(4, "b");
+
+        // the second "a" does not hold back the first "b"
+        assertEquals(2, startedTasks.size());
+        assertEquals(Integer.valueOf(1), scheduler.getQueuePosition(2));
+        assertEquals(Integer.valueOf(2), scheduler.getQueuePosition(4));
+        assertNull(scheduler.getQueuePosition(3));
+
+        runTask(0);
+        assertEquals(3, startedTasks.size());
+        assertNull(scheduler.getQueuePosition(2));
+        assertEquals(Integer.valueOf(1), scheduler.getQueuePosition(4));
+
+        runTask(1);
+        runTask(2);
+        runTask(3);
+        assertEquals(List.of(1, 3, 2, 4), ranProcesses);
+    }
+
+    @Test
+    public void testPriorities() {
+        properties.put("scripts.scheduler.max-concurrent", "1");
+        properties.put("scripts.scheduler.priority.low", "low");
+        properties.put("scripts.scheduler.priority.high", "HIGH");
+
+        schedule(1, "normal");
+        schedule(2, "low");
+        schedule(3, "normal");
+        schedule(4, "high");
+
+        assertEquals(Integer.valueOf(1), scheduler.getQueuePosition(4));
+        assertEquals(Integer.valueOf(2), scheduler.getQueuePosition(3));
+        assertEquals(Integer.valueOf(3), scheduler.getQueuePosition(2));
+
+        for (int i = 0; i < 4; i++) {
+            runTask(i);
+        }
+        assertEquals(List.of(1, 4, 3, 2), ranProcesses);
+    }
+
+    @Test
+    public void testAdmissionControl() {
+        overloaded = true;
+
+        // a script is started when none is running, whatever the load
+        schedule(1, "a");
+        schedule(2, "b");
+        assertEquals(1, startedTasks.size());
+        assertEquals(Integer.valueOf(1), scheduler.getQueuePosition(2));
+
+        overloaded = false;
+        runTask(0);
+        assertEquals(2, startedTasks.size());
+        assertNull(scheduler.getQueuePosition(2));
+    }
+
+    @Test
+    public void testCancel() {
+        properties.put("scripts.scheduler.max-concurrent", "1");
+        List<Boolean> interrupted = new ArrayList<>();
+        scheduler.schedule(1, "a", () -> {
+            assertEquals(Cancellation.INTERRUPTED, scheduler.cancel(1));
+            interrupted.add(Thread.currentThread().isInterrupted());
+        });
+        schedule(2, "a");
+        schedule(3, "a");
+
+        assertEquals(Cancellation.DEQUEUED, scheduler.cancel(2));
+        assertNull(scheduler.getQueuePosition(2));
+        assertEquals(Cancellation.NOT_FOUND, scheduler.cancel(2));
+
+        runTask(0);
+        assertEquals(List.of(true), interrupted);
+        // the interruption does not outlive the cancelled script
+        assertFalse(Thread.currentThread().isInterrupted());
+        assertEquals(Cancellation.NOT_FOUND, scheduler.cancel(1));
+
+        assertEquals(2, startedTasks.size());
+        runTask(1);
+        assertEquals(List.of(3), ranProcesses);
+    }
+
+    private void schedule(int processId, String scriptName) {
+        scheduler.schedule(processId, scriptName, () -> ranProcesses.add(processId));
+    }
+
+    private void runTask(int index) {
+        startedTasks.get(index).run();
+    }
+}
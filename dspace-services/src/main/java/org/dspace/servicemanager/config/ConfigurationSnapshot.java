@@ -0,0 +1,72 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.servicemanager.config;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Cache of the typed property values read from one state of the configuration. A snapshot is never updated when
+ * the configuration changes: {@link DSpaceConfigurationService} replaces it by an empty one instead, so that the
+ * properties are read without locking.
+ * <p>
+ * Only immutable types, and arrays of strings (copied on each read), are cached.
+ */
+final class ConfigurationSnapshot {
+
+    /**
+     * Value cached for a property which is not in the configuration.
+     */
+    static final Object ABSENT = new Object();
+
+    /**
+     * Value cached for a property converted to null.
+     */
+    private static final Object NULL = new Object();
+
+    private static final Set<Class<?>> CACHEABLE_TYPES = Set.of(
+        Object.class, String.class, String[].class, BigDecimal.class, BigInteger.class,
+        Boolean.class, boolean.class, Byte.class, byte.class, Double.class, double.class,
+        Float.class, float.class, Integer.class, int.class, Long.class, long.class, Short.class, short.class);
+
+    private final Map<Class<?>, Map<String, Object>> values = new ConcurrentHashMap<>();
+
+    /**
+     * Get the value of a property, converted to a type.
+     *
+     * @param name   key of the property
+     * @param type   type of the value
+     * @param loader function reading the value from the configuration, returning {@link #ABSENT} if the property
+     *               is not in the configuration. It is called when the value is not cached yet.
+     * @return the converted value, or {@link #ABSENT}
+     */
+    Object get(String name, Class<?> type, Function<String, Object> loader) {
+        if (!CACHEABLE_TYPES.contains(type)) {
+            return loader.apply(name);
+        }
+        Map<String, Object> typedValues = values.get(type);
+        if (typedValues == null) {
+            typedValues = values.computeIfAbsent(type, t -> new ConcurrentHashMap<>());
+        }
+        Object value = typedValues.get(name);
+        if (value == null) {
+            value = loader.apply(name);
+            typedValues.putIfAbsent(name, value != null ? value : NULL);
+        } else if (value == NULL) {
+            value = null;
+        }
+        if (value instanceof String[]) {
+            return ((String[]) value).clone();
+        }
+        return value;
+    }
+}
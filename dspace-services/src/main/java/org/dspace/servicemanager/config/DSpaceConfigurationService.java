@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.configuration2.ConfigurationConverter;
@@ -39,6 +40,10 @@ import org.springframework.core.io.ClassPathResource;
 /**
  * The central DSpace configuration service. Uses Apache Commons Configuration
  * to provide the ability to reload Property files.
+ * <P>
+ * Property values are cached, per requested type, in a snapshot which is
+ * discarded whenever the configuration is changed through this service or
+ * reloaded, so that the many concurrent reads do not lock.
  *
  * @author Tim Donohue (rewrote to use Apache Commons Config
  * @author Aaron Zeckoski
@@ -71,6 +76,17 @@ public final class DSpaceConfigurationService implements ConfigurationService {
     // NOTE: we only cache the "builder", as it controls when a configuration is automatically reloaded
     private ReloadingCombinedConfigurationBuilder configurationBuilder = null;
 
+    // Typed property values read since the configuration last changed
+    // NOTE: property reads only go through the configuration when the value is not cached yet, so they do not lock
+    private final AtomicReference<ConfigurationSnapshot> snapshot =
+        new AtomicReference<>(new ConfigurationSnapshot());
+
+    // Minimum time (in milliseconds) between two checks for automatic reloading made by cached property reads
+    private static final long RELOAD_CHECK_INTERVAL = 1000;
+
+    // Time of the last check for automatic reloading made by a cached property read
+    private volatile long lastReloadCheck = 0;
+
     // Current Home directory
     private String homePath = null;
 
@@ -145,6 +161,9 @@ public final class DSpaceConfigurationService implements ConfigurationService {
 
     /**
      * Returns all loaded properties as a Configuration object.
+     * <P>
+     * Changes made directly to this object are not seen by the get*Property()
+     * methods, which may return cached values: use setProperty() instead.
      *
      * @see org.dspace.services.ConfigurationService#getConfiguration()
      */
@@ -177,7 +196,7 @@ public final class DSpaceConfigurationService implements ConfigurationService {
      * @see org.dspace.services.ConfigurationService#getProperty(java.lang.String)
      */
     @Override
-    public synchronized String getProperty(String name) {
+    public String getProperty(String name) {
         return getProperty(name, null);
     }
 
@@ -188,7 +207,7 @@ public final class DSpaceConfigurationService implements ConfigurationService {
      * @see org.dspace.services.ConfigurationService#getProperty(java.lang.String, java.lang.String)
      */
     @Override
-    public synchronized String getProperty(String name, String defaultValue) {
+    public String getProperty(String name, String defaultValue) {
         return getPropertyAsType(name, defaultValue);
     }
 
@@ -292,8 +311,14 @@ public final class DSpaceConfigurationService implements ConfigurationService {
      * @see org.dspace.services.ConfigurationService#getPropertyAsType(java.lang.String, java.lang.Class)
      */
     @Override
+    @SuppressWarnings("unchecked")
     public <T> T getPropertyAsType(String name, Class<T> type) {
-        return convert(name, type);
+        Object value = getCachedValue(name, type);
+        if (value == ConfigurationSnapshot.ABSENT) {
+            // Special case. For booleans, return false if key doesn't exist
+            return Boolean.class.equals(type) || boolean.class.equals(type) ? (T) Boolean.FALSE : null;
+        }
+        return (T) value;
     }
 
     /* (non-Javadoc)
@@ -310,8 +335,17 @@ public final class DSpaceConfigurationService implements ConfigurationService {
     @Override
     public <T> T getPropertyAsType(String name, T defaultValue, boolean setDefaultIfNotFound) {
 
+        // Avoid NPE. If null defaultValue passed in, assume Object class
+        Class type = Object.class;
+        if (defaultValue != null) {
+            // Get the class associated with our default value
+            type = defaultValue.getClass();
+        }
+
+        Object value = getCachedValue(name, type);
+
         // If this key doesn't exist, immediately return a value
-        if (!hasProperty(name)) {
+        if (value == ConfigurationSnapshot.ABSENT) {
             // if flag is set, save the default value as the new value for this property
             if (setDefaultIfNotFound) {
                 setProperty(name, defaultValue);
@@ -321,14 +355,7 @@ public final class DSpaceConfigurationService implements ConfigurationService {
             return defaultValue;
         }
 
-        // Avoid NPE. If null defaultValue passed in, assume Object class
-        Class type = Object.class;
-        if (defaultValue != null) {
-            // Get the class associated with our default value
-            type = defaultValue.getClass();
-        }
-
-        return (T) convert(name, type);
+        return (T) value;
     }
 
 
@@ -339,11 +366,45 @@ public final class DSpaceConfigurationService implements ConfigurationService {
      */
     @Override
     public boolean hasProperty(String name) {
-        if (getConfiguration().containsKey(name)) {
-            return true;
-        } else {
-            return false;
+        return getCachedValue(name, String.class) != ConfigurationSnapshot.ABSENT;
+    }
+
+    /**
+     * Get the value of a property converted to a type, from the snapshot of the configuration if it is cached
+     * there, and otherwise from the configuration.
+     *
+     * @param name Key of the property
+     * @param type type of the value
+     * @return the converted value, or {@link ConfigurationSnapshot#ABSENT} if the property does not exist
+     */
+    private Object getCachedValue(String name, Class<?> type) {
+        long now = System.currentTimeMillis();
+        if (now - lastReloadCheck >= RELOAD_CHECK_INTERVAL) {
+            // Cached reads do not access the builder, so trigger its checks for automatic reloading (which reset the
+            // snapshot when a file has changed) from time to time
+            lastReloadCheck = now;
+            this.configurationBuilder.getReloadingController().checkForReloading(null);
         }
+        return snapshot.get().get(name, type, key -> loadValue(key, type));
+    }
+
+    /**
+     * Read the value of a property from the configuration. This is synchronized with the changes of the
+     * configuration, which is not thread-safe, but only happens when the value is not cached.
+     *
+     * @param name Key of the property
+     * @param type type of the value
+     * @return the converted value, or {@link ConfigurationSnapshot#ABSENT} if the property does not exist
+     */
+    private synchronized Object loadValue(String name, Class<?> type) {
+        return getConfiguration().containsKey(name) ? convert(name, type) : ConfigurationSnapshot.ABSENT;
+    }
+
+    /**
+     * Discard the property values read from the configuration so far, as it has changed.
+     */
+    private void resetSnapshot() {
+        snapshot.set(new ConfigurationSnapshot());
     }
 
     @Override
@@ -363,6 +424,7 @@ public final class DSpaceConfigurationService implements ConfigurationService {
         Configuration configuration = getConfiguration();
         boolean isNew = !configuration.containsKey(name);
         configuration.addProperty(name, value);
+        resetSnapshot();
         return isNew;
     }
 
@@ -391,6 +453,9 @@ public final class DSpaceConfigurationService implements ConfigurationService {
                 getConfiguration().setProperty(name, value);
             }
         }
+        if (changed) {
+            resetSnapshot();
+        }
         return changed;
     }
 
@@ -451,6 +516,7 @@ public final class DSpaceConfigurationService implements ConfigurationService {
             // Either this config doesn't exist, or it is not the same value,
             // so we'll update it.
             getConfiguration().setProperty(key, value);
+            resetSnapshot();
             return true;
         }
     }
@@ -460,6 +526,7 @@ public final class DSpaceConfigurationService implements ConfigurationService {
      */
     public void clear() {
         getConfiguration().clear();
+        resetSnapshot();
         log.info("Cleared all configuration settings");
     }
 
@@ -470,6 +537,7 @@ public final class DSpaceConfigurationService implements ConfigurationService {
      */
     public void clearConfig(String key) {
         getConfiguration().clearProperty(key);
+        resetSnapshot();
     }
 
     // loading from files code
@@ -526,6 +594,9 @@ public final class DSpaceConfigurationService implements ConfigurationService {
                 // Auto-reloadable configs are ONLY those flagged config-reload="true" in the configuration definition
                 (Event e) -> this.configurationBuilder.getReloadingController()
                                                       .checkForReloading(null));
+
+            // Discard the cached property values whenever a configuration file is reloaded
+            this.configurationBuilder.addEventListener(ConfigurationBuilderEvent.RESET, (Event e) -> resetSnapshot());
         } catch (ConfigurationException ce) {
             log.error("Unable to load configurations based on definition at " + this.configDefinition);
             System.err.println("Unable to load configurations based on definition at " + this.configDefinition);
@@ -553,6 +624,7 @@ public final class DSpaceConfigurationService implements ConfigurationService {
 
             // Reload/reinitialize our configuration
             this.configurationBuilder.getConfiguration();
+            resetSnapshot();
 
             // Finally, (re)set any dynamic, default properties
             setDynamicProperties();
@@ -17,10 +17,19 @@ import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
-
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.configuration2.PropertiesConfiguration;
 import org.apache.commons.configuration2.builder.FileBasedConfigurationBuilder;
 import org.apache.commons.configuration2.builder.fluent.Configurations;
@@ -29,6 +38,8 @@ import org.apache.commons.io.FileUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 
 /**
@@ -38,6 +49,11 @@ import org.junit.Test;
  */
 public class DSpaceConfigurationServiceTest {
 
+    private static final Logger log = LoggerFactory.getLogger(DSpaceConfigurationServiceTest.class);
+
+    private static final int READ_THREADS = 16;
+    private static final long READ_MILLIS = 500;
+
     DSpaceConfigurationService configurationService;
     int numPropsLoaded;
 
@@ -431,6 +447,113 @@ public class DSpaceConfigurationServiceTest {
 
     }
 
+    /**
+     * Tests that the cached property values follow the changes of the configuration.
+     */
+    @Test
+    public void testCachedPropertiesFollowChanges() {
+        assertEquals(123, configurationService.getIntProperty("sample.number"));
+        configurationService.setProperty("sample.number", "456");
+        assertEquals(456, configurationService.getIntProperty("sample.number"));
+        assertEquals("456", configurationService.getProperty("sample.number"));
+
+        // Values interpolated from a changed property are not cached either
+        assertEquals("Aaron Zeckoski", configurationService.getProperty("current.user"));
+        configurationService.setProperty("aaronz", "Tim Donohue");
+        assertEquals("Tim Donohue", configurationService.getProperty("current.user"));
+
+        // Cached arrays cannot be modified by their readers
+        String[] array = configurationService.getArrayProperty("sample.array");
+        array[0] = "changed";
+        assertEquals("itemA", configurationService.getArrayProperty("sample.array")[0]);
+        configurationService.addPropertyValue("sample.array", "itemD");
+        assertEquals(4, configurationService.getArrayProperty("sample.array").length);
+
+        assertTrue(configurationService.hasProperty("test.key1"));
+        configurationService.clearConfig("test.key1");
+        assertFalse(configurationService.hasProperty("test.key1"));
+        assertNull(configurationService.getProperty("test.key1"));
+        configurationService.loadConfig("test.key1", "New value");
+        assertEquals("New value", configurationService.getProperty("test.key1"));
+    }
+
+    /**
+     * Tests that many threads read consistent property values while the configuration changes.
+     */
+    @Test
+    public void testConcurrentPropertyReads() throws Exception {
+        int threads = 64;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Future<Boolean>> readers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            readers.add(executor.submit(() -> {
+                boolean consistent = true;
+                while (writing.get()) {
+                    int number = configurationService.getIntProperty("sample.number", 0);
+                    consistent &= number == 123 || number == 456;
+                    consistent &= "DSpace".equals(configurationService.getProperty("service.name"));
+                }
+                return consistent;
+            }));
+        }
+        for (int i = 0; i < 1000; i++) {
+            configurationService.setProperty("sample.number", i % 2 == 0 ? "456" : "123");
+        }
+        writing.set(false);
+        for (Future<Boolean> reader : readers) {
+            assertTrue(reader.get(10, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        // the readers have stopped, the next value is seen at once
+        configurationService.setProperty("sample.number", "789");
+        assertEquals(789, configurationService.getIntProperty("sample.number", 0));
+    }
+
+    /**
+     * Compares the throughput of the property reads from the snapshot with reads synchronized on the service, as
+     * they were made before the snapshot. The rates are only logged, as they depend on the machine and its load.
+     */
+    @Test
+    public void testConcurrentPropertyReadThroughput() throws Exception {
+        long synchronizedReads = countConcurrentReads(() -> {
+            synchronized (configurationService) {
+                Configuration configuration = configurationService.getConfiguration();
+                return configuration.containsKey("sample.number") ? configuration.getInt("sample.number") : 0;
+            }
+        });
+        long snapshotReads = countConcurrentReads(() -> configurationService.getIntProperty("sample.number", 0));
+        log.info("Property reads by {} threads in {} ms: {} synchronized on the service, {} from the snapshot",
+                 READ_THREADS, READ_MILLIS, synchronizedReads, snapshotReads);
+    }
+
+    /**
+     * @return the number of reads made by {@link #READ_THREADS} threads in {@link #READ_MILLIS} milliseconds
+     */
+    private long countConcurrentReads(Callable<Integer> read) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(READ_THREADS);
+        AtomicBoolean reading = new AtomicBoolean(true);
+        List<Future<Long>> readers = new ArrayList<>();
+        for (int i = 0; i < READ_THREADS; i++) {
+            readers.add(executor.submit(() -> {
+                long reads = 0;
+                while (reading.get()) {
+                    read.call();
+                    reads++;
+                }
+                return reads;
+            }));
+        }
+        Thread.sleep(READ_MILLIS);
+        reading.set(false);
+        long reads = 0;
+        for (Future<Long> reader : readers) {
+            reads += reader.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        return reads;
+    }
+
     /**
      * Test method for {@link org.dspace.servicemanager.config.DSpaceConfigurationService#getConfiguration()}.
      */